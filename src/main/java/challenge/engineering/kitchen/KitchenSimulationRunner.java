@@ -1,27 +1,57 @@
 package challenge.engineering.kitchen;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import challenge.engineering.kitchen.config.CityConfig;
 import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.config.SteadyStateConfig;
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.handling.OrderExporterImpl;
 import challenge.engineering.kitchen.handling.StatManager;
 import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.handling.StatSnapshot;
+import challenge.engineering.kitchen.handling.TrialResult;
 import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderStream;
+import challenge.engineering.kitchen.model.Strategy;
+import challenge.engineering.kitchen.runner.AdaptiveTrialRunner;
+import challenge.engineering.kitchen.runner.CapacitySearchRunner;
+import challenge.engineering.kitchen.runner.DistributedTrialCoordinator;
+import challenge.engineering.kitchen.runner.PairedComparison;
+import challenge.engineering.kitchen.runner.ParameterSweepRunner;
+import challenge.engineering.kitchen.runner.TrialPlan;
+import challenge.engineering.kitchen.runner.TrialCheckpoint;
+import challenge.engineering.kitchen.runner.TrialPlanner;
+import challenge.engineering.kitchen.runner.TrialScheduler;
+import challenge.engineering.kitchen.simulation.CitySimulation;
 import challenge.engineering.kitchen.simulation.KitchenSimulation;
 import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+import challenge.engineering.kitchen.simulation.KitchenSimulationPool;
+import challenge.engineering.kitchen.simulation.SharedTimelineSimulation;
+import challenge.engineering.kitchen.simulation.TrialTimeline;
 
 /**
  * 
@@ -36,22 +66,25 @@ public class KitchenSimulationRunner {
     static Logger log = LoggerFactory.getLogger(KitchenSimulationRunner.class);
 
 	public static void main(String[] args) throws KitchenSimulationException {
-	   
-	    long startTime = System.currentTimeMillis();
-		
 	    // a configuration file is required with at least one strategy included 
 	    // (with the minimum required properties: 'name', 'courierMatchedToOrder') 
 		if (ArrayUtils.isEmpty(args) || args.length != 1) {
             throw new KitchenSimulationException(
                     "Incorrect parameters: expected: java -jar KitchenSimulation.jar <config.json>");
         }
-		
-		String configFilename = args[0];
+		run(args[0]);
+	}
+	
+	/**
+	 * Run the simulations of a configuration file and report the stats of each strategy
+	 * <p>
+	 * @param configFilename  the path to the kitchen simulation configuration json file
+	 * @return  the stats that were reported, covering every order completed by the run
+	 * @throws KitchenSimulationException  if the configuration is invalid or the run fails
+	 */
+	public static StatManager run(String configFilename) throws KitchenSimulationException {
+	    long startTime = System.currentTimeMillis();
 		KitchenSimulationConfig config = KitchenSimulationConfig.load(configFilename);
-		if (CollectionUtils.isEmpty(config.getStrategies())) {
-			throw new KitchenSimulationException( "At least one strategy must be included in config file: " + configFilename);
-		}
-		
 		List<KitchenOrder> kitchenOrders = ListUtils.unmodifiableList(KitchenOrder.load(config.getOrderJsonFile()));
 		if (config.getOrdersPerTrial() > kitchenOrders.size()) {
 		    throw new KitchenSimulationException("In the configuration file, ordersPerTrial must be less than or equal to the number of orders in orderJsonFile");
@@ -66,37 +99,323 @@ public class KitchenSimulationRunner {
 		    }
 		}
 		
-		StatManager statManager = new StatManagerImpl(config.isUsingFullStatistics());
 		// if 0, then use all orders found in orderJsonFile
 		int ordersPerTrial = (config.getOrdersPerTrial() == 0) ? kitchenOrders.size() : config.getOrdersPerTrial();
 		
-		List<KitchenSimulation> simulations = new ArrayList<>();
+		TrialCheckpoint checkpoint = openCheckpoint(config, configFilename);
+		TrialPlanner planner = TrialPlanner.fromConfig(config, kitchenOrders, ordersPerTrial);
+		if (checkpoint != null) {
+		    checkpoint.setRandomSeed(planner.getSeed());
+		    checkpoint.start();
+		}
+		OrderExporter orderExporter = (config.getOrderExport() == null) ? null 
+		        : new OrderExporterImpl(Paths.get(config.getOrderExport().getFile()), config.getOrderExport().getRowsPerBlock());
+		
+		try {
+		    if (config.getDistributed() != null) {
+		        StatManager distributedResults = runDistributed(config, configFilename, planner, checkpoint);
+		        distributedResults.reportResults(startTime);
+		        return distributedResults;
+		    }
+		    
+		    if (config.getSweep() != null) {
+		        ParameterSweepRunner sweepRunner = new ParameterSweepRunner(config, planner);
+		        sweepRunner.setCheckpoint(checkpoint);
+		        sweepRunner.setOrderExporter(orderExporter);
+		        StatManager sweepResults = sweepRunner.run();
+		        sweepResults.reportResults(startTime);
+		        return sweepResults;
+		    }
+		    
+		    if (config.getCity() != null) {
+		        return runCities(config, planner, orderExporter, startTime);
+		    }
+		    
+		    if (config.getSteadyState() != null) {
+		        return runSteadyState(config, kitchenOrders, orderExporter, startTime);
+		    }
+		    
+		    if (config.getCapacitySearch() != null) {
+		        // percentiles of the courier wait time need full statistics
+		        StatManager statManager = new StatManagerImpl(true);
+		        CapacitySearchRunner capacityRunner = new CapacitySearchRunner(config, planner, statManager);
+		        capacityRunner.setOrderExporter(orderExporter);
+		        Map<String, CapacitySearchRunner.StrategyCapacity> capacity = capacityRunner.run();
+		        statManager.reportResults(startTime);
+		        capacityRunner.reportCapacity(capacity);
+		        return statManager;
+		    }
+		    
+		    if (config.getAdaptiveTrials() != null) {
+		        StatManager statManager = new StatManagerImpl(config.isUsingFullStatistics());
+		        AdaptiveTrialRunner adaptiveRunner = new AdaptiveTrialRunner(config, planner, statManager);
+		        adaptiveRunner.setOrderExporter(orderExporter);
+		        Map<String, AdaptiveTrialRunner.StrategyConvergence> convergence = adaptiveRunner.run();
+		        statManager.reportResults(startTime);
+		        adaptiveRunner.reportConvergence(convergence);
+		        return statManager;
+		    }
+		    
+		    return runTrials(config, planner, checkpoint, orderExporter, startTime);
+		} finally {
+		    if (orderExporter != null) {
+		        orderExporter.close();
+		    }
+		    if (checkpoint != null) {
+		        checkpoint.close();
+		    }
+		}
+	}
+	
+	/* Open the checkpoint of the run, if one is configured, and reuse its random seed when resuming
+	 */
+	private static TrialCheckpoint openCheckpoint(KitchenSimulationConfig config, String configFilename) throws KitchenSimulationException {
+	    if (config.getCheckpoint() == null) {
+	        return null;
+	    }
+	    boolean usingFullStatistics = config.isUsingFullStatistics() || config.getSweep() != null;
+	    TrialCheckpoint checkpoint = TrialCheckpoint.open(config.getCheckpoint(), configFilename, usingFullStatistics);
+	    if (config.getRandomSeed() == null && checkpoint.getRandomSeed() != null) {
+	        config.setRandomSeed(checkpoint.getRandomSeed());
+	    }
+	    return checkpoint;
+	}
+	
+	/* Run numTrials trials of each strategy, skipping the trials already in the checkpoint
+	 * <p>
+	 * Each trial is composed as a future and scheduled with at most maxConcurrentTrials running at once, or one at a time 
+	 * when blocking.  A trial is recorded by the thread that completes it, so no thread waits on a running trial.  With a 
+	 * checkpoint, each trial collects its statistics on its own so that only completed trials are saved.  Trials that do 
+	 * not share a timeline run on kitchens reused from a pool
+	 */
+	private static StatManager runTrials(KitchenSimulationConfig config, TrialPlanner planner, TrialCheckpoint checkpoint, OrderExporter orderExporter, long startTime) {
+		StatManager statManager = new StatManagerImpl(config.isUsingFullStatistics());
+		Supplier<StatManager> statsSupplier = getStats(config, statManager, checkpoint);
+		if (checkpoint != null) {
+		    checkpoint.restoreInto(statManager);
+		}
+		
+		// with common random numbers, compare the strategies trial by trial
+		PairedComparison comparison = planner.isUsingCommonRandomNumbers() 
+		        ? new PairedComparison(config.getStrategies().stream().map(Strategy::getName).collect(Collectors.toList()), planner) : null;
+		BiFunction<KitchenSimulation, StatManager, CompletableFuture<Void>> recorder = 
+		        (kitchen, stats) -> recordTrial(kitchen, stats, statManager, checkpoint, comparison);
+		
+		TrialScheduler scheduler = new TrialScheduler(config.isBlocking() ? 1 : config.getMaxConcurrentTrials());
+		KitchenSimulationPool pool = new KitchenSimulationPool();
 	    IntStream.rangeClosed(1, config.getNumTrials())
         .forEach(i -> {
-            List<KitchenOrder> randomlyOrdered = new ArrayList<>(kitchenOrders);
-            Collections.shuffle(randomlyOrdered, ThreadLocalRandom.current());
-            List<KitchenOrder> ordersUsedForTrial = (ordersPerTrial < randomlyOrdered.size()) ? randomlyOrdered.subList(0, config.getOrdersPerTrial()) : randomlyOrdered;
-            config.getStrategies().stream().forEach(strategy-> {
-                if (!strategy.valid()) {
-                    throw new KitchenSimulationRuntimeException("All strategies require a nonblank 'name' and a 'courierMatchedToOrder' setting");
-                }
+            TrialPlan plan = planner.plan(i);
+            List<Strategy> strategies = config.getStrategies().stream()
+                    .filter(strategy -> checkpoint == null || !checkpoint.isCompleted(strategy.getName(), i))
+                    .collect(Collectors.toList());
+            if (config.isSharedTimeline()) {
+                submitSharedTimelines(config, strategies, plan, statsSupplier, recorder, scheduler, orderExporter);
+                return;
+            }
+            strategies.forEach(strategy-> scheduler.submit(() -> {
 	            log.info("Starting {} strategy trial #{} out of {}...", strategy.getName(), i, config.getNumTrials());
-    		    KitchenSimulation kitchen = new KitchenSimulationImpl(statManager, ordersUsedForTrial, strategy, i);
+	            StatManager stats = statsSupplier.get();
+    		    KitchenSimulationImpl kitchen = pool.acquire(stats, plan.getOrders(), strategy, i, plan.getCourierDelayDraws());
+    		    plan.setUp(kitchen, config, orderExporter);
     		    kitchen.runSimulation();
-    		    simulations.add(kitchen);
-    		    if (config.isBlocking()) {
-    		        kitchen.waitUntilComplete();
-    		    }
-            });
+    		    // the thread that records the trial keeps the kitchen for the next trial it starts
+    		    return recorder.apply(kitchen, stats).thenRun(() -> pool.release(kitchen));
+            }));
         });
 		
-		while (simulations.size() > 0) {
-		    KitchenSimulation simulation = simulations.get(0);
-		    simulation.waitUntilComplete();
-		    log.info("{} has completed...", simulation.getFullName());
-		    simulations.remove(0);
+		try {
+		    join(scheduler.allOf());
+		} finally {
+		    pool.close();
 		}
-		
-		statManager.reportResults(startTime);	
+		log.info("{} kitchen(s) created, {} trial(s) reused a kitchen", pool.getKitchensCreated(), pool.getKitchensReused());
+		statManager.reportResults(startTime);
+		if (comparison != null) {
+		    comparison.report();
+		}
+		return statManager;
+	}
+	
+	/* Record a trial once it completes: log it, save its statistics when checkpointing, and add it to the paired comparison
+	 */
+	private static CompletableFuture<Void> recordTrial(KitchenSimulation kitchen, StatManager stats, StatManager statManager, 
+	        TrialCheckpoint checkpoint, PairedComparison comparison) {
+	    return kitchen.getCompletion().thenAccept(result -> {
+	        log.info("{} has completed...", kitchen.getFullName());
+	        if (checkpoint != null) {
+	            StatSnapshot snapshot = stats.getSnapshot();
+	            statManager.merge(snapshot);
+	            checkpoint.recordCompleted(result.getStrategyName(), List.of(result.getTrialNumber()), snapshot);
+	        }
+	        if (comparison != null) {
+	            comparison.add(result);
+	        }
+	    });
+	}
+	
+	/* Wait for a composed future on the main thread, rethrowing the exception a trial failed with
+	 */
+	private static void join(CompletableFuture<?> future) {
+	    try {
+	        future.join();
+	    } catch(CompletionException e) {
+	        if (e.getCause() instanceof RuntimeException) {
+	            throw (RuntimeException) e.getCause();
+	        }
+	        throw e;
+	    }
+	}
+	
+	/* Run numTrials trials of each strategy where each trial is a city of kitchens with their own order streams
+	 * <p>
+	 * Kitchen k of trial i runs the orders and courier delays planned for trial (i - 1) * numKitchens + k, which is also the 
+	 * trial number it reports.  Each kitchen collects its statistics on its own, so the partitions never share a stat manager.
+	 */
+	private static StatManager runCities(KitchenSimulationConfig config, TrialPlanner planner, OrderExporter orderExporter, long startTime) throws KitchenSimulationException {
+	    CityConfig cityConfig = config.getCity();
+	    StatManager statManager = new StatManagerImpl(config.isUsingFullStatistics());
+	    Map<CitySimulation, String> cities = new LinkedHashMap<>();
+	    Map<CitySimulation, List<StatManager>> cityStats = new IdentityHashMap<>();
+	    for (int i = 1; i <= config.getNumTrials(); i++) {
+	        List<TrialPlan> plans = new ArrayList<>();
+	        for (int k = 1; k <= cityConfig.getNumKitchens(); k++) {
+	            plans.add(planner.plan((i - 1) * cityConfig.getNumKitchens() + k));
+	        }
+	        for (Strategy strategy : config.getStrategies()) {
+	            log.info("Starting {} strategy city trial #{} out of {} with {} kitchens...", strategy.getName(), i, config.getNumTrials(), plans.size());
+	            List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+	            List<StatManager> kitchenStats = new ArrayList<>();
+	            for (TrialPlan plan : plans) {
+	                StatManager stats = new StatManagerImpl(config.isUsingFullStatistics());
+	                KitchenSimulationImpl kitchen = new KitchenSimulationImpl(stats, plan.getOrders(), strategy, plan.getTrialNumber(), plan.getCourierDelayDraws());
+	                kitchen.setOrderExporter(orderExporter);
+	                kitchens.add(kitchen);
+	                kitchenStats.add(stats);
+	            }
+	            CitySimulation city = new CitySimulation(kitchens, cityConfig.getPartitions());
+	            cities.put(city, strategy.getName() + " city trial #: " + i);
+	            cityStats.put(city, kitchenStats);
+	            city.run();
+	            if (config.isBlocking()) {
+	                city.waitUntilComplete();
+	            }
+	        }
+	    }
+	    
+	    for (Map.Entry<CitySimulation, String> entry : cities.entrySet()) {
+	        CitySimulation city = entry.getKey();
+	        city.waitUntilComplete();
+	        log.info("{} has completed: {} orders in {} ms over {} partitions", entry.getValue(), 
+	                city.getNumOrders(), city.getDurationInMillis(), city.getNumPartitions());
+	        cityStats.get(city).forEach(stats -> statManager.merge(stats.getSnapshot()));
+	    }
+	    statManager.reportResults(startTime);
+	    return statManager;
+	}
+	
+	/* Run each strategy as one open-ended kitchen that places orders generated on demand, logging the progress of every 
+	 * kitchen at each report interval
+	 * <p>
+	 * Every strategy draws the same stream of orders from the orderJsonFile.  numTrials, ordersPerTrial and blocking are not used.
+	 */
+	private static StatManager runSteadyState(KitchenSimulationConfig config, List<KitchenOrder> kitchenOrders, OrderExporter orderExporter, long startTime) throws KitchenSimulationException {
+	    SteadyStateConfig steadyState = config.getSteadyState();
+	    StatManager statManager = new StatManagerImpl(config.isUsingFullStatistics());
+	    long seed = (config.getRandomSeed() != null) ? config.getRandomSeed() : System.nanoTime();
+	    List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+	    for (Strategy strategy : config.getStrategies()) {
+	        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, new OrderStream(kitchenOrders, seed), strategy, steadyState);
+	        kitchen.setOrderExporter(orderExporter);
+	        kitchen.setTimeScale(config.getTimeScale());
+	        kitchen.setPrecisionTimer(config.getPrecisionTimer());
+	        kitchens.add(kitchen);
+	    }
+	    
+	    ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+	    reporter.scheduleAtFixedRate(() -> kitchens.forEach(KitchenSimulationRunner::reportProgress), 
+	            steadyState.getReportIntervalInMilliseconds(), steadyState.getReportIntervalInMilliseconds(), TimeUnit.MILLISECONDS);
+	    try {
+	        List<CompletableFuture<Void>> completed = new ArrayList<>();
+	        for (KitchenSimulationImpl kitchen : kitchens) {
+	            log.info("Starting {} steady state for {} ms...", kitchen.getFullName(), 
+	                    steadyState.runsUntilStopped() ? "unlimited" : steadyState.getDurationInMilliseconds());
+	            completed.add(kitchen.runSimulation().thenAccept(result -> {
+	                log.info("{} has completed...", kitchen.getFullName());
+	                reportProgress(kitchen);
+	            }));
+	        }
+	        join(CompletableFuture.allOf(completed.toArray(new CompletableFuture<?>[0])));
+	    } finally {
+	        reporter.shutdownNow();
+	    }
+	    statManager.reportResults(startTime);
+	    return statManager;
+	}
+	
+	private static void reportProgress(KitchenSimulationImpl kitchen) {
+	    TrialResult result = kitchen.getTrialResult();
+	    log.info("{}: {} orders completed, {} in flight, {} rejected, average courier wait time: {} ms, average food wait time: {} ms", 
+	            kitchen.getFullName(), result.getOrdersCompleted(), kitchen.getOrdersInFlight(), kitchen.getOrdersRejected(), 
+	            result.getAverageCourierWaitTime(), result.getAverageFoodWaitTime());
+	}
+	
+	/* The stat manager of each trial: the shared one, or a new one per trial when checkpointing
+	 */
+	private static Supplier<StatManager> getStats(KitchenSimulationConfig config, StatManager statManager, TrialCheckpoint checkpoint) {
+	    return (checkpoint == null) ? () -> statManager : () -> new StatManagerImpl(config.isUsingFullStatistics());
+	}
+	
+	/* Run the trials, or the sweep, in worker processes
+	 */
+	private static StatManager runDistributed(KitchenSimulationConfig config, String configFilename, TrialPlanner planner, TrialCheckpoint checkpoint) throws KitchenSimulationException {
+	    List<Strategy> strategies;
+	    if (config.getSweep() != null) {
+	        strategies = new ParameterSweepRunner(config, planner).expandStrategies();
+	    } else {
+	        strategies = config.getStrategies();
+	    }
+	    boolean usingFullStatistics = config.isUsingFullStatistics() || config.getSweep() != null;
+	    DistributedTrialCoordinator coordinator = new DistributedTrialCoordinator(config, configFilename, planner, strategies, usingFullStatistics);
+	    coordinator.setCheckpoint(checkpoint);
+	    StatManager statManager = coordinator.run();
+	    if (config.getSweep() != null) {
+	        ParameterSweepRunner.writeResults(strategies, statManager, Paths.get(config.getSweep().getResultsFile()));
+	    }
+	    return statManager;
+	}
+	
+	/* Submit one trial with a single timeline per group of strategies sharing order period and courier delay parameters
+	 * <p>
+	 * Each group takes one slot of the scheduler until all of its kitchens are recorded
+	 */
+	private static void submitSharedTimelines(KitchenSimulationConfig config, List<Strategy> strategies, TrialPlan plan, Supplier<StatManager> statsSupplier, 
+	        BiFunction<KitchenSimulation, StatManager, CompletableFuture<Void>> recorder, TrialScheduler scheduler, OrderExporter orderExporter) {
+	    Map<String, List<Strategy>> groups = strategies.stream()
+	            .collect(Collectors.groupingBy(TrialTimeline::getKey, LinkedHashMap::new, Collectors.toList()));
+	    for (List<Strategy> group : groups.values()) {
+	        scheduler.submit(() -> {
+	            TrialTimeline timeline;
+	            try {
+	                timeline = TrialTimeline.build(plan.getOrders(), group.get(0), plan.getCourierDelayDraws());
+	            } catch(KitchenSimulationException e) {
+	                throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+	            }
+	            List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+	            List<CompletableFuture<Void>> recorded = new ArrayList<>();
+	            for (Strategy strategy : group) {
+	                log.info("Starting {} strategy trial #{} out of {} on a shared timeline...", strategy.getName(), plan.getTrialNumber(), config.getNumTrials());
+	                StatManager stats = statsSupplier.get();
+	                KitchenSimulationImpl kitchen = new KitchenSimulationImpl(stats, plan.getOrders(), strategy, plan.getTrialNumber(), plan.getCourierDelayDraws());
+	                kitchen.setOrderExporter(orderExporter);
+	                kitchen.setAllocationFree(config.isAllocationFree());
+	                kitchen.setEventLoop(config.getEventLoop());
+	                kitchens.add(kitchen);
+	                recorded.add(recorder.apply(kitchen, stats));
+	            }
+	            new SharedTimelineSimulation(timeline, kitchens, config.isAllocationFree()).run();
+	            return CompletableFuture.allOf(recorded.toArray(new CompletableFuture<?>[0]));
+	        });
+	    }
 	}
 }
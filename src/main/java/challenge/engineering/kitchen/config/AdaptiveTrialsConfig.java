@@ -0,0 +1,107 @@
+package challenge.engineering.kitchen.config;
+
+import org.apache.commons.lang3.Range;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * AdaptiveTrialsConfig is the object-to-configuration mapping for sequential sampling of trials.
+ * <p>
+ * Instead of running a fixed numTrials, trials are launched for each strategy in rounds until the confidence interval on
+ * both the mean courier wait time and the mean food wait time is narrower than the tolerance, or until the trial budget
+ * runs out.  The parameters are:
+ * <p><ul>
+ * <li>confidenceLevel:  the confidence level of the interval on the mean wait times
+ * <li>toleranceInMilliseconds:  the largest acceptable half width of the confidence interval
+ * <li>minTrials:  the number of trials always run for each strategy before convergence is checked
+ * <li>maxTrials:  the trial budget for each strategy
+ * <li>trialsPerRound:  the number of trials launched at the same time for each strategy that has not yet converged
+ * </ul>
+ * 
+ */
+public class AdaptiveTrialsConfig {
+    
+    public static final double DEFAULT_CONFIDENCE_LEVEL = 0.95;
+    public static final double DEFAULT_TOLERANCE_IN_MILLISECONDS = 100;
+    
+    public static final int LOWER_BOUND_MIN_TRIALS = 2;
+    public static final int DEFAULT_MIN_TRIALS = 5;
+    
+    public static final int UPPER_BOUND_MAX_TRIALS = 1000000;
+    public static final int DEFAULT_MAX_TRIALS = 1000;
+    
+    public static final int DEFAULT_TRIALS_PER_ROUND = 5;
+    
+    private double confidenceLevel;
+    private double toleranceInMilliseconds;
+    private int minTrials;
+    private int maxTrials;
+    private int trialsPerRound;
+    
+    public AdaptiveTrialsConfig() {
+        // set defaults
+        confidenceLevel = DEFAULT_CONFIDENCE_LEVEL;
+        toleranceInMilliseconds = DEFAULT_TOLERANCE_IN_MILLISECONDS;
+        minTrials = DEFAULT_MIN_TRIALS;
+        maxTrials = DEFAULT_MAX_TRIALS;
+        trialsPerRound = DEFAULT_TRIALS_PER_ROUND;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) throws KitchenSimulationException {
+        if (confidenceLevel <= 0 || confidenceLevel >= 1) {
+            throw new KitchenSimulationException("confidenceLevel must be greater than 0 and less than 1");
+        }
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    public double getToleranceInMilliseconds() {
+        return toleranceInMilliseconds;
+    }
+
+    public void setToleranceInMilliseconds(double toleranceInMilliseconds) throws KitchenSimulationException {
+        if (toleranceInMilliseconds <= 0) {
+            throw new KitchenSimulationException("toleranceInMilliseconds must be greater than 0");
+        }
+        this.toleranceInMilliseconds = toleranceInMilliseconds;
+    }
+
+    public int getMinTrials() {
+        return minTrials;
+    }
+
+    public void setMinTrials(int minTrials) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(LOWER_BOUND_MIN_TRIALS, UPPER_BOUND_MAX_TRIALS);
+        if (!allowedRange.contains(minTrials)) {
+            throw new KitchenSimulationException("minTrials must be in the range: " + allowedRange);
+        }
+        this.minTrials = minTrials;
+    }
+
+    public int getMaxTrials() {
+        return maxTrials;
+    }
+
+    public void setMaxTrials(int maxTrials) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(LOWER_BOUND_MIN_TRIALS, UPPER_BOUND_MAX_TRIALS);
+        if (!allowedRange.contains(maxTrials)) {
+            throw new KitchenSimulationException("maxTrials must be in the range: " + allowedRange);
+        }
+        this.maxTrials = maxTrials;
+    }
+
+    public int getTrialsPerRound() {
+        return trialsPerRound;
+    }
+
+    public void setTrialsPerRound(int trialsPerRound) throws KitchenSimulationException {
+        if (trialsPerRound < 1) {
+            throw new KitchenSimulationException("trialsPerRound must be greater or equal to 1");
+        }
+        this.trialsPerRound = trialsPerRound;
+    }
+}
@@ -0,0 +1,145 @@
+package challenge.engineering.kitchen.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * CapacitySearchConfig is the object-to-configuration mapping for searching the highest order rate each strategy sustains.
+ * <p>
+ * The order rate is varied through ordersPerPeriod while each strategy keeps its orderPeriodInMilliseconds.  A rate is
+ * sustained when the percentile of the courier wait time is within the service level.  The parameters are:
+ * <p><ul>
+ * <li>courierWaitSlaInMilliseconds:  the largest acceptable courier wait time at the percentile
+ * <li>percentile:  the percentile of the courier wait time held to the service level
+ * <li>minOrdersPerPeriod:  the lowest ordersPerPeriod tried
+ * <li>maxOrdersPerPeriod:  the highest ordersPerPeriod tried
+ * <li>search:  "bisect" to bisect between the lowest and highest ordersPerPeriod, or "ramp" to step up from the lowest
+ * <li>rampStep:  the increase of ordersPerPeriod between the steps of a ramp
+ * <li>trialsPerStep:  the number of trials run at each step
+ * <li>resultsFile:  the csv file that the wait time curve is written to
+ * </ul>
+ * 
+ */
+public class CapacitySearchConfig {
+    
+    public static final String BISECT = "bisect";
+    public static final String RAMP = "ramp";
+    public static final List<String> SEARCHES = Arrays.asList(BISECT, RAMP);
+    
+    public static final int DEFAULT_COURIER_WAIT_SLA_IN_MILLISECONDS = 1000;
+    public static final double DEFAULT_PERCENTILE = 99;
+    public static final int DEFAULT_MIN_ORDERS_PER_PERIOD = 1;
+    public static final int DEFAULT_MAX_ORDERS_PER_PERIOD = 64;
+    public static final int DEFAULT_RAMP_STEP = 1;
+    public static final int DEFAULT_TRIALS_PER_STEP = 1;
+    public static final String DEFAULT_RESULTS_FILE = "capacity_results.csv";
+    
+    private int courierWaitSlaInMilliseconds;
+    private double percentile;
+    private int minOrdersPerPeriod;
+    private int maxOrdersPerPeriod;
+    private String search;
+    private int rampStep;
+    private int trialsPerStep;
+    private String resultsFile;
+    
+    public CapacitySearchConfig() {
+        // set defaults
+        courierWaitSlaInMilliseconds = DEFAULT_COURIER_WAIT_SLA_IN_MILLISECONDS;
+        percentile = DEFAULT_PERCENTILE;
+        minOrdersPerPeriod = DEFAULT_MIN_ORDERS_PER_PERIOD;
+        maxOrdersPerPeriod = DEFAULT_MAX_ORDERS_PER_PERIOD;
+        search = BISECT;
+        rampStep = DEFAULT_RAMP_STEP;
+        trialsPerStep = DEFAULT_TRIALS_PER_STEP;
+        resultsFile = DEFAULT_RESULTS_FILE;
+    }
+    
+    public int getCourierWaitSlaInMilliseconds() {
+        return courierWaitSlaInMilliseconds;
+    }
+    
+    public void setCourierWaitSlaInMilliseconds(int courierWaitSlaInMilliseconds) throws KitchenSimulationException {
+        if (courierWaitSlaInMilliseconds < 1) {
+            throw new KitchenSimulationException("courierWaitSlaInMilliseconds must be greater or equal to 1");
+        }
+        this.courierWaitSlaInMilliseconds = courierWaitSlaInMilliseconds;
+    }
+    
+    public double getPercentile() {
+        return percentile;
+    }
+    
+    public void setPercentile(double percentile) throws KitchenSimulationException {
+        if (percentile <= 0 || percentile > 100) {
+            throw new KitchenSimulationException("percentile must be greater than 0 and less than or equal to 100");
+        }
+        this.percentile = percentile;
+    }
+    
+    public int getMinOrdersPerPeriod() {
+        return minOrdersPerPeriod;
+    }
+    
+    public void setMinOrdersPerPeriod(int minOrdersPerPeriod) throws KitchenSimulationException {
+        if (minOrdersPerPeriod < 1) {
+            throw new KitchenSimulationException("minOrdersPerPeriod must be greater or equal to 1");
+        }
+        this.minOrdersPerPeriod = minOrdersPerPeriod;
+    }
+    
+    public int getMaxOrdersPerPeriod() {
+        return maxOrdersPerPeriod;
+    }
+    
+    public void setMaxOrdersPerPeriod(int maxOrdersPerPeriod) throws KitchenSimulationException {
+        if (maxOrdersPerPeriod < 1) {
+            throw new KitchenSimulationException("maxOrdersPerPeriod must be greater or equal to 1");
+        }
+        this.maxOrdersPerPeriod = maxOrdersPerPeriod;
+    }
+    
+    public String getSearch() {
+        return search;
+    }
+    
+    public void setSearch(String search) throws KitchenSimulationException {
+        if (!SEARCHES.contains(search)) {
+            throw new KitchenSimulationException("search must be one of: " + SEARCHES);
+        }
+        this.search = search;
+    }
+    
+    public int getRampStep() {
+        return rampStep;
+    }
+    
+    public void setRampStep(int rampStep) throws KitchenSimulationException {
+        if (rampStep < 1) {
+            throw new KitchenSimulationException("rampStep must be greater or equal to 1");
+        }
+        this.rampStep = rampStep;
+    }
+    
+    public int getTrialsPerStep() {
+        return trialsPerStep;
+    }
+    
+    public void setTrialsPerStep(int trialsPerStep) throws KitchenSimulationException {
+        if (trialsPerStep < 1) {
+            throw new KitchenSimulationException("trialsPerStep must be greater or equal to 1");
+        }
+        this.trialsPerStep = trialsPerStep;
+    }
+    
+    public String getResultsFile() {
+        return resultsFile;
+    }
+    
+    public void setResultsFile(String resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+}
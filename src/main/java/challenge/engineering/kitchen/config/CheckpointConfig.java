@@ -0,0 +1,54 @@
+package challenge.engineering.kitchen.config;
+
+import org.apache.commons.lang3.StringUtils;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * CheckpointConfig is the object-to-configuration mapping for checkpointing long multi-trial runs.
+ * <p>
+ * The runner periodically saves the completed trials along with their merged statistics so that a run that was 
+ * interrupted can be restarted with the same configuration and resume where it left off.  The parameters are:
+ * <p><ul>
+ * <li>file:  the checkpoint file, replaced atomically at each save
+ * <li>intervalInSeconds:  how often the checkpoint is saved when trials have completed since the last save
+ * </ul>
+ * 
+ */
+public class CheckpointConfig {
+    
+    public static final String DEFAULT_FILE = "kitchen_simulation_checkpoint.json";
+    public static final int DEFAULT_INTERVAL_IN_SECONDS = 30;
+    
+    private String file;
+    private int intervalInSeconds;
+    
+    public CheckpointConfig() {
+        // set defaults
+        file = DEFAULT_FILE;
+        intervalInSeconds = DEFAULT_INTERVAL_IN_SECONDS;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) throws KitchenSimulationException {
+        if (StringUtils.isBlank(file)) {
+            throw new KitchenSimulationException("checkpoint file must not be blank");
+        }
+        this.file = file;
+    }
+
+    public int getIntervalInSeconds() {
+        return intervalInSeconds;
+    }
+
+    public void setIntervalInSeconds(int intervalInSeconds) throws KitchenSimulationException {
+        if (intervalInSeconds < 1) {
+            throw new KitchenSimulationException("intervalInSeconds must be greater or equal to 1");
+        }
+        this.intervalInSeconds = intervalInSeconds;
+    }
+}
@@ -0,0 +1,56 @@
+package challenge.engineering.kitchen.config;
+
+import org.apache.commons.lang3.Range;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * CityConfig is the object-to-configuration mapping for running each trial of a strategy as a city of kitchens.
+ * <p>
+ * Every kitchen of the city has its own order stream of ordersPerTrial orders and its own matching policy, and a new 
+ * courier is dispatched for every order.  The parameters are:
+ * <p><ul>
+ * <li>numKitchens:  the number of kitchens in the city
+ * <li>partitions:  the number of worker threads the kitchens and their couriers are partitioned across
+ * </ul>
+ * 
+ */
+public class CityConfig {
+    
+    public static final int MIN_NUM_KITCHENS = 1;
+    public static final int MAX_NUM_KITCHENS = 1 << 20;
+    public static final int DEFAULT_NUM_KITCHENS = 8;
+    
+    private int numKitchens;
+    private int partitions;
+    
+    public CityConfig() {
+        // set defaults
+        numKitchens = DEFAULT_NUM_KITCHENS;
+        partitions = Runtime.getRuntime().availableProcessors();
+    }
+    
+    public int getNumKitchens() {
+        return numKitchens;
+    }
+    
+    public void setNumKitchens(int numKitchens) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(MIN_NUM_KITCHENS, MAX_NUM_KITCHENS);
+        if (!allowedRange.contains(numKitchens)) {
+            throw new KitchenSimulationException("numKitchens must be in the range: " + allowedRange);
+        }
+        this.numKitchens = numKitchens;
+    }
+    
+    public int getPartitions() {
+        return partitions;
+    }
+    
+    public void setPartitions(int partitions) throws KitchenSimulationException {
+        if (partitions < 1) {
+            throw new KitchenSimulationException("partitions must be greater or equal to 1");
+        }
+        this.partitions = partitions;
+    }
+}
@@ -0,0 +1,113 @@
+package challenge.engineering.kitchen.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * DistributedConfig is the object-to-configuration mapping for running trials in separate worker processes.
+ * <p>
+ * A local coordinator splits the trials of every strategy into shards, hands the shards to worker JVMs over local 
+ * sockets and merges the statistics they send back.  A shard lost with a worker is handed to another worker and a 
+ * worker that dies is restarted.  The parameters are:
+ * <p><ul>
+ * <li>workers:  the number of worker processes
+ * <li>trialsPerShard:  the number of trials of a strategy in each shard
+ * <li>maxShardAttempts:  the number of times a shard is handed out before the run fails
+ * <li>shardTimeoutInMilliseconds:  how long a worker may take to send back the statistics of a shard before it is 
+ * considered hung, stopped and its shard handed to another worker
+ * <li>maxWorkerRestarts:  the number of times workers are restarted before the run fails
+ * <li>workerJvmOptions:  the options passed to each worker JVM, for example "-Xmx512m"
+ * </ul>
+ * 
+ */
+public class DistributedConfig {
+    
+    public static final int DEFAULT_WORKERS = 2;
+    public static final int DEFAULT_TRIALS_PER_SHARD = 1;
+    public static final int DEFAULT_MAX_SHARD_ATTEMPTS = 3;
+    public static final int DEFAULT_MAX_WORKER_RESTARTS = 5;
+    public static final int DEFAULT_SHARD_TIMEOUT_IN_MILLISECONDS = 600000;
+    
+    private int workers;
+    private int trialsPerShard;
+    private int maxShardAttempts;
+    private int maxWorkerRestarts;
+    private int shardTimeoutInMilliseconds;
+    private List<String> workerJvmOptions;
+    
+    public DistributedConfig() {
+        // set defaults
+        workers = DEFAULT_WORKERS;
+        trialsPerShard = DEFAULT_TRIALS_PER_SHARD;
+        maxShardAttempts = DEFAULT_MAX_SHARD_ATTEMPTS;
+        maxWorkerRestarts = DEFAULT_MAX_WORKER_RESTARTS;
+        shardTimeoutInMilliseconds = DEFAULT_SHARD_TIMEOUT_IN_MILLISECONDS;
+        workerJvmOptions = new ArrayList<>();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) throws KitchenSimulationException {
+        if (workers < 1) {
+            throw new KitchenSimulationException("workers must be greater or equal to 1");
+        }
+        this.workers = workers;
+    }
+
+    public int getTrialsPerShard() {
+        return trialsPerShard;
+    }
+
+    public void setTrialsPerShard(int trialsPerShard) throws KitchenSimulationException {
+        if (trialsPerShard < 1) {
+            throw new KitchenSimulationException("trialsPerShard must be greater or equal to 1");
+        }
+        this.trialsPerShard = trialsPerShard;
+    }
+
+    public int getMaxShardAttempts() {
+        return maxShardAttempts;
+    }
+
+    public void setMaxShardAttempts(int maxShardAttempts) throws KitchenSimulationException {
+        if (maxShardAttempts < 1) {
+            throw new KitchenSimulationException("maxShardAttempts must be greater or equal to 1");
+        }
+        this.maxShardAttempts = maxShardAttempts;
+    }
+
+    public int getMaxWorkerRestarts() {
+        return maxWorkerRestarts;
+    }
+
+    public void setMaxWorkerRestarts(int maxWorkerRestarts) throws KitchenSimulationException {
+        if (maxWorkerRestarts < 0) {
+            throw new KitchenSimulationException("maxWorkerRestarts must be greater or equal to 0");
+        }
+        this.maxWorkerRestarts = maxWorkerRestarts;
+    }
+
+    public int getShardTimeoutInMilliseconds() {
+        return shardTimeoutInMilliseconds;
+    }
+
+    public void setShardTimeoutInMilliseconds(int shardTimeoutInMilliseconds) throws KitchenSimulationException {
+        if (shardTimeoutInMilliseconds < 1) {
+            throw new KitchenSimulationException("shardTimeoutInMilliseconds must be greater or equal to 1");
+        }
+        this.shardTimeoutInMilliseconds = shardTimeoutInMilliseconds;
+    }
+
+    public List<String> getWorkerJvmOptions() {
+        return workerJvmOptions;
+    }
+
+    public void setWorkerJvmOptions(List<String> workerJvmOptions) {
+        this.workerJvmOptions = (workerJvmOptions == null) ? new ArrayList<>() : workerJvmOptions;
+    }
+}
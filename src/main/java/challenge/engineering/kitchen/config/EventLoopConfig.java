@@ -0,0 +1,39 @@
+package challenge.engineering.kitchen.config;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * EventLoopConfig is the object-to-configuration mapping for running each kitchen as a single writer event loop.
+ * <p>
+ * Order, courier and food ready timers publish their events into a preallocated ring buffer and one thread per kitchen 
+ * applies them.  The parameter is:
+ * <p><ul>
+ * <li>bufferSize:  the number of events the ring buffer holds, a power of two.  Timers wait when the buffer is full.
+ * </ul>
+ * 
+ */
+public class EventLoopConfig {
+    
+    public static final int MIN_BUFFER_SIZE = 2;
+    public static final int MAX_BUFFER_SIZE = 1 << 24;
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 14;
+    
+    private int bufferSize;
+    
+    public EventLoopConfig() {
+        // set defaults
+        bufferSize = DEFAULT_BUFFER_SIZE;
+    }
+    
+    public int getBufferSize() {
+        return bufferSize;
+    }
+    
+    public void setBufferSize(int bufferSize) throws KitchenSimulationException {
+        if (bufferSize < MIN_BUFFER_SIZE || bufferSize > MAX_BUFFER_SIZE || Integer.bitCount(bufferSize) != 1) {
+            throw new KitchenSimulationException("bufferSize must be a power of two between " + MIN_BUFFER_SIZE + " and " + MAX_BUFFER_SIZE);
+        }
+        this.bufferSize = bufferSize;
+    }
+}
@@ -29,20 +29,49 @@ public class KitchenSimulationConfig {
     public static final int DEFAULT_NUM_TRIALS = 1;
     
     public static final int MIN_ORDERS_PER_TRIAL = 1;
+    
+    public static final int UNBOUNDED_CONCURRENT_TRIALS = 0;
+    
+    public static final double MIN_TIME_SCALE = 1.0;
+    public static final double MAX_TIME_SCALE = 1000.0;
+    public static final double DEFAULT_TIME_SCALE = 1.0;
 	
 	private String orderJsonFile;
 	private int numTrials;
 	private boolean usingFullStatistics;
 	private boolean blocking;
+	private int maxConcurrentTrials;
 	private int ordersPerTrial;
 	private List<Strategy> strategies;
+	private SweepConfig sweep;
+	private DistributedConfig distributed;
+	private CheckpointConfig checkpoint;
+	private OrderExportConfig orderExport;
+	private EventLoopConfig eventLoop;
+	private PrecisionTimerConfig precisionTimer;
+	private AdaptiveTrialsConfig adaptiveTrials;
+	private CapacitySearchConfig capacitySearch;
+	private CityConfig city;
+	private SteadyStateConfig steadyState;
+	private boolean commonRandomNumbers;
+	private boolean antitheticTrials;
+	private Long randomSeed;
+	private boolean sharedTimeline;
+	private boolean allocationFree;
+	private double timeScale;
 	
 	public KitchenSimulationConfig() {
 	    // set defaults
 	    numTrials = DEFAULT_NUM_TRIALS;
 	    blocking = true;
+	    maxConcurrentTrials = UNBOUNDED_CONCURRENT_TRIALS;
 	    ordersPerTrial = 0;
 	    usingFullStatistics = false;
+	    commonRandomNumbers = false;
+	    antitheticTrials = false;
+	    sharedTimeline = false;
+	    allocationFree = false;
+	    timeScale = DEFAULT_TIME_SCALE;
 	}
 	
 	public boolean isUsingFullStatistics() {
@@ -91,6 +120,218 @@ public class KitchenSimulationConfig {
         this.numTrials = numTrials;
     }
     
+    public OrderExportConfig getOrderExport() {
+        return orderExport;
+    }
+    
+    /**
+     * Set where the detail of every completed order is exported, null when orders are not exported
+     * <p>
+     * @param orderExport  the export file and block size
+     */
+    public void setOrderExport(OrderExportConfig orderExport) {
+        this.orderExport = orderExport;
+    }
+    
+    public EventLoopConfig getEventLoop() {
+        return eventLoop;
+    }
+    
+    /**
+     * Set the event loop parameters, null for kitchens that apply events under a lock
+     * <p>
+     * @param eventLoop  the ring buffer size of the single writer event loop of each kitchen
+     */
+    public void setEventLoop(EventLoopConfig eventLoop) {
+        this.eventLoop = eventLoop;
+    }
+    
+    public PrecisionTimerConfig getPrecisionTimer() {
+        return precisionTimer;
+    }
+    
+    /**
+     * Set the precision timer parameters, null for kitchens whose timers run on executors
+     * <p>
+     * @param precisionTimer  how long the dedicated timer thread of each kitchen busy-spins before a deadline
+     */
+    public void setPrecisionTimer(PrecisionTimerConfig precisionTimer) {
+        this.precisionTimer = precisionTimer;
+    }
+    
+    public CheckpointConfig getCheckpoint() {
+        return checkpoint;
+    }
+    
+    /**
+     * Set where and how often the progress of the run is saved, null when the run is not checkpointed
+     * <p>
+     * @param checkpoint  the checkpoint file and save interval
+     */
+    public void setCheckpoint(CheckpointConfig checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+    
+    public DistributedConfig getDistributed() {
+        return distributed;
+    }
+    
+    /**
+     * Set the worker processes that run the trials, null when all trials run in this process
+     * <p>
+     * @param distributed  the number of workers and how trials are sharded across them
+     */
+    public void setDistributed(DistributedConfig distributed) {
+        this.distributed = distributed;
+    }
+    
+    public SweepConfig getSweep() {
+        return sweep;
+    }
+    
+    /**
+     * Set the parameter sweep, null when each strategy is run exactly as configured
+     * <p>
+     * @param sweep  the ranges of strategy parameters that are swept
+     */
+    public void setSweep(SweepConfig sweep) {
+        this.sweep = sweep;
+    }
+    
+    public AdaptiveTrialsConfig getAdaptiveTrials() {
+        return adaptiveTrials;
+    }
+    
+    /**
+     * Set the sequential sampling of trials, null when exactly numTrials trials are run for each strategy
+     * <p>
+     * @param adaptiveTrials  the convergence criteria and trial budget
+     */
+    public void setAdaptiveTrials(AdaptiveTrialsConfig adaptiveTrials) {
+        this.adaptiveTrials = adaptiveTrials;
+    }
+    
+    public CapacitySearchConfig getCapacitySearch() {
+        return capacitySearch;
+    }
+    
+    /**
+     * Set the search for the highest order rate each strategy sustains, null when the strategies run at their configured rate
+     * <p>
+     * @param capacitySearch  the courier wait service level and the range of ordersPerPeriod searched
+     */
+    public void setCapacitySearch(CapacitySearchConfig capacitySearch) {
+        this.capacitySearch = capacitySearch;
+    }
+    
+    public CityConfig getCity() {
+        return city;
+    }
+    
+    /**
+     * Set the city that each trial of a strategy runs as, null when each trial runs a single kitchen
+     * <p>
+     * @param city  the number of kitchens and the number of partitions they run on
+     */
+    public void setCity(CityConfig city) {
+        this.city = city;
+    }
+    
+    public SteadyStateConfig getSteadyState() {
+        return steadyState;
+    }
+    
+    /**
+     * Set the open-ended steady state each strategy runs as, null when the strategies run trials
+     * <p>
+     * @param steadyState  the duration, the bound on the orders in flight and the progress report interval
+     */
+    public void setSteadyState(SteadyStateConfig steadyState) {
+        this.steadyState = steadyState;
+    }
+    
+    public boolean isCommonRandomNumbers() {
+        return commonRandomNumbers;
+    }
+    
+    /**
+     * Set whether all strategies in a trial share the same order permutation and courier delay draws
+     * <p>
+     * @param commonRandomNumbers  true to use common random numbers across strategies
+     */
+    public void setCommonRandomNumbers(boolean commonRandomNumbers) {
+        this.commonRandomNumbers = commonRandomNumbers;
+    }
+    
+    public boolean isAntitheticTrials() {
+        return antitheticTrials;
+    }
+    
+    /**
+     * Set whether trials are run in antithetic pairs, which requires common random numbers
+     * <p>
+     * @param antitheticTrials  true if each even trial uses the antithetic draws of the preceding odd trial
+     */
+    public void setAntitheticTrials(boolean antitheticTrials) {
+        this.antitheticTrials = antitheticTrials;
+    }
+    
+    public boolean isSharedTimeline() {
+        return sharedTimeline;
+    }
+    
+    /**
+     * Set whether the strategies of a trial consume one shared event timeline
+     * <p>
+     * @param sharedTimeline  true if strategies with the same order period and courier delay parameters share one timeline per trial
+     */
+    public void setSharedTimeline(boolean sharedTimeline) {
+        this.sharedTimeline = sharedTimeline;
+    }
+    
+    public boolean isAllocationFree() {
+        return allocationFree;
+    }
+    
+    /**
+     * Set whether kitchens on a shared timeline run the allocation free event path
+     * <p>
+     * @param allocationFree  true if kitchen state is preallocated per order and per order logging is skipped
+     */
+    public void setAllocationFree(boolean allocationFree) {
+        this.allocationFree = allocationFree;
+    }
+    
+    public double getTimeScale() {
+        return timeScale;
+    }
+    
+    /**
+     * Set how many times faster than the wall clock the kitchens run
+     * <p>
+     * @param timeScale  the number of simulated milliseconds per wall clock millisecond, 1 for real time
+     * @throws KitchenSimulationException  if timeScale is outside of the range MIN_TIME_SCALE to MAX_TIME_SCALE
+     */
+    public void setTimeScale(double timeScale) throws KitchenSimulationException {
+        if (!(timeScale >= MIN_TIME_SCALE && timeScale <= MAX_TIME_SCALE)) {
+            throw new KitchenSimulationException("timeScale must be in the range: [" + MIN_TIME_SCALE + ".." + MAX_TIME_SCALE + "]");
+        }
+        this.timeScale = timeScale;
+    }
+    
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+    
+    /**
+     * Set the seed for common random numbers, null to pick a seed at start up
+     * <p>
+     * @param randomSeed  the seed that the order permutations and courier delay draws of every trial are derived from
+     */
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+    
     public boolean isBlocking() {
         return blocking;
     }
@@ -98,19 +339,125 @@ public class KitchenSimulationConfig {
     public void setBlocking(boolean blocking) {
         this.blocking = blocking;
     }
+    
+    public int getMaxConcurrentTrials() {
+        return maxConcurrentTrials;
+    }
+    
+    /**
+     * Set the most trials that run at the same time when not blocking
+     * <p>
+     * @param maxConcurrentTrials  the most trials running at once, or 0 to start every trial right away
+     * @throws KitchenSimulationException  if maxConcurrentTrials is negative
+     */
+    public void setMaxConcurrentTrials(int maxConcurrentTrials) throws KitchenSimulationException {
+        if (maxConcurrentTrials < UNBOUNDED_CONCURRENT_TRIALS) {
+            throw new KitchenSimulationException("maxConcurrentTrials must be greater or equal to 0");
+        }
+        this.maxConcurrentTrials = maxConcurrentTrials;
+    }
 
+    /**
+     * Check the strategies and that the configured modes can be used together
+     * <p>
+     * Called by load, and by anything that builds a configuration in code before running it.
+     * <p>
+     * @throws KitchenSimulationException  if there is no strategy, a strategy is invalid or two settings cannot be used together
+     */
+    public void validate() throws KitchenSimulationException {
+        if (strategies == null || strategies.isEmpty()) {
+            throw new KitchenSimulationException("At least one strategy must be included in the configuration file");
+        }
+        for (Strategy strategy : strategies) {
+            if (!strategy.valid()) {
+                throw new KitchenSimulationException("All strategies require a nonblank 'name' and a 'courierMatchedToOrder' or 'matchingPolicy' setting");
+            }
+        }
+        
+        if (getSweep() != null && getAdaptiveTrials() != null) {
+            throw new KitchenSimulationException("In the configuration file, sweep and adaptiveTrials cannot be used together");
+        }
+        
+        if (getCapacitySearch() != null && (getSweep() != null || getAdaptiveTrials() != null 
+                || getDistributed() != null || getCheckpoint() != null)) {
+            throw new KitchenSimulationException("In the configuration file, capacitySearch cannot be used together with sweep, adaptiveTrials, distributed or checkpoint");
+        }
+        
+        if (getCity() != null && (getSweep() != null || getAdaptiveTrials() != null || getDistributed() != null 
+                || getCheckpoint() != null || getCapacitySearch() != null || isSharedTimeline() || getEventLoop() != null)) {
+            throw new KitchenSimulationException("In the configuration file, city cannot be used together with sweep, adaptiveTrials, distributed, checkpoint, capacitySearch, sharedTimeline or eventLoop");
+        }
+        
+        if (getSteadyState() != null && (getSweep() != null || getAdaptiveTrials() != null || getDistributed() != null 
+                || getCheckpoint() != null || getCapacitySearch() != null || getCity() != null || isSharedTimeline() 
+                || getEventLoop() != null)) {
+            throw new KitchenSimulationException("In the configuration file, steadyState cannot be used together with sweep, adaptiveTrials, distributed, checkpoint, capacitySearch, city, sharedTimeline or eventLoop");
+        }
+        
+        if (getDistributed() != null && getOrderExport() != null) {
+            throw new KitchenSimulationException("In the configuration file, distributed and orderExport cannot be used together");
+        }
+        
+        // only the fixed trials lay out a shared timeline, the other modes would silently run without one
+        if (isSharedTimeline() && (getSweep() != null || getAdaptiveTrials() != null 
+                || getCapacitySearch() != null || getDistributed() != null)) {
+            throw new KitchenSimulationException("In the configuration file, sharedTimeline and allocationFree cannot be used together with sweep, adaptiveTrials, capacitySearch or distributed");
+        }
+        
+        if (isAllocationFree() && !isSharedTimeline()) {
+            throw new KitchenSimulationException("In the configuration file, allocationFree requires sharedTimeline");
+        }
+        
+        // a shared timeline and a city schedule every courier arrival up front, which a finite fleet cannot know in advance
+        if ((isSharedTimeline() || getCity() != null) && strategies.stream().anyMatch(Strategy::hasCourierFleet)) {
+            throw new KitchenSimulationException("In the configuration file, a strategy with a courierFleetSize cannot be used together with sharedTimeline or city");
+        }
+        
+        // they also schedule every food ready time up front, which cannot include the wait for a cook station
+        if ((isSharedTimeline() || getCity() != null) && strategies.stream().anyMatch(Strategy::hasCookStations)) {
+            throw new KitchenSimulationException("In the configuration file, a strategy with cookStations cannot be used together with sharedTimeline or city");
+        }
+        
+        // cancellations and no-shows are drawn while the trial runs, so they cannot be laid out up front either, and a fleet 
+        // courier dispatched for an order that is cancelled or that it does not show up for would never return
+        if ((isSharedTimeline() || getCity() != null || getSteadyState() != null) 
+                && strategies.stream().anyMatch(Strategy::hasCancellationsOrNoShows)) {
+            throw new KitchenSimulationException("In the configuration file, a strategy with an orderCancellationRate or courierNoShowRate cannot be used together with sharedTimeline, city or steadyState");
+        }
+        if (strategies.stream().anyMatch(strategy -> strategy.hasCourierFleet() && strategy.hasCancellationsOrNoShows())) {
+            throw new KitchenSimulationException("In the configuration file, a strategy with a courierFleetSize cannot have an orderCancellationRate or courierNoShowRate");
+        }
+        
+        // a shared timeline and a city run their own timers on the wall clock
+        if ((getTimeScale() != DEFAULT_TIME_SCALE || getPrecisionTimer() != null) 
+                && (isSharedTimeline() || getCity() != null)) {
+            throw new KitchenSimulationException("In the configuration file, timeScale and precisionTimer cannot be used together with sharedTimeline or city");
+        }
+        
+        if (getCheckpoint() != null && getAdaptiveTrials() != null) {
+            throw new KitchenSimulationException("In the configuration file, checkpoint and adaptiveTrials cannot be used together");
+        }
+        
+        if (getDistributed() != null && getAdaptiveTrials() != null) {
+            throw new KitchenSimulationException("In the configuration file, distributed and adaptiveTrials cannot be used together");
+        }
+    }
+        
     /**
      * Load the configuration from a json file
      * <p>
      * @param pathToFile  the path including the file name
      * @return  an a KitchenSimulationConfig with the values specified in the json file
-     * @throws KitchenSimulationException  if the json file specified is invalid
+     * @throws KitchenSimulationException  if the json file specified is invalid or its settings are not valid together
      */
     public static KitchenSimulationConfig load(String pathToFile) throws KitchenSimulationException {
+        KitchenSimulationConfig config;
 		try {
-			return mapper.readValue(new File(pathToFile), KitchenSimulationConfig.class);
+			config = mapper.readValue(new File(pathToFile), KitchenSimulationConfig.class);
 		} catch(IOException e) {
 			throw new KitchenSimulationException("Exception reading jsonFile: " + pathToFile, e);
 		}
+		config.validate();
+		return config;
 	}
 }
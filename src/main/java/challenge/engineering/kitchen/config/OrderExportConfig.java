@@ -0,0 +1,58 @@
+package challenge.engineering.kitchen.config;
+
+import org.apache.commons.lang3.Range;
+import org.apache.commons.lang3.StringUtils;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderExportConfig is the object-to-configuration mapping for exporting the detail of every completed order.
+ * <p>
+ * The orders are streamed to a compressed columnar file.  The parameters are:
+ * <p><ul>
+ * <li>file:  the export file, replaced by each run
+ * <li>rowsPerBlock:  the number of orders buffered in memory before they are compressed and written as a block
+ * </ul>
+ * 
+ */
+public class OrderExportConfig {
+    
+    public static final String DEFAULT_FILE = "order_outcomes.kcol";
+    
+    public static final int MIN_ROWS_PER_BLOCK = 1;
+    public static final int MAX_ROWS_PER_BLOCK = 1 << 22;
+    public static final int DEFAULT_ROWS_PER_BLOCK = 1 << 16;
+    
+    private String file;
+    private int rowsPerBlock;
+    
+    public OrderExportConfig() {
+        // set defaults
+        file = DEFAULT_FILE;
+        rowsPerBlock = DEFAULT_ROWS_PER_BLOCK;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) throws KitchenSimulationException {
+        if (StringUtils.isBlank(file)) {
+            throw new KitchenSimulationException("orderExport file must not be blank");
+        }
+        this.file = file;
+    }
+
+    public int getRowsPerBlock() {
+        return rowsPerBlock;
+    }
+
+    public void setRowsPerBlock(int rowsPerBlock) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(MIN_ROWS_PER_BLOCK, MAX_ROWS_PER_BLOCK);
+        if (!allowedRange.contains(rowsPerBlock)) {
+            throw new KitchenSimulationException("rowsPerBlock must be in the range: " + allowedRange);
+        }
+        this.rowsPerBlock = rowsPerBlock;
+    }
+}
@@ -0,0 +1,41 @@
+package challenge.engineering.kitchen.config;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * PrecisionTimerConfig is the object-to-configuration mapping for running the timers of each kitchen on a dedicated 
+ * precision timer thread.
+ * <p>
+ * The timer thread parks until shortly before the next deadline and busy-spins the rest of the way, and the order time 
+ * stamps are taken with System.nanoTime against the start of the trial.  The parameter is:
+ * <p><ul>
+ * <li>spinInMicroseconds:  how long before a deadline the timer thread stops parking and busy-spins.  Longer spins are 
+ * more accurate on a busy machine at the cost of a core spinning for that long before every timer.
+ * </ul>
+ * 
+ */
+public class PrecisionTimerConfig {
+    
+    public static final int MIN_SPIN_IN_MICROSECONDS = 0;
+    public static final int MAX_SPIN_IN_MICROSECONDS = 10000;
+    public static final int DEFAULT_SPIN_IN_MICROSECONDS = 500;
+    
+    private int spinInMicroseconds;
+    
+    public PrecisionTimerConfig() {
+        // set defaults
+        spinInMicroseconds = DEFAULT_SPIN_IN_MICROSECONDS;
+    }
+    
+    public int getSpinInMicroseconds() {
+        return spinInMicroseconds;
+    }
+    
+    public void setSpinInMicroseconds(int spinInMicroseconds) throws KitchenSimulationException {
+        if (spinInMicroseconds < MIN_SPIN_IN_MICROSECONDS || spinInMicroseconds > MAX_SPIN_IN_MICROSECONDS) {
+            throw new KitchenSimulationException("spinInMicroseconds must be between " + MIN_SPIN_IN_MICROSECONDS + " and " + MAX_SPIN_IN_MICROSECONDS);
+        }
+        this.spinInMicroseconds = spinInMicroseconds;
+    }
+}
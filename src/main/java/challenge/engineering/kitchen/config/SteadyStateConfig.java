@@ -0,0 +1,84 @@
+package challenge.engineering.kitchen.config;
+
+import org.apache.commons.lang3.Range;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * SteadyStateConfig is the object-to-configuration mapping for running each strategy as one open-ended kitchen.
+ * <p>
+ * Instead of placing the ordersPerTrial orders of a trial, the kitchen places orders drawn from the orderJsonFile on 
+ * demand until the duration has passed, and forgets each order as soon as its statistics are recorded.  The parameters are:
+ * <p><ul>
+ * <li>durationInMilliseconds:  how long orders are placed for, 0 to place orders until the run is stopped
+ * <li>maxOrdersInFlight:  the most orders that can be placed but not yet picked up at once, which bounds the memory of the kitchen
+ * <li>reportIntervalInMilliseconds:  how often the progress of each kitchen is logged
+ * </ul>
+ * 
+ */
+public class SteadyStateConfig {
+    
+    public static final long RUN_UNTIL_STOPPED = 0;
+    
+    public static final int MIN_ORDERS_IN_FLIGHT = 1;
+    public static final int MAX_ORDERS_IN_FLIGHT = 1 << 24;
+    public static final int DEFAULT_MAX_ORDERS_IN_FLIGHT = 1 << 16;
+    
+    public static final int MIN_REPORT_INTERVAL_IN_MILLIS = 100;
+    public static final int DEFAULT_REPORT_INTERVAL_IN_MILLIS = 60000;
+    
+    private long durationInMilliseconds;
+    private int maxOrdersInFlight;
+    private int reportIntervalInMilliseconds;
+    
+    public SteadyStateConfig() {
+        // set defaults
+        durationInMilliseconds = RUN_UNTIL_STOPPED;
+        maxOrdersInFlight = DEFAULT_MAX_ORDERS_IN_FLIGHT;
+        reportIntervalInMilliseconds = DEFAULT_REPORT_INTERVAL_IN_MILLIS;
+    }
+    
+    public long getDurationInMilliseconds() {
+        return durationInMilliseconds;
+    }
+    
+    public void setDurationInMilliseconds(long durationInMilliseconds) throws KitchenSimulationException {
+        if (durationInMilliseconds < 0) {
+            throw new KitchenSimulationException("durationInMilliseconds must be greater or equal to 0");
+        }
+        this.durationInMilliseconds = durationInMilliseconds;
+    }
+    
+    /**
+     * Are orders placed until the run is stopped?
+     * <p>
+     * @return  true if no duration is set
+     */
+    public boolean runsUntilStopped() {
+        return durationInMilliseconds == RUN_UNTIL_STOPPED;
+    }
+    
+    public int getMaxOrdersInFlight() {
+        return maxOrdersInFlight;
+    }
+    
+    public void setMaxOrdersInFlight(int maxOrdersInFlight) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(MIN_ORDERS_IN_FLIGHT, MAX_ORDERS_IN_FLIGHT);
+        if (!allowedRange.contains(maxOrdersInFlight)) {
+            throw new KitchenSimulationException("maxOrdersInFlight must be in the range: " + allowedRange);
+        }
+        this.maxOrdersInFlight = maxOrdersInFlight;
+    }
+    
+    public int getReportIntervalInMilliseconds() {
+        return reportIntervalInMilliseconds;
+    }
+    
+    public void setReportIntervalInMilliseconds(int reportIntervalInMilliseconds) throws KitchenSimulationException {
+        if (reportIntervalInMilliseconds < MIN_REPORT_INTERVAL_IN_MILLIS) {
+            throw new KitchenSimulationException("reportIntervalInMilliseconds must be greater or equal to " + MIN_REPORT_INTERVAL_IN_MILLIS);
+        }
+        this.reportIntervalInMilliseconds = reportIntervalInMilliseconds;
+    }
+}
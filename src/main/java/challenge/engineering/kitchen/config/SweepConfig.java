@@ -0,0 +1,90 @@
+package challenge.engineering.kitchen.config;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * SweepConfig is the object-to-configuration mapping for a parameter sweep.
+ * <p>
+ * Each strategy in the configuration is expanded into one variant per combination of the swept parameters.  Parameters
+ * without a sweep range keep the value given in the strategy.  The parameters that can be swept are:
+ * <p><ul>
+ * <li>courierMinDelayInMilliseconds
+ * <li>courierMaxDelayInMilliseconds
+ * <li>orderPeriodInMilliseconds
+ * <li>ordersPerPeriod
+ * </ul><p>
+ * The sweep also supports:<p><ul>
+ * <li>parallelism:  the number of kitchen simulations run at the same time, defaults to the number of available processors
+ * <li>resultsFile:  the csv file that the results table is written to
+ * </ul>
+ * 
+ */
+public class SweepConfig {
+    
+    public static final String DEFAULT_RESULTS_FILE = "sweep_results.csv";
+    
+    private SweepRange courierMinDelayInMilliseconds;
+    private SweepRange courierMaxDelayInMilliseconds;
+    private SweepRange orderPeriodInMilliseconds;
+    private SweepRange ordersPerPeriod;
+    private int parallelism;
+    private String resultsFile;
+    
+    public SweepConfig() {
+        // set defaults
+        parallelism = Runtime.getRuntime().availableProcessors();
+        resultsFile = DEFAULT_RESULTS_FILE;
+    }
+
+    public SweepRange getCourierMinDelayInMilliseconds() {
+        return courierMinDelayInMilliseconds;
+    }
+
+    public void setCourierMinDelayInMilliseconds(SweepRange courierMinDelayInMilliseconds) {
+        this.courierMinDelayInMilliseconds = courierMinDelayInMilliseconds;
+    }
+
+    public SweepRange getCourierMaxDelayInMilliseconds() {
+        return courierMaxDelayInMilliseconds;
+    }
+
+    public void setCourierMaxDelayInMilliseconds(SweepRange courierMaxDelayInMilliseconds) {
+        this.courierMaxDelayInMilliseconds = courierMaxDelayInMilliseconds;
+    }
+
+    public SweepRange getOrderPeriodInMilliseconds() {
+        return orderPeriodInMilliseconds;
+    }
+
+    public void setOrderPeriodInMilliseconds(SweepRange orderPeriodInMilliseconds) {
+        this.orderPeriodInMilliseconds = orderPeriodInMilliseconds;
+    }
+
+    public SweepRange getOrdersPerPeriod() {
+        return ordersPerPeriod;
+    }
+
+    public void setOrdersPerPeriod(SweepRange ordersPerPeriod) {
+        this.ordersPerPeriod = ordersPerPeriod;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) throws KitchenSimulationException {
+        if (parallelism < 1) {
+            throw new KitchenSimulationException("parallelism must be greater or equal to 1");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public String getResultsFile() {
+        return resultsFile;
+    }
+
+    public void setResultsFile(String resultsFile) {
+        this.resultsFile = resultsFile;
+    }
+}
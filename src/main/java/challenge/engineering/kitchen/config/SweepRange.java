@@ -0,0 +1,97 @@
+package challenge.engineering.kitchen.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.collections4.CollectionUtils;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * SweepRange is the object-to-configuration mapping for the values of one strategy parameter in a parameter sweep.
+ * <p>
+ * The values can be given either as a grid or as a range:
+ * <p><ul>
+ * <li>values:  an explicit list of values, for example <code>{"values": [1, 2, 4]}</code>
+ * <li>from, to, step:  every value from <code>from</code> up to and including <code>to</code> in increments of <code>step</code>
+ * </ul>
+ * 
+ */
+public class SweepRange {
+    
+    public static final int DEFAULT_STEP = 1;
+    
+    private List<Integer> values;
+    private Integer from;
+    private Integer to;
+    private int step;
+    
+    public SweepRange() {
+        // set defaults
+        step = DEFAULT_STEP;
+    }
+    
+    public List<Integer> getValues() {
+        return values;
+    }
+
+    public void setValues(List<Integer> values) {
+        this.values = values;
+    }
+
+    public Integer getFrom() {
+        return from;
+    }
+
+    public void setFrom(Integer from) {
+        this.from = from;
+    }
+
+    public Integer getTo() {
+        return to;
+    }
+
+    public void setTo(Integer to) {
+        this.to = to;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public void setStep(int step) throws KitchenSimulationException {
+        if (step < 1) {
+            throw new KitchenSimulationException("step must be greater or equal to 1");
+        }
+        this.step = step;
+    }
+    
+    /**
+     * Expand the grid or the range into the list of values that are swept
+     * <p>
+     * @param parameterName  the name of the strategy parameter used in error messages
+     * @return  the values in the order they are swept
+     * @throws KitchenSimulationException  if neither or both of values and from/to are given, or if from is greater than to
+     */
+    public List<Integer> expand(String parameterName) throws KitchenSimulationException {
+        boolean hasRange = from != null || to != null;
+        if (CollectionUtils.isNotEmpty(values)) {
+            if (hasRange) {
+                throw new KitchenSimulationException("sweep of " + parameterName + " must use either 'values' or 'from'/'to', not both");
+            }
+            return values;
+        }
+        if (from == null || to == null) {
+            throw new KitchenSimulationException("sweep of " + parameterName + " requires either a nonempty 'values' or both 'from' and 'to'");
+        }
+        if (from > to) {
+            throw new KitchenSimulationException("sweep of " + parameterName + " requires 'from' to be less than or equal to 'to'");
+        }
+        List<Integer> expanded = new ArrayList<>();
+        for (long value = from; value <= to; value += step) {
+            expanded.add((int) value);
+        }
+        return expanded;
+    }
+}
@@ -0,0 +1,127 @@
+package challenge.engineering.kitchen.handling;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderExportReader reads back, one block at a time, the completed orders written by OrderExporterImpl.
+ *
+ */
+public class OrderExportReader {
+    
+    private final byte[] block;
+    private int position;
+    
+    private OrderExportReader(byte[] block) {
+        this.block = block;
+    }
+    
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = block[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+    
+    private long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private int[] readColumn(int rows) {
+        int[] column = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            column[i] = (int) readVarLong();
+        }
+        return column;
+    }
+    
+    /**
+     * Read every order of an export file
+     * <p>
+     * @param file  the export file
+     * @param consumer  called with each order in the order they were exported
+     * @return  the number of orders read
+     * @throws KitchenSimulationException  if the file cannot be read or is not an order export file
+     */
+    public static long read(Path file, Consumer<OrderOutcome> consumer) throws KitchenSimulationException {
+        Inflater inflater = new Inflater();
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != OrderExporterImpl.MAGIC || in.readInt() != OrderExporterImpl.VERSION) {
+                throw new KitchenSimulationException("Not an order export file: " + file);
+            }
+            while (true) {
+                int compressedLength;
+                try {
+                    compressedLength = in.readInt();
+                } catch(EOFException e) {
+                    break;
+                }
+                byte[] compressed = new byte[compressedLength];
+                byte[] uncompressed = new byte[in.readInt()];
+                in.readFully(compressed);
+                inflater.reset();
+                inflater.setInput(compressed);
+                inflater.inflate(uncompressed);
+                count += new OrderExportReader(uncompressed).readBlock(consumer);
+            }
+        } catch(IOException | DataFormatException e) {
+            throw new KitchenSimulationException("Exception reading order export file: " + file, e);
+        } finally {
+            inflater.end();
+        }
+        return count;
+    }
+    
+    private int readBlock(Consumer<OrderOutcome> consumer) {
+        int rows = (int) readVarLong();
+        int numStrings = (int) readVarLong();
+        List<String> dictionary = new ArrayList<>(numStrings);
+        for (int i = 0; i < numStrings; i++) {
+            int length = (int) readVarLong();
+            dictionary.add(new String(block, position, length, StandardCharsets.UTF_8));
+            position += length;
+        }
+        int[] strategyIds = readColumn(rows);
+        int[] trialNumbers = readColumn(rows);
+        int[] orderIds = readColumn(rows);
+        int[] orderNames = readColumn(rows);
+        int[] prepTimes = readColumn(rows);
+        long[] pickupTimes = new long[rows];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += readZigZag();
+            pickupTimes[i] = previous;
+        }
+        long[] courierWaitTimes = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            courierWaitTimes[i] = readZigZag();
+        }
+        for (int i = 0; i < rows; i++) {
+            long foodWaitTime = readZigZag();
+            consumer.accept(new OrderOutcome(dictionary.get(strategyIds[i]), trialNumbers[i], dictionary.get(orderIds[i]), 
+                    dictionary.get(orderNames[i]), prepTimes[i], pickupTimes[i] - foodWaitTime, 
+                    pickupTimes[i] - courierWaitTimes[i], pickupTimes[i]));
+        }
+        return rows;
+    }
+}
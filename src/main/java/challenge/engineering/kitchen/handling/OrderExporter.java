@@ -0,0 +1,31 @@
+package challenge.engineering.kitchen.handling;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderExporter writes the detail of every completed order for offline analysis.
+ *
+ */
+public interface OrderExporter extends AutoCloseable {
+    
+    /**
+     * Export a completed order
+     * <p>
+     * @param strategyName  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order
+     * @param orderName  the name of the order
+     * @param prepTime  the preparation time of the order in seconds
+     * @param status  the completed status of the order with its food ready, courier arrival and pickup times
+     */
+    public void export(String strategyName, int trialNumber, String orderId, String orderName, int prepTime, OrderStatus status);
+    
+    /**
+     * Write the orders still buffered and release the export file
+     * <p>
+     * @throws KitchenSimulationException  if the export file cannot be written
+     */
+    @Override
+    public void close() throws KitchenSimulationException;
+}
@@ -0,0 +1,233 @@
+package challenge.engineering.kitchen.handling;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderExporterImpl streams completed orders to a compact columnar file.
+ * <p>
+ * Rows are buffered in primitive column chunks of rowsPerBlock rows.  When a chunk is full it is encoded column by
+ * column, deflated and appended to the file as a block, so memory stays bounded however many orders are exported.
+ * The columns are encoded so that they compress well:
+ * <p><ul>
+ * <li>strategy, order id and order name:  ids into a string dictionary of the block, carried at the start of the 
+ *     block.  The dictionary is reset for each block, so it stays bounded by the rows of a block even when every 
+ *     order id is unique, as with the sequenced ids of a steady state kitchen
+ * <li>trial number and prep time:  variable length integers
+ * <li>pickup time:  the zigzag encoded difference from the previous row of the block
+ * <li>food ready and courier arrival time:  the food wait and courier wait, that is the difference from the pickup time
+ * </ul><p>
+ * File layout: the magic "KCOL", a format version, then blocks made of the compressed length, the uncompressed length 
+ * and the deflated block.  OrderExportReader reads the file back.
+ *
+ */
+public class OrderExporterImpl implements OrderExporter {
+    
+    static Logger log = LoggerFactory.getLogger(OrderExporterImpl.class);
+    
+    static final int MAGIC = 0x4B434F4C;
+    static final int VERSION = 2;
+    
+    private final Path file;
+    private final int rowsPerBlock;
+    private final DataOutputStream out;
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    
+    // the string dictionary of the current block
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newStrings = new ArrayList<>();
+    
+    // the column chunks of the current block
+    private final int[] strategyIds;
+    private final int[] trialNumbers;
+    private final int[] orderIds;
+    private final int[] orderNames;
+    private final int[] prepTimes;
+    private final long[] pickupTimes;
+    private final long[] courierWaitTimes;
+    private final long[] foodWaitTimes;
+    private int rows;
+    
+    private final ByteArrayOutputStream block = new ByteArrayOutputStream();
+    private byte[] compressed = new byte[0];
+    private long rowsExported;
+    private long bytesWritten;
+    private IOException failure;
+    
+    /**
+     * Constructor for the OrderExporterImpl, which creates or replaces the export file
+     * <p>
+     * @param file  the export file
+     * @param rowsPerBlock  the number of rows buffered before a block is compressed and written
+     * @throws KitchenSimulationException  if the export file cannot be created
+     */
+    public OrderExporterImpl(Path file, int rowsPerBlock) throws KitchenSimulationException {
+        this.file = file;
+        this.rowsPerBlock = rowsPerBlock;
+        strategyIds = new int[rowsPerBlock];
+        trialNumbers = new int[rowsPerBlock];
+        orderIds = new int[rowsPerBlock];
+        orderNames = new int[rowsPerBlock];
+        prepTimes = new int[rowsPerBlock];
+        pickupTimes = new long[rowsPerBlock];
+        courierWaitTimes = new long[rowsPerBlock];
+        foodWaitTimes = new long[rowsPerBlock];
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            bytesWritten = 2 * Integer.BYTES;
+        } catch(IOException e) {
+            throw new KitchenSimulationException("Exception creating order export file: " + file, e);
+        }
+    }
+    
+    private int lookup(String value) {
+        Integer id = dictionary.get(value);
+        if (id == null) {
+            id = dictionary.size();
+            dictionary.put(value, id);
+            newStrings.add(value);
+        }
+        return id;
+    }
+    
+    @Override
+    public synchronized void export(String strategyName, int trialNumber, String orderId, String orderName, int prepTime, OrderStatus status) {
+        strategyIds[rows] = lookup(strategyName);
+        trialNumbers[rows] = trialNumber;
+        orderIds[rows] = lookup(orderId);
+        orderNames[rows] = lookup(orderName);
+        prepTimes[rows] = prepTime;
+        pickupTimes[rows] = status.getPickupTimeInMillis();
+        courierWaitTimes[rows] = status.getPickupTimeInMillis() - status.getCourierArrivalTimeInMillis();
+        foodWaitTimes[rows] = status.getPickupTimeInMillis() - status.getFoodReadyTimeInMillis();
+        rows++;
+        if (rows == rowsPerBlock) {
+            flushBlock();
+        }
+    }
+    
+    static void writeVarLong(ByteArrayOutputStream buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.write((int) value);
+    }
+    
+    static void writeZigZag(ByteArrayOutputStream buffer, long value) {
+        writeVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+    
+    private void writeColumn(int[] column) {
+        for (int i = 0; i < rows; i++) {
+            writeVarLong(block, column[i] & 0xFFFFFFFFL);
+        }
+    }
+    
+    /* Encode, compress and write the buffered rows as one block
+     */
+    private void flushBlock() {
+        if (rows == 0 || failure != null) {
+            rows = 0;
+            return;
+        }
+        block.reset();
+        writeVarLong(block, rows);
+        writeVarLong(block, newStrings.size());
+        for (String value : newStrings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(block, bytes.length);
+            block.write(bytes, 0, bytes.length);
+        }
+        newStrings.clear();
+        dictionary.clear();
+        writeColumn(strategyIds);
+        writeColumn(trialNumbers);
+        writeColumn(orderIds);
+        writeColumn(orderNames);
+        writeColumn(prepTimes);
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            writeZigZag(block, pickupTimes[i] - previous);
+            previous = pickupTimes[i];
+        }
+        for (int i = 0; i < rows; i++) {
+            writeZigZag(block, courierWaitTimes[i]);
+        }
+        for (int i = 0; i < rows; i++) {
+            writeZigZag(block, foodWaitTimes[i]);
+        }
+        
+        byte[] uncompressed = block.toByteArray();
+        deflater.reset();
+        deflater.setInput(uncompressed);
+        deflater.finish();
+        if (compressed.length < uncompressed.length + 64) {
+            compressed = new byte[uncompressed.length + 64];
+        }
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        try {
+            out.writeInt(length);
+            out.writeInt(uncompressed.length);
+            out.write(compressed, 0, length);
+            bytesWritten += 2 * Integer.BYTES + length;
+        } catch(IOException e) {
+            failure = e;
+            log.error("Exception writing order export file {}, no more orders are exported: ", file, e);
+        }
+        rowsExported += rows;
+        rows = 0;
+    }
+    
+    synchronized int getDictionarySize() {
+        return dictionary.size();
+    }
+    
+    public synchronized long getRowsExported() {
+        return rowsExported + rows;
+    }
+    
+    @Override
+    public synchronized void close() throws KitchenSimulationException {
+        flushBlock();
+        deflater.end();
+        try {
+            out.close();
+        } catch(IOException e) {
+            failure = (failure == null) ? e : failure;
+        }
+        if (failure != null) {
+            throw new KitchenSimulationException("Exception writing order export file: " + file, failure);
+        }
+        log.info("Exported {} order(s) to {} ({} bytes, {} bytes per order)", rowsExported, file, bytesWritten, 
+                rowsExported == 0 ? 0 : String.format("%.1f", (double) bytesWritten / rowsExported));
+    }
+}
@@ -0,0 +1,90 @@
+package challenge.engineering.kitchen.handling;
+
+/**
+ * 
+ * OrderOutcome is the detail of one completed order: which strategy and trial handled it, the order itself and the
+ * times at which the food was ready, the courier arrived and the order was picked up.
+ *
+ */
+public class OrderOutcome {
+    
+    private final String strategyName;
+    private final int trialNumber;
+    private final String orderId;
+    private final String orderName;
+    private final int prepTime;
+    private final long foodReadyTimeInMillis;
+    private final long courierArrivalTimeInMillis;
+    private final long pickupTimeInMillis;
+    
+    /**
+     * Constructor for an OrderOutcome
+     * <p>
+     * @param strategyName  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order
+     * @param orderName  the name of the order
+     * @param prepTime  the preparation time of the order in seconds
+     * @param foodReadyTimeInMillis  the time the food was ready
+     * @param courierArrivalTimeInMillis  the time the courier arrived
+     * @param pickupTimeInMillis  the time the order was picked up
+     */
+    public OrderOutcome(String strategyName, int trialNumber, String orderId, String orderName, int prepTime, 
+            long foodReadyTimeInMillis, long courierArrivalTimeInMillis, long pickupTimeInMillis) {
+        this.strategyName = strategyName;
+        this.trialNumber = trialNumber;
+        this.orderId = orderId;
+        this.orderName = orderName;
+        this.prepTime = prepTime;
+        this.foodReadyTimeInMillis = foodReadyTimeInMillis;
+        this.courierArrivalTimeInMillis = courierArrivalTimeInMillis;
+        this.pickupTimeInMillis = pickupTimeInMillis;
+    }
+    
+    public String getStrategyName() {
+        return strategyName;
+    }
+    
+    public int getTrialNumber() {
+        return trialNumber;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public String getOrderName() {
+        return orderName;
+    }
+    
+    public int getPrepTime() {
+        return prepTime;
+    }
+    
+    public long getFoodReadyTimeInMillis() {
+        return foodReadyTimeInMillis;
+    }
+    
+    public long getCourierArrivalTimeInMillis() {
+        return courierArrivalTimeInMillis;
+    }
+    
+    public long getPickupTimeInMillis() {
+        return pickupTimeInMillis;
+    }
+    
+    public long getCourierWaitTime() {
+        return pickupTimeInMillis - courierArrivalTimeInMillis;
+    }
+    
+    public long getFoodWaitTime() {
+        return pickupTimeInMillis - foodReadyTimeInMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return "OrderOutcome [strategy=" + strategyName + ", trial=" + trialNumber + ", id=" + orderId + ", name=" + orderName
+                + ", prepTime=" + prepTime + ", foodReadyTime=" + foodReadyTimeInMillis + ", courierArrivalTime=" 
+                + courierArrivalTimeInMillis + ", pickupTime=" + pickupTimeInMillis + "]";
+    }
+}
@@ -1,5 +1,7 @@
 package challenge.engineering.kitchen.handling;
 
+import java.util.concurrent.TimeUnit;
+
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 import challenge.engineering.kitchen.model.KitchenOrder;
 
@@ -30,6 +32,34 @@ public interface OrderStatus {
      */
     public long getFoodReadyTimeInMillis();
     
+    /**
+     * Get the order's pick up time stamp to the microsecond, which keeps the fraction of a millisecond when the kitchen 
+     * clock is precise
+     * <p>
+     * @return  the pickup time in microseconds or 0 if the order has not yet been picked up
+     */
+    public default long getPickupTimeInMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(getPickupTimeInMillis());
+    }
+    
+    /**
+     * Get the order's courier arrival time stamp to the microsecond
+     * <p>
+     * @return  the courier arrival time in microseconds or 0 if the courier has not yet arrived
+     */
+    public default long getCourierArrivalTimeInMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(getCourierArrivalTimeInMillis());
+    }
+    
+    /**
+     * Get the order's food ready time stamp to the microsecond
+     * <p>
+     * @return  the food ready time in microseconds or 0 if the food is not yet ready
+     */
+    public default long getFoodReadyTimeInMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(getFoodReadyTimeInMillis());
+    }
+    
     /**
      * Update the order state based on the event which has occurred.
      * <p>
@@ -45,6 +75,20 @@ public interface OrderStatus {
      */
     public boolean isOrderComplete();
     
+    /**
+     * Was the order cancelled before it was picked up?
+     * <p>
+     * @return  true if the order is cancelled
+     */
+    public boolean isOrderCancelled();
+    
+    /**
+     * Get the number of couriers dispatched for the order that never showed up
+     * <p>
+     * @return  the number of courier no-shows
+     */
+    public int getCourierNoShows();
+    
     /**
      * Is the food ready and waiting on pick up?
      * <p>
@@ -68,5 +112,15 @@ public interface OrderStatus {
      * @throws KitchenSimulationException  if the state is incorrect for the order status itself or the state of the other.
      */
     public void assignToWaitingCourier(OrderStatus other) throws KitchenSimulationException;
+    
+    /**
+     * Hand a food is ready order to a courier, which may be the courier of any order.
+     * <p>
+     * OrderStatus takes the arrival time of the courier and marks the order complete.
+     * <p>
+     * @param courierArrivalTimeInMicros  the time the courier arrived at the kitchen, in microseconds
+     * @throws KitchenSimulationException  if the food of the order is not waiting on a courier
+     */
+    public void assignToCourier(long courierArrivalTimeInMicros) throws KitchenSimulationException;
 
 }
@@ -1,67 +1,137 @@
 package challenge.engineering.kitchen.handling;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.jfr.OrderCompletedEvent;
 import challenge.engineering.kitchen.model.KitchenOrder;
 
 /**
  * 
- * OrderStatus holds states for a given order.  THere are 5 states:
+ * OrderStatus holds states for a given order.  THere are 6 states:
  * <p><ul>
  * <li>NO_ORDER_YET:            No order has yet been associated with this object.
  * <li>ORDER_RECEIVED:          An order has been placed.
  * <li>COURIER_ARRIVES_FIRST:   The courier arrives before the food is ready.
  * <li>FOOD_ARRIVES_FIRST:      The food is ready before the courier arrives.
  * <li>ORDER_COMPLETED:         The food is ready and has been given to a courier for delivery.
- *</ul>
+ * <li>ORDER_CANCELLED:         The order was cancelled before it was picked up.
+ *</ul><p>
+ * A courier no-show leaves the state of the order as it was, since the courier never arrived, and is counted.  An 
+ * order can be cancelled in any state after it was received and before it is completed.
+ * <p>
+ * The time stamps are kept in microseconds, so that the wait times of a kitchen with a precise clock keep their 
+ * fraction of a millisecond.
  */
 public class OrderStatusImpl implements OrderStatus {
     
     static Logger log = LoggerFactory.getLogger(OrderStatusImpl.class);
     
     private State state;
-    private long foodReadyTimeInMills;
-    private long courierArrivalTimeInMillis;
-    private long pickupTimeInMillis;
-    
+    private long foodReadyTimeInMicros;
+    private long courierArrivalTimeInMicros;
+    private long pickupTimeInMicros;
+    private int courierNoShows;
+    private String strategyName;
+    private int trialNumber;
+    private String orderId;
+    private final LongSupplier clock;
+
     private enum State {
         NO_ORDER_YET,
         ORDER_RECEIVED,
         COURIER_ARRIVES_FIRST,
         FOOD_ARRIVES_FIRST,
-        ORDER_COMPLETED
+        ORDER_COMPLETED,
+        ORDER_CANCELLED
     };
    
     /**
-     * 
+     *
      */
     public OrderStatusImpl() {
-        foodReadyTimeInMills = 0;
-        courierArrivalTimeInMillis = 0;
-        pickupTimeInMillis = 0;
+        this(null, 0, null);
+    }
+
+    /**
+     * Constructor for an order status that identifies its order in the flight recorder events it emits
+     * <p>
+     * @param strategyName  the name of the strategy used by the kitchen handling the order
+     * @param trialNumber  the trial number of the kitchen handling the order
+     * @param orderId  the id of the order
+     */
+    public OrderStatusImpl(String strategyName, int trialNumber, String orderId) {
+        this(strategyName, trialNumber, orderId, () -> TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+    }
+    
+    /**
+     * Constructor for an order status that reads its time stamps from the clock of the kitchen handling the order
+     * <p>
+     * @param strategyName  the name of the strategy used by the kitchen handling the order
+     * @param trialNumber  the trial number of the kitchen handling the order
+     * @param orderId  the id of the order
+     * @param clock  the current time in microseconds, which are simulated microseconds when the simulation is time scaled
+     */
+    public OrderStatusImpl(String strategyName, int trialNumber, String orderId, LongSupplier clock) {
+        this.clock = clock;
+        reset(strategyName, trialNumber, orderId);
+    }
+    
+    /**
+     * Reuse the order status for another order, as if it had just been constructed with the same clock
+     * <p>
+     * @param strategyName  the name of the strategy used by the kitchen handling the order
+     * @param trialNumber  the trial number of the kitchen handling the order
+     * @param orderId  the id of the order
+     */
+    public void reset(String strategyName, int trialNumber, String orderId) {
+        this.strategyName = strategyName;
+        this.trialNumber = trialNumber;
+        this.orderId = orderId;
+        foodReadyTimeInMicros = 0;
+        courierArrivalTimeInMicros = 0;
+        pickupTimeInMicros = 0;
+        courierNoShows = 0;
         state = State.NO_ORDER_YET;
     }
     
     @Override
     public long getFoodReadyTimeInMillis() {
-        return foodReadyTimeInMills;
+        return TimeUnit.MICROSECONDS.toMillis(foodReadyTimeInMicros);
     }
     
     @Override
     public long getCourierArrivalTimeInMillis() {
-        return courierArrivalTimeInMillis;
+        return TimeUnit.MICROSECONDS.toMillis(courierArrivalTimeInMicros);
     }
     
     @Override
     public long getPickupTimeInMillis() {
-        return pickupTimeInMillis;
+        return TimeUnit.MICROSECONDS.toMillis(pickupTimeInMicros);
+    }
+    
+    @Override
+    public long getFoodReadyTimeInMicros() {
+        return foodReadyTimeInMicros;
+    }
+    
+    @Override
+    public long getCourierArrivalTimeInMicros() {
+        return courierArrivalTimeInMicros;
+    }
+    
+    @Override
+    public long getPickupTimeInMicros() {
+        return pickupTimeInMicros;
     }
     
     private void makeOrderComplete() {
         state = State.ORDER_COMPLETED;
-        pickupTimeInMillis = System.currentTimeMillis();
+        pickupTimeInMicros = clock.getAsLong();
     }
     
     @Override
@@ -83,8 +153,9 @@ public class OrderStatusImpl implements OrderStatus {
                 } else {
                     throw new KitchenSimulationException("Unexpected State for COURIER_ARRIVES: " + state);
                 }
-                if (courierArrivalTimeInMillis == 0) {
-                    courierArrivalTimeInMillis = System.currentTimeMillis();
+                if (courierArrivalTimeInMicros == 0) {
+                    // the courier arriving to food that is ready is picked up in the same instant
+                    courierArrivalTimeInMicros = state == State.ORDER_COMPLETED ? pickupTimeInMicros : clock.getAsLong();
                 }
                 break;
             }
@@ -96,9 +167,24 @@ public class OrderStatusImpl implements OrderStatus {
                 } else {
                     throw new KitchenSimulationException("Unexpected State for FOOD_IS_READY: " + state);
                 }
-                if (foodReadyTimeInMills == 0) {
-                    foodReadyTimeInMills = System.currentTimeMillis();
+                if (foodReadyTimeInMicros == 0) {
+                    // food that is ready for a waiting courier is picked up in the same instant
+                    foodReadyTimeInMicros = state == State.ORDER_COMPLETED ? pickupTimeInMicros : clock.getAsLong();
+                }
+                break;
+            }
+            case CANCELLED: {
+                if (state == State.NO_ORDER_YET || state == State.ORDER_COMPLETED || state == State.ORDER_CANCELLED) {
+                    throw new KitchenSimulationException("Unexpected State for CANCELLED: " + state);
                 }
+                state = State.ORDER_CANCELLED;
+                break;
+            }
+            case COURIER_NO_SHOW: {
+                if (state != State.ORDER_RECEIVED && state != State.FOOD_ARRIVES_FIRST) {
+                    throw new KitchenSimulationException("Unexpected State for COURIER_NO_SHOW: " + state);
+                }
+                courierNoShows++;
                 break;
             }
             case ORDER_COMPLETED: {
@@ -106,17 +192,26 @@ public class OrderStatusImpl implements OrderStatus {
                     throw new KitchenSimulationException("Unexpected State for ORDER_COMPLETED: " + state);
                 }
                 makeOrderComplete();
-                if (foodReadyTimeInMills == 0) {
-                    foodReadyTimeInMills = pickupTimeInMillis;
+                if (foodReadyTimeInMicros == 0) {
+                    foodReadyTimeInMicros = pickupTimeInMicros;
                 }
-                if (courierArrivalTimeInMillis == 0) {
-                    courierArrivalTimeInMillis = pickupTimeInMillis;
+                if (courierArrivalTimeInMicros == 0) {
+                    courierArrivalTimeInMicros = pickupTimeInMicros;
                 }
                 break;
             }
             default:
                 throw new KitchenSimulationException("Unexpected event: " + event);
         };
+        if (isOrderComplete()) {
+            emitOrderCompleted();
+        }
+    }
+    
+    private void emitOrderCompleted() {
+        OrderCompletedEvent.emit(strategyName, trialNumber, orderId, 
+                TimeUnit.MICROSECONDS.toMillis(pickupTimeInMicros - courierArrivalTimeInMicros), 
+                TimeUnit.MICROSECONDS.toMillis(pickupTimeInMicros - foodReadyTimeInMicros));
     }
         
     @Override
@@ -124,6 +219,16 @@ public class OrderStatusImpl implements OrderStatus {
         return state == State.ORDER_COMPLETED;
     }
     
+    @Override
+    public boolean isOrderCancelled() {
+        return state == State.ORDER_CANCELLED;
+    }
+    
+    @Override
+    public int getCourierNoShows() {
+        return courierNoShows;
+    }
+    
     /**
      * 
      * @return
@@ -141,16 +246,27 @@ public class OrderStatusImpl implements OrderStatus {
     @Override
     public void assignToWaitingCourier(OrderStatus other) throws KitchenSimulationException {
         if (isWaitingOnCourier() && other.isWaitingOnFood()) {
-            courierArrivalTimeInMillis = other.getCourierArrivalTimeInMillis();
+            courierArrivalTimeInMicros = other.getCourierArrivalTimeInMicros();
             makeOrderComplete();
+            emitOrderCompleted();
         } else {
             throw new KitchenSimulationException("Unexpected state: found isWaitingOnCourier: " + isWaitingOnCourier() + ", assigned has isWaitingOnFood: " + other.isWaitingOnFood() + ", expected COURIER_ARRIVES_FIRST);");
         }
     }
     
+    @Override
+    public void assignToCourier(long courierArrivalTimeInMicros) throws KitchenSimulationException {
+        if (!isWaitingOnCourier()) {
+            throw new KitchenSimulationException("Unexpected state: found isWaitingOnCourier: false, expected FOOD_ARRIVES_FIRST");
+        }
+        this.courierArrivalTimeInMicros = courierArrivalTimeInMicros;
+        makeOrderComplete();
+        emitOrderCompleted();
+    }
+    
     @Override
     public String toString() {
-        return "OrderStatus [foodReadyTime=" + foodReadyTimeInMills + ", courierReadyTime=" + courierArrivalTimeInMillis
-                + ", pickupTime=" + pickupTimeInMillis + "]";
+        return "OrderStatus [foodReadyTime=" + getFoodReadyTimeInMillis() + ", courierReadyTime=" + getCourierArrivalTimeInMillis()
+                + ", pickupTime=" + getPickupTimeInMillis() + "]";
     }
 }
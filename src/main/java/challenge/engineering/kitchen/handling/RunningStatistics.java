@@ -0,0 +1,203 @@
+package challenge.engineering.kitchen.handling;
+
+/**
+ * 
+ * RunningStatistics keeps the count, mean and variance of a stream of samples without storing the samples, using
+ * Welford's online algorithm.
+ * <p>
+ * It is used for trial level estimates, such as the mean courier wait time across trials, where a confidence interval
+ * on the mean decides whether more trials are needed.  The interval uses the Student t distribution with count - 1
+ * degrees of freedom, since a run often checks it after only a handful of trials, where the normal approximation is
+ * far too narrow.
+ *
+ */
+public class RunningStatistics {
+    
+    private long count = 0;
+    private double mean = 0;
+    private double sumOfSquaredDeviations = 0;
+    
+    /**
+     * Add a sample
+     * <p>
+     * @param value  the sample
+     */
+    public void add(double value) {
+        count += 1;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquaredDeviations += delta * (value - mean);
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public double getMean() {
+        return mean;
+    }
+    
+    /**
+     * Get the sample variance
+     * <p>
+     * @return  the sample variance or 0 if there are fewer than 2 samples
+     */
+    public double getSampleVariance() {
+        return count > 1 ? sumOfSquaredDeviations / (count - 1) : 0;
+    }
+    
+    /**
+     * Get the standard error of the mean
+     * <p>
+     * @return  the standard error or positive infinity if there are fewer than 2 samples
+     */
+    public double getStandardError() {
+        return count > 1 ? Math.sqrt(getSampleVariance() / count) : Double.POSITIVE_INFINITY;
+    }
+    
+    /**
+     * Get the half width of the Student t confidence interval on the mean
+     * <p>
+     * @param confidenceLevel  the confidence level between 0 and 1, for example 0.95
+     * @return  the half width or positive infinity if there are fewer than 2 samples
+     */
+    public double getConfidenceIntervalHalfWidth(double confidenceLevel) {
+        if (count < 2) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return studentTQuantile(0.5 + confidenceLevel / 2, count - 1) * getStandardError();
+    }
+    
+    /**
+     * Inverse of the cumulative distribution function of the Student t distribution
+     * <p>
+     * Up to 100 degrees of freedom, the distribution function is inverted by bisection to well below 1e-9.  Above, the 
+     * Cornish-Fisher expansion around the normal quantile is within 1e-7.
+     * <p>
+     * @param p  the probability strictly between 0 and 1
+     * @param degreesOfFreedom  the degrees of freedom, at least 1
+     * @return  the quantile of the Student t distribution
+     */
+    static double studentTQuantile(double p, long degreesOfFreedom) {
+        if (p < 0.5) {
+            return -studentTQuantile(1 - p, degreesOfFreedom);
+        }
+        if (degreesOfFreedom > 100) {
+            double z = normalQuantile(p);
+            double z2 = z * z;
+            double v = degreesOfFreedom;
+            return z + z * (z2 + 1) / (4 * v) 
+                    + z * ((5 * z2 + 16) * z2 + 3) / (96 * v * v) 
+                    + z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384 * v * v * v) 
+                    + z * ((((79 * z2 + 776) * z2 + 1482) * z2 - 1920) * z2 - 945) / (92160 * v * v * v * v);
+        }
+        double low = 0;
+        double high = Math.max(1, normalQuantile(p));
+        while (studentTDistribution(high, degreesOfFreedom) < p) {
+            low = high;
+            high *= 2;
+        }
+        for (int i = 0; i < 200 && high - low > 1e-12 * high; i++) {
+            double middle = (low + high) / 2;
+            if (studentTDistribution(middle, degreesOfFreedom) < p) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return (low + high) / 2;
+    }
+    
+    /* The cumulative distribution function of the Student t distribution at t >= 0
+     */
+    private static double studentTDistribution(double t, long degreesOfFreedom) {
+        double v = degreesOfFreedom;
+        return 1 - 0.5 * regularizedIncompleteBeta(v / (v + t * t), v / 2, 0.5);
+    }
+    
+    /* The regularized incomplete beta function, evaluated with the continued fraction of Numerical Recipes
+     */
+    private static double regularizedIncompleteBeta(double x, double a, double b) {
+        if (x <= 0) {
+            return 0;
+        }
+        if (x >= 1) {
+            return 1;
+        }
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * betaContinuedFraction(x, a, b) / a;
+        }
+        return 1 - front * betaContinuedFraction(1 - x, b, a) / b;
+    }
+    
+    private static double betaContinuedFraction(double x, double a, double b) {
+        final double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        d = 1 / (Math.abs(d) < tiny ? tiny : d);
+        double h = d;
+        for (int m = 1; m <= 1000; m++) {
+            int m2 = 2 * m;
+            double numerator = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            h *= d * c;
+            numerator = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 / nonZero(1 + numerator * d, tiny);
+            c = nonZero(1 + numerator / c, tiny);
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) {
+                break;
+            }
+        }
+        return h;
+    }
+    
+    private static double nonZero(double value, double tiny) {
+        return Math.abs(value) < tiny ? tiny : value;
+    }
+    
+    /* The logarithm of the gamma function, with the Lanczos approximation
+     */
+    private static double logGamma(double x) {
+        final double[] coefficients = {76.18009172947146, -86.50532032941677, 24.01409824083091, -1.231739572450155, 
+                0.1208650973866179e-2, -0.5395239384953e-5};
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : coefficients) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+    
+    /**
+     * Inverse of the standard normal cumulative distribution function
+     * <p>
+     * Uses Acklam's rational approximation which has a relative error below 1.15e-9.
+     * <p>
+     * @param p  the probability strictly between 0 and 1
+     * @return  the quantile of the standard normal distribution
+     */
+    static double normalQuantile(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02, 1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02, 6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00, -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        final double low = 0.02425;
+        
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0]*q + c[1])*q + c[2])*q + c[3])*q + c[4])*q + c[5]) / ((((d[0]*q + d[1])*q + d[2])*q + d[3])*q + 1);
+        } else if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0]*q + c[1])*q + c[2])*q + c[3])*q + c[4])*q + c[5]) / ((((d[0]*q + d[1])*q + d[2])*q + d[3])*q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0]*r + a[1])*r + a[2])*r + a[3])*r + a[4])*r + a[5])*q / (((((b[0]*r + b[1])*r + b[2])*r + b[3])*r + b[4])*r + 1);
+    }
+}
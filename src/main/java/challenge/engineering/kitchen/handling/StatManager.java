@@ -53,6 +53,18 @@ public interface StatManager {
      */
     public double getMedian(String strategyName, String column);
     
+    /**
+     * Get the nearest-rank percentile in milliseconds for a given strategy name and column type
+     * <p>
+     * Percentiles are only available when the StatManager is using full statistics.
+     * <p>
+     * @param strategyName  the name of the strategy related to the metric
+     * @param column  the column type which is either COURIER_WAIT_TIME or FOOD_WAIT_TIME
+     * @param percentile  the percentile between 0 and 100
+     * @return  the percentile or 0 if there are no values found.
+     */
+    public double getPercentile(String strategyName, String column, double percentile);
+    
     /**
      * Get the average courier wait time in milliseconds by strategy name
      * <p>
@@ -84,4 +96,18 @@ public interface StatManager {
      * @param status  the status of the order which includes the time stamps of related to the order.
      */
     public void updateStats(Strategy strategy, OrderStatus status);
+    
+    /**
+     * Take a copy of the statistics collected so far
+     * <p>
+     * @return  the totals and, with full statistics, the histograms of each strategy
+     */
+    public StatSnapshot getSnapshot();
+    
+    /**
+     * Add statistics collected elsewhere, such as by another process, to the statistics of this StatManager
+     * <p>
+     * @param snapshot  the statistics to add
+     */
+    public void merge(StatSnapshot snapshot);
 }
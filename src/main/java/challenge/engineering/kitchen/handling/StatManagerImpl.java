@@ -21,7 +21,9 @@ import challenge.engineering.kitchen.model.Strategy;
  * <li>Total Orders Completed
  * <li>Total Food Wait Time:  Delay between when the food is ready and the courier arrives
  * <li>Total Courier Wait Time:  Delay between when the courier arrives and the food is ready.   
- * </ul>
+ * </ul><p>
+ * The wait times are kept in microseconds, taken from the time stamps of the orders, and reported in milliseconds, so 
+ * the wait times of kitchens with a precise clock keep their fraction of a millisecond.
  * 
  */
 public class StatManagerImpl implements StatManager {
@@ -32,12 +34,15 @@ public class StatManagerImpl implements StatManager {
 	private Map<String, Map<Long, Integer>> numLogsByStrategyNameAndColumn = new HashMap<>();
 	private boolean usingFullStatistics = false;
 	
+	// the wait times in microseconds
 	class CumulativeTotals {
 	      long totalOrderCount=0;
 	      long totalCourierWaitTime=0;
 	      long totalFoodWaitTime=0;
 	};
 	
+	private static final double MICROS_PER_MILLI = TimeUnit.MILLISECONDS.toMicros(1);
+	
 	/**
 	 * Constructor for StatManager which logs each completed order and is used to generate statistics
 	 * <p>
@@ -47,18 +52,25 @@ public class StatManagerImpl implements StatManager {
 	    this.usingFullStatistics = usingFullStatistics;
 	}
 
+	// kitchens running in parallel add new strategy names while others read their averages
+	private CumulativeTotals getTotals(String strategyName) {
+	    synchronized(statsByStrategyName) {
+	        return statsByStrategyName.get(strategyName);
+	    }
+	}
+	
 	@Override
 	public double getAverageFoodWaitTime(String strategyName) {
 	    
-		CumulativeTotals totals = statsByStrategyName.get(strategyName);
+		CumulativeTotals totals = getTotals(strategyName);
 		double totalCount = totals.totalOrderCount;
-		double totalFoodWaitTime = totals.totalFoodWaitTime;
+		double totalFoodWaitTime = totals.totalFoodWaitTime / MICROS_PER_MILLI;
 		return totalFoodWaitTime/totalCount;
 	}
 	
 	@Override
 	public long getNumOrdersCompleted(String strategyName) {
-	    CumulativeTotals totals = statsByStrategyName.get(strategyName);
+	    CumulativeTotals totals = getTotals(strategyName);
 	    return totals.totalOrderCount;
 	}
 	
@@ -71,7 +83,7 @@ public class StatManagerImpl implements StatManager {
 	    if (numLogsByStrategyNameAndColumn.containsKey(key)) {
 	        for (Entry<Long, Integer> entry : numLogsByStrategyNameAndColumn.get(key).entrySet()) {
 	            for (int i=0; i < entry.getValue(); i++) {
-	                sum+=Math.pow((entry.getKey()-mean),2);
+	                sum+=Math.pow((entry.getKey() / MICROS_PER_MILLI - mean),2);
 	            }
 	        }
 	    }
@@ -93,30 +105,48 @@ public class StatManagerImpl implements StatManager {
 	            orderedList.add(entry.getKey());
 	        }
 	    }
-	    return  (n % 2 == 1) ? orderedList.get((n.intValue()+1)/2-1) : (orderedList.get(n.intValue()/2-1) + orderedList.get(n.intValue()/2))/2; 
+	    double median = (n % 2 == 1) ? orderedList.get((n.intValue()+1)/2-1) : (orderedList.get(n.intValue()/2-1) + orderedList.get(n.intValue()/2))/2.0;
+	    return median / MICROS_PER_MILLI;
+	}
+	
+	@Override
+	public double getPercentile(String strategyName, String column, double percentile) {
+	    Map<Long, Integer> numLogs = numLogsByStrategyNameAndColumn.get(buildKey(strategyName, column));
+	    if (numLogs == null || getTotals(strategyName) == null) {
+	        return 0;
+	    }
+	    // nearest-rank percentile walked over the sorted counts
+	    long n = getNumOrdersCompleted(strategyName);
+	    long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+	    long seen = 0;
+	    for (Entry<Long, Integer> entry : numLogs.entrySet()) {
+	        seen += entry.getValue();
+	        if (seen >= rank) {
+	            return entry.getKey() / MICROS_PER_MILLI;
+	        }
+	    }
+	    return 0;
 	}
 	
 	@Override
 	public double getAverageCourierWaitTime(String strategyName) {
-	    CumulativeTotals totals = statsByStrategyName.get(strategyName);
+	    CumulativeTotals totals = getTotals(strategyName);
 		double totalCount = totals.totalOrderCount;
-		double totalCourierWaitTime = totals.totalCourierWaitTime;
+		double totalCourierWaitTime = totals.totalCourierWaitTime / MICROS_PER_MILLI;
 		return totalCourierWaitTime/totalCount;
 	}
 	
 	// Used for median and standard deviation which are only used when usingFullStatistics is true
 	private void addToNumLogs(String key, long num) {
+	    addToNumLogs(key, num, 1);
+	}
+	
+	private void addToNumLogs(String key, long num, int times) {
 	    Map<Long, Integer> numLogs = numLogsByStrategyNameAndColumn.get(key);
 	    if (numLogs == null) {
 	        numLogs = new TreeMap<>();
 	    }
-	    if (numLogs.containsKey(num)) {
-	        int count = numLogs.get(num);
-	        count += 1;
-	        numLogs.put(num, count);
-	    } else {
-	        numLogs.put(num,  1);
-	    }
+	    numLogs.merge(num, times, Integer::sum);
 	    numLogsByStrategyNameAndColumn.put(key, numLogs);
 	}
 	
@@ -132,8 +162,8 @@ public class StatManagerImpl implements StatManager {
 			if (totals == null) {
 				totals = new CumulativeTotals();
 			}
-			long courierWaitTime = status.getPickupTimeInMillis() - status.getCourierArrivalTimeInMillis();
-			long foodWaitTime = status.getPickupTimeInMillis() - status.getFoodReadyTimeInMillis();
+			long courierWaitTime = status.getPickupTimeInMicros() - status.getCourierArrivalTimeInMicros();
+			long foodWaitTime = status.getPickupTimeInMicros() - status.getFoodReadyTimeInMicros();
 			totals.totalOrderCount += 1;
 			totals.totalCourierWaitTime += courierWaitTime;
 			totals.totalFoodWaitTime += foodWaitTime;
@@ -148,6 +178,40 @@ public class StatManagerImpl implements StatManager {
 		}
 	}
 	
+	@Override
+	public StatSnapshot getSnapshot() {
+	    StatSnapshot snapshot = new StatSnapshot();
+	    synchronized(statsByStrategyName) {
+	        for (Entry<String, CumulativeTotals> entry : statsByStrategyName.entrySet()) {
+	            CumulativeTotals totals = entry.getValue();
+	            snapshot.getTotals().put(entry.getKey(), new long[] {totals.totalOrderCount, totals.totalCourierWaitTime, totals.totalFoodWaitTime});
+	        }
+	        for (Entry<String, Map<Long, Integer>> entry : numLogsByStrategyNameAndColumn.entrySet()) {
+	            snapshot.getHistograms().put(entry.getKey(), new TreeMap<>(entry.getValue()));
+	        }
+	    }
+	    return snapshot;
+	}
+	
+	@Override
+	public void merge(StatSnapshot snapshot) {
+	    synchronized(statsByStrategyName) {
+	        for (Entry<String, long[]> entry : snapshot.getTotals().entrySet()) {
+	            CumulativeTotals totals = statsByStrategyName.computeIfAbsent(entry.getKey(), name -> new CumulativeTotals());
+	            totals.totalOrderCount += entry.getValue()[StatSnapshot.TOTAL_ORDER_COUNT];
+	            totals.totalCourierWaitTime += entry.getValue()[StatSnapshot.TOTAL_COURIER_WAIT_TIME];
+	            totals.totalFoodWaitTime += entry.getValue()[StatSnapshot.TOTAL_FOOD_WAIT_TIME];
+	        }
+	        if (usingFullStatistics) {
+	            for (Entry<String, Map<Long, Integer>> histogram : snapshot.getHistograms().entrySet()) {
+	                for (Entry<Long, Integer> entry : histogram.getValue().entrySet()) {
+	                    addToNumLogs(histogram.getKey(), entry.getKey(), entry.getValue());
+	                }
+	            }
+	        }
+	    }
+	}
+	
 	@Override
 	public boolean reportResults(long startTime) {
 		if (CollectionUtils.isEmpty(statsByStrategyName.keySet())) {
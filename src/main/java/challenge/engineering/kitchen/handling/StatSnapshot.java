@@ -0,0 +1,46 @@
+package challenge.engineering.kitchen.handling;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 
+ * StatSnapshot is a serializable copy of the statistics held by a StatManager so that partial results computed
+ * elsewhere (another process, an earlier run) can be merged into a StatManager.
+ * <p><ul>
+ * <li>totals:  per strategy name, the total order count, total courier wait time and total food wait time
+ * <li>histograms:  per strategy name and column, the number of orders logged with each wait time (full statistics only)
+ * </ul><p>
+ * The wait times are in microseconds.
+ * 
+ */
+public class StatSnapshot {
+    
+    public static final int TOTAL_ORDER_COUNT = 0;
+    public static final int TOTAL_COURIER_WAIT_TIME = 1;
+    public static final int TOTAL_FOOD_WAIT_TIME = 2;
+    
+    private Map<String, long[]> totals;
+    private Map<String, Map<Long, Integer>> histograms;
+    
+    public StatSnapshot() {
+        totals = new HashMap<>();
+        histograms = new HashMap<>();
+    }
+    
+    public Map<String, long[]> getTotals() {
+        return totals;
+    }
+    
+    public void setTotals(Map<String, long[]> totals) {
+        this.totals = totals;
+    }
+    
+    public Map<String, Map<Long, Integer>> getHistograms() {
+        return histograms;
+    }
+    
+    public void setHistograms(Map<String, Map<Long, Integer>> histograms) {
+        this.histograms = histograms;
+    }
+}
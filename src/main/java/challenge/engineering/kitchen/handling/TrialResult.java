@@ -0,0 +1,75 @@
+package challenge.engineering.kitchen.handling;
+
+/**
+ * The wait time totals of a single kitchen simulation trial.
+ *
+ */
+public class TrialResult {
+    
+    private final String strategyName;
+    private final int trialNumber;
+    private final long ordersCompleted;
+    private final double totalCourierWaitTime;
+    private final double totalFoodWaitTime;
+    
+    /**
+     * Constructor for TrialResult
+     * <p>
+     * @param strategyName  the name of the strategy used by the trial
+     * @param trialNumber  the trial number
+     * @param ordersCompleted  the number of orders completed in the trial
+     * @param totalCourierWaitTime  the sum of the courier wait times in milliseconds, with the fraction of a millisecond of a precise clock
+     * @param totalFoodWaitTime  the sum of the food wait times in milliseconds
+     */
+    public TrialResult(String strategyName, int trialNumber, long ordersCompleted, double totalCourierWaitTime, double totalFoodWaitTime) {
+        this.strategyName = strategyName;
+        this.trialNumber = trialNumber;
+        this.ordersCompleted = ordersCompleted;
+        this.totalCourierWaitTime = totalCourierWaitTime;
+        this.totalFoodWaitTime = totalFoodWaitTime;
+    }
+    
+    public String getStrategyName() {
+        return strategyName;
+    }
+    
+    public int getTrialNumber() {
+        return trialNumber;
+    }
+    
+    public long getOrdersCompleted() {
+        return ordersCompleted;
+    }
+    
+    public double getTotalCourierWaitTime() {
+        return totalCourierWaitTime;
+    }
+    
+    public double getTotalFoodWaitTime() {
+        return totalFoodWaitTime;
+    }
+    
+    /**
+     * Get the average courier wait time of the trial
+     * <p>
+     * @return  the average courier wait time in milliseconds or 0 if no orders were completed
+     */
+    public double getAverageCourierWaitTime() {
+        return ordersCompleted == 0 ? 0 : totalCourierWaitTime / ordersCompleted;
+    }
+    
+    /**
+     * Get the average food wait time of the trial
+     * <p>
+     * @return  the average food wait time in milliseconds or 0 if no orders were completed
+     */
+    public double getAverageFoodWaitTime() {
+        return ordersCompleted == 0 ? 0 : totalFoodWaitTime / ordersCompleted;
+    }
+
+    @Override
+    public String toString() {
+        return "TrialResult [strategyName=" + strategyName + ", trialNumber=" + trialNumber + ", ordersCompleted=" + ordersCompleted
+                + ", averageCourierWaitTime=" + getAverageCourierWaitTime() + ", averageFoodWaitTime=" + getAverageFoodWaitTime() + "]";
+    }
+}
@@ -0,0 +1,32 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when the courier dispatched for an order arrives at the kitchen.
+ */
+@Name("challenge.engineering.kitchen.CourierArrived")
+@Label("Courier Arrived")
+@Description("The courier dispatched for an order has arrived at the kitchen")
+public final class CourierArrivedEvent extends KitchenOrderEvent {
+
+    private static final EventType TYPE = EventType.getEventType(CourierArrivedEvent.class);
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order the courier was dispatched for
+     */
+    public static void emit(String strategy, int trialNumber, String orderId) {
+        if (TYPE.isEnabled()) {
+            CourierArrivedEvent event = new CourierArrivedEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when the courier dispatched for an order never shows up at the kitchen.
+ */
+@Name("challenge.engineering.kitchen.CourierNoShow")
+@Label("Courier No-Show")
+@Description("The courier dispatched for an order never showed up and a replacement is dispatched")
+public final class CourierNoShowEvent extends KitchenOrderEvent {
+    
+    private static final EventType TYPE = EventType.getEventType(CourierNoShowEvent.class);
+    
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order the courier was dispatched for
+     */
+    public static void emit(String strategy, int trialNumber, String orderId) {
+        if (TYPE.isEnabled()) {
+            CourierNoShowEvent event = new CourierNoShowEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.commit();
+        }
+    }
+}
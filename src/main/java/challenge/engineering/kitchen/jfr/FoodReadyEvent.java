@@ -0,0 +1,32 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when the food for an order has been prepared.
+ */
+@Name("challenge.engineering.kitchen.FoodReady")
+@Label("Food Ready")
+@Description("The food for an order is ready to be picked up")
+public final class FoodReadyEvent extends KitchenOrderEvent {
+
+    private static final EventType TYPE = EventType.getEventType(FoodReadyEvent.class);
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order that is ready
+     */
+    public static void emit(String strategy, int trialNumber, String orderId) {
+        if (TYPE.isEnabled()) {
+            FoodReadyEvent event = new FoodReadyEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.commit();
+        }
+    }
+}
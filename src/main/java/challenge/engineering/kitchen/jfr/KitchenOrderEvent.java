@@ -0,0 +1,37 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class for the JDK Flight Recorder events emitted for a single order.
+ * <p>
+ * Every order event carries the strategy name, the trial number and the order id so that recordings can be
+ * filtered down to one kitchen simulation when they are lined up with flame graphs or lock profiles in JMC.
+ * <p>
+ * Stack traces are disabled since the call sites are always the same handful of kitchen callbacks.
+ * <p>
+ * Each event checks its {@link jdk.jfr.EventType} before it is created, so the order path allocates nothing while
+ * the event is not being recorded.
+ */
+@Category({"Kitchen Simulation", "Order"})
+@StackTrace(false)
+public abstract class KitchenOrderEvent extends Event {
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Trial Number")
+    int trialNumber;
+
+    @Label("Order Id")
+    String orderId;
+
+    void setOrder(String strategy, int trialNumber, String orderId) {
+        this.strategy = strategy;
+        this.trialNumber = trialNumber;
+        this.orderId = orderId;
+    }
+}
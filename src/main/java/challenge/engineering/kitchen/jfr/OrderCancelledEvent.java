@@ -0,0 +1,32 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitted when the customer cancels an order before it is picked up.
+ */
+@Name("challenge.engineering.kitchen.OrderCancelled")
+@Label("Order Cancelled")
+@Description("The customer cancelled an order before it was picked up")
+public final class OrderCancelledEvent extends KitchenOrderEvent {
+    
+    private static final EventType TYPE = EventType.getEventType(OrderCancelledEvent.class);
+    
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order
+     */
+    public static void emit(String strategy, int trialNumber, String orderId) {
+        if (TYPE.isEnabled()) {
+            OrderCancelledEvent event = new OrderCancelledEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted when an order has been picked up by a courier.
+ */
+@Name("challenge.engineering.kitchen.OrderCompleted")
+@Label("Order Completed")
+@Description("An order has been picked up by a courier")
+public final class OrderCompletedEvent extends KitchenOrderEvent {
+
+    private static final EventType TYPE = EventType.getEventType(OrderCompletedEvent.class);
+
+    @Label("Courier Wait Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long courierWaitTime;
+
+    @Label("Food Wait Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long foodWaitTime;
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order picked up
+     * @param courierWaitTime  the time the courier waited in milliseconds
+     * @param foodWaitTime  the time the food waited in milliseconds
+     */
+    public static void emit(String strategy, int trialNumber, String orderId, long courierWaitTime, long foodWaitTime) {
+        if (TYPE.isEnabled()) {
+            OrderCompletedEvent event = new OrderCompletedEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.courierWaitTime = courierWaitTime;
+            event.foodWaitTime = foodWaitTime;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted when a ready order is handed to a waiting courier that was dispatched for a different order.
+ * <p>
+ * This only happens when couriers are not matched to orders (first-in-first-out).
+ */
+@Name("challenge.engineering.kitchen.OrderMatched")
+@Label("Order Matched")
+@Description("A ready order has been matched with a courier dispatched for another order")
+public final class OrderMatchedEvent extends KitchenOrderEvent {
+
+    private static final EventType TYPE = EventType.getEventType(OrderMatchedEvent.class);
+
+    @Label("Courier Order Id")
+    @Description("The id of the order the courier was originally dispatched for")
+    String courierOrderId;
+
+    @Label("Courier Wait Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long courierWaitTime;
+
+    @Label("Food Wait Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long foodWaitTime;
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order picked up
+     * @param courierOrderId  the id of the order the courier was dispatched for
+     * @param courierWaitTime  the time the courier waited in milliseconds
+     * @param foodWaitTime  the time the food waited in milliseconds
+     */
+    public static void emit(String strategy, int trialNumber, String orderId, String courierOrderId, long courierWaitTime, long foodWaitTime) {
+        if (TYPE.isEnabled()) {
+            OrderMatchedEvent event = new OrderMatchedEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.courierOrderId = courierOrderId;
+            event.courierWaitTime = courierWaitTime;
+            event.foodWaitTime = foodWaitTime;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted when an order is placed with the kitchen.
+ */
+@Name("challenge.engineering.kitchen.OrderPlaced")
+@Label("Order Placed")
+@Description("An order has been placed with the kitchen simulation")
+public final class OrderPlacedEvent extends KitchenOrderEvent {
+
+    private static final EventType TYPE = EventType.getEventType(OrderPlacedEvent.class);
+
+    @Label("Order Name")
+    String orderName;
+
+    @Label("Prep Time")
+    @Timespan(Timespan.SECONDS)
+    long prepTime;
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param orderId  the id of the order placed
+     * @param orderName  the name of the order placed
+     * @param prepTime  the prep time of the order in seconds
+     */
+    public static void emit(String strategy, int trialNumber, String orderId, String orderName, int prepTime) {
+        if (TYPE.isEnabled()) {
+            OrderPlacedEvent event = new OrderPlacedEvent();
+            event.setOrder(strategy, trialNumber, orderId);
+            event.orderName = orderName;
+            event.prepTime = prepTime;
+            event.commit();
+        }
+    }
+}
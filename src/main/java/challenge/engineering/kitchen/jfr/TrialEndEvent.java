@@ -0,0 +1,57 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted when the last order of a kitchen simulation trial has been picked up.
+ */
+@Name("challenge.engineering.kitchen.TrialEnd")
+@Label("Trial End")
+@Description("A kitchen simulation trial has completed")
+@Category({"Kitchen Simulation", "Trial"})
+@StackTrace(false)
+public final class TrialEndEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TrialEndEvent.class);
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Trial Number")
+    int trialNumber;
+
+    @Label("Orders Completed")
+    int ordersCompleted;
+
+    @Label("Trial Duration")
+    @Description("The duration of the trial in simulated time")
+    @Timespan(Timespan.MILLISECONDS)
+    long trialDuration;
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param ordersCompleted  the number of orders completed during the trial
+     * @param trialDuration  the duration of the trial in simulated milliseconds of the kitchen clock, which is the wall 
+     * clock duration at a time scale of 1
+     */
+    public static void emit(String strategy, int trialNumber, int ordersCompleted, long trialDuration) {
+        if (TYPE.isEnabled()) {
+            TrialEndEvent event = new TrialEndEvent();
+            event.strategy = strategy;
+            event.trialNumber = trialNumber;
+            event.ordersCompleted = ordersCompleted;
+            event.trialDuration = trialDuration;
+            event.commit();
+        }
+    }
+}
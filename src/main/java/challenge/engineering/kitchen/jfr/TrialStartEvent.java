@@ -0,0 +1,48 @@
+package challenge.engineering.kitchen.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted when a kitchen simulation starts placing the orders for a trial.
+ */
+@Name("challenge.engineering.kitchen.TrialStart")
+@Label("Trial Start")
+@Description("A kitchen simulation trial has started")
+@Category({"Kitchen Simulation", "Trial"})
+@StackTrace(false)
+public final class TrialStartEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TrialStartEvent.class);
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Trial Number")
+    int trialNumber;
+
+    @Label("Orders To Place")
+    int ordersToPlace;
+
+    /**
+     * Emit the event if recording is enabled for it
+     * <p>
+     * @param strategy  the name of the strategy used by the kitchen
+     * @param trialNumber  the trial number of the kitchen
+     * @param ordersToPlace  the number of orders that will be placed during the trial
+     */
+    public static void emit(String strategy, int trialNumber, int ordersToPlace) {
+        if (TYPE.isEnabled()) {
+            TrialStartEvent event = new TrialStartEvent();
+            event.strategy = strategy;
+            event.trialNumber = trialNumber;
+            event.ordersToPlace = ordersToPlace;
+            event.commit();
+        }
+    }
+}
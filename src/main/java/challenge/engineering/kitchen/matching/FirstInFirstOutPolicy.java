@@ -0,0 +1,63 @@
+package challenge.engineering.kitchen.matching;
+
+/**
+ * 
+ * FirstInFirstOutPolicy lets any courier pick up any order, serving orders and couriers in the order they came in.
+ * <p>
+ * An arriving courier picks up the next available order, the one whose food was ready first, and if several couriers 
+ * are waiting when food is ready, it goes to the courier which arrived first.  Ready food and waiting couriers are kept 
+ * in IndexedQueues in the order they joined, so every call is O(1), including taking the food of a cancelled order 
+ * off its queue.
+ */
+public class FirstInFirstOutPolicy implements MatchingPolicy {
+    
+    public static final String NAME = "fifo";
+    
+    private final IndexedQueue readyFood;
+    private final IndexedQueue waitingCouriers;
+    
+    /**
+     * Constructor for the first-in-first-out policy
+     * <p>
+     * @param numOrders  the number of orders in the trial
+     */
+    public FirstInFirstOutPolicy(int numOrders) {
+        readyFood = new IndexedQueue(numOrders);
+        waitingCouriers = new IndexedQueue(numOrders);
+    }
+    
+    @Override
+    public void orderPlaced(int order, long expectedReadyTimeInMillis) {
+    }
+    
+    @Override
+    public int courierArrives(int courier, long arrivalTimeInMillis) {
+        if (!readyFood.isEmpty()) {
+            return readyFood.pollFirst();
+        }
+        waitingCouriers.addLast(courier);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int foodIsReady(int order, long readyTimeInMillis) {
+        if (!waitingCouriers.isEmpty()) {
+            return waitingCouriers.pollFirst();
+        }
+        readyFood.addLast(order);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int orderCancelled(int order) {
+        readyFood.remove(order);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public boolean reset() {
+        readyFood.clear();
+        waitingCouriers.clear();
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package challenge.engineering.kitchen.matching;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * IndexedMinHeap is a binary min-heap of positions in [0, capacity) ordered by a long key.
+ * <p>
+ * It keeps the heap index of every position, so that besides adding and polling in O(log n), any position can be 
+ * removed in O(log n).  Ties on the key are broken by position.  It never allocates after construction.
+ */
+final class IndexedMinHeap {
+    
+    private final int[] heap;
+    private final int[] indexOf;
+    private final long[] keys;
+    private int size;
+    
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        indexOf = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(indexOf, -1);
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Remove every position, in O(size)
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            indexOf[heap[i]] = -1;
+        }
+        size = 0;
+    }
+    
+    boolean contains(int position) {
+        return indexOf[position] >= 0;
+    }
+    
+    void add(int position, long key) {
+        if (contains(position)) {
+            throw new IllegalStateException("Position already in heap: " + position);
+        }
+        keys[position] = key;
+        heap[size] = position;
+        indexOf[position] = size;
+        siftUp(size++);
+    }
+    
+    /* Remove and return the position with the smallest key, NO_MATCH when empty
+     */
+    int poll() {
+        if (size == 0) {
+            return MatchingPolicy.NO_MATCH;
+        }
+        int first = heap[0];
+        removeAt(0);
+        return first;
+    }
+    
+    /* Remove a position if it is in the heap, return true if it was
+     */
+    boolean remove(int position) {
+        int index = indexOf[position];
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+    
+    private void removeAt(int index) {
+        int removed = heap[index];
+        indexOf[removed] = -1;
+        size--;
+        if (index < size) {
+            heap[index] = heap[size];
+            indexOf[heap[index]] = index;
+            siftDown(index);
+            siftUp(index);
+        }
+    }
+    
+    private boolean less(int i, int j) {
+        int a = heap[i];
+        int b = heap[j];
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+    
+    private void swap(int i, int j) {
+        int temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+        indexOf[heap[i]] = i;
+        indexOf[heap[j]] = j;
+    }
+    
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (!less(index, parent)) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+    
+    private void siftDown(int index) {
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && less(left, smallest)) {
+                smallest = left;
+            }
+            if (right < size && less(right, smallest)) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package challenge.engineering.kitchen.matching;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * IndexedQueue is a first-in-first-out queue of positions in [0, capacity) used as a queue of orders or couriers, in 
+ * which each position is queued at most once.
+ * <p>
+ * It is an intrusive doubly linked list: the links of a position are kept in arrays indexed by the position, so that 
+ * besides adding and polling, any position can be removed from the middle of the queue in O(1), as when an order is 
+ * cancelled.  It never allocates after construction.
+ */
+final class IndexedQueue {
+    
+    // the end of the list, and the links of a position that is not queued
+    private static final int NONE = -1;
+    private static final int NOT_QUEUED = -2;
+    
+    private final int[] next;
+    private final int[] previous;
+    private int head = NONE;
+    private int tail = NONE;
+    private int size;
+    
+    IndexedQueue(int capacity) {
+        next = new int[capacity];
+        previous = new int[capacity];
+        Arrays.fill(next, NOT_QUEUED);
+        Arrays.fill(previous, NOT_QUEUED);
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean contains(int position) {
+        return next[position] != NOT_QUEUED;
+    }
+    
+    void addLast(int position) {
+        if (contains(position)) {
+            throw new IllegalStateException("Position already in queue: " + position);
+        }
+        previous[position] = tail;
+        next[position] = NONE;
+        if (tail == NONE) {
+            head = position;
+        } else {
+            next[tail] = position;
+        }
+        tail = position;
+        size++;
+    }
+    
+    int pollFirst() {
+        if (size == 0) {
+            return MatchingPolicy.NO_MATCH;
+        }
+        int first = head;
+        unlink(first);
+        return first;
+    }
+    
+    /**
+     * Remove a position from anywhere in the queue, in O(1)
+     * <p>
+     * @param position  the position
+     * @return  true if the position was queued
+     */
+    boolean remove(int position) {
+        if (!contains(position)) {
+            return false;
+        }
+        unlink(position);
+        return true;
+    }
+    
+    /**
+     * Remove every position, in O(size)
+     */
+    void clear() {
+        while (size > 0) {
+            unlink(head);
+        }
+    }
+    
+    private void unlink(int position) {
+        int before = previous[position];
+        int after = next[position];
+        if (before == NONE) {
+            head = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail = before;
+        } else {
+            previous[after] = before;
+        }
+        next[position] = NOT_QUEUED;
+        previous[position] = NOT_QUEUED;
+        size--;
+    }
+}
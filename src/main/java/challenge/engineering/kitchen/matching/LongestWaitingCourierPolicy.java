@@ -0,0 +1,97 @@
+package challenge.engineering.kitchen.matching;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * LongestWaitingCourierPolicy gives the courier who has waited longest the order with the shortest remaining prep time.
+ * <p>
+ * When no food is ready, an arriving courier reserves the order still being prepared that is expected to be ready 
+ * first, so couriers that arrived earlier are given the orders that finish sooner:
+ * <p><ul>
+ * <li>orders being prepared and not yet reserved are kept in an indexed min-heap keyed by their expected ready time, 
+ * so the soonest one is reserved and an order whose food is ready is removed in O(log n)
+ * <li>couriers that find neither ready food nor an order to reserve wait in a queue, and the longest waiting one 
+ * reserves the next order placed
+ * <li>food that is ready before any courier can take it waits in a queue, oldest first
+ * </ul><p>
+ * A reservation is kept even if another order happens to be ready before the reserved one.  When a reserved order is 
+ * cancelled, its courier is free to pick up another order, and the food of a cancelled order is taken off its queue in O(1).
+ */
+public class LongestWaitingCourierPolicy implements MatchingPolicy {
+    
+    public static final String NAME = "longestWaitingCourier";
+    
+    private final IndexedMinHeap beingPrepared;
+    private final int[] reservedBy;
+    private final IndexedQueue waitingCouriers;
+    private final IndexedQueue readyFood;
+    
+    /**
+     * Constructor for the longest waiting courier policy
+     * <p>
+     * @param numOrders  the number of orders in the trial
+     */
+    public LongestWaitingCourierPolicy(int numOrders) {
+        beingPrepared = new IndexedMinHeap(numOrders);
+        reservedBy = new int[numOrders];
+        Arrays.fill(reservedBy, NO_MATCH);
+        waitingCouriers = new IndexedQueue(numOrders);
+        readyFood = new IndexedQueue(numOrders);
+    }
+    
+    @Override
+    public void orderPlaced(int order, long expectedReadyTimeInMillis) {
+        if (!waitingCouriers.isEmpty()) {
+            reservedBy[order] = waitingCouriers.pollFirst();
+        } else {
+            beingPrepared.add(order, expectedReadyTimeInMillis);
+        }
+    }
+    
+    @Override
+    public int courierArrives(int courier, long arrivalTimeInMillis) {
+        if (!readyFood.isEmpty()) {
+            return readyFood.pollFirst();
+        }
+        if (!beingPrepared.isEmpty()) {
+            reservedBy[beingPrepared.poll()] = courier;
+        } else {
+            waitingCouriers.addLast(courier);
+        }
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int foodIsReady(int order, long readyTimeInMillis) {
+        int courier = reservedBy[order];
+        if (courier != NO_MATCH) {
+            reservedBy[order] = NO_MATCH;
+            return courier;
+        }
+        beingPrepared.remove(order);
+        if (!waitingCouriers.isEmpty()) {
+            return waitingCouriers.pollFirst();
+        }
+        readyFood.addLast(order);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int orderCancelled(int order) {
+        beingPrepared.remove(order);
+        readyFood.remove(order);
+        int courier = reservedBy[order];
+        reservedBy[order] = NO_MATCH;
+        return courier;
+    }
+    
+    @Override
+    public boolean reset() {
+        beingPrepared.clear();
+        Arrays.fill(reservedBy, NO_MATCH);
+        waitingCouriers.clear();
+        readyFood.clear();
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package challenge.engineering.kitchen.matching;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * MatchedPolicy dedicates each courier to the order it was dispatched for.
+ * <p>
+ * The courier waits for its own food, or the food waits for its own courier.  Each side is a flag per order, so every 
+ * call is O(1).  The courier of a cancelled order turns back, whether it is waiting or still on its way.
+ */
+public class MatchedPolicy implements MatchingPolicy {
+    
+    public static final String NAME = "matched";
+    
+    private final boolean[] courierWaiting;
+    private final boolean[] foodWaiting;
+    private final boolean[] cancelled;
+    
+    /**
+     * Constructor for the matched policy
+     * <p>
+     * @param numOrders  the number of orders in the trial
+     */
+    public MatchedPolicy(int numOrders) {
+        courierWaiting = new boolean[numOrders];
+        foodWaiting = new boolean[numOrders];
+        cancelled = new boolean[numOrders];
+    }
+    
+    @Override
+    public void orderPlaced(int order, long expectedReadyTimeInMillis) {
+    }
+    
+    @Override
+    public int courierArrives(int courier, long arrivalTimeInMillis) {
+        if (cancelled[courier]) {
+            return NO_MATCH;
+        }
+        if (foodWaiting[courier]) {
+            foodWaiting[courier] = false;
+            return courier;
+        }
+        courierWaiting[courier] = true;
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int foodIsReady(int order, long readyTimeInMillis) {
+        if (courierWaiting[order]) {
+            courierWaiting[order] = false;
+            return order;
+        }
+        foodWaiting[order] = true;
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int orderCancelled(int order) {
+        courierWaiting[order] = false;
+        foodWaiting[order] = false;
+        cancelled[order] = true;
+        return NO_MATCH;
+    }
+    
+    @Override
+    public boolean reset() {
+        Arrays.fill(courierWaiting, false);
+        Arrays.fill(foodWaiting, false);
+        Arrays.fill(cancelled, false);
+        return true;
+    }
+}
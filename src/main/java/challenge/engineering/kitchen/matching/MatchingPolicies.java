@@ -0,0 +1,75 @@
+package challenge.engineering.kitchen.matching;
+
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * MatchingPolicies is the registry of matching policies by name.
+ * <p>
+ * The built in policies are:
+ * <p><ul>
+ * <li>matched:  each courier picks up the order it was dispatched for
+ * <li>fifo:  orders and couriers are served in the order they came in
+ * <li>oldestReadyFoodFirst:  the food that has been ready longest goes to the courier that has waited longest
+ * <li>longestWaitingCourier:  the courier that has waited longest gets the order with the shortest remaining prep time
+ * </ul><p>
+ * Other policies are registered by a {@link MatchingPolicyProvider} found by the ServiceLoader, or by calling register.
+ */
+public final class MatchingPolicies {
+    
+    private static final Map<String, IntFunction<MatchingPolicy>> factories = new ConcurrentHashMap<>();
+    
+    static {
+        factories.put(MatchedPolicy.NAME, MatchedPolicy::new);
+        factories.put(FirstInFirstOutPolicy.NAME, FirstInFirstOutPolicy::new);
+        factories.put(OldestReadyFoodFirstPolicy.NAME, OldestReadyFoodFirstPolicy::new);
+        factories.put(LongestWaitingCourierPolicy.NAME, LongestWaitingCourierPolicy::new);
+        for (MatchingPolicyProvider provider : ServiceLoader.load(MatchingPolicyProvider.class)) {
+            factories.put(provider.getName(), provider::create);
+        }
+    }
+    
+    private MatchingPolicies() {
+    }
+    
+    /**
+     * Register a matching policy
+     * <p>
+     * @param name  the name strategies use to refer to the policy
+     * @param factory  creates the policy of a kitchen from the number of orders in its trial
+     */
+    public static void register(String name, IntFunction<MatchingPolicy> factory) {
+        factories.put(name, factory);
+    }
+    
+    public static boolean isRegistered(String name) {
+        return name != null && factories.containsKey(name);
+    }
+    
+    public static Set<String> getNames() {
+        return new TreeSet<>(factories.keySet());
+    }
+    
+    /**
+     * Create the matching policy of a kitchen
+     * <p>
+     * @param name  the name of the policy
+     * @param numOrders  the number of orders in the trial of the kitchen
+     * @return  a new policy
+     * @throws KitchenSimulationException  if no policy is registered with the name
+     */
+    public static MatchingPolicy create(String name, int numOrders) throws KitchenSimulationException {
+        IntFunction<MatchingPolicy> factory = (name == null) ? null : factories.get(name);
+        if (factory == null) {
+            throw new KitchenSimulationException("Unknown matching policy: " + name + ", expected one of: " + getNames());
+        }
+        return factory.apply(numOrders);
+    }
+}
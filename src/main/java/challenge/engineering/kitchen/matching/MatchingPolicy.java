@@ -0,0 +1,69 @@
+package challenge.engineering.kitchen.matching;
+
+/**
+ * 
+ * MatchingPolicy decides which courier picks up which order in a kitchen.
+ * <p>
+ * Orders and couriers are identified by the position of their order in the trial: the courier of an order is the 
+ * courier dispatched when the order was placed.  The kitchen reports every order placement, courier arrival and food 
+ * ready event, and the policy answers with the match to make, if any:
+ * <p><ul>
+ * <li>courierArrives returns the order whose food the arriving courier picks up, or NO_MATCH for the courier to wait
+ * <li>foodIsReady returns the courier that picks up the food that is now ready, or NO_MATCH for the food to wait
+ * <li>orderCancelled removes a cancelled order from wherever it waits, and returns a courier it frees, if any
+ * </ul><p>
+ * A policy instance belongs to a single kitchen and is only called while the kitchen state is consistent (under the 
+ * kitchen lock or from its event loop), so implementations do not need to be thread safe.  Every call should be 
+ * O(log n) at worst.
+ */
+public interface MatchingPolicy {
+    
+    public static final int NO_MATCH = -1;
+    
+    /**
+     * An order has been placed and its food is being prepared
+     * <p>
+     * @param order  the position of the order
+     * @param expectedReadyTimeInMillis  the time its food is expected to be ready, including any wait for a cook station
+     */
+    public void orderPlaced(int order, long expectedReadyTimeInMillis);
+    
+    /**
+     * The courier dispatched for an order has arrived
+     * <p>
+     * @param courier  the position of the order the courier was dispatched for
+     * @param arrivalTimeInMillis  the arrival time of the courier
+     * @return  the position of the order picked up by the courier, or NO_MATCH if the courier waits
+     */
+    public int courierArrives(int courier, long arrivalTimeInMillis);
+    
+    /**
+     * The food of an order is ready
+     * <p>
+     * @param order  the position of the order
+     * @param readyTimeInMillis  the time the food is ready
+     * @return  the courier, by the position of its order, that picks up the food, or NO_MATCH if the food waits
+     */
+    public int foodIsReady(int order, long readyTimeInMillis);
+    
+    /**
+     * An order has been cancelled before it was picked up, and its food is not reported ready afterwards
+     * <p>
+     * The policy forgets the order wherever it is waiting.  Whether the courier dispatched for the order still picks up 
+     * another order is up to the policy.
+     * <p>
+     * @param order  the position of the order
+     * @return  a courier that was held for the order and is free again, which the kitchen offers the ready food as if it 
+     * had just arrived, or NO_MATCH
+     */
+    public int orderCancelled(int order);
+    
+    /**
+     * Clear the policy for the next trial of a reused kitchen with the same number of orders, keeping what it has allocated
+     * <p>
+     * @return  true if the policy was cleared, or false, the default, for the kitchen to create a new policy
+     */
+    public default boolean reset() {
+        return false;
+    }
+}
@@ -0,0 +1,27 @@
+package challenge.engineering.kitchen.matching;
+
+/**
+ * 
+ * MatchingPolicyProvider is the service provider interface for adding matching policies.
+ * <p>
+ * Providers listed in {@code META-INF/services/challenge.engineering.kitchen.matching.MatchingPolicyProvider} on the 
+ * class path are registered with {@link MatchingPolicies} under their name, so a strategy can refer to them in the 
+ * configuration file.
+ */
+public interface MatchingPolicyProvider {
+    
+    /**
+     * Get the name strategies use to refer to the policy
+     * <p>
+     * @return  the name of the policy
+     */
+    public String getName();
+    
+    /**
+     * Create the policy for one kitchen
+     * <p>
+     * @param numOrders  the number of orders in the trial of the kitchen
+     * @return  a new policy
+     */
+    public MatchingPolicy create(int numOrders);
+}
@@ -0,0 +1,62 @@
+package challenge.engineering.kitchen.matching;
+
+/**
+ * 
+ * OldestReadyFoodFirstPolicy lets any courier pick up any order, handing out the food that has been waiting longest.
+ * <p>
+ * An arriving courier picks up the order whose food has been ready the longest, and food that is ready goes to the 
+ * courier that has been waiting the longest.  Since food and couriers join their queues in time order, both are plain 
+ * first-in-first-out queues and every call is O(1), including taking the food of a cancelled order off its queue.
+ */
+public class OldestReadyFoodFirstPolicy implements MatchingPolicy {
+    
+    public static final String NAME = "oldestReadyFoodFirst";
+    
+    private final IndexedQueue readyFood;
+    private final IndexedQueue waitingCouriers;
+    
+    /**
+     * Constructor for the oldest ready food first policy
+     * <p>
+     * @param numOrders  the number of orders in the trial
+     */
+    public OldestReadyFoodFirstPolicy(int numOrders) {
+        readyFood = new IndexedQueue(numOrders);
+        waitingCouriers = new IndexedQueue(numOrders);
+    }
+    
+    @Override
+    public void orderPlaced(int order, long expectedReadyTimeInMillis) {
+    }
+    
+    @Override
+    public int courierArrives(int courier, long arrivalTimeInMillis) {
+        if (!readyFood.isEmpty()) {
+            return readyFood.pollFirst();
+        }
+        waitingCouriers.addLast(courier);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int foodIsReady(int order, long readyTimeInMillis) {
+        if (!waitingCouriers.isEmpty()) {
+            return waitingCouriers.pollFirst();
+        }
+        readyFood.addLast(order);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public int orderCancelled(int order) {
+        readyFood.remove(order);
+        return NO_MATCH;
+    }
+    
+    @Override
+    public boolean reset() {
+        readyFood.clear();
+        waitingCouriers.clear();
+        return true;
+    }
+}
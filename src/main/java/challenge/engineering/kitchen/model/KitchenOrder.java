@@ -1,11 +1,7 @@
 package challenge.engineering.kitchen.model;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Objects;
 
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 
@@ -13,14 +9,18 @@ import challenge.engineering.kitchen.exception.KitchenSimulationException;
  * 
  * KitchenOrder is simplified model of an order placed to the kitchen  It includes id, name, and prepTime.
  * <p>
- * There are 4 events associated with an order:
+ * There are 7 events associated with an order:
  * <p><ul>
  * <li>NEW_ORDER_ARRIVES:  an order is placed.
  * <li>COURIER_ARRIVES:  the courier is ready to pick up an order.
  * <li>FOOD_IS_READY:  the food is ready to be picked up.
- * <li>ORDER_IS_COMPLETED:  the food has been given to the courier for delivery.
- * <li>UNEXPECTED:  an event that is only used for testig purposes
- *</ul>
+ * <li>CANCELLED:  the customer cancelled the order before it was picked up.
+ * <li>COURIER_NO_SHOW:  the courier dispatched for the order never showed up and a replacement is dispatched.
+ * <li>ORDER_COMPLETED:  the food has been given to the courier for delivery.
+ * <li>UNEXPECTED:  an event that is only used for testing purposes
+ *</ul><p>
+ * Orders loaded from an orderJsonFile are flyweights handed out by an {@link OrderCatalog}.  They are immutable and are
+ * identified by their dense catalog index, so two flyweights of the same catalog entry are equal.
  */
 public class KitchenOrder {
    
@@ -28,6 +28,8 @@ public class KitchenOrder {
         NEW_ORDER_ARRIVES,
         COURIER_ARRIVES,
         FOOD_IS_READY,
+        CANCELLED,
+        COURIER_NO_SHOW,
         ORDER_COMPLETED,
         UNEXPECTED
     };
@@ -35,17 +37,39 @@ public class KitchenOrder {
 	private String id;
 	private String name;
     private int prepTime;
+    private final int index;
+    
+    public KitchenOrder() {
+        index = -1;
+    }
+    
+    /**
+     * Constructor for the immutable flyweight of a catalog entry
+     * <p>
+     * @param index  the dense index of the order in its catalog
+     * @param id  the id of the order
+     * @param name  the interned name of the order
+     * @param prepTime  the prep time of the order
+     */
+    KitchenOrder(int index, String id, String name, int prepTime) {
+        this.index = index;
+        this.id = id;
+        this.name = name;
+        this.prepTime = prepTime;
+    }
     
 	public String getId() {
 		return id;
 	}
 	public void setId(String id) {
+	    checkMutable();
 		this.id = id;
 	}
 	public String getName() {
 		return name;
 	}
 	public void setName(String name) {
+	    checkMutable();
 		this.name = name;
 	}
 	public int getPrepTime() {
@@ -53,30 +77,56 @@ public class KitchenOrder {
 	}
 	
 	public void setPrepTime(int prepTime) {
+	    checkMutable();
 		this.prepTime = prepTime;
 	}
 	
+	/**
+	 * Get the dense index of the order in the catalog it was loaded into
+	 * <p>
+	 * @return  the catalog index, or -1 for an order that was not loaded into a catalog
+	 */
+	public int getIndex() {
+	    return index;
+	}
+	
+	private void checkMutable() {
+	    if (index >= 0) {
+	        throw new UnsupportedOperationException("Orders loaded into a catalog are immutable: " + this);
+	    }
+	}
+	
+	@Override
+	public int hashCode() {
+	    return (index >= 0) ? index : System.identityHashCode(this);
+	}
+	
+	// catalog flyweights are equal by index, orders built through setters keep identity semantics
+	@Override
+	public boolean equals(Object obj) {
+	    if (this == obj) {
+	        return true;
+	    }
+	    if (!(obj instanceof KitchenOrder) || index < 0) {
+	        return false;
+	    }
+	    KitchenOrder other = (KitchenOrder) obj;
+	    return index == other.index && prepTime == other.prepTime && name == other.name && Objects.equals(id, other.id);
+	}
+	
 	@Override
 	public String toString() {
 		return "Order [id=" + id + ", name=" + name + ", prepTime=" + prepTime + "]";
 	}
 	
-	private final static ObjectMapper mapper = new ObjectMapper();
-	
 	/**
 	 * Construct a list of kitchen orders from a json array file
 	 * <p>
 	 * @param pathToJsonFile  the path to the json file that contains the json array of kitchen orders
-	 * @return  the list of kitchen orders as a java list.
+	 * @return  the list of kitchen orders as a java list backed by a compact {@link OrderCatalog}.
 	 * @throws KitchenSimulationException  if the json file does not contain the expected format
 	 */
 	public static List<KitchenOrder> load(String pathToJsonFile) throws KitchenSimulationException {
-		try {
-			
-			return mapper.readValue(new File(pathToJsonFile), new TypeReference<List<KitchenOrder>>() {});		
-			
-		} catch(IOException e) {
-			throw new KitchenSimulationException("Exception reading jsonFile: " + pathToJsonFile, e);
-		}
+		return OrderCatalog.load(pathToJsonFile).asList();
 	}
 }
@@ -0,0 +1,286 @@
+package challenge.engineering.kitchen.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderCatalog holds all kitchen orders loaded from an orderJsonFile in a compact, immutable, column oriented form.
+ * <p>
+ * Each order is identified by its dense index in the catalog:
+ * <p><ul>
+ * <li>names are interned into a dictionary, so repeated menu names are stored once and each order keeps a name id
+ * <li>ids are packed into longs when they are all decimal numbers or all UUIDs, and kept as strings otherwise
+ * <li>prep times are kept in an int array
+ * </ul><p>
+ * The orders are streamed from the json file so the catalog is built without first holding a full list of objects.
+ * KitchenOrder instances handed out by the catalog are light flyweights that compare equal by catalog index.  The 
+ * flyweight of an index, along with its decoded id string, is created the first time the index is read and then 
+ * reused, so a trial reading its orders over and over does not allocate, while a large catalog only pays for the 
+ * orders that trials actually select.
+ *
+ */
+public final class OrderCatalog {
+    
+    private enum IdEncoding { DECIMAL, UUID, STRING }
+    
+    private static final int MAX_DECIMAL_ID_LENGTH = 18;
+    private static final int UUID_LENGTH = 36;
+    
+    private final int size;
+    private final IdEncoding idEncoding;
+    private final long[] idBits;
+    private final String[] stringIds;
+    private final String[] names;
+    private final int[] nameIds;
+    private final int[] prepTimes;
+    private final AtomicReferenceArray<KitchenOrder> flyweights;
+    
+    private OrderCatalog(Builder builder) {
+        size = builder.size;
+        idEncoding = builder.idEncoding;
+        idBits = (idEncoding == IdEncoding.STRING) ? null : Arrays.copyOf(builder.idBits, size * builder.longsPerId());
+        stringIds = (idEncoding == IdEncoding.STRING) ? Arrays.copyOf(builder.stringIds, size) : null;
+        names = builder.names.toArray(new String[0]);
+        nameIds = Arrays.copyOf(builder.nameIds, size);
+        prepTimes = Arrays.copyOf(builder.prepTimes, size);
+        flyweights = new AtomicReferenceArray<>(size);
+    }
+    
+    private final static ObjectMapper mapper = new ObjectMapper();
+    
+    /**
+     * Stream a json array file of kitchen orders into a catalog
+     * <p>
+     * @param pathToJsonFile  the path to the json file that contains the json array of kitchen orders
+     * @return  the catalog of the orders in the order they appear in the file
+     * @throws KitchenSimulationException  if the json file does not contain the expected format
+     */
+    public static OrderCatalog load(String pathToJsonFile) throws KitchenSimulationException {
+        Builder builder = new Builder();
+        try (JsonParser parser = mapper.getFactory().createParser(new File(pathToJsonFile))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new KitchenSimulationException("Exception reading jsonFile: " + pathToJsonFile + ", expected a json array of orders");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                KitchenOrder ko = mapper.readValue(parser, KitchenOrder.class);
+                builder.add(ko.getId(), ko.getName(), ko.getPrepTime());
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new KitchenSimulationException("Exception reading jsonFile: " + pathToJsonFile + ", expected only orders in the json array");
+            }
+        } catch(IOException e) {
+            throw new KitchenSimulationException("Exception reading jsonFile: " + pathToJsonFile, e);
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Build a catalog from a list of orders
+     * <p>
+     * @param orders  the orders
+     * @return  the catalog of the orders in list order
+     */
+    public static OrderCatalog of(List<KitchenOrder> orders) {
+        Builder builder = new Builder();
+        for (KitchenOrder ko : orders) {
+            builder.add(ko.getId(), ko.getName(), ko.getPrepTime());
+        }
+        return builder.build();
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Get the number of distinct names in the name dictionary
+     * <p>
+     * @return  the number of distinct order names
+     */
+    public int getNumDistinctNames() {
+        return names.length;
+    }
+    
+    public String getId(int index) {
+        switch(idEncoding) {
+            case DECIMAL:
+                return Long.toString(idBits[index]);
+            case UUID:
+                return new UUID(idBits[2 * index], idBits[2 * index + 1]).toString();
+            default:
+                return stringIds[index];
+        }
+    }
+    
+    public String getName(int index) {
+        return names[nameIds[index]];
+    }
+    
+    public int getNameId(int index) {
+        return nameIds[index];
+    }
+    
+    public int getPrepTime(int index) {
+        return prepTimes[index];
+    }
+    
+    /**
+     * Get the order at an index of the catalog
+     * <p>
+     * @param index  the index of the order
+     * @return  the flyweight of the order, the same instance on every call once it has been created
+     */
+    public KitchenOrder get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Order index " + index + " is out of bounds for catalog of size " + size);
+        }
+        KitchenOrder ko = flyweights.get(index);
+        if (ko == null) {
+            // threads racing to create the same flyweight all end up with the one that was set first
+            KitchenOrder created = new KitchenOrder(index, getId(index), getName(index), prepTimes[index]);
+            ko = flyweights.compareAndExchange(index, null, created);
+            if (ko == null) {
+                ko = created;
+            }
+        }
+        return ko;
+    }
+    
+    /**
+     * Get the catalog as an unmodifiable list of flyweights
+     * <p>
+     * @return  the orders of the catalog, in catalog order
+     */
+    public List<KitchenOrder> asList() {
+        return new CatalogList();
+    }
+    
+    private class CatalogList extends AbstractList<KitchenOrder> implements RandomAccess {
+        @Override
+        public KitchenOrder get(int index) {
+            return OrderCatalog.this.get(index);
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+    
+    /* Accumulates the columns while orders are streamed in, packing ids for as long as they all share an encoding
+     */
+    private static class Builder {
+        private int size;
+        private IdEncoding idEncoding;
+        private long[] idBits = new long[16];
+        private String[] stringIds;
+        private final Map<String, Integer> nameDictionary = new HashMap<>();
+        private final List<String> names = new ArrayList<>();
+        private int[] nameIds = new int[16];
+        private int[] prepTimes = new int[16];
+        
+        private int longsPerId() {
+            return (idEncoding == IdEncoding.UUID) ? 2 : 1;
+        }
+        
+        private static IdEncoding encodingOf(String id) {
+            if (id == null) {
+                return IdEncoding.STRING;
+            }
+            if (!id.isEmpty() && id.length() <= MAX_DECIMAL_ID_LENGTH && (id.length() == 1 || id.charAt(0) != '0') 
+                    && id.chars().allMatch(c -> c >= '0' && c <= '9')) {
+                return IdEncoding.DECIMAL;
+            }
+            if (id.length() == UUID_LENGTH) {
+                try {
+                    if (UUID.fromString(id).toString().equals(id)) {
+                        return IdEncoding.UUID;
+                    }
+                } catch(IllegalArgumentException e) {
+                    // not a UUID
+                }
+            }
+            return IdEncoding.STRING;
+        }
+        
+        // switch to plain string ids, decoding the ids packed so far
+        private void fallBackToStringIds() {
+            stringIds = new String[Math.max(16, nameIds.length)];
+            for (int i = 0; i < size; i++) {
+                stringIds[i] = (idEncoding == IdEncoding.DECIMAL) ? Long.toString(idBits[i]) : new UUID(idBits[2 * i], idBits[2 * i + 1]).toString();
+            }
+            idBits = null;
+            idEncoding = IdEncoding.STRING;
+        }
+        
+        void add(String id, String name, int prepTime) {
+            IdEncoding encoding = encodingOf(id);
+            if (idEncoding == null) {
+                idEncoding = encoding;
+                if (idEncoding == IdEncoding.STRING) {
+                    stringIds = new String[16];
+                    idBits = null;
+                }
+            } else if (idEncoding != IdEncoding.STRING && encoding != idEncoding) {
+                fallBackToStringIds();
+            }
+            if (size == nameIds.length) {
+                nameIds = Arrays.copyOf(nameIds, size * 2);
+                prepTimes = Arrays.copyOf(prepTimes, size * 2);
+            }
+            switch(idEncoding) {
+                case DECIMAL:
+                    if (size == idBits.length) {
+                        idBits = Arrays.copyOf(idBits, idBits.length * 2);
+                    }
+                    idBits[size] = Long.parseLong(id);
+                    break;
+                case UUID:
+                    if (2 * size + 1 >= idBits.length) {
+                        idBits = Arrays.copyOf(idBits, idBits.length * 2);
+                    }
+                    UUID uuid = UUID.fromString(id);
+                    idBits[2 * size] = uuid.getMostSignificantBits();
+                    idBits[2 * size + 1] = uuid.getLeastSignificantBits();
+                    break;
+                default:
+                    if (size >= stringIds.length) {
+                        stringIds = Arrays.copyOf(stringIds, stringIds.length * 2);
+                    }
+                    stringIds[size] = id;
+            }
+            Integer nameId = nameDictionary.get(name);
+            if (nameId == null) {
+                nameId = names.size();
+                nameDictionary.put(name, nameId);
+                names.add(name);
+            }
+            nameIds[size] = nameId;
+            prepTimes[size] = prepTime;
+            size++;
+        }
+        
+        OrderCatalog build() {
+            if (idEncoding == null) {
+                idEncoding = IdEncoding.DECIMAL;
+            }
+            return new OrderCatalog(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package challenge.engineering.kitchen.model;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 
+ * OrderSelection is the unmodifiable list of orders used by a trial.
+ * <p>
+ * It refers to the orders by their position in the full list of orders instead of copying them, so a trial only
+ * costs an int per selected order.
+ *
+ */
+public final class OrderSelection extends AbstractList<KitchenOrder> implements RandomAccess {
+    
+    private final List<KitchenOrder> kitchenOrders;
+    private final int[] positions;
+    
+    /**
+     * Constructor for a selection of orders
+     * <p>
+     * @param kitchenOrders  the full list of orders loaded from the orderJsonFile
+     * @param positions  the positions in kitchenOrders of the selected orders, in trial order
+     */
+    public OrderSelection(List<KitchenOrder> kitchenOrders, int[] positions) {
+        this.kitchenOrders = kitchenOrders;
+        this.positions = positions;
+    }
+    
+    @Override
+    public KitchenOrder get(int index) {
+        return kitchenOrders.get(positions[index]);
+    }
+    
+    @Override
+    public int size() {
+        return positions.length;
+    }
+    
+    /**
+     * Get the position in the full list of orders of a selected order
+     * <p>
+     * @param index  the index of the order in the selection
+     * @return  the position of the order in the full list of orders
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+}
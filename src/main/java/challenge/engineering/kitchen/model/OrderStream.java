@@ -0,0 +1,61 @@
+package challenge.engineering.kitchen.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * OrderStream generates an endless stream of kitchen orders on demand from a menu of orders.
+ * <p>
+ * Each generated order copies the name and prep time of an order drawn uniformly from the menu, and its id is the id of 
+ * the menu order followed by the sequence number of the generated order, so orders in flight never compare equal.  
+ * Nothing is kept per generated order, so the stream costs the same however long it runs.  Streams built with the same 
+ * seed generate the same orders.
+ *
+ */
+public final class OrderStream {
+    
+    private final List<KitchenOrder> menu;
+    private final SplittableRandom random;
+    private long sequence;
+    
+    /**
+     * Constructor for an order stream
+     * <p>
+     * @param menu  the orders drawn from, usually all orders loaded from the orderJsonFile
+     * @param seed  the seed of the draws
+     * @throws KitchenSimulationException  if the menu is empty
+     */
+    public OrderStream(List<KitchenOrder> menu, long seed) throws KitchenSimulationException {
+        if (menu.isEmpty()) {
+            throw new KitchenSimulationException("An order stream requires at least one order to draw from");
+        }
+        this.menu = menu;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    /**
+     * Generate the next order of the stream
+     * <p>
+     * @return  a new order with the name and prep time of a random order of the menu
+     */
+    public synchronized KitchenOrder next() {
+        KitchenOrder drawn = menu.get(random.nextInt(menu.size()));
+        KitchenOrder ko = new KitchenOrder();
+        ko.setId(drawn.getId() + "-" + sequence++);
+        ko.setName(drawn.getName());
+        ko.setPrepTime(drawn.getPrepTime());
+        return ko;
+    }
+    
+    /**
+     * Get the number of orders generated so far
+     * <p>
+     * @return  the number of orders generated
+     */
+    public synchronized long getCount() {
+        return sequence;
+    }
+}
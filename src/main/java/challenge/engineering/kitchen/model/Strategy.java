@@ -4,6 +4,9 @@ import org.apache.commons.lang3.Range;
 import org.apache.commons.lang3.StringUtils;
 
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.matching.FirstInFirstOutPolicy;
+import challenge.engineering.kitchen.matching.MatchedPolicy;
+import challenge.engineering.kitchen.matching.MatchingPolicies;
 
 /**
  * 
@@ -11,13 +14,20 @@ import challenge.engineering.kitchen.exception.KitchenSimulationException;
  * <p>
  * Two required properties:<p><ul> 
  * <li>name: Name used to identify statistics
- * <li>courierMatchedToOrder:  Is a courier dedicates to a specific order or can they accept any order.
+ * <li>courierMatchedToOrder or matchingPolicy:  Is a courier dedicates to a specific order or can they accept any order.
+ * The matchingPolicy names a registered {@link challenge.engineering.kitchen.matching.MatchingPolicy}, and 
+ * courierMatchedToOrder is short for the "matched" (true) or "fifo" (false) policy.
  * </ul><p>
  * Strategy also supports the following parameters:<p><ul>
  * <li>orderPeriodInMilliseconds:  slows down evaluation but very useful for reading console output.
  * <li>ordersPerPeriod: number of trials - increasing the trials results in a more accurate evaluation
  * <li>courierMinDelayInMilliseconds: 
  * <li>courierMaxDelayInMilliseconds:
+ * <li>courierFleetSize: number of couriers shared by the orders of a trial, 0 (the default) dispatches a new courier for every order
+ * <li>courierDeliveryTimeInMilliseconds: time a courier of a finite fleet is away delivering an order before it can be dispatched again
+ * <li>orderCancellationRate: probability that the customer cancels an order before its courier arrives, 0 (the default) for no cancellations
+ * <li>courierNoShowRate: probability that a dispatched courier never shows up and has to be replaced, 0 (the default) for none
+ * <li>cookStations: number of cook stations that prepare the orders one at a time each, 0 (the default) prepares every order at once
  * </ul><p>
  * Name is used to organize the results.  Results are organized by name in alphabetical order.
  *
@@ -26,10 +36,16 @@ public class Strategy {
 	
 	private String name;
 	private Boolean courierMatchedToOrder;
+	private String matchingPolicy;
 	private int orderPeriodInMilliseconds;
     private int ordersPerPeriod;
     private int courierMinDelayInMilliseconds;
     private int courierMaxDelayInMilliseconds;
+    private int courierFleetSize;
+    private int courierDeliveryTimeInMilliseconds;
+    private double orderCancellationRate;
+    private double courierNoShowRate;
+    private int cookStations;
     
     public static final int MIN_ORDER_PERIOD_IN_MILLISECONDS = 100;
     public static final int MAX_ORDER_PERIOD_IN_MILLISECONDS = 60000;
@@ -46,21 +62,76 @@ public class Strategy {
     public static final int UPPER_BOUND_COURIER_MAX_DELAY_IN_MILLIS = 10000000;
     public static final int DEFAULT_COURIER_MAX_DELAY_IN_MILLIS = 15000;
     
+    public static final int UNLIMITED_COURIER_FLEET = 0;
+    public static final int MAX_COURIER_FLEET_SIZE = 1 << 24;
+    
+    public static final int MAX_COURIER_DELIVERY_TIME_IN_MILLIS = 10000000;
+    public static final int DEFAULT_COURIER_DELIVERY_TIME_IN_MILLIS = 10000;
+    
+    public static final double MAX_ORDER_CANCELLATION_RATE = 1.0;
+    // below 1 so that a replacement courier shows up eventually
+    public static final double MAX_COURIER_NO_SHOW_RATE = 0.9;
+    
+    public static final int UNLIMITED_COOK_STATIONS = 0;
+    public static final int MAX_COOK_STATIONS = 1 << 20;
+    
     public Strategy() {
         // set defaults
         orderPeriodInMilliseconds = DEFAULT_ORDER_PERIOD_IN_MILLISECONDS;
         ordersPerPeriod = DEFAULT_ORDERS_PER_PERIOD;
         courierMinDelayInMilliseconds = DEFAULT_COURIER_MIN_DELAY_IN_MILLIS;
         courierMaxDelayInMilliseconds = DEFAULT_COURIER_MAX_DELAY_IN_MILLIS;
+        courierFleetSize = UNLIMITED_COURIER_FLEET;
+        courierDeliveryTimeInMilliseconds = DEFAULT_COURIER_DELIVERY_TIME_IN_MILLIS;
+        cookStations = UNLIMITED_COOK_STATIONS;
     }
-	
+
+    /**
+     * Copy constructor used when deriving strategy variants from a configured strategy
+     * <p>
+     * @param other  the strategy to copy
+     */
+    public Strategy(Strategy other) {
+        name = other.name;
+        courierMatchedToOrder = other.courierMatchedToOrder;
+        matchingPolicy = other.matchingPolicy;
+        orderPeriodInMilliseconds = other.orderPeriodInMilliseconds;
+        ordersPerPeriod = other.ordersPerPeriod;
+        courierMinDelayInMilliseconds = other.courierMinDelayInMilliseconds;
+        courierMaxDelayInMilliseconds = other.courierMaxDelayInMilliseconds;
+        courierFleetSize = other.courierFleetSize;
+        courierDeliveryTimeInMilliseconds = other.courierDeliveryTimeInMilliseconds;
+        orderCancellationRate = other.orderCancellationRate;
+        courierNoShowRate = other.courierNoShowRate;
+        cookStations = other.cookStations;
+    }
+
 	public boolean isCourierMatchedToOrder() {
-		return courierMatchedToOrder;
+		return MatchedPolicy.NAME.equals(getMatchingPolicy());
 	}
 	public void setCourierMatchedToOrder(boolean courierMatchedToOrder) {
 		this.courierMatchedToOrder = courierMatchedToOrder;
 	}
 	
+	/**
+	 * Get the name of the matching policy, derived from courierMatchedToOrder when no policy is named
+	 * <p>
+	 * @return  the name of the matching policy, or null if neither matchingPolicy nor courierMatchedToOrder is set
+	 */
+	public String getMatchingPolicy() {
+	    if (matchingPolicy != null || courierMatchedToOrder == null) {
+	        return matchingPolicy;
+	    }
+	    return courierMatchedToOrder ? MatchedPolicy.NAME : FirstInFirstOutPolicy.NAME;
+	}
+	
+	public void setMatchingPolicy(String matchingPolicy) throws KitchenSimulationException {
+	    if (!MatchingPolicies.isRegistered(matchingPolicy)) {
+	        throw new KitchenSimulationException("matchingPolicy must be one of: " + MatchingPolicies.getNames());
+	    }
+	    this.matchingPolicy = matchingPolicy;
+	}
+	
 	public String getName() {
 		return name;
 	}
@@ -113,14 +184,101 @@ public class Strategy {
         } 
         this.courierMaxDelayInMilliseconds = courierMaxDelayInMilliseconds;
     }
+    
+    public int getCourierFleetSize() {
+        return courierFleetSize;
+    }
+    
+    public void setCourierFleetSize(int courierFleetSize) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(UNLIMITED_COURIER_FLEET, MAX_COURIER_FLEET_SIZE);
+        if (!allowedRange.contains(courierFleetSize)) {
+            throw new KitchenSimulationException("courierFleetSize must be in the range: " + allowedRange);
+        }
+        this.courierFleetSize = courierFleetSize;
+    }
+    
+    /**
+     * Does the strategy share a finite fleet of couriers between its orders?
+     * <p>
+     * @return  true if courierFleetSize is set, false if a new courier is dispatched for every order
+     */
+    public boolean hasCourierFleet() {
+        return courierFleetSize != UNLIMITED_COURIER_FLEET;
+    }
+    
+    public int getCourierDeliveryTimeInMilliseconds() {
+        return courierDeliveryTimeInMilliseconds;
+    }
+    
+    public void setCourierDeliveryTimeInMilliseconds(int courierDeliveryTimeInMilliseconds) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(0, MAX_COURIER_DELIVERY_TIME_IN_MILLIS);
+        if (!allowedRange.contains(courierDeliveryTimeInMilliseconds)) {
+            throw new KitchenSimulationException("courierDeliveryTimeInMilliseconds must be in the range: " + allowedRange);
+        }
+        this.courierDeliveryTimeInMilliseconds = courierDeliveryTimeInMilliseconds;
+    }
+    
+    public int getCookStations() {
+        return cookStations;
+    }
+    
+    public void setCookStations(int cookStations) throws KitchenSimulationException {
+        Range<Integer> allowedRange = Range.between(UNLIMITED_COOK_STATIONS, MAX_COOK_STATIONS);
+        if (!allowedRange.contains(cookStations)) {
+            throw new KitchenSimulationException("cookStations must be in the range: " + allowedRange);
+        }
+        this.cookStations = cookStations;
+    }
+    
+    /**
+     * Does the strategy prepare its orders on a finite number of cook stations?
+     * <p>
+     * @return  true if cookStations is set, false if every order is prepared as soon as it is placed
+     */
+    public boolean hasCookStations() {
+        return cookStations != UNLIMITED_COOK_STATIONS;
+    }
+    
+    public double getOrderCancellationRate() {
+        return orderCancellationRate;
+    }
+    
+    public void setOrderCancellationRate(double orderCancellationRate) throws KitchenSimulationException {
+        Range<Double> allowedRange = Range.between(0.0, MAX_ORDER_CANCELLATION_RATE);
+        if (!allowedRange.contains(orderCancellationRate)) {
+            throw new KitchenSimulationException("orderCancellationRate must be in the range: " + allowedRange);
+        }
+        this.orderCancellationRate = orderCancellationRate;
+    }
+    
+    public double getCourierNoShowRate() {
+        return courierNoShowRate;
+    }
+    
+    public void setCourierNoShowRate(double courierNoShowRate) throws KitchenSimulationException {
+        Range<Double> allowedRange = Range.between(0.0, MAX_COURIER_NO_SHOW_RATE);
+        if (!allowedRange.contains(courierNoShowRate)) {
+            throw new KitchenSimulationException("courierNoShowRate must be in the range: " + allowedRange);
+        }
+        this.courierNoShowRate = courierNoShowRate;
+    }
+    
+    /**
+     * Are orders of the strategy cancelled, or do its couriers fail to show up?
+     * <p>
+     * @return  true if orderCancellationRate or courierNoShowRate is set
+     */
+    public boolean hasCancellationsOrNoShows() {
+        return orderCancellationRate > 0 || courierNoShowRate > 0;
+    }
 	
-	// a valid strategy must have a nonblank 'name' and setting for 'courierMatchedToOrder'
+	// a valid strategy must have a nonblank 'name' and setting for 'courierMatchedToOrder' or 'matchingPolicy'
     /**
-     * Validate that the strategy contains the required fields of name and courierMatchedToOrder condition 
+     * Validate that the strategy contains the required fields of name and courierMatchedToOrder condition or matchingPolicy
      * <p>
-     * @return  true if strategy containes the required parameters of name and courierMatchedToOrder
+     * @return  true if strategy containes the required parameters of name and courierMatchedToOrder or matchingPolicy
      */
 	public boolean valid() {
-	    return StringUtils.isNotBlank(name) && courierMatchedToOrder != null;
+	    return StringUtils.isNotBlank(name) && getMatchingPolicy() != null;
 	}
 }
@@ -0,0 +1,220 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.config.AdaptiveTrialsConfig;
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.RunningStatistics;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.TrialResult;
+import challenge.engineering.kitchen.model.Strategy;
+import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+import challenge.engineering.kitchen.simulation.KitchenSimulationPool;
+
+/**
+ * 
+ * AdaptiveTrialRunner runs trials for each strategy until the estimates of the mean wait times have converged.
+ * <p>
+ * Trials are launched in rounds.  In each round, every strategy that has not yet converged runs trialsPerRound more
+ * trials.  After the round, the mean courier wait time and mean food wait time of each trial are added to the running
+ * estimates of the strategy.  A strategy stops once it has run at least minTrials trials and the confidence interval on
+ * both means is within the tolerance, or once it has used up maxTrials trials.
+ * <p>
+ * As with the regular runner, the same trial plan is used by all strategies for a given trial number.
+ *
+ */
+public class AdaptiveTrialRunner {
+    
+    static Logger log = LoggerFactory.getLogger(AdaptiveTrialRunner.class);
+    
+    private final KitchenSimulationConfig config;
+    private final AdaptiveTrialsConfig adaptiveTrials;
+    private final TrialPlanner planner;
+    private final StatManager statManager;
+    private final List<TrialPlan> plansByTrial = new ArrayList<>();
+    private OrderExporter orderExporter;
+    
+    /**
+     * The convergence of the wait time estimates for one strategy
+     */
+    public static class StrategyConvergence {
+        
+        private final Strategy strategy;
+        private final RunningStatistics courierWaitTime = new RunningStatistics();
+        private final RunningStatistics foodWaitTime = new RunningStatistics();
+        private boolean converged = false;
+        
+        StrategyConvergence(Strategy strategy) {
+            this.strategy = strategy;
+        }
+        
+        public Strategy getStrategy() {
+            return strategy;
+        }
+        
+        /**
+         * Get the number of trials the strategy needed
+         * <p>
+         * @return  the number of trials run for the strategy
+         */
+        public long getTrialsRun() {
+            return courierWaitTime.getCount();
+        }
+        
+        public RunningStatistics getCourierWaitTime() {
+            return courierWaitTime;
+        }
+        
+        public RunningStatistics getFoodWaitTime() {
+            return foodWaitTime;
+        }
+        
+        /**
+         * Did the confidence intervals narrow to the tolerance before the trial budget ran out?
+         * <p>
+         * @return  true if the estimates converged
+         */
+        public boolean isConverged() {
+            return converged;
+        }
+        
+        void add(TrialResult result) {
+            courierWaitTime.add(result.getAverageCourierWaitTime());
+            foodWaitTime.add(result.getAverageFoodWaitTime());
+        }
+    }
+    
+    /**
+     * Constructor for the AdaptiveTrialRunner
+     * <p>
+     * @param config  the simulation configuration which includes the adaptive trials settings
+     * @param planner  the planner for the orders and courier delays shared by all strategies in a trial
+     * @param statManager  the shared stats for all simulations
+     */
+    public AdaptiveTrialRunner(KitchenSimulationConfig config, TrialPlanner planner, StatManager statManager) {
+        this.config = config;
+        this.adaptiveTrials = config.getAdaptiveTrials();
+        this.planner = planner;
+        this.statManager = statManager;
+    }
+    
+    /**
+     * Set the exporter that receives the detail of every completed order
+     * <p>
+     * @param orderExporter  the exporter, or null when orders are not exported
+     */
+    public void setOrderExporter(OrderExporter orderExporter) {
+        this.orderExporter = orderExporter;
+    }
+    
+    // the plan of a trial is made the first time any strategy runs that trial number
+    private TrialPlan getPlanForTrial(int trialNumber) {
+        while (plansByTrial.size() < trialNumber) {
+            plansByTrial.add(planner.plan(plansByTrial.size() + 1));
+        }
+        return plansByTrial.get(trialNumber - 1);
+    }
+    
+    private boolean isDone(StrategyConvergence convergence) {
+        if (convergence.getTrialsRun() >= adaptiveTrials.getMinTrials()
+                && convergence.getCourierWaitTime().getConfidenceIntervalHalfWidth(adaptiveTrials.getConfidenceLevel()) <= adaptiveTrials.getToleranceInMilliseconds()
+                && convergence.getFoodWaitTime().getConfidenceIntervalHalfWidth(adaptiveTrials.getConfidenceLevel()) <= adaptiveTrials.getToleranceInMilliseconds()) {
+            convergence.converged = true;
+            return true;
+        }
+        return convergence.getTrialsRun() >= adaptiveTrials.getMaxTrials();
+    }
+    
+    /**
+     * Run trials for each strategy until its estimates converge or its trial budget runs out
+     * <p>
+     * @return  the convergence of each strategy by strategy name, in the order the strategies are configured
+     * @throws KitchenSimulationException  if the trial settings are inconsistent
+     */
+    public Map<String, StrategyConvergence> run() throws KitchenSimulationException {
+        if (adaptiveTrials.getMinTrials() > adaptiveTrials.getMaxTrials()) {
+            throw new KitchenSimulationException("In adaptiveTrials, minTrials must be less than or equal to maxTrials");
+        }
+        Map<String, StrategyConvergence> results = new LinkedHashMap<>();
+        for (Strategy strategy : config.getStrategies()) {
+            results.put(strategy.getName(), new StrategyConvergence(strategy));
+        }
+        
+        List<StrategyConvergence> active = new ArrayList<>(results.values());
+        // the trials of a round are started by this thread, which releases their kitchens for the next round
+        try (KitchenSimulationPool pool = new KitchenSimulationPool(adaptiveTrials.getTrialsPerRound() * active.size())) {
+            int round = 0;
+            while (!active.isEmpty()) {
+                round++;
+                runRound(active, round, pool);
+                active.removeIf(this::isDone);
+                log.info("Adaptive trials round {} complete, {} strategy(s) still converging", round, active.size());
+            }
+            log.info("{} kitchen(s) created, {} trial(s) reused a kitchen", pool.getKitchensCreated(), pool.getKitchensReused());
+        }
+        return results;
+    }
+    
+    // the kitchens of a round are released once its results are added, so that the next round reuses them
+    private void runRound(List<StrategyConvergence> active, int round, KitchenSimulationPool pool) throws KitchenSimulationException {
+        // the trials of the round are composed as futures, and only the end of the round is waited for
+        TrialScheduler scheduler = new TrialScheduler(config.isBlocking() ? 1 : TrialScheduler.UNBOUNDED);
+        List<CompletableFuture<TrialResult>> trials = new ArrayList<>();
+        List<StrategyConvergence> owners = new ArrayList<>();
+        List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+        for (StrategyConvergence convergence : active) {
+            long trialsLeft = adaptiveTrials.getMaxTrials() - convergence.getTrialsRun();
+            long trialsThisRound = Math.min(adaptiveTrials.getTrialsPerRound(), trialsLeft);
+            for (int i = 1; i <= trialsThisRound; i++) {
+                int trialNumber = (int) convergence.getTrialsRun() + i;
+                log.info("Starting {} strategy adaptive trial #{} (round {})...", convergence.getStrategy().getName(), trialNumber, round);
+                TrialPlan plan = getPlanForTrial(trialNumber);
+                KitchenSimulationImpl kitchen = pool.acquire(statManager, plan.getOrders(), convergence.getStrategy(), trialNumber, plan.getCourierDelayDraws());
+                plan.setUp(kitchen, config, orderExporter);
+                kitchens.add(kitchen);
+                trials.add(scheduler.submit(kitchen::runSimulation));
+                owners.add(convergence);
+            }
+        }
+        try {
+            scheduler.allOf().join();
+        } catch(CompletionException e) {
+            throw new KitchenSimulationException("An adaptive trial failed: " + e.getCause().getMessage(), e);
+        }
+        // the results are added in trial order so that the estimates do not depend on which trial finished first
+        for (int i = 0; i < trials.size(); i++) {
+            owners.get(i).add(trials.get(i).join());
+        }
+        kitchens.forEach(pool::release);
+    }
+    
+    /**
+     * Log how many trials each strategy needed and the resulting confidence intervals
+     * <p>
+     * @param results  the convergence of each strategy returned by run
+     */
+    public void reportConvergence(Map<String, StrategyConvergence> results) {
+        double confidenceLevel = adaptiveTrials.getConfidenceLevel();
+        log.info("\n");
+        for (StrategyConvergence convergence : results.values()) {
+            String strategyName = convergence.getStrategy().getName();
+            log.info("{} needed {} trials ({})", strategyName, convergence.getTrialsRun(), 
+                    convergence.isConverged() ? "converged" : "trial budget exhausted");
+            log.info("{} mean courier wait time per trial: {} ms +/- {} ms at {}% confidence", strategyName, convergence.getCourierWaitTime().getMean(),
+                    convergence.getCourierWaitTime().getConfidenceIntervalHalfWidth(confidenceLevel), confidenceLevel * 100);
+            log.info("{} mean food wait time per trial: {} ms +/- {} ms at {}% confidence", strategyName, convergence.getFoodWaitTime().getMean(),
+                    convergence.getFoodWaitTime().getConfidenceIntervalHalfWidth(confidenceLevel), confidenceLevel * 100);
+        }
+        log.info("\n");
+    }
+}
@@ -0,0 +1,441 @@
+package challenge.engineering.kitchen.runner;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Flow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.config.CapacitySearchConfig;
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.handling.OrderOutcome;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.TrialResult;
+import challenge.engineering.kitchen.model.Strategy;
+import challenge.engineering.kitchen.simulation.KitchenSimulation;
+import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+import challenge.engineering.kitchen.simulation.KitchenSimulationPool;
+
+/**
+ *
+ * CapacitySearchRunner finds the highest order rate each strategy sustains before the percentile of the courier wait
+ * time exceeds the service level.
+ * <p>
+ * The order rate is varied through ordersPerPeriod, either by bisecting between the lowest and highest ordersPerPeriod
+ * or by ramping up from the lowest one until a rate is not sustained.  Each step runs trialsPerStep short trials, and
+ * the same trial plans are used at every step so that the steps only differ by their order rate.
+ * <p>
+ * A step stops early once it has diverged: as soon as more orders have exceeded the service level than the percentile
+ * allows for the whole trial, the trials of the step are cancelled instead of being run to completion.
+ *
+ */
+public class CapacitySearchRunner {
+    
+    static Logger log = LoggerFactory.getLogger(CapacitySearchRunner.class);
+    
+    private final KitchenSimulationConfig config;
+    private final CapacitySearchConfig capacitySearch;
+    private final TrialPlanner planner;
+    private final StatManager statManager;
+    private final List<TrialPlan> plansByTrial = new ArrayList<>();
+    private OrderExporter orderExporter;
+    
+    /**
+     * The wait times measured at one order rate
+     */
+    public static class CapacityStep {
+    
+        private final int ordersPerPeriod;
+        private final double ordersPerSecond;
+        private final long ordersCompleted;
+        private final double averageCourierWaitTime;
+        private final double percentileCourierWaitTime;
+        private final double averageFoodWaitTime;
+        private final boolean diverged;
+        private final boolean sustained;
+    
+        CapacityStep(int ordersPerPeriod, double ordersPerSecond, long ordersCompleted, double averageCourierWaitTime,
+                double percentileCourierWaitTime, double averageFoodWaitTime, boolean diverged, boolean sustained) {
+            this.ordersPerPeriod = ordersPerPeriod;
+            this.ordersPerSecond = ordersPerSecond;
+            this.ordersCompleted = ordersCompleted;
+            this.averageCourierWaitTime = averageCourierWaitTime;
+            this.percentileCourierWaitTime = percentileCourierWaitTime;
+            this.averageFoodWaitTime = averageFoodWaitTime;
+            this.diverged = diverged;
+            this.sustained = sustained;
+        }
+    
+        public int getOrdersPerPeriod() {
+            return ordersPerPeriod;
+        }
+    
+        public double getOrdersPerSecond() {
+            return ordersPerSecond;
+        }
+    
+        public long getOrdersCompleted() {
+            return ordersCompleted;
+        }
+    
+        public double getAverageCourierWaitTime() {
+            return averageCourierWaitTime;
+        }
+    
+        public double getPercentileCourierWaitTime() {
+            return percentileCourierWaitTime;
+        }
+    
+        public double getAverageFoodWaitTime() {
+            return averageFoodWaitTime;
+        }
+    
+        /**
+         * Were the trials of the step cancelled because the service level could no longer be met?
+         * <p>
+         * @return  true if the step stopped early, in which case the wait times only cover the orders completed before
+         */
+        public boolean isDiverged() {
+            return diverged;
+        }
+    
+        /**
+         * Is the percentile of the courier wait time within the service level at this order rate?
+         * <p>
+         * @return  true if the order rate is sustained
+         */
+        public boolean isSustained() {
+            return sustained;
+        }
+    }
+    
+    /**
+     * The steps of the capacity search for one strategy
+     */
+    public static class StrategyCapacity {
+    
+        private final Strategy strategy;
+        private final TreeMap<Integer, CapacityStep> steps = new TreeMap<>();
+    
+        StrategyCapacity(Strategy strategy) {
+            this.strategy = strategy;
+        }
+    
+        public Strategy getStrategy() {
+            return strategy;
+        }
+    
+        /**
+         * Get the wait time curve
+         * <p>
+         * @return  the steps that were run, by increasing order rate
+         */
+        public List<CapacityStep> getSteps() {
+            return new ArrayList<>(steps.values());
+        }
+    
+        /**
+         * Get the highest order rate that was sustained
+         * <p>
+         * @return  the step of the highest sustained order rate, or null if even the lowest order rate was not sustained
+         */
+        public CapacityStep getMaxSustained() {
+            CapacityStep maxSustained = null;
+            for (CapacityStep step : steps.values()) {
+                if (step.isSustained()) {
+                    maxSustained = step;
+                }
+            }
+            return maxSustained;
+        }
+    
+        /**
+         * Get the lowest order rate that was not sustained, where the strategy saturates
+         * <p>
+         * @return  the step of the lowest unsustained order rate, or null if every order rate tried was sustained
+         */
+        public CapacityStep getSaturation() {
+            for (CapacityStep step : steps.values()) {
+                if (!step.isSustained()) {
+                    return step;
+                }
+            }
+            return null;
+        }
+    
+        CapacityStep add(CapacityStep step) {
+            steps.put(step.getOrdersPerPeriod(), step);
+            return step;
+        }
+    }
+    
+    /* Cancel the trials of a step once more orders exceed the service level than the percentile allows
+     */
+    private static class DivergenceWatcher implements Flow.Subscriber<OrderOutcome> {
+    
+        private final long courierWaitSlaInMilliseconds;
+        private final long allowedBreaches;
+        private final Runnable onDivergence;
+        private long breaches = 0;
+    
+        DivergenceWatcher(long courierWaitSlaInMilliseconds, long allowedBreaches, Runnable onDivergence) {
+            this.courierWaitSlaInMilliseconds = courierWaitSlaInMilliseconds;
+            this.allowedBreaches = allowedBreaches;
+            this.onDivergence = onDivergence;
+        }
+    
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+    
+        @Override
+        public void onNext(OrderOutcome outcome) {
+            if (outcome.getCourierWaitTime() > courierWaitSlaInMilliseconds && ++breaches == allowedBreaches + 1) {
+                onDivergence.run();
+            }
+        }
+    
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("Exception watching the order outcomes: ", throwable);
+        }
+    
+        @Override
+        public void onComplete() {
+        }
+    }
+    
+    /**
+     * Constructor for the CapacitySearchRunner
+     * <p>
+     * @param config  the simulation configuration which includes the capacity search settings
+     * @param planner  the planner for the orders and courier delays shared by all steps
+     * @param statManager  the stats for all steps, which must use full statistics for the percentiles
+     */
+    public CapacitySearchRunner(KitchenSimulationConfig config, TrialPlanner planner, StatManager statManager) {
+        this.config = config;
+        this.capacitySearch = config.getCapacitySearch();
+        this.planner = planner;
+        this.statManager = statManager;
+    }
+    
+    /**
+     * Set the exporter that receives the detail of every completed order
+     * <p>
+     * @param orderExporter  the exporter, or null when orders are not exported
+     */
+    public void setOrderExporter(OrderExporter orderExporter) {
+        this.orderExporter = orderExporter;
+    }
+    
+    // the plans are made once and reused at every step
+    private TrialPlan getPlanForTrial(int trialNumber) {
+        while (plansByTrial.size() < trialNumber) {
+            plansByTrial.add(planner.plan(plansByTrial.size() + 1));
+        }
+        return plansByTrial.get(trialNumber - 1);
+    }
+    
+    // with the nearest-rank percentile, the percentile exceeds the service level once more than this many orders do
+    private long getAllowedBreaches(int numOrders) {
+        return numOrders - Math.max(1, (long) Math.ceil(capacitySearch.getPercentile() / 100.0 * numOrders));
+    }
+    
+    private static String getStepName(Strategy strategy, int ordersPerPeriod) {
+        return String.format("%s{ordersPerPeriod=%d}", strategy.getName(), ordersPerPeriod);
+    }
+    
+    /* Run the trials of one step and measure the wait times at its order rate, the kitchens of a step are released for 
+     * the next step once its results are read
+     */
+    private CapacityStep runStep(Strategy strategy, int ordersPerPeriod, KitchenSimulationPool pool) throws KitchenSimulationException {
+        Strategy variant = new Strategy(strategy);
+        variant.setOrdersPerPeriod(ordersPerPeriod);
+        variant.setName(getStepName(strategy, ordersPerPeriod));
+        double ordersPerSecond = ordersPerPeriod * 1000.0 / strategy.getOrderPeriodInMilliseconds();
+        log.info("Starting capacity search step {} at {} orders per second...", variant.getName(), format(ordersPerSecond));
+    
+        List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+        for (int trialNumber = 1; trialNumber <= capacitySearch.getTrialsPerStep(); trialNumber++) {
+            TrialPlan plan = getPlanForTrial(trialNumber);
+            KitchenSimulationImpl kitchen = pool.acquire(statManager, plan.getOrders(), variant, trialNumber, plan.getCourierDelayDraws());
+            plan.setUp(kitchen, config, orderExporter);
+            kitchen.getOrderOutcomes().subscribe(new DivergenceWatcher(capacitySearch.getCourierWaitSlaInMilliseconds(),
+                    getAllowedBreaches(plan.getOrders().size()), () -> kitchens.forEach(KitchenSimulation::cancel)));
+            kitchens.add(kitchen);
+        }
+        // a trial cancelled by the divergence of another trial of the step is not started
+        TrialScheduler scheduler = new TrialScheduler(config.isBlocking() ? 1 : TrialScheduler.UNBOUNDED);
+        for (KitchenSimulation kitchen : kitchens) {
+            scheduler.submit(() -> kitchen.isCancelled() ? kitchen.getCompletion() : kitchen.runSimulation());
+        }
+        try {
+            scheduler.allOf().join();
+        } catch(CompletionException e) {
+            throw new KitchenSimulationException("A trial of capacity search step " + variant.getName() + " failed: " + e.getCause().getMessage(), e);
+        }
+    
+        boolean diverged = false;
+        long ordersCompleted = 0;
+        double totalCourierWaitTime = 0;
+        double totalFoodWaitTime = 0;
+        for (KitchenSimulation kitchen : kitchens) {
+            diverged |= kitchen.isCancelled();
+            TrialResult result = kitchen.getTrialResult();
+            ordersCompleted += result.getOrdersCompleted();
+            totalCourierWaitTime += result.getTotalCourierWaitTime();
+            totalFoodWaitTime += result.getTotalFoodWaitTime();
+        }
+        kitchens.forEach(pool::release);
+        double percentileCourierWaitTime = statManager.getPercentile(variant.getName(),
+                StatManager.Metrics.COURIER_WAIT_TIME.getValue(), capacitySearch.getPercentile());
+        boolean sustained = !diverged && percentileCourierWaitTime <= capacitySearch.getCourierWaitSlaInMilliseconds();
+        log.info("{} {}: p{} courier wait time {} ms", variant.getName(), diverged ? "diverged" : (sustained ? "sustained" : "not sustained"),
+                formatPercentile(capacitySearch.getPercentile()), format(percentileCourierWaitTime));
+        return new CapacityStep(ordersPerPeriod, ordersPerSecond, ordersCompleted,
+                (ordersCompleted == 0) ? 0 : totalCourierWaitTime / ordersCompleted, percentileCourierWaitTime,
+                (ordersCompleted == 0) ? 0 : totalFoodWaitTime / ordersCompleted, diverged, sustained);
+    }
+    
+    /* Bisect or ramp the order rate of one strategy
+     */
+    private StrategyCapacity search(Strategy strategy, KitchenSimulationPool pool) throws KitchenSimulationException {
+        StrategyCapacity capacity = new StrategyCapacity(strategy);
+        int min = capacitySearch.getMinOrdersPerPeriod();
+        int max = capacitySearch.getMaxOrdersPerPeriod();
+        if (CapacitySearchConfig.RAMP.equals(capacitySearch.getSearch())) {
+            for (int ordersPerPeriod = min; ordersPerPeriod <= max; ordersPerPeriod += capacitySearch.getRampStep()) {
+                if (!capacity.add(runStep(strategy, ordersPerPeriod, pool)).isSustained()) {
+                    break;
+                }
+            }
+            return capacity;
+        }
+        if (!capacity.add(runStep(strategy, min, pool)).isSustained() || min == max
+                || capacity.add(runStep(strategy, max, pool)).isSustained()) {
+            return capacity;
+        }
+        // the lowest rate is sustained and the highest is not, narrow the gap between them
+        int sustained = min;
+        int notSustained = max;
+        while (notSustained - sustained > 1) {
+            int ordersPerPeriod = (sustained + notSustained) >>> 1;
+            if (capacity.add(runStep(strategy, ordersPerPeriod, pool)).isSustained()) {
+                sustained = ordersPerPeriod;
+            } else {
+                notSustained = ordersPerPeriod;
+            }
+        }
+        return capacity;
+    }
+    
+    /**
+     * Search the highest sustained order rate of each strategy and write the wait time curves
+     * <p>
+     * @return  the capacity of each strategy by strategy name, in the order the strategies are configured
+     * @throws KitchenSimulationException  if the search settings are inconsistent, or the results file cannot be written
+     */
+    public Map<String, StrategyCapacity> run() throws KitchenSimulationException {
+        if (capacitySearch.getMinOrdersPerPeriod() > capacitySearch.getMaxOrdersPerPeriod()) {
+            throw new KitchenSimulationException("In capacitySearch, minOrdersPerPeriod must be less than or equal to maxOrdersPerPeriod");
+        }
+        Map<String, StrategyCapacity> results = new LinkedHashMap<>();
+        try (KitchenSimulationPool pool = new KitchenSimulationPool(capacitySearch.getTrialsPerStep())) {
+            for (Strategy strategy : config.getStrategies()) {
+                log.info("Searching the capacity of the {} strategy with a {} search...", strategy.getName(), capacitySearch.getSearch());
+                results.put(strategy.getName(), search(strategy, pool));
+            }
+            log.info("{} kitchen(s) created, {} trial(s) reused a kitchen", pool.getKitchensCreated(), pool.getKitchensReused());
+        }
+        writeResults(results, capacitySearch.getPercentile(), Paths.get(capacitySearch.getResultsFile()));
+        return results;
+    }
+    
+    /**
+     * Log the highest sustained order rate of each strategy and the order rate where it saturates
+     * <p>
+     * @param results  the capacity of each strategy returned by run
+     */
+    public void reportCapacity(Map<String, StrategyCapacity> results) {
+        log.info("\n");
+        for (StrategyCapacity capacity : results.values()) {
+            String strategyName = capacity.getStrategy().getName();
+            CapacityStep maxSustained = capacity.getMaxSustained();
+            CapacityStep saturation = capacity.getSaturation();
+            if (maxSustained == null) {
+                log.info("{} does not sustain the lowest order rate tried: {} orders per second", strategyName, format(saturation.getOrdersPerSecond()));
+            } else {
+                log.info("{} sustains {} orders per second (ordersPerPeriod: {}) with a p{} courier wait time of {} ms", strategyName,
+                        format(maxSustained.getOrdersPerSecond()), maxSustained.getOrdersPerPeriod(), formatPercentile(capacitySearch.getPercentile()),
+                        format(maxSustained.getPercentileCourierWaitTime()));
+            }
+            if (saturation == null) {
+                log.info("{} did not saturate up to the highest order rate tried", strategyName);
+            } else if (maxSustained != null) {
+                log.info("{} saturates at {} orders per second (ordersPerPeriod: {})", strategyName, format(saturation.getOrdersPerSecond()),
+                        saturation.getOrdersPerPeriod());
+            }
+        }
+        log.info("\n");
+    }
+    
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+    
+    // 99 rather than 99.0, as in the p99CourierWaitTime column of the sweep results
+    private static String formatPercentile(double percentile) {
+        return (percentile == Math.rint(percentile)) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+    
+    /**
+     * Write one row per step of each strategy with its order rate and wait times in milliseconds
+     * <p>
+     * @param results  the capacity of each strategy
+     * @param percentile  the percentile of the courier wait time held to the service level
+     * @param resultsFile  the csv file to write
+     * @throws KitchenSimulationException  if the file cannot be written
+     */
+    public static void writeResults(Map<String, StrategyCapacity> results, double percentile, Path resultsFile) throws KitchenSimulationException {
+        try {
+            if (resultsFile.getParent() != null) {
+                Files.createDirectories(resultsFile.getParent());
+            }
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(resultsFile))) {
+                writer.println("strategy,orderPeriodInMilliseconds,ordersPerPeriod,ordersPerSecond,ordersCompleted,avgCourierWaitTime,p"
+                        + formatPercentile(percentile) + "CourierWaitTime,avgFoodWaitTime,diverged,sustained");
+                for (StrategyCapacity capacity : results.values()) {
+                    for (CapacityStep step : capacity.getSteps()) {
+                        writer.println(new StringBuilder(capacity.getStrategy().getName())
+                                .append(',').append(capacity.getStrategy().getOrderPeriodInMilliseconds())
+                                .append(',').append(step.getOrdersPerPeriod())
+                                .append(',').append(format(step.getOrdersPerSecond()))
+                                .append(',').append(step.getOrdersCompleted())
+                                .append(',').append(format(step.getAverageCourierWaitTime()))
+                                .append(',').append(format(step.getPercentileCourierWaitTime()))
+                                .append(',').append(format(step.getAverageFoodWaitTime()))
+                                .append(',').append(step.isDiverged())
+                                .append(',').append(step.isSustained()));
+                    }
+                }
+            }
+            log.info("Capacity search results written to {}", resultsFile);
+        } catch(IOException e) {
+            throw new KitchenSimulationException("Exception writing capacity search results file: " + resultsFile, e);
+        }
+    }
+}
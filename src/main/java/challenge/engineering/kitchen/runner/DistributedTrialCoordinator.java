@@ -0,0 +1,371 @@
+package challenge.engineering.kitchen.runner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import challenge.engineering.kitchen.config.DistributedConfig;
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.Strategy;
+
+/**
+ * 
+ * DistributedTrialCoordinator runs the trials of every strategy in worker processes and merges their statistics.
+ * <p>
+ * The trials of each strategy are split into shards of trialsPerShard trials.  The coordinator listens on an ephemeral
+ * port of the loopback interface, launches the workers and hands one shard at a time to each connected worker.  When a
+ * worker sends back the statistics of a shard, they are merged into the coordinator's StatManager.
+ * <p>
+ * A worker that dies loses at most the shard it was running: the shard goes back in the queue for another worker 
+ * (up to maxShardAttempts hand outs) and the dead worker is replaced (up to maxWorkerRestarts restarts).  A worker 
+ * that stays alive but does not send back a shard within shardTimeoutInMilliseconds is considered hung: it is stopped, 
+ * so that it is replaced like a dead worker, and its shard goes back in the queue.  Each worker introduces itself with 
+ * its worker number when it connects, so that the coordinator knows which worker to stop.
+ *
+ */
+public class DistributedTrialCoordinator {
+    
+    static Logger log = LoggerFactory.getLogger(DistributedTrialCoordinator.class);
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long POLL_PERIOD_IN_MILLIS = 100;
+    private static final long SUPERVISION_PERIOD_IN_MILLIS = 250;
+    private static final long SHUTDOWN_GRACE_PERIOD_IN_SECONDS = 10;
+    
+    /**
+     * A running worker, either a process or, in tests, a thread
+     */
+    public interface WorkerHandle {
+        boolean isAlive();
+        void stop();
+    }
+    
+    /**
+     * Launches a worker that connects back to the coordinator
+     */
+    @FunctionalInterface
+    public interface WorkerLauncher {
+        WorkerHandle launch(int workerNumber, int port) throws IOException;
+    }
+    
+    private final KitchenSimulationConfig config;
+    private final List<Strategy> strategies;
+    private final boolean usingFullStatistics;
+    private final WorkerLauncher launcher;
+    
+    private final BlockingQueue<Shard> pending = new LinkedBlockingQueue<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+    private final Map<Integer, WorkerHandle> workers = new LinkedHashMap<>();
+    private StatManager statManager;
+    private TrialCheckpoint checkpoint;
+    private int workersLaunched;
+    private volatile String failure;
+    
+    /**
+     * Constructor for a DistributedTrialCoordinator with worker processes
+     * <p>
+     * @param config  the simulation configuration which includes the distributed settings
+     * @param configFilename  the configuration file, which is loaded by each worker
+     * @param planner  the planner whose random seed is handed to the workers
+     * @param strategies  the strategies to run, each for numTrials trials
+     * @param usingFullStatistics  true if the histograms of the wait times are merged along with the totals
+     */
+    public DistributedTrialCoordinator(KitchenSimulationConfig config, String configFilename, TrialPlanner planner, 
+            List<Strategy> strategies, boolean usingFullStatistics) {
+        this(config, strategies, usingFullStatistics, processLauncher(config.getDistributed(), configFilename, planner.getSeed()));
+    }
+    
+    /**
+     * Constructor for a DistributedTrialCoordinator
+     * <p>
+     * @param config  the simulation configuration which includes the distributed settings
+     * @param strategies  the strategies to run, each for numTrials trials
+     * @param usingFullStatistics  true if the histograms of the wait times are merged along with the totals
+     * @param launcher  the launcher of the workers
+     */
+    public DistributedTrialCoordinator(KitchenSimulationConfig config, List<Strategy> strategies, boolean usingFullStatistics, 
+            WorkerLauncher launcher) {
+        this.config = config;
+        this.strategies = strategies;
+        this.usingFullStatistics = usingFullStatistics;
+        this.launcher = launcher;
+    }
+    
+    /**
+     * Set the checkpoint whose completed trials are skipped and which records the trials of each completed shard
+     * <p>
+     * @param checkpoint  the checkpoint of the run, or null when the run is not checkpointed
+     */
+    public void setCheckpoint(TrialCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+    
+    /* Launch workers as JVMs running DistributedTrialWorker with the classpath of this JVM
+     */
+    private static WorkerLauncher processLauncher(DistributedConfig distributed, String configFilename, long seed) {
+        return (workerNumber, port) -> {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(distributed.getWorkerJvmOptions());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(DistributedTrialWorker.class.getName());
+            command.add(configFilename);
+            command.add(String.valueOf(port));
+            command.add(String.valueOf(seed));
+            command.add(String.valueOf(workerNumber));
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            log.info("Started worker #{} with pid {}", workerNumber, process.pid());
+            return new WorkerHandle() {
+                @Override
+                public boolean isAlive() {
+                    return process.isAlive();
+                }
+                
+                @Override
+                public void stop() {
+                    process.destroy();
+                }
+            };
+        };
+    }
+    
+    /**
+     * Split the trials of each strategy into shards of trialsPerShard trials, leaving out trials already checkpointed
+     * <p>
+     * @return  the shards in the order they are handed out
+     */
+    List<Shard> createShards() {
+        int trialsPerShard = config.getDistributed().getTrialsPerShard();
+        List<Shard> shards = new ArrayList<>();
+        for (int first = 1; first <= config.getNumTrials(); first += trialsPerShard) {
+            for (Strategy strategy : strategies) {
+                List<Integer> trialNumbers = new ArrayList<>();
+                for (int i = first; i < first + trialsPerShard && i <= config.getNumTrials(); i++) {
+                    if (checkpoint == null || !checkpoint.isCompleted(strategy.getName(), i)) {
+                        trialNumbers.add(i);
+                    }
+                }
+                if (!trialNumbers.isEmpty()) {
+                    shards.add(new Shard(shards.size(), strategy, trialNumbers));
+                }
+            }
+        }
+        return shards;
+    }
+    
+    /**
+     * Run all shards on the workers
+     * <p>
+     * @return  the stat manager with the merged statistics of all shards
+     * @throws KitchenSimulationException  if a shard or the workers keep failing, or the coordinator cannot listen
+     */
+    public StatManager run() throws KitchenSimulationException {
+        DistributedConfig distributed = config.getDistributed();
+        List<Shard> shards = createShards();
+        pending.addAll(shards);
+        remaining.set(shards.size());
+        statManager = new StatManagerImpl(usingFullStatistics);
+        if (checkpoint != null) {
+            checkpoint.restoreInto(statManager);
+        }
+        log.info("Distributing {} shard(s) of {} strategy(s) over {} worker(s)...", shards.size(), strategies.size(), distributed.getWorkers());
+        
+        ExecutorService connections = Executors.newCachedThreadPool();
+        try (ServerSocket server = new ServerSocket(0, distributed.getWorkers(), InetAddress.getLoopbackAddress())) {
+            connections.execute(() -> accept(server, connections));
+            for (int i = 0; i < distributed.getWorkers(); i++) {
+                launchWorker(server.getLocalPort());
+            }
+            while (remaining.get() > 0 && failure == null) {
+                Thread.sleep(SUPERVISION_PERIOD_IN_MILLIS);
+                superviseWorkers(server.getLocalPort());
+            }
+        } catch(IOException e) {
+            failure = "Exception running the coordinator: " + e.getMessage();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Interrupted while waiting for the workers";
+        } finally {
+            shutdown(connections);
+        }
+        
+        if (failure != null) {
+            throw new KitchenSimulationException(failure);
+        }
+        return statManager;
+    }
+    
+    private void launchWorker(int port) throws IOException {
+        int workerNumber = ++workersLaunched;
+        WorkerHandle worker = launcher.launch(workerNumber, port);
+        synchronized(workers) {
+            workers.put(workerNumber, worker);
+        }
+    }
+    
+    /* Replace the workers that died while shards remain
+     */
+    private void superviseWorkers(int port) throws IOException {
+        int died = 0;
+        int alive = 0;
+        synchronized(workers) {
+            for (Iterator<WorkerHandle> it = workers.values().iterator(); it.hasNext();) {
+                if (it.next().isAlive()) {
+                    alive++;
+                } else {
+                    it.remove();
+                    died++;
+                }
+            }
+        }
+        int maxWorkersLaunched = config.getDistributed().getWorkers() + config.getDistributed().getMaxWorkerRestarts();
+        for (int i = 0; i < died && remaining.get() > 0; i++) {
+            if (workersLaunched < maxWorkersLaunched) {
+                log.warn("A worker died, starting a replacement ({} restart(s) left)...", maxWorkersLaunched - workersLaunched - 1);
+                launchWorker(port);
+                alive++;
+            } 
+        }
+        if (alive == 0 && remaining.get() > 0) {
+            failure = "All workers died with " + remaining.get() + " shard(s) left and maxWorkerRestarts reached";
+        }
+    }
+    
+    private void accept(ServerSocket server, ExecutorService connections) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.execute(() -> serve(socket));
+            } catch(IOException e) {
+                // the server socket is closed once all shards are done
+            }
+        }
+    }
+    
+    /* Hand shards to one connected worker until all shards are done
+     */
+    private void serve(Socket socket) {
+        Shard shard = null;
+        int workerNumber = 0;
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            int shardTimeout = config.getDistributed().getShardTimeoutInMilliseconds();
+            socket.setSoTimeout(shardTimeout);
+            String hello = in.readLine();
+            if (hello == null) {
+                throw new IOException("the worker closed its connection before introducing itself");
+            }
+            workerNumber = Integer.parseInt(hello.trim());
+            while (failure == null) {
+                shard = pending.poll(POLL_PERIOD_IN_MILLIS, TimeUnit.MILLISECONDS);
+                if (shard == null) {
+                    if (remaining.get() == 0) {
+                        out.println(MAPPER.writeValueAsString(Shard.noMoreWork()));
+                        return;
+                    }
+                    continue;
+                }
+                shard.incrementAttempts();
+                out.println(MAPPER.writeValueAsString(shard));
+                String line = in.readLine();
+                if (line == null) {
+                    throw new IOException("the worker closed its connection");
+                }
+                ShardResult result = MAPPER.readValue(line, ShardResult.class);
+                statManager.merge(result.getStats());
+                if (checkpoint != null) {
+                    checkpoint.recordCompleted(shard.getStrategy().getName(), shard.getTrialNumbers(), result.getStats());
+                }
+                log.info("{} completed, {} shard(s) left", shard, remaining.decrementAndGet());
+                shard = null;
+            }
+        } catch(SocketTimeoutException e) {
+            if (shard != null) {
+                log.warn("Worker #{} did not complete {} within {} ms, stopping it...", workerNumber, shard, 
+                        config.getDistributed().getShardTimeoutInMilliseconds());
+                stopWorker(workerNumber);
+                reassign(shard, e);
+            }
+        } catch(IOException | NumberFormatException e) {
+            if (shard != null) {
+                reassign(shard, e);
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (shard != null) {
+                pending.add(shard);
+            }
+        }
+    }
+    
+    private void stopWorker(int workerNumber) {
+        synchronized(workers) {
+            WorkerHandle worker = workers.get(workerNumber);
+            if (worker != null) {
+                worker.stop();
+            }
+        }
+    }
+    
+    private void reassign(Shard shard, Exception cause) {
+        int attempts = shard.getAttempts();
+        if (attempts >= config.getDistributed().getMaxShardAttempts()) {
+            failure = shard + " failed " + attempts + " time(s), last failure: " + cause.getMessage();
+            return;
+        }
+        log.warn("Lost {} after {} attempt(s): {}, handing it to another worker...", shard, attempts, cause.getMessage());
+        pending.add(shard);
+    }
+    
+    /* Let the workers receive their last message, or stop them right away after a failure
+     */
+    private void shutdown(ExecutorService connections) {
+        if (failure != null) {
+            stopWorkers();
+        }
+        connections.shutdown();
+        try {
+            if (!connections.awaitTermination(SHUTDOWN_GRACE_PERIOD_IN_SECONDS, TimeUnit.SECONDS)) {
+                connections.shutdownNow();
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+            connections.shutdownNow();
+        }
+        stopWorkers();
+    }
+    
+    private void stopWorkers() {
+        synchronized(workers) {
+            workers.values().stream().filter(WorkerHandle::isAlive).forEach(WorkerHandle::stop);
+        }
+    }
+}
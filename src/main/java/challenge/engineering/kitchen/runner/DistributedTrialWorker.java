@@ -0,0 +1,132 @@
+package challenge.engineering.kitchen.runner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+import challenge.engineering.kitchen.simulation.KitchenSimulationPool;
+
+/**
+ * 
+ * DistributedTrialWorker runs shards of trials for a DistributedTrialCoordinator.
+ * <p>
+ * The worker connects to the coordinator on the loopback interface and introduces itself with its worker number (one 
+ * line), then repeatedly reads a shard (one json line),
+ * runs its trials against a StatManager of its own and writes back the statistics of the shard (one json line), until 
+ * the coordinator tells it that there is no more work.  Trials are planned from the same configuration and random seed
+ * as the coordinator, so a trial number gives the same orders and courier delays in every process.
+ * <p>
+ * Usage: java -cp <classpath> challenge.engineering.kitchen.runner.DistributedTrialWorker <config.json> <port> <randomSeed> <workerNumber>
+ *
+ */
+public class DistributedTrialWorker {
+    
+    static Logger log = LoggerFactory.getLogger(DistributedTrialWorker.class);
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final KitchenSimulationConfig config;
+    private final TrialPlanner planner;
+    private final boolean usingFullStatistics;
+    
+    /**
+     * Constructor for the DistributedTrialWorker
+     * <p>
+     * @param config  the simulation configuration shared with the coordinator
+     * @param planner  the planner for the orders and courier delays of each trial, seeded like the coordinator's
+     * @param usingFullStatistics  true if the histograms of the wait times are sent back with the totals
+     */
+    public DistributedTrialWorker(KitchenSimulationConfig config, TrialPlanner planner, boolean usingFullStatistics) {
+        this.config = config;
+        this.planner = planner;
+        this.usingFullStatistics = usingFullStatistics;
+    }
+    
+    public static void main(String[] args) throws KitchenSimulationException {
+        if (args.length != 4) {
+            throw new KitchenSimulationException(
+                    "Incorrect parameters: expected: DistributedTrialWorker <config.json> <port> <randomSeed> <workerNumber>");
+        }
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(args[0]);
+        List<KitchenOrder> kitchenOrders = ListUtils.unmodifiableList(KitchenOrder.load(config.getOrderJsonFile()));
+        int ordersPerTrial = (config.getOrdersPerTrial() == 0) ? kitchenOrders.size() : config.getOrdersPerTrial();
+        TrialPlanner planner = new TrialPlanner(kitchenOrders, ordersPerTrial, config.isCommonRandomNumbers(), 
+                config.isAntitheticTrials(), Long.parseLong(args[2]));
+        boolean usingFullStatistics = config.isUsingFullStatistics() || config.getSweep() != null;
+        new DistributedTrialWorker(config, planner, usingFullStatistics).serve(Integer.parseInt(args[1]), Integer.parseInt(args[3]));
+    }
+    
+    /**
+     * Connect to the coordinator and run shards until there is no more work
+     * <p>
+     * @param port  the port the coordinator listens on
+     * @param workerNumber  the number the coordinator launched the worker with
+     * @throws KitchenSimulationException  if the connection to the coordinator fails
+     */
+    public void serve(int port, int workerNumber) throws KitchenSimulationException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println(workerNumber);
+            String line;
+            while ((line = in.readLine()) != null) {
+                Shard shard = MAPPER.readValue(line, Shard.class);
+                if (shard.isNoMoreWork()) {
+                    log.info("Worker has no more work, exiting...");
+                    return;
+                }
+                out.println(MAPPER.writeValueAsString(run(shard)));
+            }
+        } catch(IOException e) {
+            throw new KitchenSimulationException("Worker lost its connection to the coordinator on port " + port, e);
+        }
+    }
+    
+    /**
+     * Run all trials of a shard
+     * <p>
+     * @param shard  the strategy and trial numbers to run
+     * @return  the statistics of the trials in the shard
+     */
+    public ShardResult run(Shard shard) {
+        log.info("Worker running {}...", shard);
+        StatManager statManager = new StatManagerImpl(usingFullStatistics);
+        // the trials are composed as futures, each logged by the thread that completes it, which keeps its kitchen for its next trial
+        KitchenSimulationPool pool = new KitchenSimulationPool();
+        TrialScheduler scheduler = new TrialScheduler(config.isBlocking() ? 1 : config.getMaxConcurrentTrials());
+        for (int trialNumber : shard.getTrialNumbers()) {
+            TrialPlan plan = planner.plan(trialNumber);
+            scheduler.submit(() -> {
+                KitchenSimulationImpl kitchen = pool.acquire(statManager, plan.getOrders(), shard.getStrategy(), trialNumber, plan.getCourierDelayDraws());
+                plan.setUp(kitchen, config, null);
+                return kitchen.runSimulation().thenAccept(result -> {
+                    log.info("{} has completed...", kitchen.getFullName());
+                    pool.release(kitchen);
+                });
+            });
+        }
+        try {
+            scheduler.allOf().join();
+        } finally {
+            pool.close();
+        }
+        return new ShardResult(shard.getShardId(), statManager.getSnapshot());
+    }
+}
@@ -0,0 +1,106 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.handling.RunningStatistics;
+import challenge.engineering.kitchen.handling.TrialResult;
+
+/**
+ * 
+ * PairedComparison compares strategies trial by trial instead of comparing their overall averages.
+ * <p>
+ * For every pair of strategies, the difference of their mean wait times is taken within each comparison unit (a trial,
+ * or an antithetic pair of trials) and the confidence interval is built on those differences.  When the strategies share
+ * common random numbers, most of the trial to trial noise cancels out of the differences, so the interval is far
+ * narrower than the one implied by the two independent averages.
+ *
+ */
+public class PairedComparison {
+    
+    static Logger log = LoggerFactory.getLogger(PairedComparison.class);
+    
+    public static final double CONFIDENCE_LEVEL = 0.95;
+    
+    private final List<String> strategyNames;
+    private final TrialPlanner planner;
+    private final Map<Integer, Map<Integer, Map<String, TrialResult>>> resultsByUnit = new TreeMap<>();
+    
+    /**
+     * Constructor for PairedComparison
+     * <p>
+     * @param strategyNames  the names of the strategies compared, in the order they are reported
+     * @param planner  the trial planner, which decides whether trials are compared individually or in antithetic pairs
+     */
+    public PairedComparison(List<String> strategyNames, TrialPlanner planner) {
+        this.strategyNames = strategyNames;
+        this.planner = planner;
+    }
+    
+    /**
+     * Add the result of a completed trial
+     * <p>
+     * @param result  the trial result
+     */
+    public synchronized void add(TrialResult result) {
+        resultsByUnit.computeIfAbsent(planner.getComparisonUnit(result.getTrialNumber()), unit -> new TreeMap<>())
+            .computeIfAbsent(result.getTrialNumber(), trialNumber -> new HashMap<>())
+            .put(result.getStrategyName(), result);
+    }
+    
+    private static double waitTime(TrialResult result, boolean courier) {
+        return courier ? result.getAverageCourierWaitTime() : result.getAverageFoodWaitTime();
+    }
+    
+    /**
+     * Get the paired differences of mean wait times between two strategies
+     * <p>
+     * @param first  the name of the first strategy
+     * @param second  the name of the second strategy
+     * @param courier  true for courier wait time, false for food wait time
+     * @return  the statistics of first minus second across the comparison units, using only the trials run by both strategies
+     */
+    public synchronized RunningStatistics getDifference(String first, String second, boolean courier) {
+        RunningStatistics differences = new RunningStatistics();
+        for (Map<Integer, Map<String, TrialResult>> unit : resultsByUnit.values()) {
+            double sum = 0;
+            int pairedTrials = 0;
+            for (Map<String, TrialResult> results : unit.values()) {
+                if (results.containsKey(first) && results.containsKey(second)) {
+                    sum += waitTime(results.get(first), courier) - waitTime(results.get(second), courier);
+                    pairedTrials++;
+                }
+            }
+            if (pairedTrials > 0) {
+                differences.add(sum / pairedTrials);
+            }
+        }
+        return differences;
+    }
+    
+    /**
+     * Log the paired differences for every pair of strategies
+     */
+    public void report() {
+        String unit = planner.isAntithetic() ? "antithetic pairs" : "trials";
+        log.info("\n");
+        for (int i = 0; i < strategyNames.size(); i++) {
+            for (int j = i + 1; j < strategyNames.size(); j++) {
+                String first = strategyNames.get(i);
+                String second = strategyNames.get(j);
+                RunningStatistics courier = getDifference(first, second, true);
+                RunningStatistics food = getDifference(first, second, false);
+                log.info("{} minus {} paired difference in courier wait time: {} ms +/- {} ms over {} {}", first, second,
+                        courier.getMean(), courier.getConfidenceIntervalHalfWidth(CONFIDENCE_LEVEL), courier.getCount(), unit);
+                log.info("{} minus {} paired difference in food wait time: {} ms +/- {} ms over {} {}", first, second,
+                        food.getMean(), food.getConfidenceIntervalHalfWidth(CONFIDENCE_LEVEL), food.getCount(), unit);
+            }
+        }
+        log.info("\n");
+    }
+}
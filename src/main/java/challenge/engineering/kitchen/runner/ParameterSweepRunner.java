@@ -0,0 +1,238 @@
+package challenge.engineering.kitchen.runner;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.config.SweepConfig;
+import challenge.engineering.kitchen.config.SweepRange;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.handling.StatSnapshot;
+import challenge.engineering.kitchen.model.Strategy;
+import challenge.engineering.kitchen.simulation.KitchenSimulation;
+import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+import challenge.engineering.kitchen.simulation.KitchenSimulationPool;
+
+/**
+ * 
+ * ParameterSweepRunner expands each configured strategy into one variant per point of the parameter sweep, runs every
+ * variant for each trial, and writes a results table with averages and percentiles per point.
+ * <p>
+ * Every (variant, trial) pair is submitted to a TrialScheduler that runs at most the sweep's parallelism at once and 
+ * starts the next trial from the thread that completes a running one, so no thread is held waiting on a trial.
+ * As with the regular runner, the same randomly ordered orders are used by all variants in a given trial.
+ *
+ */
+public class ParameterSweepRunner {
+    
+    static Logger log = LoggerFactory.getLogger(ParameterSweepRunner.class);
+    
+    static final double[] REPORTED_PERCENTILES = {50, 90, 99};
+    
+    private final KitchenSimulationConfig config;
+    private final TrialPlanner planner;
+    private TrialCheckpoint checkpoint;
+    private OrderExporter orderExporter;
+    
+    /**
+     * Constructor for the ParameterSweepRunner
+     * <p>
+     * @param config  the simulation configuration which includes the sweep
+     * @param planner  the planner for the orders and courier delays shared by all variants in a trial
+     */
+    public ParameterSweepRunner(KitchenSimulationConfig config, TrialPlanner planner) {
+        this.config = config;
+        this.planner = planner;
+    }
+    
+    /**
+     * Set the checkpoint whose completed trials are skipped and which records each completed trial of a variant
+     * <p>
+     * @param checkpoint  the checkpoint of the run, or null when the run is not checkpointed
+     */
+    public void setCheckpoint(TrialCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+    
+    /**
+     * Set the exporter that receives the detail of every completed order
+     * <p>
+     * @param orderExporter  the exporter, or null when orders are not exported
+     */
+    public void setOrderExporter(OrderExporter orderExporter) {
+        this.orderExporter = orderExporter;
+    }
+    
+    private List<Integer> valuesOf(SweepRange range, int configuredValue, String parameterName) throws KitchenSimulationException {
+        return (range == null) ? Collections.singletonList(configuredValue) : range.expand(parameterName);
+    }
+    
+    /**
+     * Expand each configured strategy into one variant per combination of swept parameters
+     * <p>
+     * Combinations where courierMinDelayInMilliseconds is not less than courierMaxDelayInMilliseconds are skipped.
+     * <p>
+     * @return  the strategy variants in the order they are swept
+     * @throws KitchenSimulationException  if a sweep range is invalid
+     */
+    public List<Strategy> expandStrategies() throws KitchenSimulationException {
+        SweepConfig sweep = config.getSweep();
+        List<Strategy> variants = new ArrayList<>();
+        int skipped = 0;
+        for (Strategy strategy : config.getStrategies()) {
+            for (int courierMinDelay : valuesOf(sweep.getCourierMinDelayInMilliseconds(), strategy.getCourierMinDelayInMilliseconds(), "courierMinDelayInMilliseconds")) {
+                for (int courierMaxDelay : valuesOf(sweep.getCourierMaxDelayInMilliseconds(), strategy.getCourierMaxDelayInMilliseconds(), "courierMaxDelayInMilliseconds")) {
+                    if (courierMinDelay >= courierMaxDelay) {
+                        skipped++;
+                        continue;
+                    }
+                    for (int orderPeriod : valuesOf(sweep.getOrderPeriodInMilliseconds(), strategy.getOrderPeriodInMilliseconds(), "orderPeriodInMilliseconds")) {
+                        for (int ordersPerPeriod : valuesOf(sweep.getOrdersPerPeriod(), strategy.getOrdersPerPeriod(), "ordersPerPeriod")) {
+                            Strategy variant = new Strategy(strategy);
+                            variant.setCourierMinDelayInMilliseconds(courierMinDelay);
+                            variant.setCourierMaxDelayInMilliseconds(courierMaxDelay);
+                            variant.setOrderPeriodInMilliseconds(orderPeriod);
+                            variant.setOrdersPerPeriod(ordersPerPeriod);
+                            variant.setName(String.format("%s{courierMinDelay=%d;courierMaxDelay=%d;orderPeriod=%d;ordersPerPeriod=%d}", 
+                                    strategy.getName(), courierMinDelay, courierMaxDelay, orderPeriod, ordersPerPeriod));
+                            variants.add(variant);
+                        }
+                    }
+                }
+            }
+        }
+        if (skipped > 0) {
+            log.warn("Skipped {} sweep combination(s) where courierMinDelayInMilliseconds >= courierMaxDelayInMilliseconds", skipped);
+        }
+        if (variants.isEmpty()) {
+            throw new KitchenSimulationException("The sweep did not produce any valid strategy variants");
+        }
+        return variants;
+    }
+    
+    /**
+     * Run all trials for all strategy variants and write the results table
+     * <p>
+     * @return  the stat manager holding the results for each variant, which uses full statistics
+     * @throws KitchenSimulationException  if the sweep is invalid, a simulation fails, or the results file cannot be written
+     */
+    public StatManager run() throws KitchenSimulationException {
+        List<Strategy> variants = expandStrategies();
+        SweepConfig sweep = config.getSweep();
+        log.info("Sweeping {} strategy variant(s) over {} trial(s) with parallelism {}...", variants.size(), config.getNumTrials(), sweep.getParallelism());
+        
+        StatManager statManager = new StatManagerImpl(true);
+        if (checkpoint != null) {
+            checkpoint.restoreInto(statManager);
+        }
+        // at most parallelism trials run at once, and each is recorded by the thread that completes it
+        TrialScheduler scheduler = new TrialScheduler(sweep.getParallelism());
+        KitchenSimulationPool pool = new KitchenSimulationPool();
+        for (int i = 1; i <= config.getNumTrials(); i++) {
+            int trialNumber = i;
+            TrialPlan plan = planner.plan(trialNumber);
+            for (Strategy variant : variants) {
+                if (checkpoint != null && checkpoint.isCompleted(variant.getName(), trialNumber)) {
+                    continue;
+                }
+                scheduler.submit(() -> {
+                    // with a checkpoint, the trial collects its statistics on its own so that only completed trials are saved
+                    StatManager trialStats = (checkpoint == null) ? statManager : new StatManagerImpl(true);
+                    KitchenSimulationImpl kitchen = pool.acquire(trialStats, plan.getOrders(), variant, trialNumber, plan.getCourierDelayDraws());
+                    plan.setUp(kitchen, config, orderExporter);
+                    return kitchen.runSimulation().thenAccept(result -> {
+                        log.info("{} has completed...", kitchen.getFullName());
+                        if (checkpoint != null) {
+                            StatSnapshot stats = trialStats.getSnapshot();
+                            statManager.merge(stats);
+                            checkpoint.recordCompleted(variant.getName(), List.of(trialNumber), stats);
+                        }
+                        pool.release(kitchen);
+                    });
+                });
+            }
+        }
+        try {
+            scheduler.allOf().join();
+        } catch(CompletionException e) {
+            throw new KitchenSimulationException("A simulation in the sweep failed: " + e.getCause().getMessage(), e);
+        } finally {
+            pool.close();
+        }
+        
+        writeResults(variants, statManager, Paths.get(sweep.getResultsFile()));
+        return statManager;
+    }
+    
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+    
+    /**
+     * Write one row per strategy variant with the average and percentile wait times in milliseconds
+     * <p>
+     * @param variants  the strategy variants that were run
+     * @param statManager  the stat manager with full statistics for the variants
+     * @param resultsFile  the csv file to write
+     * @throws KitchenSimulationException  if the file cannot be written
+     */
+    public static void writeResults(List<Strategy> variants, StatManager statManager, Path resultsFile) throws KitchenSimulationException {
+        String foodWaitTime = StatManager.Metrics.FOOD_WAIT_TIME.getValue();
+        String courierWaitTime = StatManager.Metrics.COURIER_WAIT_TIME.getValue();
+        try {
+            if (resultsFile.getParent() != null) {
+                Files.createDirectories(resultsFile.getParent());
+            }
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(resultsFile))) {
+                StringBuilder header = new StringBuilder("strategy,courierMatchedToOrder,matchingPolicy,courierMinDelayInMilliseconds,courierMaxDelayInMilliseconds,")
+                        .append("orderPeriodInMilliseconds,ordersPerPeriod,ordersCompleted,avgFoodWaitTime");
+                for (double percentile : REPORTED_PERCENTILES) {
+                    header.append(",p").append((int) percentile).append("FoodWaitTime");
+                }
+                header.append(",avgCourierWaitTime");
+                for (double percentile : REPORTED_PERCENTILES) {
+                    header.append(",p").append((int) percentile).append("CourierWaitTime");
+                }
+                writer.println(header);
+                
+                for (Strategy variant : variants) {
+                    String name = variant.getName();
+                    StringBuilder row = new StringBuilder(name)
+                            .append(',').append(variant.isCourierMatchedToOrder())
+                            .append(',').append(variant.getMatchingPolicy())
+                            .append(',').append(variant.getCourierMinDelayInMilliseconds())
+                            .append(',').append(variant.getCourierMaxDelayInMilliseconds())
+                            .append(',').append(variant.getOrderPeriodInMilliseconds())
+                            .append(',').append(variant.getOrdersPerPeriod())
+                            .append(',').append(statManager.getNumOrdersCompleted(name))
+                            .append(',').append(format(statManager.getAverageFoodWaitTime(name)));
+                    for (double percentile : REPORTED_PERCENTILES) {
+                        row.append(',').append(format(statManager.getPercentile(name, foodWaitTime, percentile)));
+                    }
+                    row.append(',').append(format(statManager.getAverageCourierWaitTime(name)));
+                    for (double percentile : REPORTED_PERCENTILES) {
+                        row.append(',').append(format(statManager.getPercentile(name, courierWaitTime, percentile)));
+                    }
+                    writer.println(row);
+                }
+            }
+            log.info("Sweep results written to {}", resultsFile);
+        } catch(IOException e) {
+            throw new KitchenSimulationException("Exception writing sweep results file: " + resultsFile, e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import challenge.engineering.kitchen.model.Strategy;
+
+/**
+ * 
+ * A Shard is the unit of work handed to a worker process: a strategy and the trial numbers to run for it.
+ * <p>
+ * A shard without a strategy tells the worker that there is no more work and that it should exit.
+ *
+ */
+public class Shard {
+    
+    private int shardId;
+    private Strategy strategy;
+    private List<Integer> trialNumbers;
+    
+    @JsonIgnore
+    private int attempts;
+    
+    public Shard() {
+        trialNumbers = new ArrayList<>();
+    }
+    
+    /**
+     * Constructor for a Shard
+     * <p>
+     * @param shardId  the id of the shard, unique within a run
+     * @param strategy  the strategy to run
+     * @param trialNumbers  the trial numbers to run for the strategy
+     */
+    public Shard(int shardId, Strategy strategy, List<Integer> trialNumbers) {
+        this.shardId = shardId;
+        this.strategy = strategy;
+        this.trialNumbers = trialNumbers;
+    }
+    
+    /**
+     * Create the shard telling a worker that there is no more work
+     * <p>
+     * @return  a shard without a strategy
+     */
+    public static Shard noMoreWork() {
+        return new Shard(-1, null, new ArrayList<>());
+    }
+    
+    @JsonIgnore
+    public boolean isNoMoreWork() {
+        return strategy == null;
+    }
+    
+    public int getShardId() {
+        return shardId;
+    }
+    
+    public void setShardId(int shardId) {
+        this.shardId = shardId;
+    }
+    
+    public Strategy getStrategy() {
+        return strategy;
+    }
+    
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+    
+    public List<Integer> getTrialNumbers() {
+        return trialNumbers;
+    }
+    
+    public void setTrialNumbers(List<Integer> trialNumbers) {
+        this.trialNumbers = trialNumbers;
+    }
+    
+    /**
+     * Count one more hand out of this shard to a worker
+     * <p>
+     * @return  the number of times the shard has been handed out
+     */
+    int incrementAttempts() {
+        return ++attempts;
+    }
+    
+    @JsonIgnore
+    int getAttempts() {
+        return attempts;
+    }
+    
+    @Override
+    public String toString() {
+        return "Shard [shardId=" + shardId + ", strategy=" + (strategy == null ? null : strategy.getName()) + ", trialNumbers=" + trialNumbers + "]";
+    }
+}
@@ -0,0 +1,44 @@
+package challenge.engineering.kitchen.runner;
+
+import challenge.engineering.kitchen.handling.StatSnapshot;
+
+/**
+ * 
+ * A ShardResult is sent back by a worker process once all trials of a shard have completed.
+ *
+ */
+public class ShardResult {
+    
+    private int shardId;
+    private StatSnapshot stats;
+    
+    public ShardResult() {
+    }
+    
+    /**
+     * Constructor for a ShardResult
+     * <p>
+     * @param shardId  the id of the completed shard
+     * @param stats  the statistics of the trials in the shard
+     */
+    public ShardResult(int shardId, StatSnapshot stats) {
+        this.shardId = shardId;
+        this.stats = stats;
+    }
+    
+    public int getShardId() {
+        return shardId;
+    }
+    
+    public void setShardId(int shardId) {
+        this.shardId = shardId;
+    }
+    
+    public StatSnapshot getStats() {
+        return stats;
+    }
+    
+    public void setStats(StatSnapshot stats) {
+        this.stats = stats;
+    }
+}
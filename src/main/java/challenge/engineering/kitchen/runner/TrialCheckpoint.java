@@ -0,0 +1,263 @@
+package challenge.engineering.kitchen.runner;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import challenge.engineering.kitchen.config.CheckpointConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.handling.StatSnapshot;
+
+/**
+ * 
+ * TrialCheckpoint keeps track of the trials that have completed and periodically saves them, along with their merged
+ * statistics, so that an interrupted run can resume instead of starting over.
+ * <p>
+ * Recording a completed trial only merges its statistics in memory.  The checkpoint file is written by a background 
+ * thread every intervalInSeconds, and only when trials have completed since the last save.  Each save writes a 
+ * temporary file next to the checkpoint and then atomically moves it over the checkpoint, so the checkpoint on disk is 
+ * always complete.  A file system that cannot move the file atomically fails the save rather than risk a torn 
+ * checkpoint.
+ * <p>
+ * A checkpoint is only resumed by a run with the same configuration file contents, and it keeps the random seed of the
+ * run so that resumed trials with common random numbers see the same orders and courier delays.
+ *
+ */
+public class TrialCheckpoint {
+    
+    static Logger log = LoggerFactory.getLogger(TrialCheckpoint.class);
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    /**
+     * The contents of the checkpoint file
+     */
+    public static class State {
+        private String configFingerprint;
+        private Long randomSeed;
+        private Set<String> completedTrials = new TreeSet<>();
+        private StatSnapshot stats = new StatSnapshot();
+        
+        public String getConfigFingerprint() {
+            return configFingerprint;
+        }
+        public void setConfigFingerprint(String configFingerprint) {
+            this.configFingerprint = configFingerprint;
+        }
+        public Long getRandomSeed() {
+            return randomSeed;
+        }
+        public void setRandomSeed(Long randomSeed) {
+            this.randomSeed = randomSeed;
+        }
+        public Set<String> getCompletedTrials() {
+            return completedTrials;
+        }
+        public void setCompletedTrials(Set<String> completedTrials) {
+            this.completedTrials = new TreeSet<>(completedTrials);
+        }
+        public StatSnapshot getStats() {
+            return stats;
+        }
+        public void setStats(StatSnapshot stats) {
+            this.stats = stats;
+        }
+    }
+    
+    private final Path file;
+    private final int intervalInSeconds;
+    private final State state;
+    private final StatManager completedStats;
+    private ScheduledExecutorService writer;
+    private boolean dirty;
+    
+    private TrialCheckpoint(CheckpointConfig config, State state, boolean usingFullStatistics) {
+        this.file = Paths.get(config.getFile());
+        this.intervalInSeconds = config.getIntervalInSeconds();
+        this.state = state;
+        this.completedStats = new StatManagerImpl(usingFullStatistics);
+        completedStats.merge(state.getStats());
+    }
+    
+    /**
+     * Open the checkpoint of a run, resuming the saved one if there is one
+     * <p>
+     * @param config  the checkpoint file and save interval
+     * @param configFilename  the configuration file of the run, whose contents must match those of the saved checkpoint
+     * @param usingFullStatistics  true if the histograms of the wait times are saved along with the totals
+     * @return  the checkpoint
+     * @throws KitchenSimulationException  if the saved checkpoint cannot be read or was saved with another configuration
+     */
+    public static TrialCheckpoint open(CheckpointConfig config, String configFilename, boolean usingFullStatistics) throws KitchenSimulationException {
+        String fingerprint = fingerprint(Paths.get(configFilename));
+        Path file = Paths.get(config.getFile());
+        State state = new State();
+        state.setConfigFingerprint(fingerprint);
+        if (Files.exists(file)) {
+            try {
+                state = MAPPER.readValue(file.toFile(), State.class);
+            } catch(IOException e) {
+                throw new KitchenSimulationException("Exception reading checkpoint file: " + file, e);
+            }
+            if (!fingerprint.equals(state.getConfigFingerprint())) {
+                throw new KitchenSimulationException("Checkpoint file " + file + " was saved with a different configuration, remove it to start over");
+            }
+            log.info("Resuming from checkpoint {} with {} completed trial(s)", file, state.getCompletedTrials().size());
+        }
+        return new TrialCheckpoint(config, state, usingFullStatistics);
+    }
+    
+    private static String fingerprint(Path configFile) throws KitchenSimulationException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(configFile)));
+        } catch(IOException | NoSuchAlgorithmException e) {
+            throw new KitchenSimulationException("Exception reading configuration file: " + configFile, e);
+        }
+    }
+    
+    private static String trialId(String strategyName, int trialNumber) {
+        return strategyName + "#" + trialNumber;
+    }
+    
+    /**
+     * Get the random seed saved with the checkpoint
+     * <p>
+     * @return  the random seed of the run being resumed, or null for a new run
+     */
+    public synchronized Long getRandomSeed() {
+        return state.getRandomSeed();
+    }
+    
+    public synchronized void setRandomSeed(long randomSeed) {
+        state.setRandomSeed(randomSeed);
+    }
+    
+    public synchronized boolean isCompleted(String strategyName, int trialNumber) {
+        return state.getCompletedTrials().contains(trialId(strategyName, trialNumber));
+    }
+    
+    public synchronized int getNumCompleted() {
+        return state.getCompletedTrials().size();
+    }
+    
+    /**
+     * Add the statistics of the trials completed before the run was interrupted
+     * <p>
+     * @param statManager  the stat manager of the resumed run
+     */
+    public void restoreInto(StatManager statManager) {
+        statManager.merge(completedStats.getSnapshot());
+    }
+    
+    /**
+     * Record completed trials of a strategy, which are saved with the next checkpoint
+     * <p>
+     * @param strategyName  the name of the strategy
+     * @param trialNumbers  the completed trials
+     * @param stats  the statistics of exactly those trials
+     */
+    public synchronized void recordCompleted(String strategyName, Collection<Integer> trialNumbers, StatSnapshot stats) {
+        completedStats.merge(stats);
+        for (int trialNumber : trialNumbers) {
+            state.getCompletedTrials().add(trialId(strategyName, trialNumber));
+        }
+        dirty = true;
+    }
+    
+    /**
+     * Start saving the checkpoint in the background every intervalInSeconds
+     */
+    public void start() {
+        writer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(() -> {
+            try {
+                save();
+            } catch(KitchenSimulationException e) {
+                log.error("Exception saving checkpoint: ", e);
+            }
+        }, intervalInSeconds, intervalInSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Stop the background saves and save the checkpoint one last time
+     * <p>
+     * @throws KitchenSimulationException  if the checkpoint cannot be saved
+     */
+    public void close() throws KitchenSimulationException {
+        if (writer != null) {
+            writer.shutdown();
+            try {
+                writer.awaitTermination(intervalInSeconds, TimeUnit.SECONDS);
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        save();
+    }
+    
+    /**
+     * Save the checkpoint if trials have completed since the last save
+     * <p>
+     * @throws KitchenSimulationException  if the checkpoint cannot be written
+     */
+    public void save() throws KitchenSimulationException {
+        byte[] contents;
+        synchronized(this) {
+            if (!dirty && Files.exists(file)) {
+                return;
+            }
+            state.setStats(completedStats.getSnapshot());
+            try {
+                contents = MAPPER.writeValueAsBytes(state);
+            } catch(IOException e) {
+                throw new KitchenSimulationException("Exception serializing checkpoint", e);
+            }
+            dirty = false;
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(temporary, contents);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Checkpoint saved to {}", file);
+        } catch(AtomicMoveNotSupportedException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch(IOException ignored) {
+                // the temporary file is overwritten by the next save
+            }
+            throw new KitchenSimulationException("The file system of checkpoint file " + file 
+                    + " does not support atomic moves, so a crash could leave a torn checkpoint", e);
+        } catch(IOException e) {
+            synchronized(this) {
+                dirty = true;
+            }
+            throw new KitchenSimulationException("Exception writing checkpoint file: " + file, e);
+        }
+    }
+}
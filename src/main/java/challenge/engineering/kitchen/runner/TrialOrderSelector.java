@@ -0,0 +1,101 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntUnaryOperator;
+
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderSelection;
+
+/**
+ * Selects the randomly ordered kitchen orders used by all strategies in a given trial.
+ * <p>
+ * A trial never copies or shuffles the catalog.  Its orders are the first ordersPerTrial positions of a lazy
+ * Fisher-Yates shuffle of the catalog positions, in which a position that has not been swapped yet holds itself and
+ * only the swapped positions are kept in a small open-addressing table, so a selection costs O(ordersPerTrial) time
+ * and memory whatever the size of the catalog, and the trial reads the orders from the shared immutable list.
+ */
+public final class TrialOrderSelector {
+    
+    private TrialOrderSelector() {
+    }
+    
+    /**
+     * Shuffle the kitchen orders and keep the first ordersPerTrial of them
+     * <p>
+     * @param kitchenOrders  the full list of orders loaded from the orderJsonFile
+     * @param ordersPerTrial  the number of orders used in the trial
+     * @return  the randomly ordered orders for the trial, referring to kitchenOrders by position
+     */
+    public static List<KitchenOrder> select(List<KitchenOrder> kitchenOrders, int ordersPerTrial) {
+        int n = kitchenOrders.size();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int[] positions = sample(n, Math.min(ordersPerTrial, n), i -> random.nextInt(n - i));
+        return new OrderSelection(kitchenOrders, positions);
+    }
+    
+    /**
+     * Draw the first positions of a random permutation of 0..n-1 with a lazy Fisher-Yates shuffle
+     * <p>
+     * The positions are exactly those of a partial Fisher-Yates shuffle of an identity permutation with the same draws.
+     * <p>
+     * @param n  the number of positions to choose from
+     * @param selected  the number of positions drawn, at most n
+     * @param offset  given i, the offset in [0, n - i) of the position swapped into position i
+     * @return  the selected positions in the order they were drawn
+     */
+    static int[] sample(int n, int selected, IntUnaryOperator offset) {
+        if (2 * selected >= n) {
+            return shuffle(n, selected, offset);
+        }
+        int[] positions = new int[selected];
+        // each draw swaps at most one position beyond i into the table, which is kept at most half full
+        int capacity = Integer.highestOneBit(Math.max(2 * selected, 1)) << 1;
+        int mask = capacity - 1;
+        int[] keys = new int[capacity];
+        int[] values = new int[capacity];
+        for (int i = 0; i < selected; i++) {
+            int j = i + offset.applyAsInt(i);
+            int slotOfJ = slot(keys, mask, j);
+            int atJ = (keys[slotOfJ] == 0) ? j : values[slotOfJ];
+            positions[i] = atJ;
+            if (j != i) {
+                // position i is never read again, so only position j needs to take what position i held
+                int slotOfI = slot(keys, mask, i);
+                int atI = (keys[slotOfI] == 0) ? i : values[slotOfI];
+                keys[slotOfJ] = j + 1;
+                values[slotOfJ] = atI;
+            }
+        }
+        return positions;
+    }
+    
+    /* A partial Fisher-Yates shuffle of an identity permutation, which is smaller than the table once most of the
+     * positions are drawn
+     */
+    private static int[] shuffle(int n, int selected, IntUnaryOperator offset) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            permutation[i] = i;
+        }
+        for (int i = 0; i < selected; i++) {
+            int j = i + offset.applyAsInt(i);
+            int temp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = temp;
+        }
+        return (selected < n) ? Arrays.copyOf(permutation, selected) : permutation;
+    }
+    
+    /* Find the slot of a position in the table, or the empty slot where it belongs; keys are stored as position + 1
+     * so that an empty slot is 0
+     */
+    private static int slot(int[] keys, int mask, int position) {
+        int index = (position * 0x9E3779B9) >>> 1 & mask;
+        while (keys[index] != 0 && keys[index] != position + 1) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
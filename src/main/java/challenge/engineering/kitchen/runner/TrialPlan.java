@@ -0,0 +1,96 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.List;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.simulation.KitchenSimulationImpl;
+
+/**
+ * The inputs shared by all strategies that run a given trial: the randomly ordered orders and, when common random
+ * numbers are used, the uniform draws that set the courier delay of each of those orders, whether and when its customer 
+ * cancels it, and whether its couriers show up.
+ *
+ */
+public class TrialPlan {
+    
+    private final int trialNumber;
+    private final List<KitchenOrder> orders;
+    private final double[] courierDelayDraws;
+    private final double[] cancellationDraws;
+    private final double[] noShowDraws;
+    
+    /**
+     * Constructor for TrialPlan
+     * <p>
+     * @param trialNumber  the trial number
+     * @param orders  the randomly ordered orders used in the trial
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order in the same order as orders, or null for independent courier delays
+     */
+    public TrialPlan(int trialNumber, List<KitchenOrder> orders, double[] courierDelayDraws) {
+        this(trialNumber, orders, courierDelayDraws, null, null);
+    }
+    
+    /**
+     * Constructor for a TrialPlan that also sets the order cancellations and courier no-shows
+     * <p>
+     * @param trialNumber  the trial number
+     * @param orders  the randomly ordered orders used in the trial
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order in the same order as orders, or null for independent courier delays
+     * @param cancellationDraws  a uniform draw in [0, 1) per order setting its cancellation, or null for independent cancellations
+     * @param noShowDraws  a uniform draw in [0, 1) per order setting the no-shows of its couriers, or null for independent no-shows
+     */
+    public TrialPlan(int trialNumber, List<KitchenOrder> orders, double[] courierDelayDraws, double[] cancellationDraws, double[] noShowDraws) {
+        this.trialNumber = trialNumber;
+        this.orders = orders;
+        this.courierDelayDraws = courierDelayDraws;
+        this.cancellationDraws = cancellationDraws;
+        this.noShowDraws = noShowDraws;
+    }
+    
+    public int getTrialNumber() {
+        return trialNumber;
+    }
+    
+    public List<KitchenOrder> getOrders() {
+        return orders;
+    }
+    
+    public double[] getCourierDelayDraws() {
+        return courierDelayDraws;
+    }
+    
+    /**
+     * Get the uniform draws that set whether and when each order is cancelled
+     * <p>
+     * @return  a draw per order in the same order as getOrders, or null if cancellations are drawn independently
+     */
+    public double[] getCancellationDraws() {
+        return cancellationDraws;
+    }
+    
+    /**
+     * Get the uniform draws that set whether the couriers of each order show up
+     * <p>
+     * @return  a draw per order in the same order as getOrders, or null if no-shows are drawn independently
+     */
+    public double[] getNoShowDraws() {
+        return noShowDraws;
+    }
+    
+    /**
+     * Set up a kitchen to run this plan with the settings of the configuration, before its simulation starts
+     * <p>
+     * @param kitchen  a kitchen constructed, or acquired from a pool, for the orders and courier delays of this plan
+     * @param config  the configuration of the run, which sets the event loop, time scale and precision timer
+     * @param orderExporter  the exporter of completed orders, or null when orders are not exported
+     */
+    public void setUp(KitchenSimulationImpl kitchen, KitchenSimulationConfig config, OrderExporter orderExporter) {
+        kitchen.setOrderExporter(orderExporter);
+        kitchen.setChurnDraws(cancellationDraws, noShowDraws);
+        kitchen.setEventLoop(config.getEventLoop());
+        kitchen.setTimeScale(config.getTimeScale());
+        kitchen.setPrecisionTimer(config.getPrecisionTimer());
+    }
+}
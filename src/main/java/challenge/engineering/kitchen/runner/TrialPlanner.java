@@ -0,0 +1,155 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderSelection;
+
+/**
+ * 
+ * TrialPlanner decides the orders, courier delays, order cancellations and courier no-shows used by all strategies in 
+ * a trial.
+ * <p>
+ * Without common random numbers, the orders are shuffled independently for each trial and each kitchen draws its own
+ * courier delays, cancellations and no-shows.  With common random numbers, the order permutation and every per-order 
+ * draw of a trial are derived from the random seed and the trial number, so every strategy sees exactly the same orders
+ * arriving, the same couriers arriving and the same customers cancelling.  Differences between strategies then come 
+ * from the strategies rather than from the noise.
+ * <p>
+ * With antithetic trials, trials are paired (1 and 2, 3 and 4, ...) and the second trial of a pair uses 1 - u for every
+ * uniform draw u of the first, which makes the pair's estimates negatively correlated and their average less noisy.
+ *
+ */
+public class TrialPlanner {
+    
+    static Logger log = LoggerFactory.getLogger(TrialPlanner.class);
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private final List<KitchenOrder> kitchenOrders;
+    private final int ordersPerTrial;
+    private final boolean commonRandomNumbers;
+    private final boolean antithetic;
+    private final long seed;
+    
+    /**
+     * Constructor for a TrialPlanner with independent randomness in each trial
+     * <p>
+     * @param kitchenOrders  the full list of orders loaded from the orderJsonFile
+     * @param ordersPerTrial  the number of orders used in each trial
+     */
+    public TrialPlanner(List<KitchenOrder> kitchenOrders, int ordersPerTrial) {
+        this(kitchenOrders, ordersPerTrial, false, false, 0);
+    }
+    
+    /**
+     * Constructor for the TrialPlanner
+     * <p>
+     * @param kitchenOrders  the full list of orders loaded from the orderJsonFile
+     * @param ordersPerTrial  the number of orders used in each trial
+     * @param commonRandomNumbers  true if all strategies in a trial share the order permutation and courier delay draws
+     * @param antithetic  true if even trials use the antithetic draws of the preceding odd trial, requires commonRandomNumbers
+     * @param seed  the random seed used with common random numbers
+     */
+    public TrialPlanner(List<KitchenOrder> kitchenOrders, int ordersPerTrial, boolean commonRandomNumbers, boolean antithetic, long seed) {
+        this.kitchenOrders = kitchenOrders;
+        this.ordersPerTrial = Math.min(ordersPerTrial, kitchenOrders.size());
+        this.commonRandomNumbers = commonRandomNumbers;
+        this.antithetic = antithetic;
+        this.seed = seed;
+    }
+    
+    /**
+     * Create the trial planner described by the configuration
+     * <p>
+     * @param config  the simulation configuration
+     * @param kitchenOrders  the full list of orders loaded from the orderJsonFile
+     * @param ordersPerTrial  the number of orders used in each trial
+     * @return  the trial planner
+     * @throws KitchenSimulationException  if antitheticTrials is set without commonRandomNumbers
+     */
+    public static TrialPlanner fromConfig(KitchenSimulationConfig config, List<KitchenOrder> kitchenOrders, int ordersPerTrial) throws KitchenSimulationException {
+        if (config.isAntitheticTrials() && !config.isCommonRandomNumbers()) {
+            throw new KitchenSimulationException("In the configuration file, antitheticTrials requires commonRandomNumbers");
+        }
+        if (!config.isCommonRandomNumbers()) {
+            return new TrialPlanner(kitchenOrders, ordersPerTrial);
+        }
+        long seed = (config.getRandomSeed() != null) ? config.getRandomSeed() : System.nanoTime();
+        log.info("Using common random numbers with randomSeed {}{}", seed, config.isAntitheticTrials() ? " and antithetic trials" : "");
+        return new TrialPlanner(kitchenOrders, ordersPerTrial, true, config.isAntitheticTrials(), seed);
+    }
+    
+    public boolean isUsingCommonRandomNumbers() {
+        return commonRandomNumbers;
+    }
+    
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    /**
+     * Get the number of the unit that a trial belongs to when comparing strategies
+     * <p>
+     * @param trialNumber  the trial number
+     * @return  the antithetic pair of the trial or the trial number itself if trials are not antithetic
+     */
+    public int getComparisonUnit(int trialNumber) {
+        return antithetic ? (trialNumber + 1) / 2 : trialNumber;
+    }
+    
+    // murmur3 finalizer so that neighbouring trial numbers get unrelated streams
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+    
+    private static double draw(SplittableRandom random, boolean flip) {
+        double u = random.nextDouble();
+        return flip ? 1.0 - u : u;
+    }
+    
+    /**
+     * Plan the orders and the courier delay, cancellation and no-show draws for a trial
+     * <p>
+     * @param trialNumber  the trial number starting at 1
+     * @return  the plan shared by all strategies running the trial
+     */
+    public TrialPlan plan(int trialNumber) {
+        if (!commonRandomNumbers) {
+            return new TrialPlan(trialNumber, TrialOrderSelector.select(kitchenOrders, ordersPerTrial), null);
+        }
+        
+        SplittableRandom stream = new SplittableRandom(mix64(seed ^ mix64(getComparisonUnit(trialNumber) * GOLDEN_GAMMA)));
+        SplittableRandom shuffleRandom = stream.split();
+        SplittableRandom courierDelayRandom = stream.split();
+        // split last so that adding the churn draws left the orders and courier delays of a seed unchanged
+        SplittableRandom churnRandom = stream.split();
+        boolean flip = antithetic && trialNumber % 2 == 0;
+        
+        // lazy Fisher-Yates shuffle, only the first ordersPerTrial positions are drawn
+        int n = kitchenOrders.size();
+        int[] positions = TrialOrderSelector.sample(n, ordersPerTrial,
+                i -> Math.min((int) (draw(shuffleRandom, flip) * (n - i)), n - i - 1));
+        double[] courierDelayDraws = new double[ordersPerTrial];
+        double[] cancellationDraws = new double[ordersPerTrial];
+        double[] noShowDraws = new double[ordersPerTrial];
+        for (int i = 0; i < ordersPerTrial; i++) {
+            courierDelayDraws[i] = draw(courierDelayRandom, flip);
+            cancellationDraws[i] = draw(churnRandom, flip);
+            noShowDraws[i] = draw(churnRandom, flip);
+        }
+        return new TrialPlan(trialNumber, new OrderSelection(kitchenOrders, positions), courierDelayDraws, cancellationDraws, noShowDraws);
+    }
+}
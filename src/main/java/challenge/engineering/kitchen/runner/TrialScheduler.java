@@ -0,0 +1,122 @@
+package challenge.engineering.kitchen.runner;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * TrialScheduler starts trials that report their completion through a CompletableFuture, with at most 
+ * maxConcurrentTrials of them running at once.
+ * <p>
+ * A submitted trial starts right away while fewer than maxConcurrentTrials are running.  Otherwise it is queued, and it 
+ * is started by the thread that completes a running trial, so no thread is held up waiting for a trial to complete.
+ * A trial whose future is already complete when it starts, because starting it failed or it had been cancelled, hands 
+ * its slot on in a loop rather than by recursion, so a long queue of such trials does not grow the stack.
+ * allOf then completes once every submitted trial has completed.
+ *
+ */
+public class TrialScheduler {
+    
+    public static final int UNBOUNDED = 0;
+    
+    private final int maxConcurrentTrials;
+    private final Deque<Runnable> queued = new ArrayDeque<>();
+    private final List<CompletableFuture<?>> submitted = new ArrayList<>();
+    private int running;
+    // slots freed while a thread is already starting queued trials, which that thread hands on instead
+    private int slotsToHandOn;
+    private boolean handingOn;
+    
+    /**
+     * Constructor for a trial scheduler
+     * <p>
+     * @param maxConcurrentTrials  the most trials running at once, or UNBOUNDED to start every trial when it is submitted
+     */
+    public TrialScheduler(int maxConcurrentTrials) {
+        this.maxConcurrentTrials = maxConcurrentTrials;
+    }
+    
+    /**
+     * Submit a trial, which is started once fewer than maxConcurrentTrials trials are running
+     * <p>
+     * @param trial  starts the trial and returns its completion
+     * @return  the completion of the trial, which fails if starting the trial throws
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> trial) {
+        CompletableFuture<T> completion = new CompletableFuture<>();
+        Runnable start = () -> {
+            CompletableFuture<T> started;
+            try {
+                started = trial.get();
+            } catch(RuntimeException e) {
+                started = CompletableFuture.failedFuture(e);
+            }
+            started.whenComplete((result, error) -> {
+                startNext();
+                if (error != null) {
+                    completion.completeExceptionally(error);
+                } else {
+                    completion.complete(result);
+                }
+            });
+        };
+        boolean startNow;
+        synchronized(this) {
+            submitted.add(completion);
+            startNow = maxConcurrentTrials == UNBOUNDED || running < maxConcurrentTrials;
+            if (startNow) {
+                running++;
+            } else {
+                queued.addLast(start);
+            }
+        }
+        if (startNow) {
+            start.run();
+        }
+        return completion;
+    }
+    
+    /* Hand the slot of a completed trial to the next queued trial, if any
+     * <p>
+     * A trial that completes while its own start is still on the stack only counts its slot, which the thread already 
+     * starting trials hands on in its loop once the start returns.
+     */
+    private void startNext() {
+        synchronized(this) {
+            slotsToHandOn++;
+            if (handingOn) {
+                return;
+            }
+            handingOn = true;
+        }
+        while (true) {
+            Runnable next;
+            synchronized(this) {
+                if (slotsToHandOn == 0) {
+                    handingOn = false;
+                    return;
+                }
+                slotsToHandOn--;
+                next = queued.pollFirst();
+                if (next == null) {
+                    running--;
+                    continue;
+                }
+            }
+            next.run();
+        }
+    }
+    
+    /**
+     * Get the completion of every trial submitted so far
+     * <p>
+     * @return  a future that completes once all submitted trials have completed
+     */
+    public synchronized CompletableFuture<Void> allOf() {
+        return CompletableFuture.allOf(submitted.toArray(new CompletableFuture<?>[0]));
+    }
+}
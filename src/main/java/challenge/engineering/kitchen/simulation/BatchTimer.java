@@ -0,0 +1,138 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+/**
+ * 
+ * BatchTimer schedules one timer per order of a batch with a single executor and a single pending task.
+ * <p>
+ * The orders are sorted by delay, and the pending task fires every order that is due before rescheduling itself for 
+ * the next delay, instead of creating an executor and a task for each order.
+ * <p>
+ * The delays are in simulated milliseconds of the clock of the kitchen, which records how late each timer fires.  When 
+ * the clock has a precision timer, the pending task runs on it instead of on an executor of its own.
+ * <p>
+ * The timers that follow from an event, one order at a time (the next order a cook station cooks, a courier sent on by 
+ * the fleet or replacing a no-show), share the follow-up executor of the clock rather than each starting a thread.
+ */
+final class BatchTimer {
+    
+    /**
+     * Action run for an order when its timer fires
+     */
+    @FunctionalInterface
+    interface Action {
+        void run(KitchenOrder ko) throws KitchenSimulationException;
+    }
+    
+    private final List<KitchenOrder> batch;
+    private final long[] timers;
+    private final Action action;
+    private final SimulationClock clock;
+    private final long startTimeInNanos;
+    private final ScheduledThreadPoolExecutor executor;
+    private final boolean ownsExecutor;
+    private int next;
+    
+    private BatchTimer(List<KitchenOrder> batch, int[] delaysInMillis, Action action, SimulationClock clock, boolean followUp) {
+        this.batch = batch;
+        this.action = action;
+        this.clock = clock;
+        // delay in the high bits and the position in the batch in the low bits, so a sort orders the timers by delay
+        timers = new long[batch.size()];
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = ((long) delaysInMillis[i] << Integer.SIZE) | i;
+        }
+        Arrays.sort(timers);
+        startTimeInNanos = clock.nanoTime();
+        ownsExecutor = !clock.isPrecise() && !followUp;
+        if (clock.isPrecise()) {
+            executor = null;
+        } else {
+            executor = followUp ? clock.getFollowUpExecutor() : new ScheduledThreadPoolExecutor(1);
+        }
+    }
+    
+    /**
+     * Run an action for each order of a batch after the delay of the order
+     * <p>
+     * @param batch  the orders
+     * @param delaysInMillis  the delay of each order in simulated milliseconds, in batch order
+     * @param action  the action run for each order
+     * @param clock  the clock of the kitchen
+     */
+    static void schedule(List<KitchenOrder> batch, int[] delaysInMillis, Action action, SimulationClock clock) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        new BatchTimer(batch, delaysInMillis, action, clock, false).scheduleNext();
+    }
+    
+    /**
+     * Run an action for an order after a delay, on the follow-up executor of the clock
+     * <p>
+     * @param ko  the order
+     * @param delayInMillis  the delay in simulated milliseconds
+     * @param action  the action run for the order
+     * @param clock  the clock of the kitchen
+     */
+    static void scheduleFollowUp(KitchenOrder ko, int delayInMillis, Action action, SimulationClock clock) {
+        new BatchTimer(Collections.singletonList(ko), new int[] {delayInMillis}, action, clock, true).scheduleNext();
+    }
+    
+    /* The time the timer at an index is due, in simulated nanoseconds since the epoch of the clock
+     */
+    private long getDueTime(int index) {
+        return startTimeInNanos + TimeUnit.MILLISECONDS.toNanos(timers[index] >>> Integer.SIZE);
+    }
+    
+    private void scheduleNext() {
+        long dueTime = clock.toSystemNanoTime(getDueTime(next));
+        if (executor == null) {
+            clock.getPrecisionTimer().schedule(dueTime, this::fireDueTimers);
+            return;
+        }
+        try {
+            executor.schedule(this::fireDueTimers, dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch(RejectedExecutionException e) {
+            // the follow-up executor is shut down once the trial is over, and nothing follows from the event any more
+            if (ownsExecutor) {
+                throw e;
+            }
+        }
+    }
+    
+    private void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+    
+    private void fireDueTimers() {
+        long now = clock.nanoTime();
+        try {
+            while (next < timers.length && getDueTime(next) <= now) {
+                clock.recordTimerError(now - getDueTime(next));
+                action.run(batch.get((int) timers[next]));
+                next++;
+            }
+        } catch(KitchenSimulationException e) {
+            shutdown();
+            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+        }
+        if (next < timers.length) {
+            scheduleNext();
+        } else {
+            shutdown();
+        }
+    }
+}
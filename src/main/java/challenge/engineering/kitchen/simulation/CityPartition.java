@@ -0,0 +1,162 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+/**
+ * 
+ * CityPartition is one worker thread of a city simulation.  It owns a share of the kitchens along with the couriers 
+ * dispatched for their orders, and is the only thread that applies events to its kitchens.
+ * <p>
+ * The partition keeps its pending order placements, food ready times and courier arrivals in a timer queue and parks 
+ * until the next one is due.  Each kitchen has at most one pending placement, the next order of its order stream.
+ * The courier arrival of an order is scheduled when the order is placed, in the same timer queue.
+ * <p>
+ * Timers are packed into a long: the kind (upper bits), the kitchen and the position of the order in the 
+ * order stream of the kitchen (lower 24 bits).
+ */
+final class CityPartition implements Runnable {
+    
+    static Logger log = LoggerFactory.getLogger(CityPartition.class);
+    
+    static final int POSITION_BITS = 24;
+    static final int KITCHEN_BITS = 20;
+    static final int MAX_ORDERS_PER_KITCHEN = 1 << POSITION_BITS;
+    static final int MAX_KITCHENS = 1 << KITCHEN_BITS;
+    
+    private static final long PLACE = 0;
+    private static final long COURIER_ARRIVES = 1;
+    private static final long FOOD_IS_READY = 2;
+    
+    private static final long PARK_TIME_IN_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    
+    private final CitySimulation city;
+    private final int index;
+    private final int[] kitchens;
+    private final TimerQueue timers = new TimerQueue();
+    private final Thread thread;
+    private long startTimeInMillis;
+    
+    /**
+     * Constructor for a City Partition
+     * <p>
+     * @param city  the city simulation
+     * @param index  the index of the partition
+     * @param kitchens  the indexes of the kitchens owned by the partition
+     */
+    CityPartition(CitySimulation city, int index, int[] kitchens) {
+        this.city = city;
+        this.index = index;
+        this.kitchens = kitchens;
+        thread = new Thread(this, "city-partition-" + index);
+        thread.setDaemon(true);
+    }
+    
+    private static long pack(long kind, int kitchen, int position) {
+        return (kind << (KITCHEN_BITS + POSITION_BITS)) | ((long) kitchen << POSITION_BITS) | position;
+    }
+    
+    private static long getKind(long message) {
+        return message >>> (KITCHEN_BITS + POSITION_BITS);
+    }
+    
+    private static int getKitchen(long message) {
+        return (int) (message >>> POSITION_BITS) & (MAX_KITCHENS - 1);
+    }
+    
+    private static int getPosition(long message) {
+        return (int) message & (MAX_ORDERS_PER_KITCHEN - 1);
+    }
+    
+    /**
+     * Start the partition with the first order of each of its kitchens due at the start of the city
+     * <p>
+     * @param startTimeInMillis  the start time of the city, shared by all partitions
+     */
+    void start(long startTimeInMillis) {
+        this.startTimeInMillis = startTimeInMillis;
+        for (int kitchen : kitchens) {
+            if (city.getKitchen(kitchen).getNumOrders() > 0) {
+                timers.add(0, pack(PLACE, kitchen, 0));
+            }
+        }
+        thread.start();
+    }
+    
+    /**
+     * Wake up the partition, from any thread
+     */
+    void wakeUp() {
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Wait for the thread of the partition to exit once the city has stopped
+     * <p>
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    void join() throws InterruptedException {
+        thread.join();
+    }
+    
+    // the offset from the start of the city when the order at a position of a kitchen's order stream is placed
+    private static long getPlacedAt(KitchenSimulationImpl kitchen, int position) {
+        return (long) (position / kitchen.getStrategy().getOrdersPerPeriod()) * kitchen.getStrategy().getOrderPeriodInMilliseconds();
+    }
+    
+    private void fire(long message) {
+        int kitchen = getKitchen(message);
+        int position = getPosition(message);
+        KitchenSimulationImpl simulation = city.getKitchen(kitchen);
+        switch((int) getKind(message)) {
+            case (int) PLACE: {
+                apply(KitchenOrder.Event.NEW_ORDER_ARRIVES, kitchen, position);
+                timers.add(getPlacedAt(simulation, position) + simulation.getPrepTimeInMillis(position), pack(FOOD_IS_READY, kitchen, position));
+                timers.add(getPlacedAt(simulation, position) + simulation.getCourierDelayInMillis(position), pack(COURIER_ARRIVES, kitchen, position));
+                if (position + 1 < simulation.getNumOrders()) {
+                    timers.add(getPlacedAt(simulation, position + 1), pack(PLACE, kitchen, position + 1));
+                }
+                break;
+            }
+            case (int) COURIER_ARRIVES:
+                apply(KitchenOrder.Event.COURIER_ARRIVES, kitchen, position);
+                break;
+            default:
+                apply(KitchenOrder.Event.FOOD_IS_READY, kitchen, position);
+        }
+    }
+    
+    private void apply(KitchenOrder.Event event, int kitchen, int position) {
+        KitchenSimulationImpl simulation = city.getKitchen(kitchen);
+        try {
+            simulation.handleEvent(event, position);
+        } catch(KitchenSimulationException e) {
+            log.error("Exception applying event {} for order {} of {}: ", event, position, simulation.getFullName(), e);
+        }
+        if (event != KitchenOrder.Event.NEW_ORDER_ARRIVES && simulation.isComplete()) {
+            city.kitchenCompleted(kitchen);
+        }
+    }
+    
+    @Override
+    public void run() {
+        while (city.isRunning()) {
+            long elapsed = System.currentTimeMillis() - startTimeInMillis;
+            while (!timers.isEmpty() && timers.peekDueTime() <= elapsed) {
+                fire(timers.poll());
+            }
+            // park until the next timer is due, or until the city stops
+            long delayInNanos = timers.isEmpty() ? PARK_TIME_IN_NANOS 
+                    : Math.min(PARK_TIME_IN_NANOS, TimeUnit.MILLISECONDS.toNanos(timers.peekDueTime() - elapsed));
+            if (city.isRunning() && delayInNanos > 0) {
+                LockSupport.parkNanos(delayInNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+/**
+ * 
+ * CitySimulation runs many kitchens partitioned across worker threads.
+ * <p>
+ * Each kitchen keeps its own order stream and its own matching policy.  Kitchen k is owned by partition k modulo the 
+ * number of partitions, and only the thread of that partition applies events to it, so the kitchen lock is never 
+ * contended.  The couriers of a kitchen are simulated by the partition that owns it, so partitions share nothing 
+ * and never wait on each other.
+ * <p>
+ * The couriers are not a finite fleet: as in a kitchen without a courierFleetSize, a new courier is dispatched for 
+ * every order, so the kitchens of a city never wait for one another's couriers.  A fleet shared across the kitchens 
+ * of a city is not simulated.
+ * <p>
+ * The kitchens run their allocation free event path: the events of each order are handed to the kitchen by position.
+ */
+public class CitySimulation {
+    
+    static Logger log = LoggerFactory.getLogger(CitySimulation.class);
+    
+    private final List<KitchenSimulationImpl> kitchens;
+    private final CityPartition[] partitions;
+    // written only by the thread of the partition that owns the kitchen
+    private final boolean[] completed;
+    private final AtomicInteger kitchensRemaining;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile boolean running = false;
+    private long startTimeInMillis;
+    private long durationInMillis;
+    
+    /**
+     * Constructor for the City Simulation
+     * <p>
+     * @param kitchens  the kitchens of the city, each built with the orders of its own order stream
+     * @param numPartitions  the number of worker threads, capped at the number of kitchens
+     * @throws KitchenSimulationException  if there are no kitchens, too many kitchens, or too many orders in a kitchen
+     */
+    public CitySimulation(List<KitchenSimulationImpl> kitchens, int numPartitions) throws KitchenSimulationException {
+        if (kitchens.isEmpty() || kitchens.size() > CityPartition.MAX_KITCHENS) {
+            throw new KitchenSimulationException("A city must have between 1 and " + CityPartition.MAX_KITCHENS + " kitchens, found: " + kitchens.size());
+        }
+        for (KitchenSimulationImpl kitchen : kitchens) {
+            if (kitchen.getNumOrders() > CityPartition.MAX_ORDERS_PER_KITCHEN) {
+                throw new KitchenSimulationException("A city supports at most " + CityPartition.MAX_ORDERS_PER_KITCHEN 
+                        + " orders per kitchen, found: " + kitchen.getNumOrders());
+            }
+            kitchen.setAllocationFree(true);
+        }
+        this.kitchens = List.copyOf(kitchens);
+        completed = new boolean[kitchens.size()];
+        kitchensRemaining = new AtomicInteger(kitchens.size());
+        partitions = new CityPartition[Math.max(1, Math.min(numPartitions, kitchens.size()))];
+        for (int p = 0; p < partitions.length; p++) {
+            List<Integer> owned = new ArrayList<>();
+            for (int k = p; k < kitchens.size(); k += partitions.length) {
+                owned.add(k);
+            }
+            partitions[p] = new CityPartition(this, p, owned.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+    
+    public List<KitchenSimulationImpl> getKitchens() {
+        return kitchens;
+    }
+    
+    /**
+     * Get the number of orders placed across all kitchens of the city
+     * <p>
+     * @return  the total number of orders
+     */
+    public long getNumOrders() {
+        long numOrders = 0;
+        for (KitchenSimulationImpl kitchen : kitchens) {
+            numOrders += kitchen.getNumOrders();
+        }
+        return numOrders;
+    }
+    
+    public int getNumPartitions() {
+        return partitions.length;
+    }
+    
+    KitchenSimulationImpl getKitchen(int kitchen) {
+        return kitchens.get(kitchen);
+    }
+    
+    boolean isRunning() {
+        return running;
+    }
+    
+    void kitchenCompleted(int kitchen) {
+        if (!completed[kitchen]) {
+            completed[kitchen] = true;
+            if (kitchensRemaining.decrementAndGet() == 0) {
+                stop();
+            }
+        }
+    }
+    
+    private synchronized void stop() {
+        if (finished.getCount() == 0) {
+            return;
+        }
+        durationInMillis = System.currentTimeMillis() - startTimeInMillis;
+        running = false;
+        for (CityPartition partition : partitions) {
+            partition.wakeUp();
+        }
+        finished.countDown();
+    }
+    
+    /**
+     * Start the kitchens and the partitions
+     */
+    public void run() {
+        log.info("city: {} kitchens on {} partitions", kitchens.size(), partitions.length);
+        kitchens.forEach(KitchenSimulationImpl::startTrial);
+        running = true;
+        startTimeInMillis = System.currentTimeMillis();
+        for (CityPartition partition : partitions) {
+            partition.start(startTimeInMillis);
+        }
+    }
+    
+    /**
+     * Block until every kitchen of the city has completed its orders, or the city is cancelled
+     */
+    public void waitUntilComplete() {
+        try {
+            finished.await();
+            // the partitions exit as soon as they see the city stopped, after which their kitchens can be read
+            for (CityPartition partition : partitions) {
+                partition.join();
+            }
+        } catch(InterruptedException e) {
+            log.error("Interrupted Exception: ", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Cancel every kitchen and stop the partitions
+     */
+    public void cancel() {
+        kitchens.forEach(KitchenSimulationImpl::cancel);
+        stop();
+    }
+    
+    /**
+     * Get the time from the start of the city until its last order was picked up
+     * <p>
+     * @return  the duration in milliseconds, once waitUntilComplete has returned
+     */
+    public long getDurationInMillis() {
+        return durationInMillis;
+    }
+
+}
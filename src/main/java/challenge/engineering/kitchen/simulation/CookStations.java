@@ -0,0 +1,317 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ *
+ * CookStations is a finite number of cook stations that prepare the orders of a kitchen one order at a time each.
+ * <p>
+ * An order is placed on the queue of a home station, taking the stations in turn.  A station that finishes an order
+ * cooks the next order of its own queue, and once its queue is empty it steals the order at the back of the queue of
+ * a station picked at random among the stations with orders queued.  A station with nothing to cook or steal is idle,
+ * and an order placed while a station is idle is cooked at once, at its home station if that station is idle.  So an
+ * order only waits for a station when every station is cooking.
+ * <p>
+ * Each station keeps the time it is expected to have cooked every order on its queue, so that an order placed on a 
+ * busy station is given an expected ready time that includes its wait for the station.  Stealing and cancellations 
+ * move orders off a queue and make this an estimate, which is only used by the matching policy to rank the orders.
+ * <p>
+ * The queues are intrusive doubly linked lists whose links are kept in arrays indexed by the position of the order,
+ * and the idle stations and the stations with orders queued are kept in sets with O(1) removal, so placing an order,
+ * finishing an order, stealing and removing a cancelled order are all O(1) however many stations there are, and
+ * nothing is allocated per order.
+ */
+final class CookStations {
+    
+    /**
+     * Returned by orderPlaced when the order waits for a station, and by orderReady when the station has nothing to cook
+     */
+    static final int NO_ORDER = -1;
+    
+    // the end of a queue, and the links of a position that is not queued
+    private static final int NONE = -1;
+    private static final int NOT_QUEUED = -2;
+    
+    private final int numStations;
+    private final int[] stationByPosition;
+    private final int[] prepTimes;
+    private final long[] readyTimes;
+    private final long[] freeTimes;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] head;
+    private final int[] tail;
+    private final StationSet idleStations;
+    private final StationSet loadedStations;
+    private int nextHomeStation;
+    private int numOrdersQueued;
+    private int ordersQueued;
+    private int maxOrdersQueued;
+    private int ordersStolen;
+    
+    /**
+     * A set of stations with O(1) add, remove and random pick, kept as a dense array and the index of each station in it
+     */
+    private static final class StationSet {
+    
+        private final int[] members;
+        private final int[] indexOf;
+        private int size;
+    
+        private StationSet(int numStations) {
+            members = new int[numStations];
+            indexOf = new int[numStations];
+            Arrays.fill(indexOf, NONE);
+        }
+    
+        private boolean contains(int station) {
+            return indexOf[station] != NONE;
+        }
+    
+        private void add(int station) {
+            indexOf[station] = size;
+            members[size++] = station;
+        }
+    
+        private void remove(int station) {
+            int index = indexOf[station];
+            int last = members[--size];
+            members[index] = last;
+            indexOf[last] = index;
+            indexOf[station] = NONE;
+        }
+    
+        private int removeAny() {
+            int station = members[size - 1];
+            remove(station);
+            return station;
+        }
+    
+        private int pick() {
+            return members[(size == 1) ? 0 : ThreadLocalRandom.current().nextInt(size)];
+        }
+    
+        private void clear() {
+            while (size > 0) {
+                indexOf[members[--size]] = NONE;
+            }
+        }
+    }
+    
+    /**
+     * Constructor for cook stations that are all idle at the start
+     * <p>
+     * @param numStations  the number of cook stations
+     * @param numOrders  the number of orders in the trial, or the most orders in flight at once in a steady state kitchen
+     */
+    CookStations(int numStations, int numOrders) {
+        this.numStations = numStations;
+        stationByPosition = new int[numOrders];
+        prepTimes = new int[numOrders];
+        readyTimes = new long[numOrders];
+        freeTimes = new long[numStations];
+        next = new int[numOrders];
+        previous = new int[numOrders];
+        head = new int[numStations];
+        tail = new int[numStations];
+        idleStations = new StationSet(numStations);
+        loadedStations = new StationSet(numStations);
+        Arrays.fill(next, NOT_QUEUED);
+        Arrays.fill(previous, NOT_QUEUED);
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+        reset();
+    }
+    
+    /**
+     * Make every station idle with an empty queue for the next trial of a reused kitchen
+     */
+    synchronized void reset() {
+        // unlinking the queued orders empties every queue and the set of stations with orders queued
+        for (int station = 0; station < numStations; station++) {
+            while (head[station] != NONE) {
+                unlink(head[station]);
+            }
+        }
+        idleStations.clear();
+        loadedStations.clear();
+        // taken from the back, so the lowest stations cook first
+        for (int station = numStations - 1; station >= 0; station--) {
+            idleStations.add(station);
+        }
+        Arrays.fill(freeTimes, 0);
+        nextHomeStation = 0;
+        numOrdersQueued = 0;
+        ordersQueued = 0;
+        maxOrdersQueued = 0;
+        ordersStolen = 0;
+    }
+    
+    /**
+     * Can the stations be reset for a trial instead of creating new ones?
+     * <p>
+     * @param numStations  the number of cook stations of the trial
+     * @param numOrders  the number of orders in the trial
+     * @return  true if there are as many stations and orders
+     */
+    boolean fits(int numStations, int numOrders) {
+        return this.numStations == numStations && stationByPosition.length == numOrders;
+    }
+    
+    /**
+     * Place the order at a position on its home station
+     * <p>
+     * @param position  the position of the order in the trial
+     * @param nowInMillis  the time the order is placed
+     * @param prepTimeInMillis  the time it takes to cook the order
+     * @return  the position if a station starts cooking the order now, or NO_ORDER if the order is queued
+     */
+    synchronized int orderPlaced(int position, long nowInMillis, int prepTimeInMillis) {
+        int home = nextHomeStation;
+        nextHomeStation = (nextHomeStation + 1) % numStations;
+        prepTimes[position] = prepTimeInMillis;
+        if (idleStations.contains(home)) {
+            idleStations.remove(home);
+            startCooking(home, position, nowInMillis);
+            return position;
+        }
+        if (idleStations.size > 0) {
+            // the queues are all empty while a station is idle, so an idle station takes the order of the busy home station
+            startCooking(idleStations.removeAny(), position, nowInMillis);
+            ordersStolen++;
+            return position;
+        }
+        addLast(home, position);
+        freeTimes[home] = Math.max(freeTimes[home], nowInMillis) + prepTimeInMillis;
+        readyTimes[position] = freeTimes[home];
+        ordersQueued++;
+        maxOrdersQueued = Math.max(maxOrdersQueued, numOrdersQueued);
+        return NO_ORDER;
+    }
+    
+    /**
+     * Get the time the food of an order is expected to be ready, as estimated when it was placed
+     * <p>
+     * @param position  the position of the order
+     * @return  the placement time plus the expected wait for a station and the prep time
+     */
+    synchronized long getExpectedReadyTime(int position) {
+        return readyTimes[position];
+    }
+    
+    /**
+     * Free the station that cooked the order at a position, which takes the next order of its queue or steals one
+     * <p>
+     * @param position  the position of the order whose food is ready
+     * @param nowInMillis  the time the food is ready
+     * @return  the position of the order the station starts cooking, or NO_ORDER if the station is idle
+     */
+    synchronized int orderReady(int position, long nowInMillis) {
+        int station = stationByPosition[position];
+        int order = head[station];
+        if (order != NONE) {
+            unlink(order);
+            return order;
+        }
+        if (loadedStations.size == 0) {
+            idleStations.add(station);
+            return NO_ORDER;
+        }
+        order = tail[loadedStations.pick()];
+        ordersStolen++;
+        // the station stolen from is done sooner, while its other orders keep the ready times they were given
+        freeTimes[stationByPosition[order]] -= prepTimes[order];
+        unlink(order);
+        startCooking(station, order, nowInMillis);
+        return order;
+    }
+    
+    private void startCooking(int station, int position, long nowInMillis) {
+        stationByPosition[position] = station;
+        freeTimes[station] = nowInMillis + prepTimes[position];
+        readyTimes[position] = freeTimes[station];
+    }
+    
+    /**
+     * Take a cancelled order off the queue it waits on, in O(1)
+     * <p>
+     * @param position  the position of the cancelled order
+     * @return  true if the order was waiting for a station, false if it was cooking or already cooked
+     */
+    synchronized boolean remove(int position) {
+        if (next[position] == NOT_QUEUED) {
+            return false;
+        }
+        freeTimes[stationByPosition[position]] -= prepTimes[position];
+        unlink(position);
+        return true;
+    }
+    
+    private void addLast(int station, int position) {
+        previous[position] = tail[station];
+        next[position] = NONE;
+        stationByPosition[position] = station;
+        if (tail[station] == NONE) {
+            head[station] = position;
+            loadedStations.add(station);
+        } else {
+            next[tail[station]] = position;
+        }
+        tail[station] = position;
+        numOrdersQueued++;
+    }
+    
+    private void unlink(int position) {
+        int station = stationByPosition[position];
+        int before = previous[position];
+        int after = next[position];
+        if (before == NONE) {
+            head[station] = after;
+        } else {
+            next[before] = after;
+        }
+        if (after == NONE) {
+            tail[station] = before;
+        } else {
+            previous[after] = before;
+        }
+        if (head[station] == NONE) {
+            loadedStations.remove(station);
+        }
+        next[position] = NOT_QUEUED;
+        previous[position] = NOT_QUEUED;
+        numOrdersQueued--;
+    }
+    
+    int getNumStations() {
+        return numStations;
+    }
+    
+    /**
+     * Get the number of orders that had to wait for a station
+     * <p>
+     * @return  the number of orders placed while every station was cooking
+     */
+    synchronized int getOrdersQueued() {
+        return ordersQueued;
+    }
+    
+    /**
+     * Get the most orders waiting for a station at once
+     * <p>
+     * @return  the largest backlog of orders waiting for a station
+     */
+    synchronized int getMaxOrdersQueued() {
+        return maxOrdersQueued;
+    }
+    
+    /**
+     * Get the number of orders cooked by a station other than their home station
+     * <p>
+     * @return  the number of orders taken by an idle station or stolen from the queue of another station
+     */
+    synchronized int getOrdersStolen() {
+        return ordersStolen;
+    }
+}
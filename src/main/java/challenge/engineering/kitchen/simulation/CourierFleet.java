@@ -0,0 +1,148 @@
+package challenge.engineering.kitchen.simulation;
+
+/**
+ * 
+ * CourierFleet is a finite fleet of couriers shared by the orders of a kitchen.
+ * <p>
+ * Couriers that are not out on an order are kept in a min-heap indexed by the time they are available again, so a 
+ * dispatch takes the courier that is available first in O(log n).  A courier dispatched before it is back from its 
+ * last delivery leaves once it returns.  When every courier is out on an order, dispatched orders wait in first in 
+ * first out order for the next courier to pick up its order, which then leaves for the waiting order once it has 
+ * delivered.
+ * <p>
+ * A courier is only a number, so a fleet of any size costs a few arrays and nothing is allocated per order.  A courier 
+ * is identified to the fleet by the position of the order it was dispatched for.
+ */
+final class CourierFleet {
+    
+    /**
+     * Returned by dispatch when every courier is out on an order
+     */
+    static final long WAITING = -1;
+    
+    /**
+     * Returned by courierReturns when no order is waiting for a courier
+     */
+    static final int NO_ORDER = -1;
+    
+    private final int fleetSize;
+    private final int deliveryTimeInMillis;
+    private final TimerQueue availableCouriers;
+    private final int[] courierByPosition;
+    private final int[] waitingOrders;
+    private int waitingHead;
+    private int numOrdersWaiting;
+    private int ordersWaited;
+    private int maxOrdersWaiting;
+    
+    /**
+     * Constructor for a fleet whose couriers are all available at the start
+     * <p>
+     * @param fleetSize  the number of couriers in the fleet
+     * @param numOrders  the number of orders in the trial, or the most orders in flight at once in a steady state kitchen
+     * @param deliveryTimeInMillis  the time a courier is away delivering an order after picking it up
+     */
+    CourierFleet(int fleetSize, int numOrders, int deliveryTimeInMillis) {
+        this.fleetSize = fleetSize;
+        this.deliveryTimeInMillis = deliveryTimeInMillis;
+        availableCouriers = new TimerQueue(fleetSize);
+        courierByPosition = new int[numOrders];
+        // a ring of the waiting orders, which are at most every order in flight
+        waitingOrders = new int[numOrders];
+        reset();
+    }
+    
+    /**
+     * Make every courier available again for the next trial of a reused kitchen
+     */
+    synchronized void reset() {
+        availableCouriers.clear();
+        for (int courier = 0; courier < fleetSize; courier++) {
+            availableCouriers.add(0, courier);
+        }
+        waitingHead = 0;
+        numOrdersWaiting = 0;
+        ordersWaited = 0;
+        maxOrdersWaiting = 0;
+    }
+    
+    /**
+     * Can the fleet be reset for a trial instead of creating a new one?
+     * <p>
+     * @param fleetSize  the number of couriers in the fleet of the trial
+     * @param numOrders  the number of orders in the trial
+     * @param deliveryTimeInMillis  the delivery time of the trial
+     * @return  true if the fleet has the same size, number of orders and delivery time
+     */
+    boolean fits(int fleetSize, int numOrders, int deliveryTimeInMillis) {
+        return this.fleetSize == fleetSize && courierByPosition.length == numOrders && this.deliveryTimeInMillis == deliveryTimeInMillis;
+    }
+    
+    /**
+     * Dispatch the courier that is available first to the order at a position
+     * <p>
+     * @param position  the position of the order in the trial
+     * @param now  the time of the dispatch
+     * @return  the time the courier leaves for the order, or WAITING if every courier is out on an order
+     */
+    synchronized long dispatch(int position, long now) {
+        if (availableCouriers.isEmpty()) {
+            waitingOrders[(waitingHead + numOrdersWaiting) % waitingOrders.length] = position;
+            numOrdersWaiting++;
+            ordersWaited++;
+            maxOrdersWaiting = Math.max(maxOrdersWaiting, numOrdersWaiting);
+            return WAITING;
+        }
+        long availableAt = availableCouriers.peekDueTime();
+        courierByPosition[position] = (int) availableCouriers.poll();
+        return Math.max(now, availableAt);
+    }
+    
+    /**
+     * Return the courier dispatched for the order at a position to the fleet once it has picked up an order
+     * <p>
+     * If an order is waiting for a courier, the courier is dispatched to it and leaves after its delivery time.
+     * <p>
+     * @param position  the position of the order the courier was dispatched for
+     * @param pickupTimeInMillis  the time the courier picked up an order
+     * @return  the position of the waiting order the courier is dispatched to, or NO_ORDER
+     */
+    synchronized int courierReturns(int position, long pickupTimeInMillis) {
+        int courier = courierByPosition[position];
+        if (numOrdersWaiting > 0) {
+            int next = waitingOrders[waitingHead];
+            waitingHead = (waitingHead + 1) % waitingOrders.length;
+            numOrdersWaiting--;
+            courierByPosition[next] = courier;
+            return next;
+        }
+        availableCouriers.add(pickupTimeInMillis + deliveryTimeInMillis, courier);
+        return NO_ORDER;
+    }
+    
+    int getFleetSize() {
+        return fleetSize;
+    }
+    
+    int getDeliveryTimeInMillis() {
+        return deliveryTimeInMillis;
+    }
+    
+    /**
+     * Get the number of orders that had to wait for a courier to return
+     * <p>
+     * @return  the number of orders that found every courier out on an order
+     */
+    synchronized int getOrdersWaited() {
+        return ordersWaited;
+    }
+    
+    /**
+     * Get the most orders waiting for a courier at once
+     * <p>
+     * @return  the largest backlog of orders waiting for a courier
+     */
+    synchronized int getMaxOrdersWaiting() {
+        return maxOrdersWaiting;
+    }
+}
@@ -1,5 +1,7 @@
 package challenge.engineering.kitchen.simulation;
 
+import java.util.List;
+
 import challenge.engineering.kitchen.model.KitchenOrder;
 
 public interface CourierSimulation {
@@ -10,5 +12,22 @@ public interface CourierSimulation {
      * @param order  the kitchen order dispatched to a courier
      */
     public void dispatch(KitchenOrder ko); 
+    
+    /**
+     * Dispatch a batch of kitchen orders to couriers, scheduling their arrivals together
+     * <p>
+     * @param batch  the kitchen orders dispatched to couriers
+     */
+    public void dispatch(List<KitchenOrder> batch);
+    
+    /**
+     * Dispatch a batch of kitchen orders to couriers that each leave after a departure delay
+     * <p>
+     * Used by a finite fleet, where a courier can only leave for an order once it is back from its last delivery.
+     * <p>
+     * @param batch  the kitchen orders dispatched to couriers
+     * @param departureDelaysInMillis  the delay before the courier of each order leaves for the kitchen
+     */
+    public void dispatch(List<KitchenOrder> batch, int[] departureDelaysInMillis);
 
 }
@@ -1,29 +1,42 @@
 package challenge.engineering.kitchen.simulation;
 
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
-import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
 import challenge.engineering.kitchen.model.KitchenOrder;
 
 /**
  * The CourierSimulation simulates a courier which receives dispatch requests and then simulates an 
  * a courier arrival after a randomized delay which falls between the minDelayInMilliseconds and 
  * maxDelayInMillseconds
+ * <p>
+ * The delay is either drawn independently for each dispatch or taken from a uniform draw supplied for the order, which 
+ * lets all strategies in a trial share the same courier delays (common random numbers).
+ * <p>
+ * The delays are in simulated milliseconds of the clock of the kitchen.
+ * <p>
+ * With a no-show rate, a courier that is due never shows up with that probability, and the kitchen is told so at the 
+ * time the courier was due instead of the courier arriving.  Like the delays, whether a courier shows up is decided by
+ * a uniform draw supplied by the kitchen, so that it can be shared by all strategies in a trial.
  *
  */
 public class CourierSimulationImpl implements CourierSimulation {
 	
     static Logger log = LoggerFactory.getLogger(CourierSimulationImpl.class);
     
-	private final int minDelayInMilliseconds;
-	private final int maxDelayInMilliseconds;
+	private int minDelayInMilliseconds;
+	private int maxDelayInMilliseconds;
 	private final KitchenSimulation kitchen;
+	private ToDoubleFunction<KitchenOrder> delayDraws;
+	private double noShowRate;
+	private ToDoubleFunction<KitchenOrder> noShowDraws;
+	private SimulationClock clock = new SimulationClock();
 	
 	/**
 	 * Constructor for CourierSimulation
@@ -33,30 +46,113 @@ public class CourierSimulationImpl implements CourierSimulation {
 	 * @param maxDelayInMilliseconds  the upper bound of the randomized delay time before arriving
 	 */
 	public CourierSimulationImpl(KitchenSimulation kitchen, int minDelayInMilliseconds, int maxDelayInMilliseconds) {
+		this(kitchen, minDelayInMilliseconds, maxDelayInMilliseconds, null);
+	}
+	
+	/**
+	 * Constructor for CourierSimulation with courier delays set by supplied uniform draws
+	 * <p>
+	 * @param kitchen  reference to Kitchen Simulation used
+	 * @param minDelayInMilliseconds  the lower bound of the randomized delay time before arriving
+	 * @param maxDelayInMilliseconds  the upper bound of the randomized delay time before arriving
+	 * @param delayDraws  the uniform draw in [0, 1) for each order, or null to draw an independent delay per dispatch
+	 */
+	public CourierSimulationImpl(KitchenSimulation kitchen, int minDelayInMilliseconds, int maxDelayInMilliseconds, ToDoubleFunction<KitchenOrder> delayDraws) {
 		this.kitchen = kitchen;
-		this.minDelayInMilliseconds = minDelayInMilliseconds;
-		this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+		reset(minDelayInMilliseconds, maxDelayInMilliseconds, delayDraws);
+	}
+	
+	/**
+	 * Reuse the courier simulation for the next trial of its kitchen
+	 * <p>
+	 * @param minDelayInMilliseconds  the lower bound of the randomized delay time before arriving
+	 * @param maxDelayInMilliseconds  the upper bound of the randomized delay time before arriving
+	 * @param delayDraws  the uniform draw in [0, 1) for each order, or null to draw an independent delay per dispatch
+	 */
+	void reset(int minDelayInMilliseconds, int maxDelayInMilliseconds, ToDoubleFunction<KitchenOrder> delayDraws) {
+	    this.minDelayInMilliseconds = minDelayInMilliseconds;
+	    this.maxDelayInMilliseconds = maxDelayInMilliseconds;
+	    this.delayDraws = delayDraws;
+	}
+	
+	/**
+	 * Set the clock that times the courier delays, before any courier is dispatched
+	 * <p>
+	 * @param clock  the clock of the kitchen
+	 */
+	public void setClock(SimulationClock clock) {
+	    this.clock = clock;
+	}
+	
+	/**
+	 * Set the probability that a dispatched courier never shows up
+	 * <p>
+	 * @param noShowRate  the courier no-show rate, 0 for every courier to arrive
+	 * @param noShowDraws  the uniform draw in [0, 1) for the courier of each order that is due, the courier does not 
+	 * show up if it is below noShowRate
+	 */
+	public void setNoShowRate(double noShowRate, ToDoubleFunction<KitchenOrder> noShowDraws) {
+	    this.noShowRate = noShowRate;
+	    this.noShowDraws = noShowDraws;
+	}
+	
+	/* The courier dispatched for an order is due: it arrives, or with probability noShowRate it never shows up
+	 */
+	private void courierDue(KitchenOrder ko) throws KitchenSimulationException {
+	    if (noShowRate > 0 && noShowDraws.applyAsDouble(ko) < noShowRate) {
+	        kitchen.courierNoShow(ko);
+	    } else {
+	        kitchen.courierArrives(ko);
+	    }
+	}
+	
+	private int getDelay(KitchenOrder ko) {
+	    if (delayDraws == null) {
+	        return ThreadLocalRandom.current().nextInt(minDelayInMilliseconds, maxDelayInMilliseconds);
+	    }
+	    return getDelay(minDelayInMilliseconds, maxDelayInMilliseconds, delayDraws.applyAsDouble(ko));
+	}
+	
+	/* Map a uniform draw in [0, 1] onto the courier delay range [minDelayInMilliseconds, maxDelayInMilliseconds)
+	 */
+	static int getDelay(int minDelayInMilliseconds, int maxDelayInMilliseconds, double draw) {
+	    int delay = minDelayInMilliseconds + (int) (draw * (maxDelayInMilliseconds - minDelayInMilliseconds));
+	    return Math.min(delay, maxDelayInMilliseconds - 1);
 	}
 	
 	@Override
 	public void dispatch(KitchenOrder ko) {
-		
-		// call kitchen.pickup after uniform distribution between minDelay and maxDelay 
-		int delay = ThreadLocalRandom.current().nextInt(minDelayInMilliseconds, maxDelayInMilliseconds);
-		log.info("courier dispatched, for order type: {}, id: {}, will arrive in {} ms", ko.getName(), ko.getId(), delay);
-		
-		ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
-		executor.schedule(new Runnable() {
-		    @Override
-		    public void run() {
-		        try {
-		            kitchen.courierArrives(ko);
-		        } catch(KitchenSimulationException e) {
-		            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
-		        }
-		        executor.shutdown();
-	        }
-		}, delay, TimeUnit.MILLISECONDS);
+	    dispatch(Collections.singletonList(ko));
+	}
+	
+	@Override
+	public void dispatch(List<KitchenOrder> batch) {
+	    dispatch(batch, null);
+	}
+	
+	@Override
+	public void dispatch(List<KitchenOrder> batch, int[] departureDelaysInMillis) {
+	    
+	    // call kitchen.courierArrives after uniform distribution between minDelay and maxDelay 
+	    int[] delays = new int[batch.size()];
+	    for (int i = 0; i < delays.length; i++) {
+	        KitchenOrder ko = batch.get(i);
+	        delays[i] = getDelay(ko) + ((departureDelaysInMillis == null) ? 0 : departureDelaysInMillis[i]);
+	        log.info("courier dispatched, for order type: {}, id: {}, will arrive in {} ms", ko.getName(), ko.getId(), delays[i]);
+	    }
+	    BatchTimer.schedule(batch, delays, this::courierDue, clock);
+	}
+	
+	/**
+	 * Dispatch a single courier as a consequence of an event of the kitchen, on the follow-up executor of the clock
+	 * <p>
+	 * @param ko  the order the courier is dispatched for
+	 * @param departureDelayInMillis  the time before the courier sets off, in simulated milliseconds
+	 */
+	void dispatchFollowUp(KitchenOrder ko, int departureDelayInMillis) {
+	    int delay = getDelay(ko) + departureDelayInMillis;
+	    log.info("courier dispatched, for order type: {}, id: {}, will arrive in {} ms", ko.getName(), ko.getId(), delay);
+	    BatchTimer.scheduleFollowUp(ko, delay, this::courierDue, clock);
 	}
 
 }
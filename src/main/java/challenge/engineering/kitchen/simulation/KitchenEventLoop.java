@@ -0,0 +1,143 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+/**
+ * 
+ * KitchenEventLoop is the single writer of a kitchen's order state.
+ * <p>
+ * Timers publish events into a preallocated multi-producer ring buffer:
+ * <p><ul>
+ * <li>a producer claims the next sequence from a shared cursor, waiting while the ring is full
+ * <li>it writes the event and the order into the slot of the sequence and then publishes the sequence for the slot
+ * <li>one consumer thread applies the published events in sequence order, draining every event available at once 
+ * before it parks
+ * </ul><p>
+ * Only the consumer thread touches the kitchen's order statuses and matching queues, so they are updated without locks.
+ */
+final class KitchenEventLoop {
+    
+    static Logger log = LoggerFactory.getLogger(KitchenEventLoop.class);
+    
+    /**
+     * Applies the events of the loop, always called from the consumer thread
+     */
+    @FunctionalInterface
+    interface Handler {
+        void apply(KitchenOrder.Event event, KitchenOrder ko) throws KitchenSimulationException;
+    }
+    
+    private static final KitchenOrder.Event[] EVENTS = KitchenOrder.Event.values();
+    private static final long PARK_TIME_IN_NANOS = 1_000_000;
+    private static final int MAX_SPINS = 100;
+    
+    private final int mask;
+    private final KitchenOrder[] orders;
+    private final byte[] events;
+    private final AtomicLongArray published;
+    private final AtomicLong cursor = new AtomicLong();
+    private final Handler handler;
+    private final Thread consumer;
+    
+    // the next sequence the consumer applies, read by producers waiting on a full ring
+    private volatile long consumed;
+    private volatile boolean consumerParked;
+    private volatile boolean running = true;
+    
+    /**
+     * Constructor for the event loop
+     * <p>
+     * @param name  the name of the consumer thread
+     * @param bufferSize  the number of events in the ring buffer, a power of two
+     * @param handler  applies each event on the consumer thread
+     */
+    KitchenEventLoop(String name, int bufferSize, Handler handler) {
+        mask = bufferSize - 1;
+        orders = new KitchenOrder[bufferSize];
+        events = new byte[bufferSize];
+        published = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+        this.handler = handler;
+        consumer = new Thread(this::consume, name);
+        consumer.setDaemon(true);
+    }
+    
+    void start() {
+        consumer.start();
+    }
+    
+    /* Stop the consumer once it has applied the events already published, later events are dropped
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(consumer);
+    }
+    
+    /**
+     * Publish an event for the consumer thread
+     * <p>
+     * @param event  the event
+     * @param ko  the order of the event
+     */
+    void publish(KitchenOrder.Event event, KitchenOrder ko) {
+        long sequence = cursor.getAndIncrement();
+        for (int spins = 0; sequence - consumed > mask; spins++) {
+            if (!running) {
+                return;
+            }
+            if (spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        int slot = (int) sequence & mask;
+        orders[slot] = ko;
+        events[slot] = (byte) event.ordinal();
+        published.set(slot, sequence);
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+    
+    private boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == sequence;
+    }
+    
+    private void consume() {
+        long next = 0;
+        while (running || isPublished(next)) {
+            if (!isPublished(next)) {
+                consumerParked = true;
+                if (!isPublished(next) && running) {
+                    LockSupport.parkNanos(PARK_TIME_IN_NANOS);
+                }
+                consumerParked = false;
+                continue;
+            }
+            // drain the whole run of published events before parking again
+            while (isPublished(next)) {
+                int slot = (int) next & mask;
+                KitchenOrder ko = orders[slot];
+                KitchenOrder.Event event = EVENTS[events[slot]];
+                orders[slot] = null;
+                try {
+                    handler.apply(event, ko);
+                } catch(KitchenSimulationException e) {
+                    log.error("Exception applying event {} for order {}: ", event, ko, e);
+                }
+                consumed = ++next;
+            }
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package challenge.engineering.kitchen.simulation;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.OrderOutcome;
+import challenge.engineering.kitchen.handling.TrialResult;
 import challenge.engineering.kitchen.model.KitchenOrder;
 
 
@@ -13,8 +19,20 @@ public interface KitchenSimulation {
     
     /**
      * Block until the kitchen simulation completes
+     * <p>
+     * Prefer composing on the future returned by runSimulation, which does not hold up a thread while the trial runs.
      */
     public void waitUntilComplete();
+    
+    /**
+     * Get the future that is completed with the trial result once the trial completes or is cancelled
+     * <p>
+     * The future is completed exactly once, and never by a thread holding the kitchen lock: the continuations of a trial 
+     * that completes run on the common pool rather than on the timer or event loop thread of the kitchen.
+     * <p>
+     * @return  the completion of the trial
+     */
+    public CompletableFuture<TrialResult> getCompletion();
      
     /**
      * Courier arrives to pick up a kitchen order
@@ -24,6 +42,20 @@ public interface KitchenSimulation {
      */
     public boolean courierArrives(KitchenOrder ko) throws KitchenSimulationException;
     
+    /**
+     * The courier dispatched for a kitchen order never showed up, a replacement courier is dispatched
+     * <p>
+     * @param ko  the kitchen order
+     */
+    public void courierNoShow(KitchenOrder ko) throws KitchenSimulationException;
+    
+    /**
+     * The customer cancels a kitchen order, which has no effect once the order has been picked up
+     * <p>
+     * @param ko  the kitchen order
+     */
+    public void cancelOrder(KitchenOrder ko) throws KitchenSimulationException;
+    
     /**
      * Place new kitchen order
      * <p>
@@ -31,8 +63,50 @@ public interface KitchenSimulation {
      */
     public void placeOrder(KitchenOrder ko) throws KitchenSimulationException;
     
+    /**
+     * Place the kitchen orders of one tick together: they are recorded under a single lock, and their couriers and 
+     * food preparation are scheduled in bulk
+     * <p>
+     * @param batch  the kitchen orders
+     */
+    public void placeOrders(List<KitchenOrder> batch) throws KitchenSimulationException;
+    
+    /**
+     * Get the wait time totals of the orders completed so far in this trial
+     * <p>
+     * @return  the trial result, which covers the whole trial once waitUntilComplete returns
+     */
+    public TrialResult getTrialResult();
+    
+    /**
+     * Get the publisher of the orders completed by this kitchen, which completes when the trial completes
+     * <p>
+     * Subscribers receive each order as it completes, within the demand they have requested.  The kitchen never waits 
+     * for a subscriber: a subscriber that falls a full buffer behind misses the orders completed until it catches up.
+     * <p>
+     * @return  the publisher of completed orders
+     */
+    public Flow.Publisher<OrderOutcome> getOrderOutcomes();
+    
+    /**
+     * Cancel the simulation: no more orders are placed, the events of the orders already placed are ignored, and
+     * waitUntilComplete returns
+     * <p>
+     * The trial result then only covers the orders completed before the cancel.  Has no effect on a completed trial.
+     */
+    public void cancel();
+    
+    /**
+     * Is the simulation cancelled?
+     * <p>
+     * @return  true if cancel was called before the trial completed
+     */
+    public boolean isCancelled();
+    
     /**
      * Run the simulation
+     * <p>
+     * @return  the completion of the trial, see getCompletion
      */
-    public void runSimulation();
+    public CompletableFuture<TrialResult> runSimulation();
 }
@@ -1,25 +1,47 @@
 package challenge.engineering.kitchen.simulation;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
-import java.util.Queue;
-import java.util.Set;
-import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import challenge.engineering.kitchen.config.EventLoopConfig;
+import challenge.engineering.kitchen.config.PrecisionTimerConfig;
+import challenge.engineering.kitchen.config.SteadyStateConfig;
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.handling.OrderExporter;
+import challenge.engineering.kitchen.handling.OrderOutcome;
 import challenge.engineering.kitchen.handling.OrderStatus;
 import challenge.engineering.kitchen.handling.OrderStatusImpl;
 import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.TrialResult;
+import challenge.engineering.kitchen.jfr.CourierArrivedEvent;
+import challenge.engineering.kitchen.jfr.CourierNoShowEvent;
+import challenge.engineering.kitchen.jfr.FoodReadyEvent;
+import challenge.engineering.kitchen.jfr.OrderCancelledEvent;
+import challenge.engineering.kitchen.jfr.OrderMatchedEvent;
+import challenge.engineering.kitchen.jfr.OrderPlacedEvent;
+import challenge.engineering.kitchen.jfr.TrialEndEvent;
+import challenge.engineering.kitchen.jfr.TrialStartEvent;
+import challenge.engineering.kitchen.matching.MatchingPolicies;
+import challenge.engineering.kitchen.matching.MatchingPolicy;
 import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderStream;
 import challenge.engineering.kitchen.model.Strategy;
 
 /**
@@ -27,25 +49,79 @@ import challenge.engineering.kitchen.model.Strategy;
  * <p><ul>
  * <li>It initiates the Order Simulation which sends out kitchen orders in a random order.
  * <li>It can handle when an order is placed, when food is ready, and when a courier arrives.
+ * <li>The matching policy named by the strategy decides which courier picks up which order
  * <li>For each completed order, it logs the courierWaitTime and the foodWaitTime to the statManager
- *</ul>
+ * <li>It emits JDK Flight Recorder events for the order lifecycle and the start and end of the trial
+ * <li>When an order exporter is set, it exports the detail of each completed order
+ * <li>It publishes each completed order to the subscribers of getOrderOutcomes
+ * <li>It completes the future returned by runSimulation with the trial result once, when the trial completes or is 
+ * cancelled
+ *</ul><p>
+ * The kitchen state is kept per position of the order in the trial.  The modes set by the configuration and the 
+ * strategy are described in the README, and each is mostly carried by a class the kitchen hands its orders to:
+ * <p><ul>
+ * <li>allocation free mode: SharedTimelineSimulation, which delivers the events of a shared timeline by position
+ * <li>event loop mode: KitchenEventLoop, which applies every event on one thread without the kitchen lock
+ * <li>courierFleetSize: CourierFleet, which dispatches couriers from a finite fleet
+ * <li>cookStations: CookStations, which prepares the orders on a finite number of stations
+ * <li>steady state: OrderSlots, which reuses the positions of a kitchen with a bounded number of orders in flight
+ * <li>timeScale and precisionTimer: SimulationClock and PrecisionTimer, which time the kitchen and stamp its orders
+ * <li>reset: KitchenSimulationPool, which reuses the kitchens of completed trials
+ *</ul><p>
+ * Order cancellations and courier no-shows are handled by the kitchen itself, together with the matching policy.
  */
 public class KitchenSimulationImpl implements KitchenSimulation {
     
     static Logger log = LoggerFactory.getLogger(KitchenSimulationImpl.class);
     
-    private final Strategy strategy;
-    private final StatManager statManager;
+    private Strategy strategy;
+    private StatManager statManager;
     private int totalOrdersCompleted=0;
     private int totalOrdersToBePlaced=0;
-    private Queue<KitchenOrder> waitingRoom = new PriorityBlockingQueue<KitchenOrder>();
-    private Set<KitchenOrder> foodReady = new HashSet<KitchenOrder>();
+    // in microseconds, like the time stamps of the orders
+    private long totalCourierWaitTime=0;
+    private long totalFoodWaitTime=0;
     private final OrderSimulationImpl orderSimulation;
-    private Map<KitchenOrder,OrderStatus> ordersProcessed = new HashMap<>();
-    private final CourierSimulation courier;
-    private final String fullName;
+    private final CourierSimulationImpl courier;
+    private CourierFleet courierFleet;
+    private CookStations cookStations;
+    private final OrderSlots orderSlots;
+    private int totalOrdersPlaced=0;
+    private long totalOrdersRejected=0;
+    private int totalOrdersCancelled=0;
+    private long totalCourierNoShows=0;
+    private long totalOrderOutcomesDropped=0;
+    private String fullName;
+    private int trialNumber;
+    private long startTimeInMillis;
+    private OrderExporter orderExporter;
+    
+    // the kitchen state by position of the order in the trial, a courier is identified by the order it was dispatched for
+    private Map<KitchenOrder, Integer> positions;
+    private KitchenOrder[] ordersByPosition;
+    private OrderStatusImpl[] statusByPosition;
+    // in microseconds
+    private long[] courierArrivalTimes;
+    private double[] courierDelayDraws;
+    private double[] cancellationDraws;
+    private double[] noShowDraws;
+    private int[] noShowsByPosition;
+    private long[] cancellationTimes;
+    private MatchingPolicy matchingPolicy;
+    private boolean allocationFree;
+    private KitchenEventLoop eventLoop;
+    private SimulationClock clock = new SimulationClock();
+    private double timeScale = SimulationClock.REAL_TIME;
+    private PrecisionTimer precisionTimer;
+    // reads the clock set when the order status is time stamped, not when it is created
+    private final LongSupplier timeStamps = () -> clock.nowInMicros();
+    
+    // created by the first call to getOrderOutcomes so that kitchens nobody listens to do not pay for it
+    private volatile SubmissionPublisher<OrderOutcome> orderOutcomes;
     
-    private volatile Boolean completed = false;
+    // completed asynchronously so that whatever the runner chains onto a trial never runs while holding the kitchen lock
+    private CompletableFuture<TrialResult> completion = new CompletableFuture<>();
+    private volatile boolean cancelled = false;
     
     /**
      * 
@@ -55,14 +131,276 @@ public class KitchenSimulationImpl implements KitchenSimulation {
      * @param kitchenOrders  the list of orders shared by all simulations in a given trial
      * @param config  the simulation configuration details
      * @param strategy  the strategy with parameters to be used for the kitchen simulation
+     * @param trialNumber  the trial number of the simulation
      */
     public KitchenSimulationImpl(StatManager statManager, List<KitchenOrder> kitchenOrders, Strategy strategy, int trialNumber) {
+        this(statManager, kitchenOrders, strategy, trialNumber, null);
+    }
+    
+    /**
+     * 
+     * Initialize the simulation with configuration parameters, kitchen orders and shared courier delay draws
+     * <p>
+     * @param statManager  the shared stats for all simulations
+     * @param kitchenOrders  the list of orders shared by all simulations in a given trial
+     * @param strategy  the strategy with parameters to be used for the kitchen simulation
+     * @param trialNumber  the trial number of the simulation
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order setting its courier delay, or null for independent courier delays
+     */
+    public KitchenSimulationImpl(StatManager statManager, List<KitchenOrder> kitchenOrders, Strategy strategy, int trialNumber, double[] courierDelayDraws) {
+        this(statManager, kitchenOrders, null, null, strategy, trialNumber, courierDelayDraws);
+    }
+    
+    /**
+     * 
+     * Initialize an open-ended steady state simulation that places orders generated by an order stream
+     * <p>
+     * @param statManager  the stats of the simulation
+     * @param orderStream  the stream that generates the orders placed
+     * @param strategy  the strategy with parameters to be used for the kitchen simulation
+     * @param steadyState  the duration of the simulation and the most orders in flight at once
+     */
+    public KitchenSimulationImpl(StatManager statManager, OrderStream orderStream, Strategy strategy, SteadyStateConfig steadyState) {
+        this(statManager, null, orderStream, steadyState, strategy, 1, null);
+    }
+    
+    private KitchenSimulationImpl(StatManager statManager, List<KitchenOrder> kitchenOrders, OrderStream orderStream, SteadyStateConfig steadyState, 
+            Strategy strategy, int trialNumber, double[] courierDelayDraws) {
+        if (steadyState == null) {
+            orderSlots = null;
+            orderSimulation = new OrderSimulationImpl(this, kitchenOrders, strategy.getOrderPeriodInMilliseconds(), strategy.getOrdersPerPeriod());
+            courier = new CourierSimulationImpl(this, strategy.getCourierMinDelayInMilliseconds(), strategy.getCourierMaxDelayInMilliseconds());
+            prepareTrial(statManager, kitchenOrders, strategy, trialNumber, courierDelayDraws);
+            return;
+        }
         this.statManager = statManager;
         this.strategy = strategy;
         this.fullName = strategy.getName() + " trial #: " + trialNumber;
-        totalOrdersToBePlaced = kitchenOrders.size();
-        orderSimulation = new OrderSimulationImpl(this, kitchenOrders, strategy.getOrderPeriodInMilliseconds(), strategy.getOrdersPerPeriod());
+        this.trialNumber = trialNumber;
+        if (strategy.hasCancellationsOrNoShows()) {
+            throw new KitchenSimulationRuntimeException("A steady state kitchen does not support order cancellations or courier no-shows: " + fullName);
+        }
+        // unknown until the order stream ends, and the positions change while couriers are dispatched
+        totalOrdersToBePlaced = Integer.MAX_VALUE;
+        positions = new ConcurrentHashMap<>();
+        ordersByPosition = new KitchenOrder[steadyState.getMaxOrdersInFlight()];
+        orderSlots = new OrderSlots(ordersByPosition.length);
+        statusByPosition = new OrderStatusImpl[ordersByPosition.length];
+        courierArrivalTimes = new long[ordersByPosition.length];
+        matchingPolicy = createMatchingPolicy(strategy, ordersByPosition.length);
+        orderSimulation = new OrderSimulationImpl(this, orderStream, steadyState.getDurationInMilliseconds(), strategy.getOrderPeriodInMilliseconds(), strategy.getOrdersPerPeriod());
         courier = new CourierSimulationImpl(this, strategy.getCourierMinDelayInMilliseconds(), strategy.getCourierMaxDelayInMilliseconds());
+        courierFleet = strategy.hasCourierFleet() ? new CourierFleet(strategy.getCourierFleetSize(), ordersByPosition.length, 
+                strategy.getCourierDeliveryTimeInMilliseconds()) : null;
+        cookStations = strategy.hasCookStations() ? new CookStations(strategy.getCookStations(), ordersByPosition.length) : null;
+    }
+    
+    private static MatchingPolicy createMatchingPolicy(Strategy strategy, int numOrders) {
+        try {
+            return MatchingPolicies.create(strategy.getMatchingPolicy(), numOrders);
+        } catch(KitchenSimulationException e) {
+            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+        }
+    }
+    
+    /* Set up a trial of listed orders, reusing the arrays, order statuses, position map, matching policy, courier fleet 
+     * and cook stations of the last trial when the trial has as many orders
+     */
+    private void prepareTrial(StatManager statManager, List<KitchenOrder> kitchenOrders, Strategy strategy, int trialNumber, double[] courierDelayDraws) {
+        String lastMatchingPolicy = (this.strategy == null) ? null : this.strategy.getMatchingPolicy();
+        this.statManager = statManager;
+        this.strategy = strategy;
+        this.fullName = strategy.getName() + " trial #: " + trialNumber;
+        this.trialNumber = trialNumber;
+        this.courierDelayDraws = courierDelayDraws;
+        int numOrders = kitchenOrders.size();
+        totalOrdersToBePlaced = numOrders;
+        boolean reusable = ordersByPosition != null && ordersByPosition.length == numOrders;
+        if (reusable) {
+            // the map keeps its table, and the order statuses are reset for the orders now at their positions
+            positions.clear();
+        } else {
+            positions = new HashMap<>();
+            ordersByPosition = new KitchenOrder[numOrders];
+            statusByPosition = new OrderStatusImpl[numOrders];
+            courierArrivalTimes = new long[numOrders];
+        }
+        for (int i = 0; i < numOrders; i++) {
+            KitchenOrder ko = kitchenOrders.get(i);
+            ordersByPosition[i] = ko;
+            positions.put(ko, i);
+            if (statusByPosition[i] != null) {
+                statusByPosition[i].reset(strategy.getName(), trialNumber, ko.getId());
+            }
+        }
+        if (!reusable || !Objects.equals(strategy.getMatchingPolicy(), lastMatchingPolicy) || !matchingPolicy.reset()) {
+            matchingPolicy = createMatchingPolicy(strategy, numOrders);
+        }
+        if (strategy.getOrderCancellationRate() > 0 && courierDelayDraws == null) {
+            // drawn up front so that a cancellation can be timed before the courier of its order arrives
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            this.courierDelayDraws = random.doubles(numOrders).toArray();
+        }
+        noShowsByPosition = (strategy.getCourierNoShowRate() > 0) ? new int[numOrders] : null;
+        cancellationTimes = null;
+        if (strategy.getOrderCancellationRate() > 0) {
+            cancellationTimes = new long[numOrders];
+            Arrays.fill(cancellationTimes, Long.MAX_VALUE);
+        }
+        if (!strategy.hasCourierFleet()) {
+            courierFleet = null;
+        } else if (courierFleet != null && courierFleet.fits(strategy.getCourierFleetSize(), numOrders, strategy.getCourierDeliveryTimeInMilliseconds())) {
+            courierFleet.reset();
+        } else {
+            courierFleet = new CourierFleet(strategy.getCourierFleetSize(), numOrders, strategy.getCourierDeliveryTimeInMilliseconds());
+        }
+        if (!strategy.hasCookStations()) {
+            cookStations = null;
+        } else if (cookStations != null && cookStations.fits(strategy.getCookStations(), numOrders)) {
+            cookStations.reset();
+        } else {
+            cookStations = new CookStations(strategy.getCookStations(), numOrders);
+        }
+        courier.reset(strategy.getCourierMinDelayInMilliseconds(), strategy.getCourierMaxDelayInMilliseconds(), 
+                (this.courierDelayDraws == null) ? null : ko -> this.courierDelayDraws[positions.get(ko)]);
+        courier.setNoShowRate(strategy.getCourierNoShowRate(), ko -> getNoShowDraw(positions.get(ko)));
+    }
+    
+    /**
+     * Set the uniform draws that decide which orders are cancelled and which couriers do not show up
+     * <p>
+     * Must be set before the simulation starts.  Without draws, each kitchen draws its own cancellations and no-shows.
+     * <p>
+     * @param cancellationDraws  a uniform draw in [0, 1) per order setting whether and when it is cancelled, or null
+     * @param noShowDraws  a uniform draw in [0, 1) per order setting whether its couriers show up, or null
+     */
+    public void setChurnDraws(double[] cancellationDraws, double[] noShowDraws) {
+        this.cancellationDraws = cancellationDraws;
+        this.noShowDraws = noShowDraws;
+    }
+    
+    /**
+     * Reuse the kitchen for another trial, as if it had just been constructed with the same arguments
+     * <p>
+     * Only a kitchen of listed orders whose trial has completed can be reset, since the timers of a cancelled trial may 
+     * still fire, and so may the couriers of cancelled orders and the replacements of couriers that did not show up.  
+     * The arrays, order statuses and position map of the kitchen are kept when the new trial has as many orders, and so 
+     * is the matching policy when it is the same policy and supports reset.  The settings of the last trial (order 
+     * exporter, allocation free, churn draws, event loop, time scale and precision timer) are cleared and must be set 
+     * again.  The reset takes the kitchen lock, which the thread that applied the last event of the old trial may still 
+     * be leaving.
+     * <p>
+     * @param statManager  the shared stats for all simulations
+     * @param kitchenOrders  the list of orders shared by all simulations in a given trial
+     * @param strategy  the strategy with parameters to be used for the kitchen simulation
+     * @param trialNumber  the trial number of the simulation
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order setting its courier delay, or null for independent courier delays
+     * @throws KitchenSimulationException  if the kitchen is not reusable
+     */
+    public synchronized void reset(StatManager statManager, List<KitchenOrder> kitchenOrders, Strategy strategy, int trialNumber, 
+            double[] courierDelayDraws) throws KitchenSimulationException {
+        if (!isReusable()) {
+            throw new KitchenSimulationException("Only a kitchen of listed orders whose trial has completed can be reset: " + fullName);
+        }
+        prepareTrial(statManager, kitchenOrders, strategy, trialNumber, courierDelayDraws);
+        orderSimulation.reset(kitchenOrders, strategy.getOrderPeriodInMilliseconds(), strategy.getOrdersPerPeriod());
+        totalOrdersCompleted = 0;
+        totalOrdersPlaced = 0;
+        totalOrdersCancelled = 0;
+        totalCourierNoShows = 0;
+        totalOrderOutcomesDropped = 0;
+        totalCourierWaitTime = 0;
+        totalFoodWaitTime = 0;
+        startTimeInMillis = 0;
+        orderExporter = null;
+        allocationFree = false;
+        cancellationDraws = null;
+        noShowDraws = null;
+        eventLoop = null;
+        timeScale = SimulationClock.REAL_TIME;
+        precisionTimer = null;
+        setClock(new SimulationClock());
+        orderOutcomes = null;
+        cancelled = false;
+        completion = new CompletableFuture<>();
+    }
+    
+    /**
+     * Can the kitchen be reset for another trial?
+     * <p>
+     * @return  true if the kitchen places listed orders and its trial has completed without being cancelled, and its 
+     * strategy has neither order cancellations nor courier no-shows
+     */
+    public boolean isReusable() {
+        return orderSlots == null && completion.isDone() && !cancelled && !strategy.hasCancellationsOrNoShows();
+    }
+    
+    /**
+     * Set whether the kitchen runs the allocation free event path, which preallocates the status of every order
+     * <p>
+     * Must be set before the simulation starts.  Per order logging is skipped in allocation free mode.
+     * <p>
+     * @param allocationFree  true to preallocate the kitchen state and skip per order logging
+     */
+    public void setAllocationFree(boolean allocationFree) {
+        this.allocationFree = allocationFree;
+        if (allocationFree) {
+            for (int i = 0; i < ordersByPosition.length; i++) {
+                getOrderStatus(i);
+            }
+        }
+    }
+    
+    /**
+     * Set whether the kitchen runs as a single writer event loop
+     * <p>
+     * Must be set before the simulation starts.  In event loop mode, placing an order and the courier and food ready 
+     * callbacks return as soon as their event is published, so courierArrives always returns false.
+     * <p>
+     * @param eventLoopConfig  the event loop parameters, or null for the kitchen to apply events under its lock
+     */
+    public void setEventLoop(EventLoopConfig eventLoopConfig) {
+        eventLoop = (eventLoopConfig == null) ? null 
+                : new KitchenEventLoop("kitchen-event-loop " + fullName, eventLoopConfig.getBufferSize(), this::applyEvent);
+    }
+    
+    /**
+     * Set how many times faster than the wall clock the kitchen runs
+     * <p>
+     * Must be set before the simulation starts.
+     * <p>
+     * @param timeScale  the number of simulated milliseconds per wall clock millisecond, 1 for real time
+     */
+    public void setTimeScale(double timeScale) {
+        this.timeScale = timeScale;
+        setClock(new SimulationClock(timeScale, precisionTimer));
+    }
+    
+    /**
+     * Set whether the timers of the kitchen run on a dedicated precision timer thread
+     * <p>
+     * Must be set before the simulation starts.
+     * <p>
+     * @param precisionTimerConfig  the precision timer parameters, or null for the timers to run on executors
+     */
+    public void setPrecisionTimer(PrecisionTimerConfig precisionTimerConfig) {
+        precisionTimer = (precisionTimerConfig == null) ? null : new PrecisionTimer("kitchen-timer " + fullName, 
+                TimeUnit.MICROSECONDS.toNanos(precisionTimerConfig.getSpinInMicroseconds()));
+        setClock(new SimulationClock(timeScale, precisionTimer));
+    }
+    
+    private void setClock(SimulationClock clock) {
+        this.clock = clock;
+        courier.setClock(clock);
+    }
+    
+    /**
+     * Set the exporter that receives the detail of each order completed by this kitchen
+     * <p>
+     * @param orderExporter  the exporter, or null when orders are not exported
+     */
+    public void setOrderExporter(OrderExporter orderExporter) {
+        this.orderExporter = orderExporter;
     }
     
     @Override
@@ -72,113 +410,662 @@ public class KitchenSimulationImpl implements KitchenSimulation {
     
     @Override
     public void waitUntilComplete() {
-        synchronized(completed) {
-            while (totalOrdersCompleted < totalOrdersToBePlaced) {
-                try {
-                    completed.wait();
-                } catch(InterruptedException e) {
-                    log.error("Interrupted Exception: ", e);
+        completion.join();
+    }
+    
+    @Override
+    public CompletableFuture<TrialResult> getCompletion() {
+        return completion;
+    }
+    
+    /* Update the order status based on an event and an order
+     * <p>
+     * Return true if an order was picked up, or false when the event is only published to the event loop
+     */
+    private boolean updateOrderStatus(KitchenOrder.Event event, KitchenOrder ko) throws KitchenSimulationException {
+        if (cancelled) {
+            return false;
+        }
+        if (eventLoop != null) {
+            eventLoop.publish(event, ko);
+            return false;
+        }
+        synchronized(this) {
+            return applyEvent(event, ko);
+        }
+    }
+    
+    /* Apply an event, either holding the kitchen lock or on the event loop thread
+     */
+    private boolean applyEvent(KitchenOrder.Event event, KitchenOrder ko) throws KitchenSimulationException {
+        Integer position = positions.get(ko);
+        if (position == null) {
+            throw new KitchenSimulationException("Order is not part of the trial of " + fullName + ": " + ko);
+        }
+        return applyEvent(event, position);
+    }
+    
+    private OrderStatus getOrderStatus(int position) {
+        OrderStatusImpl status = statusByPosition[position];
+        if (status == null) {
+            status = new OrderStatusImpl(strategy.getName(), trialNumber, ordersByPosition[position].getId(), timeStamps);
+            statusByPosition[position] = status;
+        }
+        return status;
+    }
+    
+    /* Apply an event to the order at a position, letting the matching policy pair couriers with ready food
+     * <p>
+     * Return true if an order was picked up
+     */
+    private boolean applyEvent(KitchenOrder.Event event, int position) throws KitchenSimulationException {
+        if (cancelled) {
+            return false;
+        }
+        long nowInMicros = clock.nowInMicros();
+        long now = TimeUnit.MICROSECONDS.toMillis(nowInMicros);
+        switch(event) {
+            case NEW_ORDER_ARRIVES: {
+                getOrderStatus(position).handleEvent(event);
+                matchingPolicy.orderPlaced(position, (cookStations == null) ? now + getPrepTimeInMillis(position) : takeCookStation(position, now));
+                return false;
+            }
+            case COURIER_ARRIVES: {
+                if (cancellationTimes != null && cancellationTimes[position] <= now) {
+                    // the cancellation was due before the courier, but its timer runs on another thread and may fire later
+                    cancelOrder(position);
                 }
+                courierArrivalTimes[position] = nowInMicros;
+                int order = matchingPolicy.courierArrives(position, now);
+                return order != MatchingPolicy.NO_MATCH && pickUp(order, position);
             }
+            case FOOD_IS_READY: {
+                if (cookStations != null) {
+                    cookNextOrder(position, now);
+                }
+                OrderStatus status = getOrderStatus(position);
+                if (status.isOrderCancelled()) {
+                    // the food of a cancelled order is thrown away
+                    return false;
+                }
+                status.handleEvent(event);
+                int courier = matchingPolicy.foodIsReady(position, now);
+                return courier != MatchingPolicy.NO_MATCH && pickUp(position, courier);
+            }
+            case CANCELLED: {
+                return cancelOrder(position);
+            }
+            case COURIER_NO_SHOW: {
+                courierNoShow(position);
+                return false;
+            }
+            default:
+                throw new KitchenSimulationException("Unexpected event: " + event);
         }
     }
     
-    /* Update the order status based on an event and an order
+    /* Cancel the order at a position unless it has been picked up, offering the ready food to a courier the policy frees
      * <p>
-     * Return true if the order is now complete
-     */
-    private synchronized boolean updateOrderStatus(KitchenOrder.Event event, KitchenOrder ko) throws KitchenSimulationException {
-        OrderStatus status = (ordersProcessed.containsKey(ko)) ? ordersProcessed.get(ko) : new OrderStatusImpl();
-        if (status.isOrderComplete()) {
-            return true;
-        }
-        
-        status.handleEvent(event);
-        ordersProcessed.put(ko, status);   
-        
-        if (status.isOrderComplete()) {
-            logWaitTimeStats(ko, status);
-            return true;
-        }  
-        
-        if (!strategy.isCourierMatchedToOrder()) {
-            if (status.isWaitingOnFood() && foodReady.size() > 0) {
-                Optional<KitchenOrder> attempt = foodReady.stream().findAny();
-                if (attempt.isPresent()) {
-                    foodReady.remove(attempt.get());
-                    OrderStatus other = ordersProcessed.get(attempt.get());
-                    other.assignToWaitingCourier(status);
-                    logWaitTimeStats(attempt.get(), other);
-                    return true;
-                }
-            } else if (status.isWaitingOnCourier() && waitingRoom.size() > 0) {
-                KitchenOrder courierOrder = waitingRoom.remove();
-                status.assignToWaitingCourier(ordersProcessed.get(courierOrder));
-                logWaitTimeStats(ko,status);
-                return true;
+     * Return true if the freed courier picked up an order
+     */
+    private boolean cancelOrder(int position) throws KitchenSimulationException {
+        OrderStatus status = getOrderStatus(position);
+        if (status.isOrderComplete() || status.isOrderCancelled()) {
+            return false;
+        }
+        status.handleEvent(KitchenOrder.Event.CANCELLED);
+        totalOrdersCancelled++;
+        if (cookStations != null) {
+            // an order still waiting for a station is never cooked
+            cookStations.remove(position);
+        }
+        int courier = matchingPolicy.orderCancelled(position);
+        if (courier != MatchingPolicy.NO_MATCH) {
+            int order = matchingPolicy.courierArrives(courier, TimeUnit.MICROSECONDS.toMillis(courierArrivalTimes[courier]));
+            if (order != MatchingPolicy.NO_MATCH) {
+                return pickUp(order, courier);
             }
-        } 
-        
+        }
+        if (allOrdersDone()) {
+            completeTrial();
+        }
         return false;
     }
     
-    private void notifyThatSimulationIsComplete() {
-        synchronized(completed) {
-            completed.notifyAll();
+    /* Count a courier that did not show up for the order at a position and dispatch a replacement, which under a policy 
+     * that lets couriers pick up any order is needed even if the order is no longer waiting
+     */
+    private void courierNoShow(int position) throws KitchenSimulationException {
+        totalCourierNoShows++;
+        noShowsByPosition[position]++;
+        OrderStatus status = getOrderStatus(position);
+        if (!status.isOrderComplete() && !status.isOrderCancelled()) {
+            status.handleEvent(KitchenOrder.Event.COURIER_NO_SHOW);
         }
+        courier.dispatchFollowUp(ordersByPosition[position], 0);
     }
     
-    private void prepareOrder(KitchenOrder order) {
-        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
-        executor.schedule(new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    foodIsReady(order);
-                } catch(KitchenSimulationException e) {
-                    throw new KitchenSimulationRuntimeException(e.getMessage(), e);
-                }
-                executor.shutdown();
+    /* Pick the orders of a batch that their customers cancel, each at a uniform time before its courier arrives
+     * <p>
+     * A draw u below the rate cancels the order, and u / rate is then itself uniform and sets when, so one draw per 
+     * order keeps the cancellations paired across the strategies of a trial.
+     */
+    private void scheduleCancellations(List<KitchenOrder> batch, long placedTime) {
+        double cancellationRate = strategy.getOrderCancellationRate();
+        if (cancellationRate == 0) {
+            return;
+        }
+        List<KitchenOrder> cancellations = new ArrayList<>();
+        int[] delays = new int[batch.size()];
+        for (KitchenOrder ko : batch) {
+            int position = positions.get(ko);
+            double draw = (cancellationDraws == null) ? ThreadLocalRandom.current().nextDouble() : cancellationDraws[position];
+            if (draw < cancellationRate) {
+                int delay = (int) (draw / cancellationRate * getCourierDelayInMillis(position));
+                cancellationTimes[position] = placedTime + delay;
+                delays[cancellations.size()] = delay;
+                cancellations.add(ko);
+            }
+        }
+        BatchTimer.schedule(cancellations, delays, this::cancelOrder, clock);
+    }
+    
+    /* The uniform draw that decides whether the next courier of the order at a position shows up
+     * <p>
+     * Given that the first k couriers did not show up, the draw u of the order is below rate^k, so u / rate^k is again 
+     * uniform and decides the next courier without another draw.
+     */
+    private double getNoShowDraw(int position) {
+        if (noShowDraws == null) {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+        return noShowDraws[position] / Math.pow(strategy.getCourierNoShowRate(), noShowsByPosition[position]);
+    }
+    
+    private boolean pickUp(int order, int courier) throws KitchenSimulationException {
+        OrderStatus status = getOrderStatus(order);
+        status.assignToCourier(courierArrivalTimes[courier]);
+        if (order != courier) {
+            emitOrderMatched(ordersByPosition[order], ordersByPosition[courier], status);
+        }
+        if (courierFleet != null) {
+            returnCourier(courier, status.getPickupTimeInMillis());
+        }
+        logWaitTimeStats(ordersByPosition[order], status);
+        if (orderSlots != null) {
+            releaseSlot(order);
+            releaseSlot(courier);
+        }
+        return true;
+    }
+    
+    /* Release a reference to a steady state position, forgetting its order once the position is free
+     */
+    private void releaseSlot(int position) {
+        if (orderSlots.release(position)) {
+            positions.remove(ordersByPosition[position]);
+            ordersByPosition[position] = null;
+            statusByPosition[position] = null;
+        }
+    }
+    
+    /* Give each order of a steady state batch a free position, rejecting the orders that find every position in flight
+     */
+    private synchronized List<KitchenOrder> admitOrders(List<KitchenOrder> batch) {
+        List<KitchenOrder> admitted = new ArrayList<>(batch.size());
+        for (KitchenOrder ko : batch) {
+            int position = orderSlots.acquire();
+            if (position == OrderSlots.NO_SLOT) {
+                totalOrdersRejected++;
+                log.warn("{}, {} orders are in flight, order type: {}, id: {} is rejected", fullName, ordersByPosition.length, ko.getName(), ko.getId());
+                continue;
+            }
+            ordersByPosition[position] = ko;
+            positions.put(ko, position);
+            totalOrdersPlaced++;
+            admitted.add(ko);
+        }
+        return admitted;
+    }
+    
+    /**
+     * Tell a steady state kitchen that no more orders come, so that it completes once the orders in flight are picked up
+     */
+    synchronized void finishPlacingOrders() {
+        if (totalOrdersToBePlaced != Integer.MAX_VALUE) {
+            return;
+        }
+        totalOrdersToBePlaced = totalOrdersPlaced;
+        log.info("{}, no more orders, {} placed and {} rejected", fullName, totalOrdersPlaced, totalOrdersRejected);
+        if (allOrdersDone()) {
+            completeTrial();
+        }
+    }
+    
+    /**
+     * Get the number of orders placed but not yet picked up
+     * <p>
+     * @return  the number of orders in flight
+     */
+    public synchronized int getOrdersInFlight() {
+        return totalOrdersPlaced - totalOrdersCompleted;
+    }
+    
+    /**
+     * Get the number of steady state orders rejected because maxOrdersInFlight orders were already in flight
+     * <p>
+     * @return  the number of rejected orders
+     */
+    public synchronized long getOrdersRejected() {
+        return totalOrdersRejected;
+    }
+    
+    /**
+     * Get the number of orders cancelled by their customers before they were picked up
+     * <p>
+     * @return  the number of cancelled orders
+     */
+    public synchronized int getOrdersCancelled() {
+        return totalOrdersCancelled;
+    }
+    
+    /**
+     * Get the number of couriers that did not show up and were replaced
+     * <p>
+     * @return  the number of courier no-shows
+     */
+    public synchronized long getCourierNoShows() {
+        return totalCourierNoShows;
+    }
+    
+    /**
+     * Get the number of completed orders not delivered to a subscriber of getOrderOutcomes that had fallen a full 
+     * buffer behind
+     * <p>
+     * @return  the number of dropped order outcomes, counted once per subscriber
+     */
+    public synchronized long getOrderOutcomesDropped() {
+        return totalOrderOutcomesDropped;
+    }
+    
+    /* Return the courier that picked up an order to the fleet, sending it on to the next waiting order once it has delivered
+     */
+    private void returnCourier(int courier, long pickupTimeInMillis) {
+        int next = courierFleet.courierReturns(courier, pickupTimeInMillis);
+        if (next != CourierFleet.NO_ORDER) {
+            KitchenOrder ko = ordersByPosition[next];
+            if (!allocationFree) {
+                log.info("{}, courier returned for waiting order type: {}, id: {}", fullName, ko.getName(), ko.getId());
+            }
+            this.courier.dispatchFollowUp(ko, courierFleet.getDeliveryTimeInMillis());
+        }
+    }
+    
+    /* Dispatch a batch of orders to the couriers of the fleet, an order that finds every courier out waits for one to return
+     */
+    private void dispatchFromFleet(List<KitchenOrder> batch) {
+        long now = clock.now();
+        List<KitchenOrder> dispatched = new ArrayList<>(batch.size());
+        int[] departureDelays = new int[batch.size()];
+        for (KitchenOrder ko : batch) {
+            long departureTime = courierFleet.dispatch(positions.get(ko), now);
+            if (departureTime == CourierFleet.WAITING) {
+                log.info("{}, no courier available, order type: {}, id: {} waits for a courier", fullName, ko.getName(), ko.getId());
+            } else {
+                departureDelays[dispatched.size()] = (int) (departureTime - now);
+                dispatched.add(ko);
             }
-        }, order.getPrepTime(), TimeUnit.SECONDS);
+        }
+        if (!dispatched.isEmpty()) {
+            courier.dispatch(dispatched, departureDelays);
+        }
+    }
+    
+    private void emitOrderMatched(KitchenOrder ko, KitchenOrder courierOrder, OrderStatus status) {
+        OrderMatchedEvent.emit(strategy.getName(), trialNumber, ko.getId(), courierOrder.getId(), 
+                status.getPickupTimeInMillis() - status.getCourierArrivalTimeInMillis(), 
+                status.getPickupTimeInMillis() - status.getFoodReadyTimeInMillis());
+    }
+    
+    /* Start the prep timers of a batch of orders, unless the orders wait for cook stations, which take them as they 
+     * arrive in the kitchen
+     */
+    private void prepareOrders(List<KitchenOrder> batch) {
+        if (cookStations != null) {
+            return;
+        }
+        int[] prepTimesInMillis = new int[batch.size()];
+        for (int i = 0; i < prepTimesInMillis.length; i++) {
+            prepTimesInMillis[i] = (int) TimeUnit.SECONDS.toMillis(batch.get(i).getPrepTime());
+        }
+        BatchTimer.schedule(batch, prepTimesInMillis, this::foodIsReady, clock);
+    }
+    
+    /* Place an order that arrives in the kitchen on the cook stations, starting its prep timer if a station cooks it now
+     * <p>
+     * Return the time its food is expected to be ready, after its wait for a station if every station is cooking
+     */
+    private long takeCookStation(int position, long now) {
+        int prepTime = getPrepTimeInMillis(position);
+        if (cookStations.orderPlaced(position, now, prepTime) != CookStations.NO_ORDER) {
+            BatchTimer.scheduleFollowUp(ordersByPosition[position], prepTime, this::foodIsReady, clock);
+        } else if (!allocationFree) {
+            KitchenOrder ko = ordersByPosition[position];
+            log.info("{}, every cook station is busy, order type: {}, id: {} waits for a station", fullName, ko.getName(), ko.getId());
+        }
+        return cookStations.getExpectedReadyTime(position);
+    }
+    
+    /* Free the station that cooked the order at a position, and start the timer of the order it cooks next
+     */
+    private void cookNextOrder(int position, long now) {
+        int next = cookStations.orderReady(position, now);
+        if (next != CookStations.NO_ORDER) {
+            BatchTimer.scheduleFollowUp(ordersByPosition[next], getPrepTimeInMillis(next), this::foodIsReady, clock);
+        }
     }
     
     private void logWaitTimeStats(KitchenOrder ko, OrderStatus status) {
         statManager.updateStats(strategy, status);
-        long courierWaitTime = status.getPickupTimeInMillis() - status.getCourierArrivalTimeInMillis();
-        long foodWaitTime = status.getPickupTimeInMillis() - status.getFoodReadyTimeInMillis();
-        log.info("{}, order picked up, type: {}, id: {}, courier wait time: {} ms, food wait time: {} ms, orderStatus: {}", fullName, ko.getName(), ko.getId(), courierWaitTime, foodWaitTime, status);
-        log.info("{}, average food wait time (milliseconds) so far: {} ms", fullName, statManager.getAverageFoodWaitTime(strategy.getName()));
-        log.info("{}, average courier wait time (milliseconds) so far: {} ms", fullName, statManager.getAverageCourierWaitTime(strategy.getName()));
-        log.info("{}: orders completed: {}", fullName, statManager.getNumOrdersCompleted(strategy.getName()));
+        long courierWaitTime = status.getPickupTimeInMicros() - status.getCourierArrivalTimeInMicros();
+        long foodWaitTime = status.getPickupTimeInMicros() - status.getFoodReadyTimeInMicros();
+        totalCourierWaitTime += courierWaitTime;
+        totalFoodWaitTime += foodWaitTime;
+        if (orderExporter != null) {
+            orderExporter.export(strategy.getName(), trialNumber, ko.getId(), ko.getName(), ko.getPrepTime(), status);
+        }
+        publishOrderOutcome(ko, status);
+        if (!allocationFree) {
+            log.info("{}, order picked up, type: {}, id: {}, courier wait time: {} ms, food wait time: {} ms, orderStatus: {}", fullName, ko.getName(), ko.getId(), 
+                    toMillis(courierWaitTime), toMillis(foodWaitTime), status);
+            log.info("{}, average food wait time (milliseconds) so far: {} ms", fullName, statManager.getAverageFoodWaitTime(strategy.getName()));
+            log.info("{}, average courier wait time (milliseconds) so far: {} ms", fullName, statManager.getAverageCourierWaitTime(strategy.getName()));
+            log.info("{}: orders completed: {}", fullName, statManager.getNumOrdersCompleted(strategy.getName()));
+        }
         totalOrdersCompleted += 1;
-        if (totalOrdersCompleted == totalOrdersToBePlaced) {
-            notifyThatSimulationIsComplete();
+        if (allOrdersDone()) {
+            completeTrial();
         }
     }
     
+    private void completeTrial() {
+        TrialEndEvent.emit(strategy.getName(), trialNumber, totalOrdersCompleted, clock.now() - startTimeInMillis);
+        clock.stop();
+        if (clock.getTimeScale() != SimulationClock.REAL_TIME || clock.isPrecise()) {
+            log.info("{}, time scale {}x{}: {} timers fired on average {} ms and at most {} ms late in simulated time", fullName, clock.getTimeScale(), 
+                    clock.isPrecise() ? " with a precision timer" : "", clock.getTimersFired(), 
+                    String.format(Locale.ROOT, "%.3f", clock.getAverageTimerErrorInMillis()), String.format(Locale.ROOT, "%.3f", clock.getMaxTimerErrorInMillis()));
+        }
+        if (strategy.hasCancellationsOrNoShows()) {
+            log.info("{}, {} orders cancelled, {} couriers did not show up", fullName, totalOrdersCancelled, totalCourierNoShows);
+        }
+        if (totalOrderOutcomesDropped > 0) {
+            log.warn("{}, {} completed orders were dropped for order outcome subscribers that fell a full buffer behind", 
+                    fullName, totalOrderOutcomesDropped);
+        }
+        if (courierFleet != null) {
+            log.info("{}, courier fleet of {}: {} orders waited for a courier, at most {} at once", fullName, 
+                    courierFleet.getFleetSize(), courierFleet.getOrdersWaited(), courierFleet.getMaxOrdersWaiting());
+        }
+        if (cookStations != null) {
+            log.info("{}, {} cook stations: {} orders waited for a station, at most {} at once, {} cooked away from their home station", 
+                    fullName, cookStations.getNumStations(), cookStations.getOrdersQueued(), cookStations.getMaxOrdersQueued(), 
+                    cookStations.getOrdersStolen());
+        }
+        closeOrderOutcomes();
+        if (eventLoop != null) {
+            eventLoop.stop();
+        }
+        signalCompletion(buildTrialResult());
+    }
+    
+    /* Complete the trial future, the first signal wins if the trial completes while it is being cancelled
+     * <p>
+     * Completed on the common pool, since the last order completes the trial holding the kitchen lock or on the event 
+     * loop thread, and the continuations (recording the trial, checkpointing, handing the kitchen back to its pool and 
+     * resetting it) must not run there: a reset would stop the event loop from its own thread, and a slow continuation 
+     * would hold up the timers of the kitchen.
+     */
+    private void signalCompletion(TrialResult result) {
+        completion.completeAsync(() -> result);
+    }
+    
+    /* Publish a completed order without blocking, since this runs holding the kitchen lock or on the event loop thread.
+     * A subscriber whose buffer is full misses the order instead of stalling the kitchen, and a subscriber that cancels 
+     * the kitchen from onNext cannot deadlock with it.
+     */
+    private void publishOrderOutcome(KitchenOrder ko, OrderStatus status) {
+        SubmissionPublisher<OrderOutcome> publisher = orderOutcomes;
+        if (publisher != null && publisher.hasSubscribers()) {
+            publisher.offer(new OrderOutcome(strategy.getName(), trialNumber, ko.getId(), ko.getName(), ko.getPrepTime(), 
+                    status.getFoodReadyTimeInMillis(), status.getCourierArrivalTimeInMillis(), status.getPickupTimeInMillis()), 
+                    this::dropOrderOutcome);
+        }
+    }
+    
+    /* The overflow policy of the order outcomes: count the dropped order and do not retry
+     */
+    private boolean dropOrderOutcome(Flow.Subscriber<? super OrderOutcome> subscriber, OrderOutcome outcome) {
+        totalOrderOutcomesDropped++;
+        return false;
+    }
+    
+    private synchronized void closeOrderOutcomes() {
+        if (orderOutcomes != null) {
+            orderOutcomes.close();
+        }
+    }
+    
+    @Override
+    public synchronized Flow.Publisher<OrderOutcome> getOrderOutcomes() {
+        if (orderOutcomes == null) {
+            orderOutcomes = new SubmissionPublisher<>();
+            if (allOrdersDone()) {
+                orderOutcomes.close();
+            }
+        }
+        return orderOutcomes;
+    }
+    
     @Override
     public boolean courierArrives(KitchenOrder ko) throws KitchenSimulationException {
         log.info("courier arrived, order type: {}, id: {}", ko.getName(), ko.getId());
+        CourierArrivedEvent.emit(strategy.getName(), trialNumber, ko.getId());
         return updateOrderStatus(KitchenOrder.Event.COURIER_ARRIVES, ko);
     }
     
-    private boolean foodIsReady(KitchenOrder ko) throws KitchenSimulationException {
+    @Override
+    public void courierNoShow(KitchenOrder ko) throws KitchenSimulationException {
+        log.info("courier did not show up, order type: {}, id: {}", ko.getName(), ko.getId());
+        CourierNoShowEvent.emit(strategy.getName(), trialNumber, ko.getId());
+        updateOrderStatus(KitchenOrder.Event.COURIER_NO_SHOW, ko);
+    }
+    
+    @Override
+    public void cancelOrder(KitchenOrder ko) throws KitchenSimulationException {
+        log.info("order cancelled, order type: {}, id: {}", ko.getName(), ko.getId());
+        OrderCancelledEvent.emit(strategy.getName(), trialNumber, ko.getId());
+        updateOrderStatus(KitchenOrder.Event.CANCELLED, ko);
+    }
+    
+    boolean foodIsReady(KitchenOrder ko) throws KitchenSimulationException {
         log.info("order prepared, order type: {}, id: {}", ko.getName(), ko.getId());
+        FoodReadyEvent.emit(strategy.getName(), trialNumber, ko.getId());
         return updateOrderStatus(KitchenOrder.Event.FOOD_IS_READY, ko);
     }
     
-    @Override
-    public void placeOrder(KitchenOrder ko) throws KitchenSimulationException {
+    /* Record a new order without dispatching a courier or preparing the food
+     * <p>
+     * Used directly by a shared timeline, which already knows when the courier arrives and when the food is ready
+     */
+    void receiveOrder(KitchenOrder ko) throws KitchenSimulationException {
         log.info("order received, order type: {}, id: {}, prepTime: {}", ko.getName(), ko.getId(), ko.getPrepTime());
+        OrderPlacedEvent.emit(strategy.getName(), trialNumber, ko.getId(), ko.getName(), ko.getPrepTime());
         updateOrderStatus(KitchenOrder.Event.NEW_ORDER_ARRIVES, ko);
-        courier.dispatch(ko);
-        prepareOrder(ko);
+    }
+    
+    /* Handle a timeline event for the order at a position of the trial, without logging it
+     * <p>
+     * Used by an allocation free shared timeline
+     */
+    void handleEvent(KitchenOrder.Event event, int position) throws KitchenSimulationException {
+        if (!allocationFree) {
+            throw new KitchenSimulationException("Events are only handled by position in allocation free mode: " + fullName);
+        }
+        KitchenOrder ko = ordersByPosition[position];
+        switch(event) {
+            case NEW_ORDER_ARRIVES:
+                OrderPlacedEvent.emit(strategy.getName(), trialNumber, ko.getId(), ko.getName(), ko.getPrepTime());
+                break;
+            case COURIER_ARRIVES:
+                CourierArrivedEvent.emit(strategy.getName(), trialNumber, ko.getId());
+                break;
+            case FOOD_IS_READY:
+                FoodReadyEvent.emit(strategy.getName(), trialNumber, ko.getId());
+                break;
+            default:
+                throw new KitchenSimulationException("Unexpected event in timeline: " + event);
+        }
+        if (eventLoop != null) {
+            eventLoop.publish(event, ko);
+            return;
+        }
+        synchronized(this) {
+            applyEvent(event, position);
+        }
+    }
+    
+    Strategy getStrategy() {
+        return strategy;
+    }
+    
+    int getNumOrders() {
+        return ordersByPosition.length;
+    }
+    
+    int getPrepTimeInMillis(int position) {
+        return (int) TimeUnit.SECONDS.toMillis(ordersByPosition[position].getPrepTime());
+    }
+    
+    /* The courier delay of the order at a position, from the draw of the order when the kitchen has courier delay draws
+     */
+    int getCourierDelayInMillis(int position) {
+        int minDelay = strategy.getCourierMinDelayInMilliseconds();
+        int maxDelay = strategy.getCourierMaxDelayInMilliseconds();
+        return (courierDelayDraws == null) ? ThreadLocalRandom.current().nextInt(minDelay, maxDelay) 
+                : CourierSimulationImpl.getDelay(minDelay, maxDelay, courierDelayDraws[position]);
+    }
+    
+    SimulationClock getClock() {
+        return clock;
+    }
+    
+    CourierFleet getCourierFleet() {
+        return courierFleet;
+    }
+    
+    CookStations getCookStations() {
+        return cookStations;
+    }
+    
+    /* Has every order of the trial been picked up?  Only reliable on the thread applying the events
+     */
+    boolean isComplete() {
+        return allOrdersDone();
+    }
+    
+    // every order has been picked up or cancelled
+    private boolean allOrdersDone() {
+        return totalOrdersCompleted + totalOrdersCancelled == totalOrdersToBePlaced;
+    }
+    
+    // a single lock acquisition for the whole batch, receiveOrder re-enters it
+    private synchronized void receiveOrders(List<KitchenOrder> batch) throws KitchenSimulationException {
+        for (KitchenOrder ko : batch) {
+            receiveOrder(ko);
+        }
+    }
+    
+    @Override
+    public void placeOrder(KitchenOrder ko) throws KitchenSimulationException {
+        placeOrders(Collections.singletonList(ko));
+    }
+    
+    @Override
+    public void placeOrders(List<KitchenOrder> batch) throws KitchenSimulationException {
+        if (cancelled) {
+            return;
+        }
+        if (orderSlots != null) {
+            batch = admitOrders(batch);
+        }
+        // no later than the couriers are dispatched, so that a cancellation is due before the courier of its order
+        long placedTime = clock.now();
+        receiveOrders(batch);
+        if (courierFleet == null) {
+            courier.dispatch(batch);
+        } else {
+            dispatchFromFleet(batch);
+        }
+        prepareOrders(batch);
+        scheduleCancellations(batch, placedTime);
+    }
+    
+    @Override
+    public synchronized TrialResult getTrialResult() {
+        return buildTrialResult();
+    }
+    
+    // called holding the kitchen lock or on the event loop thread
+    private TrialResult buildTrialResult() {
+        return new TrialResult(strategy.getName(), trialNumber, totalOrdersCompleted, toMillis(totalCourierWaitTime), toMillis(totalFoodWaitTime));
+    }
+    
+    // a wait time in microseconds as fractional milliseconds
+    private static double toMillis(long timeInMicros) {
+        return (double) timeInMicros / TimeUnit.MILLISECONDS.toMicros(1);
+    }
+    
+    @Override
+    public void cancel() {
+        TrialResult result;
+        synchronized(this) {
+            if (cancelled || allOrdersDone()) {
+                return;
+            }
+            cancelled = true;
+            closeOrderOutcomes();
+            result = buildTrialResult();
+        }
+        log.info("{} has been cancelled after {} of {} orders", fullName, totalOrdersCompleted, totalOrdersToBePlaced);
+        if (eventLoop != null) {
+            eventLoop.stop();
+        }
+        clock.stop();
+        signalCompletion(result);
+    }
+    
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    
+    /* Mark the start of the trial
+     */
+    void startTrial() {
+        if (eventLoop != null) {
+            eventLoop.start();
+        }
+        clock.start();
+        startTimeInMillis = clock.now();
+        TrialStartEvent.emit(strategy.getName(), trialNumber, totalOrdersToBePlaced);
     }
     
     @Override
-    public void runSimulation() {
+    public CompletableFuture<TrialResult> runSimulation() {
+        startTrial();
         orderSimulation.simulateOrders();
+        return completion;
     }
 
 }
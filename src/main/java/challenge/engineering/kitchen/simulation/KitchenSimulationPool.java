@@ -0,0 +1,128 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.Strategy;
+
+/**
+ * 
+ * KitchenSimulationPool reuses the kitchens of completed trials instead of creating a new kitchen for every trial.
+ * <p>
+ * Each worker thread keeps its own few kitchens, so acquiring and releasing a kitchen takes no lock.  A trial acquires 
+ * a kitchen, which is a pooled kitchen of the calling thread reset for the trial or a new kitchen when the thread has 
+ * none, and releases it once the trial has been recorded.  Since the thread that completes a trial also starts the next 
+ * queued trial, the kitchen it releases is the one it acquires next, and its arrays, order statuses, position map and 
+ * matching policy are reused for the next trial.
+ * <p>
+ * Cancelled kitchens are never pooled, since the timers of their orders may still fire.
+ * <p>
+ * The kitchens are released on whatever threads complete the trials, often threads of the common pool that outlive the 
+ * run, so a run closes its pool once its trials are done, which drops every pooled kitchen instead of leaving them 
+ * referenced from those threads.
+ */
+public final class KitchenSimulationPool implements AutoCloseable {
+    
+    public static final int DEFAULT_KITCHENS_PER_THREAD = 4;
+    
+    private final int kitchensPerThread;
+    // the kitchens of each thread, lock free so that close can clear them from another thread
+    private final Queue<Deque<KitchenSimulationImpl>> allPooled = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<KitchenSimulationImpl>> pooled = ThreadLocal.withInitial(() -> {
+        Deque<KitchenSimulationImpl> kitchens = new ConcurrentLinkedDeque<>();
+        allPooled.add(kitchens);
+        return kitchens;
+    });
+    private volatile boolean closed;
+    private final LongAdder kitchensCreated = new LongAdder();
+    private final LongAdder kitchensReused = new LongAdder();
+    
+    /**
+     * Constructor for a pool keeping up to DEFAULT_KITCHENS_PER_THREAD kitchens per thread
+     */
+    public KitchenSimulationPool() {
+        this(DEFAULT_KITCHENS_PER_THREAD);
+    }
+    
+    /**
+     * Constructor for a pool
+     * <p>
+     * @param kitchensPerThread  the most released kitchens kept by each thread
+     */
+    public KitchenSimulationPool(int kitchensPerThread) {
+        this.kitchensPerThread = kitchensPerThread;
+    }
+    
+    /**
+     * Get a kitchen for a trial, reusing a kitchen released by the calling thread if it has one
+     * <p>
+     * @param statManager  the shared stats for all simulations
+     * @param kitchenOrders  the list of orders shared by all simulations in a given trial
+     * @param strategy  the strategy with parameters to be used for the kitchen simulation
+     * @param trialNumber  the trial number of the simulation
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order setting its courier delay, or null for independent courier delays
+     * @return  a kitchen ready for its settings to be set and its simulation to run
+     */
+    public KitchenSimulationImpl acquire(StatManager statManager, List<KitchenOrder> kitchenOrders, Strategy strategy, int trialNumber, 
+            double[] courierDelayDraws) {
+        KitchenSimulationImpl kitchen = pooled.get().pollFirst();
+        if (kitchen == null) {
+            kitchensCreated.increment();
+            return new KitchenSimulationImpl(statManager, kitchenOrders, strategy, trialNumber, courierDelayDraws);
+        }
+        try {
+            kitchen.reset(statManager, kitchenOrders, strategy, trialNumber, courierDelayDraws);
+        } catch(KitchenSimulationException e) {
+            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+        }
+        kitchensReused.increment();
+        return kitchen;
+    }
+    
+    /**
+     * Give back a kitchen once its trial has been recorded, nothing may use the kitchen afterwards
+     * <p>
+     * The kitchen is kept by the calling thread unless it is not reusable, the thread already keeps kitchensPerThread 
+     * kitchens or the pool is closed.
+     * <p>
+     * @param kitchen  the kitchen
+     */
+    public void release(KitchenSimulationImpl kitchen) {
+        if (closed || !kitchen.isReusable()) {
+            return;
+        }
+        Deque<KitchenSimulationImpl> kitchens = pooled.get();
+        if (kitchens.size() < kitchensPerThread) {
+            kitchens.addFirst(kitchen);
+        }
+    }
+    
+    /**
+     * Drop the kitchens kept by every thread once the trials of the run are done, later releases are not kept
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Deque<KitchenSimulationImpl> kitchens : allPooled) {
+            kitchens.clear();
+        }
+        allPooled.clear();
+        pooled.remove();
+    }
+    
+    public long getKitchensCreated() {
+        return kitchensCreated.sum();
+    }
+    
+    public long getKitchensReused() {
+        return kitchensReused.sum();
+    }
+}
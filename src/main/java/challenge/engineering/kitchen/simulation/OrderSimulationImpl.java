@@ -1,10 +1,11 @@
 package challenge.engineering.kitchen.simulation;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
+import java.util.function.BooleanSupplier;
 
 import org.apache.commons.collections4.ListUtils;
 import org.slf4j.Logger;
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
 import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderStream;
 
 /**
  * 
@@ -22,19 +24,29 @@ import challenge.engineering.kitchen.model.KitchenOrder;
  * <p><ul>
  * <li>orderPeriodInMilliseconds: specifies the frequency of "ticks" where n orders are placed.
  * <li>ordersPerPeriod:  specifies the number of orders to place at each "tick"
- *</ul>
+ *</ul><p>
+ * The orders of a tick are placed with the kitchen as one batch.
+ * <p>
+ * In steady state, the orders of each tick are generated by an order stream instead of taken from a list, until the 
+ * duration has passed or, without a duration, until the kitchen is cancelled.
+ * <p>
+ * The period and the duration are in simulated milliseconds of the clock of the kitchen, which records how late each 
+ * tick fires.
  */
 public class OrderSimulationImpl implements OrderSimulation {
     
     static Logger log = LoggerFactory.getLogger(OrderSimulationImpl.class);
 	
-	private final List<KitchenOrder> ordersToPlace;
-	private final int orderPeriodInMilliseconds;
-	private final int ordersPerPeriod;
+	private List<KitchenOrder> ordersToPlace;
+	private int orderPeriodInMilliseconds;
+	private int ordersPerPeriod;
 	private final KitchenSimulationImpl kitchen;
+	private final OrderStream orderStream;
+	private final long durationInMillis;
 	
 	private volatile Integer counter;
     private ScheduledFuture<?> tick;
+    private long ticks;
 	
     /**
      * Constructor for the Order Simulation
@@ -45,45 +57,139 @@ public class OrderSimulationImpl implements OrderSimulation {
      * @param ordersPerPeriod  the number of orders placed at each period
      */
 	public OrderSimulationImpl(KitchenSimulationImpl kitchen, List<KitchenOrder> ordersToPlace, int orderPeriodInMilliseconds, int ordersPerPeriod) {
-		this.ordersToPlace = ListUtils.unmodifiableList(ordersToPlace);
-		this.orderPeriodInMilliseconds = orderPeriodInMilliseconds;
-		this.ordersPerPeriod = ordersPerPeriod;
 		this.kitchen = kitchen;
+		this.orderStream = null;
+		this.durationInMillis = 0;
+		reset(ordersToPlace, orderPeriodInMilliseconds, ordersPerPeriod);
+	}
+	
+	/**
+	 * Reuse the order simulation for the next trial of its kitchen, once the ticks of the last trial have stopped
+	 * <p>
+	 * @param ordersToPlace  the list of kitchen orders to use in the order simulation
+	 * @param orderPeriodInMilliseconds  the frequency at which ordered are placed
+	 * @param ordersPerPeriod  the number of orders placed at each period
+	 */
+	void reset(List<KitchenOrder> ordersToPlace, int orderPeriodInMilliseconds, int ordersPerPeriod) {
+	    this.ordersToPlace = ListUtils.unmodifiableList(ordersToPlace);
+	    this.orderPeriodInMilliseconds = orderPeriodInMilliseconds;
+	    this.ordersPerPeriod = ordersPerPeriod;
+	    tick = null;
+	    ticks = 0;
+	}
+	
+	/**
+	 * Constructor for a steady state Order Simulation
+	 * <p>
+	 * @param kitchen  reference to the kitchen simulation
+	 * @param orderStream  the stream that generates the orders placed
+	 * @param durationInMillis  how long orders are placed for, or 0 to place orders until the kitchen is cancelled
+	 * @param orderPeriodInMilliseconds  the frequency at which ordered are placed
+	 * @param ordersPerPeriod  the number of orders placed at each period
+	 */
+	public OrderSimulationImpl(KitchenSimulationImpl kitchen, OrderStream orderStream, long durationInMillis, int orderPeriodInMilliseconds, int ordersPerPeriod) {
+	    this.ordersToPlace = null;
+	    this.orderPeriodInMilliseconds = orderPeriodInMilliseconds;
+	    this.ordersPerPeriod = ordersPerPeriod;
+	    this.kitchen = kitchen;
+	    this.orderStream = orderStream;
+	    this.durationInMillis = durationInMillis;
+	}
+	
+	/* Place the orders of a steady state tick, or tell the kitchen that no more orders come once the duration has passed
+	 * <p>
+	 * Return true once no more orders are placed
+	 */
+	private boolean placeStreamedOrders(SimulationClock clock, long startTimeInMillis) {
+	    try {
+	        if (durationInMillis > 0 && clock.now() - startTimeInMillis >= durationInMillis) {
+	            kitchen.finishPlacingOrders();
+	            return true;
+	        }
+	        List<KitchenOrder> batch = new ArrayList<>(ordersPerPeriod);
+	        for (int i = 0; i < ordersPerPeriod; i++) {
+	            batch.add(orderStream.next());
+	        }
+	        kitchen.placeOrders(batch);
+	        return false;
+	    } catch(KitchenSimulationException e) {
+	        throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+	    }
+	}
+	
+	/* Place the orders of the next tick from the list, return true once every order has been placed
+	 */
+	private boolean placeListedOrders() {
+	    log.info(
+	            "new order(s) coming: tick ({} msec), counter = {}, size = {}", orderPeriodInMilliseconds, counter, ordersToPlace.size());
+	    synchronized(counter) {
+	        if (counter < ordersToPlace.size()) {
+	            List<KitchenOrder> batch = ordersToPlace.subList(counter, Math.min(counter + ordersPerPeriod, ordersToPlace.size()));
+	            try {
+	                kitchen.placeOrders(batch);
+	            } catch(KitchenSimulationException e) {
+	                throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+	            }
+	        }
+	        counter += ordersPerPeriod;
+	    }
+	    return counter >= ordersToPlace.size();
+	}
+	
+	/* The time a tick is due, in simulated nanoseconds since the epoch of the clock
+	 */
+	private long getTickTime(long startTimeInNanos, long tickNumber) {
+	    return startTimeInNanos + tickNumber * TimeUnit.MILLISECONDS.toNanos(orderPeriodInMilliseconds);
+	}
+	
+	/* Run a tick and record how late it fired compared to its place in the fixed rate schedule
+	 * <p>
+	 * Return true once no more ticks are needed
+	 */
+	private boolean runTick(SimulationClock clock, long startTimeInNanos, BooleanSupplier placeOrders) {
+	    clock.recordTimerError(Math.max(0, clock.nanoTime() - getTickTime(startTimeInNanos, ticks++)));
+	    return placeOrders.getAsBoolean() || kitchen.isCancelled();
+	}
+	
+	/* Place orders every orderPeriodInMilliseconds until placeOrders returns true, on the precision timer of the clock 
+	 * when it has one
+	 */
+	private void scheduleTicks(BooleanSupplier placeOrders) {
+	    SimulationClock clock = kitchen.getClock();
+	    long startTimeInNanos = clock.nanoTime();
+	    if (clock.isPrecise()) {
+	        schedulePreciseTick(clock, startTimeInNanos, placeOrders);
+	        return;
+	    }
+	    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+	    executor.setRemoveOnCancelPolicy(true); 
+	    tick = executor.scheduleAtFixedRate(() -> {
+	        if (runTick(clock, startTimeInNanos, placeOrders)) {
+	            tick.cancel(false);
+	            executor.shutdown();
+	        }
+	    }, 0, clock.toNanos(orderPeriodInMilliseconds), TimeUnit.NANOSECONDS);
+	}
+	
+	private void schedulePreciseTick(SimulationClock clock, long startTimeInNanos, BooleanSupplier placeOrders) {
+	    clock.getPrecisionTimer().schedule(clock.toSystemNanoTime(getTickTime(startTimeInNanos, ticks)), () -> {
+	        if (!runTick(clock, startTimeInNanos, placeOrders)) {
+	            schedulePreciseTick(clock, startTimeInNanos, placeOrders);
+	        }
+	    });
 	}
 	
 	@Override
 	public void simulateOrders() {
+	    if (orderStream != null) {
+	        SimulationClock clock = kitchen.getClock();
+	        long startTimeInMillis = clock.now();
+	        log.info("simulateOrders: steady state for {} ms (0 until cancelled)", durationInMillis);
+	        scheduleTicks(() -> placeStreamedOrders(clock, startTimeInMillis));
+	        return;
+	    }
         counter=0;
         log.info("simulateOrders: ordersToPlace size = {}", ordersToPlace.size());
-
-        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
-        executor.setRemoveOnCancelPolicy(true); 
-        tick = executor.scheduleAtFixedRate(new Runnable() {
-            @Override
-            public void run() {
-                log.info(
-                        "new order(s) coming: tick ({} msec), counter = {}, size = {}", orderPeriodInMilliseconds, counter, ordersToPlace.size());
-                synchronized(counter) {
-                    IntStream.range(counter, counter+ordersPerPeriod).parallel().forEach(i -> {
-                        if (i < ordersToPlace.size()) {
-                            KitchenOrder ko = ordersToPlace.get(i);
-                            log.info("Order placed, type: {}, id: {}", ko.getName(), ko.getId());
-                            try {
-                                kitchen.placeOrder(ko);
-                            } catch(KitchenSimulationException e) {
-                                throw new KitchenSimulationRuntimeException(e.getMessage(), e);
-                            }
-                        }
-                    });
-                    counter += ordersPerPeriod;
-                }
-                
-                if (counter == ordersToPlace.size()) {
-                    tick.cancel(false);
-                    executor.shutdown();
-                } 
-            }
-            
-        }, 0, orderPeriodInMilliseconds, TimeUnit.MILLISECONDS);
+        scheduleTicks(this::placeListedOrders);
 	}
 }
@@ -0,0 +1,65 @@
+package challenge.engineering.kitchen.simulation;
+
+/**
+ * 
+ * OrderSlots hands out the positions of a steady state kitchen, which keeps a fixed number of orders in flight.
+ * <p>
+ * A position is held by two references, the order placed at it and the courier dispatched for it, and it is free 
+ * again once the order has been picked up and the courier has picked up an order.  Free positions are kept on a stack, 
+ * so acquiring and releasing a position is O(1) and nothing is allocated after construction.
+ */
+final class OrderSlots {
+    
+    static final int NO_SLOT = -1;
+    
+    private final int[] freeSlots;
+    private final byte[] references;
+    private int numFree;
+    
+    OrderSlots(int capacity) {
+        freeSlots = new int[capacity];
+        references = new byte[capacity];
+        // the lowest positions are handed out first
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = capacity - 1 - i;
+        }
+        numFree = capacity;
+    }
+    
+    /**
+     * Acquire a free position for a new order and its courier
+     * <p>
+     * @return  the position, or NO_SLOT if every position is in flight
+     */
+    int acquire() {
+        if (numFree == 0) {
+            return NO_SLOT;
+        }
+        int slot = freeSlots[--numFree];
+        references[slot] = 2;
+        return slot;
+    }
+    
+    /**
+     * Release one reference to a position, either its order being picked up or its courier picking up an order
+     * <p>
+     * @param slot  the position
+     * @return  true if the position is free again
+     */
+    boolean release(int slot) {
+        if (--references[slot] > 0) {
+            return false;
+        }
+        freeSlots[numFree++] = slot;
+        return true;
+    }
+    
+    /**
+     * Get the number of positions that are in flight
+     * <p>
+     * @return  the number of positions acquired and not yet free again
+     */
+    int getInFlight() {
+        return freeSlots.length - numFree;
+    }
+}
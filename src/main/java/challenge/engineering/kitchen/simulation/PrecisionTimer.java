@@ -0,0 +1,134 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * PrecisionTimer runs tasks at a System.nanoTime deadline on one dedicated thread, to well under a millisecond.
+ * <p>
+ * The thread parks until spinInNanos before the earliest deadline and then busy-spins the rest of the way, since a
+ * parked thread wakes up tens of microseconds late and a ScheduledThreadPoolExecutor often milliseconds late.  Tasks
+ * scheduled from any thread are handed over through a lock-free queue and kept in a min-heap owned by the timer thread,
+ * and a task that is due before the deadline the thread is parked for wakes it up.  Tasks due at the same time run in
+ * the order they were scheduled.
+ */
+final class PrecisionTimer {
+    
+    static Logger log = LoggerFactory.getLogger(PrecisionTimer.class);
+    
+    private static final class Timer {
+    
+        private final long deadlineInNanos;
+        private final long sequence;
+        private final Runnable task;
+    
+        private Timer(long deadlineInNanos, long sequence, Runnable task) {
+            this.deadlineInNanos = deadlineInNanos;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+    
+    private static final Comparator<Timer> BY_DEADLINE = Comparator.<Timer>comparingLong(timer -> timer.deadlineInNanos)
+            .thenComparingLong(timer -> timer.sequence);
+    
+    private final long spinInNanos;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    // only read and written by the timer thread
+    private final PriorityQueue<Timer> pending = new PriorityQueue<>(BY_DEADLINE);
+    private long sequence;
+    // the deadline the timer thread is parked for, or Long.MIN_VALUE while it is awake
+    private volatile long parkedUntil = Long.MIN_VALUE;
+    private volatile boolean running;
+    
+    /**
+     * Constructor for a precision timer
+     * <p>
+     * @param name  the name of the timer thread
+     * @param spinInNanos  how long before a deadline the timer thread stops parking and busy-spins
+     */
+    PrecisionTimer(String name, long spinInNanos) {
+        this.spinInNanos = spinInNanos;
+        thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+    }
+    
+    void start() {
+        running = true;
+        thread.start();
+    }
+    
+    /**
+     * Stop the timer thread once the task it is running returns, dropping the tasks that are not yet due
+     */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+    
+    /**
+     * Run a task at a deadline, from any thread
+     * <p>
+     * @param deadlineInNanos  the System.nanoTime at which the task is due
+     * @param task  the task, which runs on the timer thread
+     */
+    synchronized void schedule(long deadlineInNanos, Runnable task) {
+        scheduled.add(new Timer(deadlineInNanos, sequence++, task));
+        if (deadlineInNanos < parkedUntil) {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    private void run() {
+        while (running) {
+            for (Timer timer = scheduled.poll(); timer != null; timer = scheduled.poll()) {
+                pending.add(timer);
+            }
+            Timer next = pending.peek();
+            if (next == null) {
+                park(Long.MAX_VALUE);
+                continue;
+            }
+            long remaining = next.deadlineInNanos - System.nanoTime();
+            if (remaining > spinInNanos) {
+                park(next.deadlineInNanos);
+                continue;
+            }
+            // spin to the deadline, unless a task that may be due sooner is scheduled meanwhile
+            while (System.nanoTime() < next.deadlineInNanos && scheduled.isEmpty()) {
+                Thread.onSpinWait();
+            }
+            if (System.nanoTime() < next.deadlineInNanos) {
+                continue;
+            }
+            pending.poll();
+            try {
+                next.task.run();
+            } catch(RuntimeException e) {
+                log.error("Timer task failed: " + e.getMessage(), e);
+            }
+        }
+    }
+    
+    /* Park until spinInNanos before a deadline, or until a task due before the deadline is scheduled
+     */
+    private void park(long deadlineInNanos) {
+        parkedUntil = deadlineInNanos;
+        // a task scheduled before parkedUntil was set would not have woken the thread up
+        if (scheduled.isEmpty() && running) {
+            if (deadlineInNanos == Long.MAX_VALUE) {
+                LockSupport.park(this);
+            } else {
+                LockSupport.parkNanos(this, deadlineInNanos - spinInNanos - System.nanoTime());
+            }
+        }
+        parkedUntil = Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,143 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+/**
+ * 
+ * SharedTimelineSimulation plays one trial timeline in real time and broadcasts each event to several kitchens.
+ * <p>
+ * A single timer thread replaces the order tick, courier and food preparation timers of every kitchen.  Events that 
+ * are due together are delivered as a batch: each kitchen consumes the batch in timeline order, and the kitchens 
+ * consume it concurrently, so every strategy sees exactly the same order placements, courier arrivals and food ready times.
+ * <p>
+ * In allocation free mode, one long running task walks the whole timeline instead, parking until each event is due and 
+ * handing each kitchen the order position of the event, so no task, stream or log argument is created per event.
+ */
+public class SharedTimelineSimulation {
+    
+    static Logger log = LoggerFactory.getLogger(SharedTimelineSimulation.class);
+    
+    private final TrialTimeline timeline;
+    private final List<KitchenSimulationImpl> kitchens;
+    private final boolean allocationFree;
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    
+    private long startTimeInMillis;
+    private int next;
+    
+    /**
+     * Constructor for the Shared Timeline Simulation
+     * <p>
+     * @param timeline  the timeline of the trial
+     * @param kitchens  the kitchens consuming the timeline, each built with the orders of the timeline
+     */
+    public SharedTimelineSimulation(TrialTimeline timeline, List<KitchenSimulationImpl> kitchens) {
+        this(timeline, kitchens, false);
+    }
+    
+    /**
+     * Constructor for the Shared Timeline Simulation
+     * <p>
+     * @param timeline  the timeline of the trial
+     * @param kitchens  the kitchens consuming the timeline, each built with the orders of the timeline
+     * @param allocationFree  true to deliver the events by order position from a single task, for kitchens set to allocation free
+     */
+    public SharedTimelineSimulation(TrialTimeline timeline, List<KitchenSimulationImpl> kitchens, boolean allocationFree) {
+        this.timeline = timeline;
+        this.kitchens = List.copyOf(kitchens);
+        this.allocationFree = allocationFree;
+    }
+    
+    /**
+     * Start the kitchens and begin delivering the timeline
+     */
+    public void run() {
+        log.info("shared timeline: {} events for {} kitchens", timeline.size(), kitchens.size());
+        kitchens.forEach(KitchenSimulationImpl::startTrial);
+        next = 0;
+        startTimeInMillis = System.currentTimeMillis();
+        executor.execute(allocationFree ? this::deliverAllEvents : this::deliverDueEvents);
+    }
+    
+    /* Walk the whole timeline, parking until the next event is due and delivering it to every kitchen in turn
+     */
+    private void deliverAllEvents() {
+        try {
+            while (next < timeline.size()) {
+                long delay = timeline.getOffsetInMillis(next) - (System.currentTimeMillis() - startTimeInMillis);
+                if (delay > 0) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delay));
+                    continue;
+                }
+                KitchenOrder.Event event = timeline.getEvent(next);
+                int position = timeline.getPosition(next);
+                for (int i = 0; i < kitchens.size(); i++) {
+                    kitchens.get(i).handleEvent(event, position);
+                }
+                next++;
+            }
+        } catch(KitchenSimulationException e) {
+            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+    
+    /* Deliver every event that is due and schedule the next delivery for the time of the following event
+     */
+    private void deliverDueEvents() {
+        long elapsed = System.currentTimeMillis() - startTimeInMillis;
+        int first = next;
+        while (next < timeline.size() && timeline.getOffsetInMillis(next) <= elapsed) {
+            if (timeline.getEvent(next) == KitchenOrder.Event.NEW_ORDER_ARRIVES) {
+                KitchenOrder ko = timeline.getOrder(next);
+                log.info("courier dispatched, for order type: {}, id: {}, will arrive in {} ms", ko.getName(), ko.getId(), timeline.getCourierDelayInMillis(next));
+            }
+            next++;
+        }
+        int last = next;
+        Stream<KitchenSimulationImpl> stream = (kitchens.size() > 1) ? kitchens.parallelStream() : kitchens.stream();
+        stream.forEach(kitchen -> deliver(kitchen, first, last));
+        
+        if (next < timeline.size()) {
+            long delay = timeline.getOffsetInMillis(next) - (System.currentTimeMillis() - startTimeInMillis);
+            executor.schedule(this::deliverDueEvents, Math.max(delay, 0), TimeUnit.MILLISECONDS);
+        } else {
+            executor.shutdown();
+        }
+    }
+    
+    private void deliver(KitchenSimulationImpl kitchen, int first, int last) {
+        try {
+            for (int i = first; i < last; i++) {
+                KitchenOrder ko = timeline.getOrder(i);
+                switch(timeline.getEvent(i)) {
+                    case NEW_ORDER_ARRIVES:
+                        kitchen.receiveOrder(ko);
+                        break;
+                    case COURIER_ARRIVES:
+                        kitchen.courierArrives(ko);
+                        break;
+                    case FOOD_IS_READY:
+                        kitchen.foodIsReady(ko);
+                        break;
+                    default:
+                        throw new KitchenSimulationException("Unexpected event in timeline: " + timeline.getEvent(i));
+                }
+            }
+        } catch(KitchenSimulationException e) {
+            throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+        }
+    }
+}
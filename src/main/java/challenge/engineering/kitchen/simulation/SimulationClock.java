@@ -0,0 +1,206 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * SimulationClock keeps the time of a kitchen in simulated milliseconds, which run timeScale times faster than the
+ * wall clock.
+ * <p>
+ * Every delay of the simulation (order periods, prep times and courier delays) is in simulated milliseconds and is
+ * converted to wall clock nanoseconds only when it is handed to a timer, and every time stamp of an order is read
+ * from the clock, so the wait times come out in simulated milliseconds whatever the time scale.  At a time scale of 1
+ * without a precision timer, the time stamps are the wall clock.
+ * <p>
+ * With a precision timer, the timers of the kitchen run on its dedicated thread instead of a ScheduledThreadPoolExecutor,
+ * and the time stamps are taken with System.nanoTime against the epoch of the trial, so they are monotonic and the 
+ * orders keep them to the microsecond rather than truncating them to whole milliseconds.  Without 
+ * one, the timers that follow from an event one order at a time share a single follow-up executor created on first use.
+ * <p>
+ * The timers of the simulation record how late they fire.  An executor that fires a timer one millisecond late adds
+ * timeScale simulated milliseconds to a wait time, so this scheduler error grows with the time scale and bounds how far
+ * a simulation can be compressed before its results drift.
+ */
+public final class SimulationClock {
+    
+    public static final double REAL_TIME = 1.0;
+    
+    private final double timeScale;
+    private final PrecisionTimer precisionTimer;
+    private ScheduledThreadPoolExecutor followUpExecutor;
+    private boolean stopped;
+    private long originInMillis;
+    private long originInNanos;
+    private final LongAdder timersFired = new LongAdder();
+    private final LongAdder totalTimerErrorInNanos = new LongAdder();
+    private final LongAccumulator maxTimerErrorInNanos = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Constructor for a clock running at wall clock speed
+     */
+    public SimulationClock() {
+        this(REAL_TIME, null);
+    }
+    
+    /**
+     * Constructor for a clock running timeScale times faster than the wall clock
+     * <p>
+     * @param timeScale  the number of simulated milliseconds per wall clock millisecond
+     * @param precisionTimer  the timer that runs the timers of the kitchen, or null to use executors
+     */
+    SimulationClock(double timeScale, PrecisionTimer precisionTimer) {
+        this.timeScale = timeScale;
+        this.precisionTimer = precisionTimer;
+        originInMillis = System.currentTimeMillis();
+        originInNanos = System.nanoTime();
+    }
+    
+    /**
+     * Start the epoch of the trial, and the precision timer if there is one, before any timer is scheduled
+     */
+    void start() {
+        originInMillis = System.currentTimeMillis();
+        originInNanos = System.nanoTime();
+        if (precisionTimer != null) {
+            precisionTimer.start();
+        }
+    }
+    
+    /**
+     * Stop the precision timer, if there is one, once no more timers are needed
+     */
+    synchronized void stop() {
+        stopped = true;
+        if (precisionTimer != null) {
+            precisionTimer.stop();
+        }
+        if (followUpExecutor != null) {
+            // timers already scheduled still fire, since the couriers of cancelled orders may arrive after the trial
+            followUpExecutor.shutdown();
+        }
+    }
+    
+    /**
+     * Get the executor shared by the timers that follow from an event one order at a time
+     * <p>
+     * @return  the follow-up executor of the clock, which runs on a single daemon thread and rejects new timers once the 
+     * clock is stopped
+     */
+    synchronized ScheduledThreadPoolExecutor getFollowUpExecutor() {
+        if (followUpExecutor == null) {
+            followUpExecutor = new ScheduledThreadPoolExecutor(1, task -> {
+                Thread thread = new Thread(task, "kitchen-follow-up-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            if (stopped) {
+                followUpExecutor.shutdown();
+            }
+        }
+        return followUpExecutor;
+    }
+    
+    public double getTimeScale() {
+        return timeScale;
+    }
+    
+    public boolean isPrecise() {
+        return precisionTimer != null;
+    }
+    
+    PrecisionTimer getPrecisionTimer() {
+        return precisionTimer;
+    }
+    
+    /**
+     * Get the current time
+     * <p>
+     * @return  the time in simulated milliseconds, which is the wall clock time at a time scale of 1 without a precision timer
+     */
+    public long now() {
+        if (timeScale == REAL_TIME && precisionTimer == null) {
+            return System.currentTimeMillis();
+        }
+        return originInMillis + nanoTime() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    /**
+     * Get the current time to the microsecond, used to time stamp the orders
+     * <p>
+     * @return  the time in simulated microseconds, which is the wall clock time in whole milliseconds at a time scale of 1 
+     * without a precision timer
+     */
+    public long nowInMicros() {
+        if (timeScale == REAL_TIME && precisionTimer == null) {
+            return TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        }
+        return TimeUnit.MILLISECONDS.toMicros(originInMillis) + TimeUnit.NANOSECONDS.toMicros(nanoTime());
+    }
+    
+    /**
+     * Get the time elapsed since the epoch of the trial
+     * <p>
+     * @return  the monotonic time since the epoch in simulated nanoseconds
+     */
+    public long nanoTime() {
+        return (long) ((System.nanoTime() - originInNanos) * timeScale);
+    }
+    
+    /**
+     * Convert a time since the epoch of the trial to the System.nanoTime at which it is due
+     * <p>
+     * @param nanoTime  the time since the epoch in simulated nanoseconds
+     * @return  the System.nanoTime of that time
+     */
+    long toSystemNanoTime(long nanoTime) {
+        // rounded up so that the clock has reached nanoTime once System.nanoTime reaches the result
+        return originInNanos + (long) Math.ceil(nanoTime / timeScale);
+    }
+    
+    /**
+     * Convert a delay in simulated milliseconds to the wall clock delay handed to an executor
+     * <p>
+     * @param delayInMillis  the delay in simulated milliseconds
+     * @return  the delay in wall clock nanoseconds
+     */
+    public long toNanos(long delayInMillis) {
+        return (long) (TimeUnit.MILLISECONDS.toNanos(delayInMillis) / timeScale);
+    }
+    
+    /**
+     * Record how late a timer fired
+     * <p>
+     * @param errorInNanos  the time the timer fired minus the time it was due, in simulated nanoseconds
+     */
+    public void recordTimerError(long errorInNanos) {
+        timersFired.increment();
+        totalTimerErrorInNanos.add(errorInNanos);
+        maxTimerErrorInNanos.accumulate(errorInNanos);
+    }
+    
+    public long getTimersFired() {
+        return timersFired.sum();
+    }
+    
+    /**
+     * Get the average lateness of the timers fired so far
+     * <p>
+     * @return  the average scheduler error in simulated milliseconds, or 0 if no timer has fired
+     */
+    public double getAverageTimerErrorInMillis() {
+        long fired = timersFired.sum();
+        return (fired == 0) ? 0 : (double) totalTimerErrorInNanos.sum() / fired / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    /**
+     * Get the largest lateness of the timers fired so far
+     * <p>
+     * @return  the largest scheduler error in simulated milliseconds
+     */
+    public double getMaxTimerErrorInMillis() {
+        return (double) maxTimerErrorInNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
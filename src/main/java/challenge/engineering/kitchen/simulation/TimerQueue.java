@@ -0,0 +1,119 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Arrays;
+
+/**
+ * 
+ * TimerQueue is a binary min-heap of timers, each a due time and a message packed into a long.
+ * <p>
+ * The due times and messages are kept in two parallel arrays that grow as needed, so adding and removing a timer
+ * costs O(log n) and does not allocate once the queue has grown to the number of timers pending at once.  Timers that
+ * are due at the same time are ordered by message.
+ */
+final class TimerQueue {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private long[] dueTimes;
+    private long[] messages;
+    private int size;
+    
+    TimerQueue() {
+        this(INITIAL_CAPACITY);
+    }
+    
+    /**
+     * Constructor for a timer queue sized for the number of timers expected to be pending at once
+     * <p>
+     * @param capacity  the initial number of timers the queue holds without growing
+     */
+    TimerQueue(int capacity) {
+        dueTimes = new long[Math.max(capacity, 1)];
+        messages = new long[dueTimes.length];
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Remove every timer, keeping the capacity of the queue
+     */
+    void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Add a timer
+     * <p>
+     * @param dueTime  the time the timer is due
+     * @param message  the message of the timer
+     */
+    void add(long dueTime, long message) {
+        if (size == dueTimes.length) {
+            dueTimes = Arrays.copyOf(dueTimes, size * 2);
+            messages = Arrays.copyOf(messages, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isBefore(dueTime, message, parent)) {
+                break;
+            }
+            dueTimes[i] = dueTimes[parent];
+            messages[i] = messages[parent];
+            i = parent;
+        }
+        dueTimes[i] = dueTime;
+        messages[i] = message;
+    }
+    
+    /**
+     * Get the due time of the earliest timer
+     * <p>
+     * @return  the earliest due time, only valid if the queue is not empty
+     */
+    long peekDueTime() {
+        return dueTimes[0];
+    }
+    
+    /**
+     * Remove the earliest timer
+     * <p>
+     * @return  the message of the earliest timer, only valid if the queue is not empty
+     */
+    long poll() {
+        long first = messages[0];
+        long dueTime = dueTimes[--size];
+        long message = messages[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && isBefore(dueTimes[child + 1], messages[child + 1], child)) {
+                child++;
+            }
+            if (!isBefore(dueTimes[child], messages[child], dueTime, message)) {
+                break;
+            }
+            dueTimes[i] = dueTimes[child];
+            messages[i] = messages[child];
+            i = child;
+        }
+        dueTimes[i] = dueTime;
+        messages[i] = message;
+        return first;
+    }
+    
+    private boolean isBefore(long dueTime, long message, int index) {
+        return isBefore(dueTime, message, dueTimes[index], messages[index]);
+    }
+    
+    private static boolean isBefore(long dueTime, long message, long otherDueTime, long otherMessage) {
+        return dueTime < otherDueTime || (dueTime == otherDueTime && message < otherMessage);
+    }
+}
@@ -0,0 +1,118 @@
+package challenge.engineering.kitchen.simulation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.collections4.ListUtils;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.Strategy;
+
+/**
+ * 
+ * TrialTimeline is the event timeline of a trial generated once and shared by every strategy evaluated against it.
+ * <p>
+ * The order placements, courier arrivals and food ready times only depend on the orders of the trial, the courier 
+ * delays and the order period parameters of the strategy, so strategies that share those parameters (see getKey) 
+ * can consume one timeline rather than each scheduling their own timers.
+ * <p>
+ * Each event is packed into a long and the events are kept sorted in a single array:
+ * <p><ul>
+ * <li>offset: the time of the event in milliseconds from the start of the trial (upper bits)
+ * <li>event: the ordinal of NEW_ORDER_ARRIVES, COURIER_ARRIVES or FOOD_IS_READY (2 bits)
+ * <li>position: the position of the order in the trial (lower 24 bits)
+ *</ul>
+ */
+public class TrialTimeline {
+    
+    private static final int POSITION_BITS = 24;
+    private static final int EVENT_BITS = 2;
+    private static final int MAX_ORDERS = 1 << POSITION_BITS;
+    private static final KitchenOrder.Event[] EVENTS = KitchenOrder.Event.values();
+    
+    private final List<KitchenOrder> orders;
+    private final long[] events;
+    private final int[] courierDelays;
+    
+    private TrialTimeline(List<KitchenOrder> orders, long[] events, int[] courierDelays) {
+        this.orders = orders;
+        this.events = events;
+        this.courierDelays = courierDelays;
+    }
+    
+    /**
+     * Build the timeline of a trial for the order period and courier delay parameters of a strategy
+     * <p>
+     * @param orders  the orders of the trial in the order they are placed
+     * @param strategy  the strategy supplying orderPeriodInMilliseconds, ordersPerPeriod and the courier delay range
+     * @param courierDelayDraws  a uniform draw in [0, 1) per order setting its courier delay, or null for independent courier delays
+     * @return  the timeline of the trial
+     * @throws KitchenSimulationException  if the trial has more orders than a timeline can hold
+     */
+    public static TrialTimeline build(List<KitchenOrder> orders, Strategy strategy, double[] courierDelayDraws) throws KitchenSimulationException {
+        if (orders.size() > MAX_ORDERS) {
+            throw new KitchenSimulationException("A shared timeline supports at most " + MAX_ORDERS + " orders per trial, found: " + orders.size());
+        }
+        int minDelay = strategy.getCourierMinDelayInMilliseconds();
+        int maxDelay = strategy.getCourierMaxDelayInMilliseconds();
+        long[] events = new long[orders.size() * 3];
+        int[] courierDelays = new int[orders.size()];
+        int e = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            long placedAt = (long) (i / strategy.getOrdersPerPeriod()) * strategy.getOrderPeriodInMilliseconds();
+            courierDelays[i] = (courierDelayDraws == null) 
+                    ? ThreadLocalRandom.current().nextInt(minDelay, maxDelay) 
+                    : CourierSimulationImpl.getDelay(minDelay, maxDelay, courierDelayDraws[i]);
+            events[e++] = pack(placedAt, KitchenOrder.Event.NEW_ORDER_ARRIVES, i);
+            events[e++] = pack(placedAt + courierDelays[i], KitchenOrder.Event.COURIER_ARRIVES, i);
+            events[e++] = pack(placedAt + orders.get(i).getPrepTime() * 1000L, KitchenOrder.Event.FOOD_IS_READY, i);
+        }
+        Arrays.sort(events);
+        return new TrialTimeline(ListUtils.unmodifiableList(orders), events, courierDelays);
+    }
+    
+    /**
+     * The key identifying strategies that can share a timeline
+     * <p>
+     * @param strategy  the strategy
+     * @return  a key that is equal for strategies with the same order period and courier delay parameters
+     */
+    public static String getKey(Strategy strategy) {
+        return strategy.getOrderPeriodInMilliseconds() + "/" + strategy.getOrdersPerPeriod() + "/" 
+                + strategy.getCourierMinDelayInMilliseconds() + "/" + strategy.getCourierMaxDelayInMilliseconds();
+    }
+    
+    private static long pack(long offsetInMillis, KitchenOrder.Event event, int position) {
+        return (offsetInMillis << (EVENT_BITS + POSITION_BITS)) | ((long) event.ordinal() << POSITION_BITS) | position;
+    }
+    
+    public List<KitchenOrder> getOrders() {
+        return orders;
+    }
+    
+    public int size() {
+        return events.length;
+    }
+    
+    public long getOffsetInMillis(int index) {
+        return events[index] >>> (EVENT_BITS + POSITION_BITS);
+    }
+    
+    public KitchenOrder.Event getEvent(int index) {
+        return EVENTS[(int) (events[index] >>> POSITION_BITS) & ((1 << EVENT_BITS) - 1)];
+    }
+    
+    public KitchenOrder getOrder(int index) {
+        return orders.get(getPosition(index));
+    }
+    
+    public int getPosition(int index) {
+        return (int) events[index] & (MAX_ORDERS - 1);
+    }
+    
+    public int getCourierDelayInMillis(int index) {
+        return courierDelays[getPosition(index)];
+    }
+}
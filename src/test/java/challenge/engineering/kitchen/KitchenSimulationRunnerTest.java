@@ -1,9 +1,26 @@
 package challenge.engineering.kitchen;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.OrderExportReader;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.runner.TrialCheckpoint;
+import challenge.engineering.kitchen.runner.TrialPlanner;
 
 class KitchenSimulationRunnerTest {
 
@@ -12,6 +29,183 @@ class KitchenSimulationRunnerTest {
         KitchenSimulationRunner.main(new String[] {"src/test/resources/test_kitchen_simulation_config.json"});
     }
     
+    @Test
+    void validateRun() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_kitchen_simulation_config.json");
+        // 1 trial of 3 orders for each strategy
+        assertEquals(3, stats.getNumOrdersCompleted("matched"));
+        assertEquals(3, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateSweep() throws KitchenSimulationException, IOException {
+        Path resultsFile = Paths.get("target/test_sweep_results.csv");
+        Files.deleteIfExists(resultsFile);
+        KitchenSimulationRunner.main(new String[] {"src/test/resources/test_sweep_config.json"});
+        // a header and one row for each of the 2 x 2 points of the sweep
+        assertEquals(5, Files.readAllLines(resultsFile).size());
+    }
+    
+    @Test
+    void validateCommonRandomNumbers() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_common_random_numbers_config.json");
+        // 2 paired trials of 2 orders for each strategy
+        assertEquals(4, stats.getNumOrdersCompleted("matched"));
+        assertEquals(4, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateSharedTimeline() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_shared_timeline_config.json");
+        // both strategies ran the 2 orders of the one timeline
+        assertEquals(2, stats.getNumOrdersCompleted("matched"));
+        assertEquals(2, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateAllocationFree() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_allocation_free_config.json");
+        assertEquals(2, stats.getNumOrdersCompleted("matched"));
+        assertEquals(2, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateEventLoop() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_event_loop_config.json");
+        // every order went through the event loop and was picked up
+        assertEquals(2, stats.getNumOrdersCompleted("matched"));
+        assertEquals(2, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateMatchingPolicies() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_matching_policy_config.json");
+        assertEquals(3, stats.getNumOrdersCompleted("oldest-ready-food-first"));
+        assertEquals(3, stats.getNumOrdersCompleted("longest-waiting-courier"));
+    }
+    
+    @Test
+    void validateCapacitySearch() throws KitchenSimulationException, IOException {
+        Path resultsFile = Paths.get("target/test_capacity_results.csv");
+        Files.deleteIfExists(resultsFile);
+        KitchenSimulationRunner.main(new String[] {"src/test/resources/test_capacity_search_config.json"});
+        // the header and a row for each step, every step of the search completing its 3 orders
+        List<String> rows = Files.readAllLines(resultsFile);
+        assertTrue(rows.size() >= 2);
+        rows.subList(1, rows.size()).forEach(row -> assertEquals("3", row.split(",")[4]));
+    }
+    
+    @Test
+    void validateCity() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_city_config.json");
+        // 20 kitchens of 3 orders for each strategy
+        assertEquals(60, stats.getNumOrdersCompleted("matched"));
+        assertEquals(60, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateSteadyState() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_steady_state_config.json");
+        // orders keep being generated and picked up until the duration is over
+        assertTrue(stats.getNumOrdersCompleted("matched") > 0);
+        assertTrue(stats.getNumOrdersCompleted("first-in-first-out") > 0);
+    }
+    
+    @Test
+    void validateCourierFleet() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_courier_fleet_config.json");
+        // a fleet smaller than the orders still delivers every order of the 2 trials
+        assertEquals(6, stats.getNumOrdersCompleted("fleet-of-one"));
+        assertEquals(6, stats.getNumOrdersCompleted("fleet-of-two"));
+    }
+    
+    @Test
+    void validateCookStations() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_cook_stations_config.json");
+        // a single station cooks every order in turn
+        assertEquals(3, stats.getNumOrdersCompleted("one-cook-station"));
+        assertTrue(stats.getNumOrdersCompleted("two-cook-stations-with-cancellations") <= 3);
+    }
+    
+    @Test
+    void validateOrderCancellation() throws KitchenSimulationException {
+        String configFilename = "src/test/resources/test_order_cancellation_config.json";
+        StatManager stats = KitchenSimulationRunner.run(configFilename);
+        
+        // the seeded plans of the 2 trials decide which of their 6 orders are cancelled, the same for every strategy
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(configFilename);
+        TrialPlanner planner = TrialPlanner.fromConfig(config, KitchenOrder.load(config.getOrderJsonFile()), config.getOrdersPerTrial());
+        long cancelled = 0;
+        for (int trialNumber = 1; trialNumber <= config.getNumTrials(); trialNumber++) {
+            cancelled += Arrays.stream(planner.plan(trialNumber).getCancellationDraws()).filter(draw -> draw < 0.3).count();
+        }
+        assertTrue(cancelled > 0);
+        
+        // a matched order is cancelled before its own courier arrives and no-shows are replaced, so exactly the other 
+        // orders are picked up, while under oldest ready food another courier may pick up an order before it is cancelled
+        assertEquals(6 - cancelled, stats.getNumOrdersCompleted("matched-with-churn"));
+        long oldestReadyFoodCompleted = stats.getNumOrdersCompleted("oldest-ready-food-with-churn");
+        assertTrue(oldestReadyFoodCompleted >= 6 - cancelled && oldestReadyFoodCompleted <= 6);
+    }
+    
+    @Test
+    void validateMaxConcurrentTrials() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_max_concurrent_trials_config.json");
+        // 3 trials of 3 orders for each strategy, 2 at a time
+        assertEquals(9, stats.getNumOrdersCompleted("matched"));
+        assertEquals(9, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateTimeScale() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_time_scale_config.json");
+        assertEquals(6, stats.getNumOrdersCompleted("matched"));
+        assertEquals(6, stats.getNumOrdersCompleted("first-in-first-out"));
+        // couriers arrive 2 to 6 simulated seconds after the 1 second prep time, and the time scale does not shrink that
+        assertTrue(stats.getAverageFoodWaitTime("matched") >= 900);
+    }
+    
+    @Test
+    void validatePrecisionTimer() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_precision_timer_config.json");
+        assertEquals(6, stats.getNumOrdersCompleted("matched"));
+        assertEquals(6, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateDistributed() throws KitchenSimulationException {
+        StatManager stats = KitchenSimulationRunner.run("src/test/resources/test_distributed_config.json");
+        // the results of the 2 trials of 2 orders come back from the workers
+        assertEquals(4, stats.getNumOrdersCompleted("matched"));
+        assertEquals(4, stats.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateCheckpoint() throws KitchenSimulationException, IOException {
+        Path checkpointFile = Paths.get("target/test_checkpoint.json");
+        Files.deleteIfExists(checkpointFile);
+        KitchenSimulationRunner.main(new String[] {"src/test/resources/test_checkpoint_config.json"});
+        assertTrue(Files.exists(checkpointFile));
+        
+        // every trial is in the checkpoint, so the second run only reports the saved results and runs no trial again
+        KitchenSimulationRunner.main(new String[] {"src/test/resources/test_checkpoint_config.json"});
+        TrialCheckpoint checkpoint = TrialCheckpoint.open(KitchenSimulationConfig.load("src/test/resources/test_checkpoint_config.json").getCheckpoint(), 
+                "src/test/resources/test_checkpoint_config.json", false);
+        assertEquals(4, checkpoint.getNumCompleted());
+        StatManager restored = new StatManagerImpl(false);
+        checkpoint.restoreInto(restored);
+        // 2 trials of 2 orders for each strategy, counted once
+        assertEquals(4, restored.getNumOrdersCompleted("matched"));
+        assertEquals(4, restored.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void validateOrderExport() throws KitchenSimulationException {
+        KitchenSimulationRunner.main(new String[] {"src/test/resources/test_order_export_config.json"});
+        // 2 strategies, 2 trials, 2 orders per trial
+        assertEquals(8, OrderExportReader.read(Paths.get("target/test_runner_order_outcomes.kcol"), outcome -> {}));
+    }
+    
     @Test
     void mainWithMissingConfigFile() throws KitchenSimulationException {
         Assertions.assertThrows(KitchenSimulationException.class, () -> {
@@ -47,6 +241,13 @@ class KitchenSimulationRunnerTest {
           });
     }
     
+    @Test
+    void sharedTimelineWithSweep() throws KitchenSimulationException {
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            KitchenSimulationRunner.main(new String[] { "src/test/resources/test_sweep_shared_timeline_config.json" });
+          });
+    }
+    
     @Test
     void orderListThatRepeatsIds() throws KitchenSimulationException {
         Assertions.assertThrows(KitchenSimulationException.class, () -> {
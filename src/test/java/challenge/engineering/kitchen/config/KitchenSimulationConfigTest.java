@@ -48,6 +48,22 @@ class KitchenSimulationConfigTest {
         assertEquals(KitchenSimulationConfig.MAX_NUM_TRIALS, config.getNumTrials());
     }
     
+    @Test
+    void validateModesTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = new KitchenSimulationConfig();
+        Assertions.assertThrows(KitchenSimulationException.class, config::validate);
+        Strategy strategy = new Strategy();
+        config.setStrategies(Arrays.asList(strategy));
+        Assertions.assertThrows(KitchenSimulationException.class, config::validate);
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        config.validate();
+        config.setSweep(new SweepConfig());
+        config.validate();
+        config.setAdaptiveTrials(new AdaptiveTrialsConfig());
+        Assertions.assertThrows(KitchenSimulationException.class, config::validate);
+    }
+    
     @Test
     void setNumTrialsOutOfRange() throws KitchenSimulationException {
         KitchenSimulationConfig config = new KitchenSimulationConfig();
@@ -56,6 +72,30 @@ class KitchenSimulationConfigTest {
           });
     }
     
+    @Test
+    void setMaxConcurrentTrialsOutOfRange() throws KitchenSimulationException {
+        KitchenSimulationConfig config = new KitchenSimulationConfig();
+        assertEquals(KitchenSimulationConfig.UNBOUNDED_CONCURRENT_TRIALS, config.getMaxConcurrentTrials());
+        config.setMaxConcurrentTrials(4);
+        assertEquals(4, config.getMaxConcurrentTrials());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            config.setMaxConcurrentTrials(-1);
+          });
+    }
+    
+    @Test
+    void setTimeScaleOutOfRange() throws KitchenSimulationException {
+        KitchenSimulationConfig config = new KitchenSimulationConfig();
+        assertEquals(KitchenSimulationConfig.DEFAULT_TIME_SCALE, config.getTimeScale());
+        config.setTimeScale(KitchenSimulationConfig.MAX_TIME_SCALE);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            config.setTimeScale(0.5);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            config.setTimeScale(KitchenSimulationConfig.MAX_TIME_SCALE + 1);
+          });
+    }
+    
     @Test
     void setOrdersPerTrialOutOfRange() throws KitchenSimulationException {
         KitchenSimulationConfig config = new KitchenSimulationConfig();
@@ -63,4 +103,63 @@ class KitchenSimulationConfigTest {
             config.setOrdersPerTrial(-1);
           });
     }
+    
+    @Test
+    void setEventLoopBufferSizeNotPowerOfTwo() throws KitchenSimulationException {
+        EventLoopConfig eventLoop = new EventLoopConfig();
+        eventLoop.setBufferSize(1024);
+        assertEquals(1024, eventLoop.getBufferSize());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            eventLoop.setBufferSize(1000);
+          });
+    }
+    
+    @Test
+    void setPrecisionTimerSpinOutOfRange() throws KitchenSimulationException {
+        PrecisionTimerConfig precisionTimer = new PrecisionTimerConfig();
+        precisionTimer.setSpinInMicroseconds(PrecisionTimerConfig.MIN_SPIN_IN_MICROSECONDS);
+        assertEquals(PrecisionTimerConfig.MIN_SPIN_IN_MICROSECONDS, precisionTimer.getSpinInMicroseconds());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            precisionTimer.setSpinInMicroseconds(PrecisionTimerConfig.MAX_SPIN_IN_MICROSECONDS + 1);
+          });
+    }
+    
+    @Test
+    void setCapacitySearchOutOfRange() throws KitchenSimulationException {
+        CapacitySearchConfig capacitySearch = new CapacitySearchConfig();
+        capacitySearch.setSearch(CapacitySearchConfig.RAMP);
+        assertEquals(CapacitySearchConfig.RAMP, capacitySearch.getSearch());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            capacitySearch.setSearch("linear");
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            capacitySearch.setPercentile(0);
+          });
+    }
+    
+    @Test
+    void setCityOutOfRange() throws KitchenSimulationException {
+        CityConfig city = new CityConfig();
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            city.setNumKitchens(CityConfig.MAX_NUM_KITCHENS + 1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            city.setPartitions(0);
+          });
+    }
+    
+    @Test
+    void setSteadyStateOutOfRange() throws KitchenSimulationException {
+        SteadyStateConfig steadyState = new SteadyStateConfig();
+        assertTrue(steadyState.runsUntilStopped());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            steadyState.setDurationInMilliseconds(-1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            steadyState.setMaxOrdersInFlight(0);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            steadyState.setReportIntervalInMilliseconds(SteadyStateConfig.MIN_REPORT_INTERVAL_IN_MILLIS - 1);
+          });
+    }
 }
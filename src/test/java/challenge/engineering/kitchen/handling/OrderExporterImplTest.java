@@ -0,0 +1,125 @@
+package challenge.engineering.kitchen.handling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class OrderExporterImplTest {
+    
+    private static final Path TEST_EXPORT_FILE = Paths.get("target/test_order_outcomes.kcol");
+    private static final int TEST_ROWS = 100000;
+    private static final double MAX_BYTES_PER_ROW = 10;
+    
+    // helper method: a completed order status with the given times
+    private OrderStatus getStatus(long foodReadyTime, long courierArrivalTime, long pickupTime) {
+        return new OrderStatus() {
+            @Override
+            public long getFoodReadyTimeInMillis() {
+                return foodReadyTime;
+            }
+            @Override
+            public long getCourierArrivalTimeInMillis() {
+                return courierArrivalTime;
+            }
+            @Override
+            public long getPickupTimeInMillis() {
+                return pickupTime;
+            }
+            @Override
+            public void handleEvent(KitchenOrder.Event event) {
+            }
+            @Override
+            public boolean isOrderComplete() {
+                return true;
+            }
+            @Override
+            public boolean isOrderCancelled() {
+                return false;
+            }
+            @Override
+            public int getCourierNoShows() {
+                return 0;
+            }
+            @Override
+            public boolean isWaitingOnCourier() {
+                return false;
+            }
+            @Override
+            public boolean isWaitingOnFood() {
+                return false;
+            }
+            @Override
+            public void assignToWaitingCourier(OrderStatus other) {
+            }
+            @Override
+            public void assignToCourier(long courierArrivalTimeInMillis) {
+            }
+        };
+    }
+
+    @Test
+    void exportAndReadTest() throws KitchenSimulationException, IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        List<OrderOutcome> exported = new ArrayList<>();
+        long time = 1600000000000L;
+        try (OrderExporterImpl exporter = new OrderExporterImpl(TEST_EXPORT_FILE, 4096)) {
+            for (int i = 0; i < TEST_ROWS; i++) {
+                time += random.nextInt(0, 50);
+                long foodReadyTime = time - random.nextInt(0, 3000);
+                long courierArrivalTime = time - random.nextInt(0, 3000);
+                String strategyName = (i % 2 == 0) ? "matched" : "first-in-first-out";
+                int trialNumber = 1 + i / 1000;
+                String orderId = "order-" + random.nextInt(0, 132);
+                String orderName = "dish-" + orderId.hashCode() % 40;
+                int prepTime = random.nextInt(1, 20);
+                exporter.export(strategyName, trialNumber, orderId, orderName, prepTime, getStatus(foodReadyTime, courierArrivalTime, time));
+                exported.add(new OrderOutcome(strategyName, trialNumber, orderId, orderName, prepTime, foodReadyTime, courierArrivalTime, time));
+            }
+            assertEquals(TEST_ROWS, exporter.getRowsExported());
+        }
+        
+        List<OrderOutcome> read = new ArrayList<>();
+        assertEquals(TEST_ROWS, OrderExportReader.read(TEST_EXPORT_FILE, read::add));
+        for (int i = 0; i < TEST_ROWS; i++) {
+            assertEquals(exported.get(i).toString(), read.get(i).toString());
+        }
+        double bytesPerRow = (double) Files.size(TEST_EXPORT_FILE) / TEST_ROWS;
+        assertTrue(bytesPerRow <= MAX_BYTES_PER_ROW, "bytes per row: " + bytesPerRow);
+    }
+    
+    @Test
+    void uniqueIdsTest() throws KitchenSimulationException {
+        // the sequenced ids of a steady state kitchen are all unique, the dictionary only holds those of one block
+        int rowsPerBlock = 1000;
+        try (OrderExporterImpl exporter = new OrderExporterImpl(TEST_EXPORT_FILE, rowsPerBlock)) {
+            for (int i = 0; i < TEST_ROWS; i++) {
+                exporter.export("matched", 1, "order-" + i, "dish", 5, getStatus(i, i, i + 10));
+                assertTrue(exporter.getDictionarySize() <= rowsPerBlock + 2);
+            }
+        }
+        List<OrderOutcome> read = new ArrayList<>();
+        assertEquals(TEST_ROWS, OrderExportReader.read(TEST_EXPORT_FILE, read::add));
+        assertEquals("order-0", read.get(0).getOrderId());
+        assertEquals("order-" + (TEST_ROWS - 1), read.get(TEST_ROWS - 1).getOrderId());
+    }
+    
+    @Test
+    void notAnExportFileTest() {
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            OrderExportReader.read(Paths.get("src/test/resources/test_fast_orders.json"), outcome -> {});
+          });
+    }
+}
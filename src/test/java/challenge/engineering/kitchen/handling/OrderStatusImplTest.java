@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import challenge.engineering.kitchen.model.KitchenOrder;
 
@@ -145,6 +146,21 @@ class OrderStatusImplTest {
         assertEquals(0, getFoodWaitTime(foodReadyFirst));
     }
     
+    @Test
+    void assignToCourierTest() throws KitchenSimulationException {
+        long courierArrivalTime = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()) + 500;
+        OrderStatus foodReadyFirst = getFoodReadyFirst();
+        delay(DELAY_DURATION);
+        foodReadyFirst.assignToCourier(courierArrivalTime);
+        assertTrue(foodReadyFirst.isOrderComplete());
+        assertEquals(courierArrivalTime, foodReadyFirst.getCourierArrivalTimeInMicros());
+        assertEquals(TimeUnit.MICROSECONDS.toMillis(courierArrivalTime), foodReadyFirst.getCourierArrivalTimeInMillis());
+        assertTrue(getCourierWaitTime(foodReadyFirst) >= DELAY_DURATION);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            getCourierArrivesFirst().assignToCourier(courierArrivalTime);
+          });
+    }
+    
     @Test
     void isStringTest() throws KitchenSimulationException {
         OrderStatus courierArrivesFirst = getCourierArrivesFirst();
@@ -194,6 +210,40 @@ class OrderStatusImplTest {
         }
     }
     
+    @Test
+    void orderCancelledTest() throws KitchenSimulationException {
+        OrderStatus orderCancelled = getFoodReadyFirst();
+        orderCancelled.handleEvent(KitchenOrder.Event.CANCELLED);
+        assertTrue(orderCancelled.isOrderCancelled());
+        assertFalse(orderCancelled.isOrderComplete());
+        assertFalse(orderCancelled.isWaitingOnCourier());
+        assertFalse(orderCancelled.isWaitingOnFood());
+        for (KitchenOrder.Event event : Arrays.<KitchenOrder.Event>asList(KitchenOrder.Event.FOOD_IS_READY, KitchenOrder.Event.COURIER_ARRIVES, 
+                KitchenOrder.Event.CANCELLED, KitchenOrder.Event.COURIER_NO_SHOW)) {
+            Assertions.assertThrows(KitchenSimulationException.class, () -> {
+                orderCancelled.handleEvent(event);
+              });
+        }
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            new OrderStatusImpl().handleEvent(KitchenOrder.Event.CANCELLED);
+          });
+    }
+    
+    @Test
+    void courierNoShowTest() throws KitchenSimulationException {
+        OrderStatus orderReceived = getOrderReceived();
+        orderReceived.handleEvent(KitchenOrder.Event.COURIER_NO_SHOW);
+        orderReceived.handleEvent(KitchenOrder.Event.FOOD_IS_READY);
+        orderReceived.handleEvent(KitchenOrder.Event.COURIER_NO_SHOW);
+        assertEquals(2, orderReceived.getCourierNoShows());
+        assertTrue(orderReceived.isWaitingOnCourier());
+        orderReceived.handleEvent(KitchenOrder.Event.COURIER_ARRIVES);
+        assertTrue(orderReceived.isOrderComplete());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            getCourierArrivesFirst().handleEvent(KitchenOrder.Event.COURIER_NO_SHOW);
+          });
+    }
+    
     @Test
     void handleEventBadEventTest() throws KitchenSimulationException {
         OrderStatus orderStatus = new OrderStatusImpl();
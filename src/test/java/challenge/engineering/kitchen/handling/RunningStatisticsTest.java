@@ -0,0 +1,54 @@
+package challenge.engineering.kitchen.handling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RunningStatisticsTest {
+    
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void emptyTest() {
+        RunningStatistics stats = new RunningStatistics();
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getSampleVariance());
+        assertTrue(Double.isInfinite(stats.getConfidenceIntervalHalfWidth(0.95)));
+    }
+    
+    @Test
+    void meanAndVarianceTest() {
+        RunningStatistics stats = new RunningStatistics();
+        for (double value : new double[] {2, 4, 4, 4, 5, 5, 7, 9}) {
+            stats.add(value);
+        }
+        assertEquals(8, stats.getCount());
+        assertEquals(5, stats.getMean(), EPSILON);
+        assertEquals(32.0 / 7, stats.getSampleVariance(), EPSILON);
+        assertEquals(Math.sqrt(32.0 / 7 / 8), stats.getStandardError(), EPSILON);
+    }
+    
+    @Test
+    void confidenceIntervalTest() {
+        assertEquals(1.959964, RunningStatistics.normalQuantile(0.975), EPSILON);
+        assertEquals(-2.326348, RunningStatistics.normalQuantile(0.01), EPSILON);
+        assertEquals(0, RunningStatistics.normalQuantile(0.5), EPSILON);
+        RunningStatistics stats = new RunningStatistics();
+        stats.add(1);
+        stats.add(3);
+        // two trials give a Student t interval with one degree of freedom, far wider than the normal one
+        assertEquals(12.706205, stats.getConfidenceIntervalHalfWidth(0.95), EPSILON);
+    }
+    
+    @Test
+    void studentTQuantileTest() {
+        assertEquals(12.706205, RunningStatistics.studentTQuantile(0.975, 1), EPSILON);
+        assertEquals(2.776445, RunningStatistics.studentTQuantile(0.975, 4), EPSILON);
+        assertEquals(-2.998, RunningStatistics.studentTQuantile(0.01, 7), 1e-3);
+        assertEquals(2.042272, RunningStatistics.studentTQuantile(0.975, 30), EPSILON);
+        assertEquals(1.983972, RunningStatistics.studentTQuantile(0.975, 100), EPSILON);
+        assertEquals(1.962339, RunningStatistics.studentTQuantile(0.975, 1000), EPSILON);
+        assertEquals(0, RunningStatistics.studentTQuantile(0.5, 10), EPSILON);
+    }
+}
@@ -2,8 +2,12 @@ package challenge.engineering.kitchen.handling;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import challenge.engineering.kitchen.exception.KitchenSimulationException;
 import challenge.engineering.kitchen.model.KitchenOrder;
 import challenge.engineering.kitchen.model.Strategy;
@@ -61,4 +65,46 @@ class StatManagerImplTest {
         assertEquals(0, avgFoodWaitTime.longValue());
     }
 
+    @Test
+    void percentileTest() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        strategy.setName("test strategy");
+        StatManagerImpl statManager = new StatManagerImpl(true);
+        for (int i = 0; i < 10; i++) {
+            OrderStatus status = new OrderStatusImpl();
+            status.handleEvent(KitchenOrder.Event.NEW_ORDER_ARRIVES);
+            status.handleEvent(KitchenOrder.Event.FOOD_IS_READY);
+            status.handleEvent(KitchenOrder.Event.COURIER_ARRIVES);
+            statManager.updateStats(strategy, status);
+        }
+        String column = StatManager.Metrics.COURIER_WAIT_TIME.getValue();
+        assertEquals(0, statManager.getPercentile(strategy.getName(), column, 99));
+        assertEquals(0, statManager.getPercentile("unknown strategy", column, 50));
+    }
+
+    
+    @Test
+    void snapshotAndMergeTest() throws KitchenSimulationException, IOException {
+        Strategy strategy = new Strategy();
+        strategy.setName("test strategy");
+        StatManagerImpl partial = new StatManagerImpl(true);
+        for (int i = 0; i < 3; i++) {
+            OrderStatus status = new OrderStatusImpl();
+            status.handleEvent(KitchenOrder.Event.NEW_ORDER_ARRIVES);
+            status.handleEvent(KitchenOrder.Event.FOOD_IS_READY);
+            status.handleEvent(KitchenOrder.Event.COURIER_ARRIVES);
+            partial.updateStats(strategy, status);
+        }
+        
+        // snapshots travel between processes as json
+        ObjectMapper mapper = new ObjectMapper();
+        StatSnapshot snapshot = mapper.readValue(mapper.writeValueAsString(partial.getSnapshot()), StatSnapshot.class);
+        
+        StatManagerImpl merged = new StatManagerImpl(true);
+        merged.merge(snapshot);
+        merged.merge(snapshot);
+        assertEquals(6, merged.getNumOrdersCompleted(strategy.getName()));
+        assertEquals(0, merged.getMedian(strategy.getName(), StatManager.Metrics.COURIER_WAIT_TIME.getValue()));
+        assertEquals(partial.getAverageFoodWaitTime(strategy.getName()), merged.getAverageFoodWaitTime(strategy.getName()));
+    }
 }
@@ -0,0 +1,94 @@
+package challenge.engineering.kitchen.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.OrderStatus;
+import challenge.engineering.kitchen.handling.OrderStatusImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+class KitchenEventsTest {
+    
+    private static final String TEST_STRATEGY = "test strategy";
+    private static final int TEST_TRIAL_NUMBER = 3;
+    private static final String TEST_ORDER_ID = "42";
+    
+    // helper method
+    private List<RecordedEvent> record(Runnable runnable, String eventName) throws IOException {
+        Path file = Files.createTempFile("kitchen-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName);
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(eventName))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void orderPlacedEventTest() throws IOException {
+        List<RecordedEvent> events = record(() -> OrderPlacedEvent.emit(TEST_STRATEGY, TEST_TRIAL_NUMBER, TEST_ORDER_ID, "Yogurt", 6), 
+                "challenge.engineering.kitchen.OrderPlaced");
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(TEST_STRATEGY, event.getString("strategy"));
+        assertEquals(TEST_TRIAL_NUMBER, event.getInt("trialNumber"));
+        assertEquals(TEST_ORDER_ID, event.getString("orderId"));
+        assertEquals("Yogurt", event.getString("orderName"));
+        assertEquals(6, event.getDuration("prepTime").getSeconds());
+    }
+    
+    @Test
+    void orderCompletedEventFromOrderStatusTest() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            try {
+                OrderStatus status = new OrderStatusImpl(TEST_STRATEGY, TEST_TRIAL_NUMBER, TEST_ORDER_ID);
+                status.handleEvent(KitchenOrder.Event.NEW_ORDER_ARRIVES);
+                status.handleEvent(KitchenOrder.Event.FOOD_IS_READY);
+                status.handleEvent(KitchenOrder.Event.COURIER_ARRIVES);
+            } catch(KitchenSimulationException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "challenge.engineering.kitchen.OrderCompleted");
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals(TEST_ORDER_ID, event.getString("orderId"));
+        assertTrue(event.getDuration("courierWaitTime").toMillis() >= 0);
+        assertTrue(event.getDuration("foodWaitTime").toMillis() >= 0);
+    }
+    
+    @Test
+    void noEventsWhenNotRecordingTest() {
+        // with nothing recording, the event is disabled and emit returns without committing it
+        assertFalse(new TrialStartEvent().isEnabled());
+        assertFalse(new TrialStartEvent().shouldCommit());
+        TrialStartEvent.emit(TEST_STRATEGY, TEST_TRIAL_NUMBER, 1);
+        
+        // the same holds while a recording runs with the event disabled
+        try (Recording recording = new Recording()) {
+            recording.disable("challenge.engineering.kitchen.TrialStart");
+            recording.start();
+            assertFalse(new TrialStartEvent().isEnabled());
+            assertTrue(new OrderPlacedEvent().isEnabled());
+            recording.stop();
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package challenge.engineering.kitchen.matching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+class MatchingPolicyTest {
+    
+    private static final int NO_MATCH = MatchingPolicy.NO_MATCH;
+    
+    @Test
+    void matchedTest() throws KitchenSimulationException {
+        MatchingPolicy policy = MatchingPolicies.create(MatchedPolicy.NAME, 3);
+        policy.orderPlaced(0, 100);
+        policy.orderPlaced(1, 100);
+        assertEquals(NO_MATCH, policy.foodIsReady(0, 100));
+        // the courier of order 1 does not take the food of order 0
+        assertEquals(NO_MATCH, policy.courierArrives(1, 110));
+        assertEquals(0, policy.courierArrives(0, 120));
+        assertEquals(1, policy.foodIsReady(1, 130));
+    }
+    
+    @Test
+    void firstInFirstOutTest() throws KitchenSimulationException {
+        MatchingPolicy policy = MatchingPolicies.create(FirstInFirstOutPolicy.NAME, 4);
+        // an arriving courier picks up the next available order, whatever the order the orders were placed in
+        assertEquals(NO_MATCH, policy.foodIsReady(2, 100));
+        assertEquals(NO_MATCH, policy.foodIsReady(1, 110));
+        assertEquals(2, policy.courierArrives(3, 120));
+        assertEquals(1, policy.courierArrives(0, 130));
+        // the courier which first arrived picks up the next food, whatever the order it was dispatched for
+        assertEquals(NO_MATCH, policy.courierArrives(3, 140));
+        assertEquals(NO_MATCH, policy.courierArrives(1, 150));
+        assertEquals(3, policy.foodIsReady(0, 160));
+        assertEquals(1, policy.foodIsReady(3, 170));
+    }
+    
+    @Test
+    void oldestReadyFoodFirstTest() throws KitchenSimulationException {
+        MatchingPolicy policy = MatchingPolicies.create(OldestReadyFoodFirstPolicy.NAME, 4);
+        assertEquals(NO_MATCH, policy.foodIsReady(2, 100));
+        assertEquals(NO_MATCH, policy.foodIsReady(1, 110));
+        assertEquals(2, policy.courierArrives(3, 120));
+        assertEquals(1, policy.courierArrives(0, 130));
+        // the courier waiting longest picks up the next food
+        assertEquals(NO_MATCH, policy.courierArrives(3, 140));
+        assertEquals(NO_MATCH, policy.courierArrives(1, 150));
+        assertEquals(3, policy.foodIsReady(0, 160));
+        assertEquals(1, policy.foodIsReady(3, 170));
+    }
+    
+    @Test
+    void longestWaitingCourierTest() throws KitchenSimulationException {
+        MatchingPolicy policy = MatchingPolicies.create(LongestWaitingCourierPolicy.NAME, 4);
+        policy.orderPlaced(0, 5000);
+        policy.orderPlaced(1, 2000);
+        policy.orderPlaced(2, 3000);
+        // the first courier reserves the order that is ready soonest, the next one the order after it
+        assertEquals(NO_MATCH, policy.courierArrives(3, 100));
+        assertEquals(NO_MATCH, policy.courierArrives(0, 200));
+        assertEquals(0, policy.foodIsReady(2, 3000));
+        assertEquals(3, policy.foodIsReady(1, 2000));
+        // with nothing left to reserve the courier waits, and reserves the next order placed
+        assertEquals(NO_MATCH, policy.courierArrives(1, 3100));
+        assertEquals(NO_MATCH, policy.courierArrives(2, 3200));
+        policy.orderPlaced(3, 4000);
+        assertEquals(2, policy.foodIsReady(3, 4000));
+        assertEquals(1, policy.foodIsReady(0, 5000));
+    }
+    
+    @Test
+    void orderCancelledTest() throws KitchenSimulationException {
+        // the courier of a cancelled order is turned away under the matched policy
+        MatchingPolicy matched = MatchingPolicies.create(MatchedPolicy.NAME, 2);
+        matched.orderPlaced(0, 100);
+        matched.orderPlaced(1, 100);
+        assertEquals(NO_MATCH, matched.orderCancelled(1));
+        assertEquals(NO_MATCH, matched.courierArrives(1, 110));
+        assertEquals(NO_MATCH, matched.courierArrives(0, 120));
+        assertEquals(0, matched.foodIsReady(0, 130));
+        // a cancelled order is taken out of the middle of the ready food
+        for (String name : new String[] {FirstInFirstOutPolicy.NAME, OldestReadyFoodFirstPolicy.NAME}) {
+            MatchingPolicy policy = MatchingPolicies.create(name, 4);
+            assertEquals(NO_MATCH, policy.foodIsReady(0, 100));
+            assertEquals(NO_MATCH, policy.foodIsReady(1, 110));
+            assertEquals(NO_MATCH, policy.foodIsReady(2, 120));
+            assertEquals(NO_MATCH, policy.orderCancelled(1));
+            assertEquals(0, policy.courierArrives(0, 130));
+            assertEquals(2, policy.courierArrives(1, 140));
+            assertEquals(NO_MATCH, policy.courierArrives(2, 150));
+        }
+        // the courier that reserved a cancelled order is freed to reserve the next one
+        MatchingPolicy longestWaiting = MatchingPolicies.create(LongestWaitingCourierPolicy.NAME, 4);
+        longestWaiting.orderPlaced(0, 2000);
+        longestWaiting.orderPlaced(1, 3000);
+        assertEquals(NO_MATCH, longestWaiting.courierArrives(3, 100));
+        assertEquals(3, longestWaiting.orderCancelled(0));
+        assertEquals(NO_MATCH, longestWaiting.orderCancelled(0));
+        assertEquals(NO_MATCH, longestWaiting.courierArrives(3, 100));
+        assertEquals(3, longestWaiting.foodIsReady(1, 3000));
+    }
+    
+    @Test
+    void manyWaitingCouriersTest() throws KitchenSimulationException {
+        int numOrders = 200000;
+        for (String name : MatchingPolicies.getNames()) {
+            MatchingPolicy policy = MatchingPolicies.create(name, numOrders);
+            long startTime = System.nanoTime();
+            for (int i = 0; i < numOrders; i++) {
+                policy.orderPlaced(i, 1000000 + i);
+            }
+            for (int i = 0; i < numOrders; i++) {
+                assertEquals(NO_MATCH, policy.courierArrives(i, i));
+            }
+            boolean[] pickedUp = new boolean[numOrders];
+            for (int i = numOrders - 1; i >= 0; i--) {
+                int courier = policy.foodIsReady(i, 1000000 + i);
+                assertTrue(courier >= 0 && !pickedUp[courier], name);
+                pickedUp[courier] = true;
+            }
+            assertTrue(System.nanoTime() - startTime < 5_000_000_000L, name);
+        }
+    }
+    
+    @Test
+    void indexedMinHeapTest() {
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        for (int i = 0; i < 10; i++) {
+            heap.add(i, (i * 7) % 10);
+        }
+        assertTrue(heap.remove(3));
+        assertFalse(heap.remove(3));
+        assertFalse(heap.contains(3));
+        long previous = -1;
+        while (!heap.isEmpty()) {
+            int position = heap.poll();
+            long key = (position * 7) % 10;
+            assertTrue(key > previous);
+            previous = key;
+        }
+        assertEquals(NO_MATCH, heap.poll());
+    }
+    
+    @Test
+    void unknownPolicyTest() {
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            MatchingPolicies.create("random", 1);
+          });
+    }
+    
+    @Test
+    void resetTest() throws KitchenSimulationException {
+        for (String name : new String[] {MatchedPolicy.NAME, FirstInFirstOutPolicy.NAME, OldestReadyFoodFirstPolicy.NAME, LongestWaitingCourierPolicy.NAME}) {
+            MatchingPolicy policy = MatchingPolicies.create(name, 2);
+            policy.orderPlaced(0, 100);
+            policy.orderPlaced(1, 100);
+            assertEquals(NO_MATCH, policy.foodIsReady(0, 100));
+            assertEquals(NO_MATCH, policy.foodIsReady(1, 110));
+            
+            // the food left waiting by the last trial is forgotten
+            assertTrue(policy.reset());
+            policy.orderPlaced(0, 200);
+            policy.orderPlaced(1, 200);
+            assertEquals(NO_MATCH, policy.courierArrives(0, 200), name);
+            assertEquals(0, policy.foodIsReady(0, 210), name);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package challenge.engineering.kitchen.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+class OrderCatalogTest {
+    
+    private static KitchenOrder order(String id, String name, int prepTime) {
+        KitchenOrder ko = new KitchenOrder();
+        ko.setId(id);
+        ko.setName(name);
+        ko.setPrepTime(prepTime);
+        return ko;
+    }
+    
+    @Test
+    void loadInternsNamesTest() throws KitchenSimulationException {
+        OrderCatalog catalog = OrderCatalog.load("src/main/resources/orders_list.json");
+        assertEquals(132, catalog.size());
+        assertEquals("1", catalog.getId(0));
+        assertEquals("Banana Split", catalog.getName(0));
+        assertEquals(4, catalog.getPrepTime(0));
+        
+        // each distinct name is stored once and shared by every order with that name
+        for (int i = 0; i < catalog.size(); i++) {
+            for (int j = i + 1; j < catalog.size(); j++) {
+                if (catalog.getName(i).equals(catalog.getName(j))) {
+                    assertSame(catalog.getName(i), catalog.getName(j));
+                    assertEquals(catalog.getNameId(i), catalog.getNameId(j));
+                }
+            }
+        }
+        assertEquals(catalog.asList().stream().map(KitchenOrder::getName).distinct().count(), catalog.getNumDistinctNames());
+    }
+    
+    @Test
+    void idEncodingTest() {
+        String uuid = UUID.randomUUID().toString();
+        List<KitchenOrder> uuids = List.of(order(uuid, "a", 1), order(UUID.randomUUID().toString(), "b", 2));
+        assertEquals(uuid, OrderCatalog.of(uuids).getId(0));
+        
+        // a mix of encodings falls back to the ids as given, including the ones packed before the switch
+        List<KitchenOrder> mixed = List.of(order("7", "a", 1), order("007", "a", 2), order(uuid, "b", 3), order(null, "c", 4));
+        OrderCatalog catalog = OrderCatalog.of(mixed);
+        for (int i = 0; i < mixed.size(); i++) {
+            assertEquals(mixed.get(i).getId(), catalog.getId(i));
+            assertEquals(mixed.get(i).getPrepTime(), catalog.getPrepTime(i));
+        }
+        
+        List<KitchenOrder> many = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            many.add(order(Integer.toString(i), "name" + (i % 3), i));
+        }
+        catalog = OrderCatalog.of(many);
+        assertEquals(1000, catalog.size());
+        assertEquals(3, catalog.getNumDistinctNames());
+        assertEquals("999", catalog.getId(999));
+    }
+    
+    @Test
+    void flyweightTest() throws KitchenSimulationException {
+        OrderCatalog catalog = OrderCatalog.load("src/main/resources/orders_list.json");
+        KitchenOrder first = catalog.get(3);
+        KitchenOrder second = catalog.asList().get(3);
+        assertEquals(3, first.getIndex());
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        // the flyweight and its id are created once and reused
+        assertSame(first, second);
+        assertSame(first.getId(), catalog.get(3).getId());
+        assertNotEquals(first, catalog.get(4));
+        assertThrows(UnsupportedOperationException.class, () -> first.setPrepTime(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> catalog.get(catalog.size()));
+        
+        // orders built through setters keep identity semantics
+        KitchenOrder built = order(first.getId(), first.getName(), first.getPrepTime());
+        assertEquals(-1, built.getIndex());
+        assertNotEquals(first, built);
+        assertNotEquals(built, order(first.getId(), first.getName(), first.getPrepTime()));
+    }
+    
+    @Test
+    void selectionTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = KitchenOrder.load("src/main/resources/orders_list.json");
+        OrderSelection selection = new OrderSelection(orders, new int[] {5, 0, 9});
+        assertEquals(3, selection.size());
+        assertEquals(orders.get(5), selection.get(0));
+        assertEquals(9, selection.getPosition(2));
+        assertThrows(UnsupportedOperationException.class, () -> selection.add(orders.get(1)));
+    }
+    
+    @Test
+    void wrongFormatTest() {
+        assertThrows(KitchenSimulationException.class, () -> OrderCatalog.load("src/main/resources/kitchen_simulation_config.json"));
+    }
+}
@@ -0,0 +1,38 @@
+package challenge.engineering.kitchen.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+
+class OrderStreamTest {
+    
+    @Test
+    void sameSeedSameOrdersTest() throws KitchenSimulationException {
+        List<KitchenOrder> menu = KitchenOrder.load("src/test/resources/test_fast_orders.json");
+        OrderStream first = new OrderStream(menu, 7);
+        OrderStream second = new OrderStream(menu, 7);
+        for (int i = 0; i < 100; i++) {
+            KitchenOrder ko = first.next();
+            KitchenOrder other = second.next();
+            assertEquals(ko.getId(), other.getId());
+            assertEquals(ko.getName(), other.getName());
+            assertEquals(ko.getPrepTime(), other.getPrepTime());
+            
+            // generated orders are distinct even when drawn from the same menu order
+            assertNotEquals(ko, other);
+        }
+        assertEquals(100, first.getCount());
+    }
+    
+    @Test
+    void emptyMenuTest() {
+        assertThrows(KitchenSimulationException.class, () -> new OrderStream(new ArrayList<>(), 7));
+    }
+}
@@ -57,4 +57,74 @@ class StrategyTest {
             strategy.setOrdersPerPeriod(0);
           });
     }
+    
+    @Test
+    void matchingPolicyTest() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        strategy.setName(TEST_NAME);
+        assertFalse(strategy.valid());
+        strategy.setCourierMatchedToOrder(true);
+        assertEquals("matched", strategy.getMatchingPolicy());
+        strategy.setMatchingPolicy("longestWaitingCourier");
+        assertEquals("longestWaitingCourier", strategy.getMatchingPolicy());
+        assertFalse(strategy.isCourierMatchedToOrder());
+        assertTrue(new Strategy(strategy).valid());
+    }
+    
+    @Test
+    void setMatchingPolicyUnknown() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setMatchingPolicy("unknown");
+          });
+    }
+    
+    @Test
+    void setCourierFleetSizeOutOfRange() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        assertFalse(strategy.hasCourierFleet());
+        strategy.setCourierFleetSize(50000);
+        assertTrue(new Strategy(strategy).hasCourierFleet());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setCourierFleetSize(-1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setCourierDeliveryTimeInMilliseconds(-1);
+          });
+    }
+    
+    @Test
+    void setCookStationsOutOfRange() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        assertFalse(strategy.hasCookStations());
+        strategy.setCookStations(5000);
+        assertTrue(new Strategy(strategy).hasCookStations());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setCookStations(-1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setCookStations(Strategy.MAX_COOK_STATIONS + 1);
+          });
+    }
+    
+    @Test
+    void setCancellationAndNoShowRatesOutOfRange() throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        assertFalse(strategy.hasCancellationsOrNoShows());
+        strategy.setOrderCancellationRate(0.2);
+        strategy.setCourierNoShowRate(0.1);
+        Strategy copy = new Strategy(strategy);
+        assertTrue(copy.hasCancellationsOrNoShows());
+        assertEquals(0.2, copy.getOrderCancellationRate());
+        assertEquals(0.1, copy.getCourierNoShowRate());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setOrderCancellationRate(-0.1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setOrderCancellationRate(1.1);
+          });
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            strategy.setCourierNoShowRate(1.0);
+          });
+    }
 }
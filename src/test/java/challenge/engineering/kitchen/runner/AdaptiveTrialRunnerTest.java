@@ -0,0 +1,66 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class AdaptiveTrialRunnerTest {
+    
+    private static final String TEST_ADAPTIVE_CONFIG = "src/test/resources/test_adaptive_trials_config.json";
+    
+    // helper method
+    private Map<String, AdaptiveTrialRunner.StrategyConvergence> run(KitchenSimulationConfig config, StatManager statManager) throws KitchenSimulationException {
+        TrialPlanner planner = TrialPlanner.fromConfig(config, KitchenOrder.load(config.getOrderJsonFile()), config.getOrdersPerTrial());
+        AdaptiveTrialRunner runner = new AdaptiveTrialRunner(config, planner, statManager);
+        Map<String, AdaptiveTrialRunner.StrategyConvergence> results = runner.run();
+        runner.reportConvergence(results);
+        return results;
+    }
+
+    @Test
+    void convergesAtMinTrialsTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_ADAPTIVE_CONFIG);
+        StatManager statManager = new StatManagerImpl(false);
+        Map<String, AdaptiveTrialRunner.StrategyConvergence> results = run(config, statManager);
+        assertEquals(2, results.size());
+        for (AdaptiveTrialRunner.StrategyConvergence convergence : results.values()) {
+            assertTrue(convergence.isConverged());
+            assertEquals(2, convergence.getTrialsRun());
+            assertEquals(2 * config.getOrdersPerTrial(), statManager.getNumOrdersCompleted(convergence.getStrategy().getName()));
+        }
+    }
+    
+    @Test
+    void stopsAtTrialBudgetTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_ADAPTIVE_CONFIG);
+        config.getAdaptiveTrials().setToleranceInMilliseconds(0.000001);
+        config.getAdaptiveTrials().setMaxTrials(3);
+        for (AdaptiveTrialRunner.StrategyConvergence convergence : run(config, new StatManagerImpl(false)).values()) {
+            assertEquals(3, convergence.getTrialsRun());
+            // identical wait times in every trial would still converge
+            if (convergence.getCourierWaitTime().getSampleVariance() > 0 || convergence.getFoodWaitTime().getSampleVariance() > 0) {
+                assertFalse(convergence.isConverged());
+            }
+        }
+    }
+    
+    @Test
+    void minTrialsAboveMaxTrialsTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_ADAPTIVE_CONFIG);
+        config.getAdaptiveTrials().setMinTrials(5);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            run(config, new StatManagerImpl(false));
+          });
+    }
+}
@@ -0,0 +1,86 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.CapacitySearchConfig;
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class CapacitySearchRunnerTest {
+    
+    private static final String TEST_CAPACITY_CONFIG = "src/test/resources/test_capacity_search_config.json";
+    private static final String STRATEGY_NAME = "first-in-first-out";
+    
+    // helper method
+    private CapacitySearchRunner.StrategyCapacity run(KitchenSimulationConfig config) throws KitchenSimulationException {
+        TrialPlanner planner = TrialPlanner.fromConfig(config, KitchenOrder.load(config.getOrderJsonFile()), config.getOrdersPerTrial());
+        CapacitySearchRunner runner = new CapacitySearchRunner(config, planner, new StatManagerImpl(true));
+        Map<String, CapacitySearchRunner.StrategyCapacity> results = runner.run();
+        runner.reportCapacity(results);
+        return results.get(STRATEGY_NAME);
+    }
+
+    @Test
+    void bisectSustainsHighestRateTest() throws KitchenSimulationException, IOException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_CAPACITY_CONFIG);
+        CapacitySearchRunner.StrategyCapacity capacity = run(config);
+        // both ends of the range are within the service level, so nothing is left to bisect
+        assertEquals(2, capacity.getSteps().size());
+        assertEquals(3, capacity.getMaxSustained().getOrdersPerPeriod());
+        assertEquals(30.0, capacity.getMaxSustained().getOrdersPerSecond());
+        assertEquals(config.getOrdersPerTrial(), capacity.getMaxSustained().getOrdersCompleted());
+        assertNull(capacity.getSaturation());
+        List<String> lines = Files.readAllLines(Paths.get(config.getCapacitySearch().getResultsFile()));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).contains("p99CourierWaitTime"));
+    }
+    
+    @Test
+    void rampStepsUpTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_CAPACITY_CONFIG);
+        config.getCapacitySearch().setSearch(CapacitySearchConfig.RAMP);
+        CapacitySearchRunner.StrategyCapacity capacity = run(config);
+        assertEquals(3, capacity.getSteps().size());
+        assertEquals(3, capacity.getMaxSustained().getOrdersPerPeriod());
+    }
+    
+    @Test
+    void divergedStepStopsEarlyTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_CAPACITY_CONFIG);
+        // the food takes a second to prepare, so couriers always wait longer than the service level
+        config.getCapacitySearch().setCourierWaitSlaInMilliseconds(100);
+        config.getStrategies().get(0).setOrderPeriodInMilliseconds(1000);
+        long startTime = System.currentTimeMillis();
+        CapacitySearchRunner.StrategyCapacity capacity = run(config);
+        // the first order breaks the service level, so the step is cancelled before the last order is even placed
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertEquals(1, capacity.getSteps().size());
+        assertNull(capacity.getMaxSustained());
+        assertTrue(capacity.getSaturation().isDiverged());
+        assertFalse(capacity.getSaturation().isSustained());
+        assertTrue(capacity.getSaturation().getOrdersCompleted() < config.getOrdersPerTrial());
+    }
+    
+    @Test
+    void minGreaterThanMaxTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_CAPACITY_CONFIG);
+        config.getCapacitySearch().setMinOrdersPerPeriod(4);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            run(config);
+          });
+    }
+}
@@ -0,0 +1,121 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class DistributedTrialCoordinatorTest {
+    
+    private static final String TEST_DISTRIBUTED_CONFIG = "src/test/resources/test_distributed_config.json";
+    
+    private enum Fault { NONE, CRASH, HANG }
+    
+    // helper method: a worker thread which either runs shards, or crashes or hangs after receiving its first shard
+    private DistributedTrialCoordinator.WorkerHandle startThread(DistributedTrialWorker worker, int workerNumber, int port, Fault fault) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (fault == Fault.NONE) {
+                    worker.serve(port, workerNumber);
+                    return;
+                }
+                try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                     BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                     PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                    out.println(workerNumber);
+                    in.readLine();
+                    if (fault == Fault.HANG) {
+                        // alive and connected, but never sends the shard back until it is stopped
+                        Thread.sleep(Long.MAX_VALUE);
+                    }
+                }
+            } catch(IOException | KitchenSimulationException e) {
+                // a crashed worker
+            } catch(InterruptedException e) {
+                // a hung worker stopped by the coordinator
+            }
+        });
+        thread.start();
+        return new DistributedTrialCoordinator.WorkerHandle() {
+            @Override
+            public boolean isAlive() {
+                return thread.isAlive();
+            }
+            
+            @Override
+            public void stop() {
+                thread.interrupt();
+            }
+        };
+    }
+    
+    // helper method
+    private DistributedTrialWorker getWorker(KitchenSimulationConfig config) throws KitchenSimulationException {
+        List<KitchenOrder> orders = KitchenOrder.load(config.getOrderJsonFile());
+        TrialPlanner planner = TrialPlanner.fromConfig(config, orders, config.getOrdersPerTrial());
+        return new DistributedTrialWorker(config, planner, true);
+    }
+
+    @Test
+    void createShardsTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_DISTRIBUTED_CONFIG);
+        config.setNumTrials(3);
+        config.getDistributed().setTrialsPerShard(2);
+        List<Shard> shards = new DistributedTrialCoordinator(config, config.getStrategies(), true, (n, port) -> null).createShards();
+        assertEquals(4, shards.size());
+        assertEquals(Arrays.asList(1, 2), shards.get(0).getTrialNumbers());
+        assertEquals(Arrays.asList(3), shards.get(3).getTrialNumbers());
+        assertEquals("first-in-first-out", shards.get(3).getStrategy().getName());
+    }
+    
+    @Test
+    void reassignLostShardTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_DISTRIBUTED_CONFIG);
+        config.getDistributed().setWorkers(1);
+        DistributedTrialWorker worker = getWorker(config);
+        
+        // the first worker crashes with its shard and is replaced
+        StatManager statManager = new DistributedTrialCoordinator(config, config.getStrategies(), true, 
+                (n, port) -> startThread(worker, n, port, (n == 1) ? Fault.CRASH : Fault.NONE)).run();
+        assertEquals(4, statManager.getNumOrdersCompleted("matched"));
+        assertEquals(4, statManager.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void stopHungWorkerTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_DISTRIBUTED_CONFIG);
+        config.getDistributed().setWorkers(1);
+        config.getDistributed().setShardTimeoutInMilliseconds(5000);
+        DistributedTrialWorker worker = getWorker(config);
+        
+        // the first worker stays alive without sending back its shard, so it is stopped and replaced once its shard times out
+        StatManager statManager = new DistributedTrialCoordinator(config, config.getStrategies(), true, 
+                (n, port) -> startThread(worker, n, port, (n == 1) ? Fault.HANG : Fault.NONE)).run();
+        assertEquals(4, statManager.getNumOrdersCompleted("matched"));
+        assertEquals(4, statManager.getNumOrdersCompleted("first-in-first-out"));
+    }
+    
+    @Test
+    void workersKeepCrashingTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_DISTRIBUTED_CONFIG);
+        DistributedTrialWorker worker = getWorker(config);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            new DistributedTrialCoordinator(config, config.getStrategies(), true, (n, port) -> startThread(worker, n, port, Fault.CRASH)).run();
+          });
+    }
+}
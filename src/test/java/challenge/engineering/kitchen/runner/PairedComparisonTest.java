@@ -0,0 +1,38 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.RunningStatistics;
+import challenge.engineering.kitchen.handling.TrialResult;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class PairedComparisonTest {
+    
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void pairedDifferenceTest() throws KitchenSimulationException {
+        TrialPlanner planner = new TrialPlanner(KitchenOrder.load("src/test/resources/test_dispatch_orders.json"), 3, true, true, 1);
+        PairedComparison comparison = new PairedComparison(Arrays.asList("a", "b"), planner);
+        // antithetic pair 1 is trials 1 and 2, pair 2 is trials 3 and 4
+        comparison.add(new TrialResult("a", 1, 2, 400, 0));
+        comparison.add(new TrialResult("b", 1, 2, 200, 0));
+        comparison.add(new TrialResult("a", 2, 2, 800, 0));
+        comparison.add(new TrialResult("b", 2, 2, 600, 0));
+        comparison.add(new TrialResult("a", 3, 2, 600, 20));
+        comparison.add(new TrialResult("b", 3, 2, 200, 0));
+        // trial 4 of strategy b never completed, so pair 2 only compares trial 3
+        comparison.add(new TrialResult("a", 4, 2, 2000, 20));
+        RunningStatistics courier = comparison.getDifference("a", "b", true);
+        assertEquals(2, courier.getCount());
+        assertEquals((100 + 200) / 2.0, courier.getMean(), EPSILON);
+        RunningStatistics food = comparison.getDifference("a", "b", false);
+        assertEquals(5, food.getMean(), EPSILON);
+        comparison.report();
+    }
+}
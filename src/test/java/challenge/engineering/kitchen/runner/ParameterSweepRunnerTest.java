@@ -0,0 +1,79 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.config.SweepConfig;
+import challenge.engineering.kitchen.config.SweepRange;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.Strategy;
+
+class ParameterSweepRunnerTest {
+    
+    private static final String TEST_SWEEP_CONFIG = "src/test/resources/test_sweep_config.json";
+    
+    // helper method
+    private ParameterSweepRunner getRunner(KitchenSimulationConfig config) throws KitchenSimulationException {
+        List<KitchenOrder> orders = KitchenOrder.load(config.getOrderJsonFile());
+        return new ParameterSweepRunner(config, TrialPlanner.fromConfig(config, orders, config.getOrdersPerTrial()));
+    }
+
+    @Test
+    void expandStrategiesTest() throws KitchenSimulationException {
+        List<Strategy> variants = getRunner(KitchenSimulationConfig.load(TEST_SWEEP_CONFIG)).expandStrategies();
+        assertEquals(4, variants.size());
+        assertEquals(100, variants.get(0).getCourierMaxDelayInMilliseconds());
+        assertEquals(1, variants.get(0).getOrdersPerPeriod());
+        assertEquals(200, variants.get(3).getCourierMaxDelayInMilliseconds());
+        assertEquals(2, variants.get(3).getOrdersPerPeriod());
+        assertTrue(variants.get(0).getName().startsWith("matched{"));
+    }
+    
+    @Test
+    void expandStrategiesSkipsInvalidDelaysTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_SWEEP_CONFIG);
+        SweepRange minDelays = new SweepRange();
+        minDelays.setValues(Arrays.asList(10, 150));
+        config.getSweep().setCourierMinDelayInMilliseconds(minDelays);
+        // 150 is only valid with a max delay of 200
+        assertEquals(6, getRunner(config).expandStrategies().size());
+    }
+    
+    @Test
+    void sweepRangeWithoutValuesTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_SWEEP_CONFIG);
+        SweepConfig sweep = new SweepConfig();
+        sweep.setOrdersPerPeriod(new SweepRange());
+        config.setSweep(sweep);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            getRunner(config).expandStrategies();
+          });
+    }
+    
+    @Test
+    void runWritesResultsTableTest() throws KitchenSimulationException, IOException {
+        KitchenSimulationConfig config = KitchenSimulationConfig.load(TEST_SWEEP_CONFIG);
+        StatManager results = getRunner(config).run();
+        List<String> lines = Files.readAllLines(Paths.get(config.getSweep().getResultsFile()));
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).contains("p99CourierWaitTime"));
+        assertTrue(lines.get(0).startsWith("strategy,courierMatchedToOrder,matchingPolicy,"));
+        // the variants of the matched strategy name the policy they ran with
+        assertEquals("matched", lines.get(1).split(",")[2]);
+        for (Strategy variant : getRunner(config).expandStrategies()) {
+            assertEquals(config.getOrdersPerTrial(), results.getNumOrdersCompleted(variant.getName()));
+        }
+    }
+}
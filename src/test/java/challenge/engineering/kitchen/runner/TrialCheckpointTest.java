@@ -0,0 +1,97 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.CheckpointConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.handling.StatSnapshot;
+
+class TrialCheckpointTest {
+    
+    private static final String TEST_CONFIG = "src/test/resources/test_checkpoint_config.json";
+    private static final String OTHER_TEST_CONFIG = "src/test/resources/test_sweep_config.json";
+    private static final Path TEST_CHECKPOINT_FILE = Paths.get("target/test_trial_checkpoint.json");
+    
+    // helper method
+    private CheckpointConfig getConfig() throws KitchenSimulationException {
+        CheckpointConfig config = new CheckpointConfig();
+        config.setFile(TEST_CHECKPOINT_FILE.toString());
+        return config;
+    }
+    
+    // helper method
+    private StatSnapshot getStats(String strategyName, long orders) {
+        StatSnapshot stats = new StatSnapshot();
+        // the totals are kept in microseconds
+        long millis = TimeUnit.MILLISECONDS.toMicros(1);
+        stats.getTotals().put(strategyName, new long[] {orders, 100 * millis * orders, 10 * millis * orders});
+        return stats;
+    }
+    
+    @BeforeEach
+    void removeCheckpoint() throws IOException {
+        Files.deleteIfExists(TEST_CHECKPOINT_FILE);
+    }
+
+    @Test
+    void saveAndResumeTest() throws KitchenSimulationException {
+        TrialCheckpoint checkpoint = TrialCheckpoint.open(getConfig(), TEST_CONFIG, false);
+        assertNull(checkpoint.getRandomSeed());
+        checkpoint.setRandomSeed(42);
+        checkpoint.recordCompleted("matched", Arrays.asList(1, 2), getStats("matched", 4));
+        checkpoint.recordCompleted("first-in-first-out", Arrays.asList(1), getStats("first-in-first-out", 2));
+        checkpoint.close();
+        assertTrue(Files.exists(TEST_CHECKPOINT_FILE));
+        assertFalse(Files.exists(Paths.get(TEST_CHECKPOINT_FILE + ".tmp")));
+        
+        TrialCheckpoint resumed = TrialCheckpoint.open(getConfig(), TEST_CONFIG, false);
+        assertEquals(Long.valueOf(42), resumed.getRandomSeed());
+        assertEquals(3, resumed.getNumCompleted());
+        assertTrue(resumed.isCompleted("matched", 2));
+        assertFalse(resumed.isCompleted("first-in-first-out", 2));
+        StatManager statManager = new StatManagerImpl(false);
+        resumed.restoreInto(statManager);
+        assertEquals(4, statManager.getNumOrdersCompleted("matched"));
+        assertEquals(100, statManager.getAverageCourierWaitTime("matched"));
+    }
+    
+    @Test
+    void differentConfigurationTest() throws KitchenSimulationException {
+        TrialCheckpoint checkpoint = TrialCheckpoint.open(getConfig(), TEST_CONFIG, false);
+        checkpoint.recordCompleted("matched", Arrays.asList(1), getStats("matched", 2));
+        checkpoint.close();
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            TrialCheckpoint.open(getConfig(), OTHER_TEST_CONFIG, false);
+          });
+    }
+    
+    @Test
+    void backgroundSaveTest() throws KitchenSimulationException, InterruptedException {
+        CheckpointConfig config = getConfig();
+        config.setIntervalInSeconds(1);
+        TrialCheckpoint checkpoint = TrialCheckpoint.open(config, TEST_CONFIG, false);
+        checkpoint.start();
+        checkpoint.recordCompleted("matched", Arrays.asList(1), getStats("matched", 2));
+        for (int i = 0; i < 50 && !Files.exists(TEST_CHECKPOINT_FILE); i++) {
+            Thread.sleep(100);
+        }
+        assertTrue(Files.exists(TEST_CHECKPOINT_FILE));
+        checkpoint.close();
+    }
+}
@@ -0,0 +1,96 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.KitchenSimulationConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.model.KitchenOrder;
+
+class TrialPlannerTest {
+    
+    private static final long TEST_SEED = 42;
+    private static final int TEST_ORDERS_PER_TRIAL = 50;
+    
+    // helper method
+    private List<KitchenOrder> getOrders() throws KitchenSimulationException {
+        return KitchenOrder.load("src/main/resources/orders_list.json");
+    }
+
+    @Test
+    void independentPlanTest() throws KitchenSimulationException {
+        TrialPlan plan = new TrialPlanner(getOrders(), TEST_ORDERS_PER_TRIAL).plan(1);
+        assertEquals(TEST_ORDERS_PER_TRIAL, plan.getOrders().size());
+        assertNull(plan.getCourierDelayDraws());
+        assertNull(plan.getCancellationDraws());
+        assertNull(plan.getNoShowDraws());
+    }
+    
+    @Test
+    void commonRandomNumbersAreRepeatableTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = getOrders();
+        TrialPlan first = new TrialPlanner(orders, TEST_ORDERS_PER_TRIAL, true, false, TEST_SEED).plan(3);
+        TrialPlan second = new TrialPlanner(orders, TEST_ORDERS_PER_TRIAL, true, false, TEST_SEED).plan(3);
+        TrialPlan other = new TrialPlanner(orders, TEST_ORDERS_PER_TRIAL, true, false, TEST_SEED).plan(4);
+        assertEquals(first.getOrders(), second.getOrders());
+        assertTrue(Arrays.equals(first.getCourierDelayDraws(), second.getCourierDelayDraws()));
+        assertFalse(Arrays.equals(first.getCourierDelayDraws(), other.getCourierDelayDraws()));
+        assertTrue(Arrays.equals(first.getCancellationDraws(), second.getCancellationDraws()));
+        assertTrue(Arrays.equals(first.getNoShowDraws(), second.getNoShowDraws()));
+        assertFalse(Arrays.equals(first.getCancellationDraws(), other.getCancellationDraws()));
+        assertEquals(TEST_ORDERS_PER_TRIAL, new HashSet<>(first.getOrders()).size());
+    }
+    
+    @Test
+    void antitheticPairTest() throws KitchenSimulationException {
+        TrialPlanner planner = new TrialPlanner(getOrders(), TEST_ORDERS_PER_TRIAL, true, true, TEST_SEED);
+        TrialPlan odd = planner.plan(5);
+        TrialPlan even = planner.plan(6);
+        for (int i = 0; i < TEST_ORDERS_PER_TRIAL; i++) {
+            assertEquals(1.0, odd.getCourierDelayDraws()[i] + even.getCourierDelayDraws()[i], 1e-12);
+            assertEquals(1.0, odd.getCancellationDraws()[i] + even.getCancellationDraws()[i], 1e-12);
+            assertEquals(1.0, odd.getNoShowDraws()[i] + even.getNoShowDraws()[i], 1e-12);
+        }
+        assertEquals(3, planner.getComparisonUnit(5));
+        assertEquals(3, planner.getComparisonUnit(6));
+    }
+    
+    @Test
+    void antitheticRequiresCommonRandomNumbersTest() throws KitchenSimulationException {
+        KitchenSimulationConfig config = new KitchenSimulationConfig();
+        config.setAntitheticTrials(true);
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            TrialPlanner.fromConfig(config, getOrders(), TEST_ORDERS_PER_TRIAL);
+          });
+    }
+    
+    @Test
+    void lazyShuffleMatchesFullShuffleTest() {
+        int n = 1000;
+        int[] draws = new SplittableRandom(TEST_SEED).ints(n).toArray();
+        // a sample of a few positions takes the lazy path, and the same draws over all positions the full shuffle
+        int[] sample = TrialOrderSelector.sample(n, TEST_ORDERS_PER_TRIAL, i -> Math.floorMod(draws[i], n - i));
+        int[] shuffle = TrialOrderSelector.sample(n, n, i -> Math.floorMod(draws[i], n - i));
+        assertTrue(Arrays.equals(sample, Arrays.copyOf(shuffle, TEST_ORDERS_PER_TRIAL)));
+        assertEquals(n, Arrays.stream(shuffle).distinct().count());
+    }
+    
+    @Test
+    void sampleFromLargeCatalogTest() {
+        int n = 10_000_000;
+        int[] positions = TrialOrderSelector.sample(n, 100, i -> ThreadLocalRandom.current().nextInt(n - i));
+        assertEquals(100, Arrays.stream(positions).distinct().count());
+        assertTrue(Arrays.stream(positions).allMatch(position -> position >= 0 && position < n));
+    }
+}
@@ -0,0 +1,95 @@
+package challenge.engineering.kitchen.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class TrialSchedulerTest {
+    
+    @Test
+    void boundedConcurrencyTest() {
+        TrialScheduler scheduler = new TrialScheduler(2);
+        List<CompletableFuture<Integer>> trials = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            int trialNumber = i;
+            CompletableFuture<Integer> trial = new CompletableFuture<>();
+            trials.add(trial);
+            scheduler.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                return trial.thenApply(result -> {
+                    running.decrementAndGet();
+                    return trialNumber;
+                });
+            });
+        }
+        
+        // only the first two trials are started until one of them completes
+        assertEquals(2, running.get());
+        CompletableFuture<Void> all = scheduler.allOf();
+        for (CompletableFuture<Integer> trial : trials) {
+            assertTrue(!all.isDone());
+            trial.complete(0);
+        }
+        all.join();
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, running.get());
+    }
+    
+    @Test
+    void unboundedTest() {
+        TrialScheduler scheduler = new TrialScheduler(TrialScheduler.UNBOUNDED);
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<Void> trial = new CompletableFuture<>();
+        for (int i = 0; i < 10; i++) {
+            scheduler.submit(() -> {
+                started.incrementAndGet();
+                return trial;
+            });
+        }
+        assertEquals(10, started.get());
+        trial.complete(null);
+        scheduler.allOf().join();
+    }
+    
+    @Test
+    void failedTrialTest() {
+        TrialScheduler scheduler = new TrialScheduler(1);
+        CompletableFuture<Object> failed = scheduler.submit(() -> {
+            throw new IllegalStateException("trial failed");
+        });
+        
+        // a trial that fails to start still frees its slot for the next trial
+        CompletableFuture<String> next = scheduler.submit(() -> CompletableFuture.completedFuture("done"));
+        assertEquals("done", next.join());
+        CompletionException e = assertThrows(CompletionException.class, () -> failed.join());
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertThrows(CompletionException.class, () -> scheduler.allOf().join());
+    }
+    
+    @Test
+    void completedTrialsDoNotNestTest() {
+        TrialScheduler scheduler = new TrialScheduler(1);
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        scheduler.submit(() -> first);
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 100_000; i++) {
+            scheduler.submit(() -> CompletableFuture.completedFuture(started.incrementAndGet()));
+        }
+        
+        // every queued trial is already complete when it starts, and they are started one after another on one stack
+        assertEquals(0, started.get());
+        first.complete(0);
+        scheduler.allOf().join();
+        assertEquals(100_000, started.get());
+    }
+}
@@ -0,0 +1,89 @@
+package challenge.engineering.kitchen.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.Strategy;
+
+class CitySimulationTest {
+    
+    // helper method
+    private List<KitchenOrder> getOrders(int kitchen, int numOrders) {
+        List<KitchenOrder> orders = new ArrayList<>();
+        for (int i = 0; i < numOrders; i++) {
+            KitchenOrder ko = new KitchenOrder();
+            ko.setId(kitchen + "-" + i);
+            ko.setName("order");
+            ko.setPrepTime(i % 2);
+            orders.add(ko);
+        }
+        return orders;
+    }
+    
+    @Test
+    void cityCompletesEveryKitchenTest() throws KitchenSimulationException {
+        int numKitchens = 40;
+        int ordersPerKitchen = 50;
+        Strategy strategy = new Strategy();
+        strategy.setName("first-in-first-out");
+        strategy.setCourierMatchedToOrder(false);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setOrdersPerPeriod(10);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(100);
+        StatManager statManager = new StatManagerImpl(false);
+        List<KitchenSimulationImpl> kitchens = new ArrayList<>();
+        for (int k = 0; k < numKitchens; k++) {
+            kitchens.add(new KitchenSimulationImpl(statManager, getOrders(k, ordersPerKitchen), strategy, k + 1));
+        }
+        CitySimulation city = new CitySimulation(kitchens, 4);
+        city.run();
+        city.waitUntilComplete();
+        assertEquals(numKitchens * ordersPerKitchen, city.getNumOrders());
+        assertEquals(numKitchens * ordersPerKitchen, statManager.getNumOrdersCompleted(strategy.getName()));
+        for (KitchenSimulationImpl kitchen : kitchens) {
+            assertEquals(ordersPerKitchen, kitchen.getTrialResult().getOrdersCompleted());
+        }
+        assertTrue(city.getDurationInMillis() >= 1000);
+    }
+    
+    @Test
+    void cityWithoutKitchensTest() {
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            new CitySimulation(new ArrayList<>(), 4);
+          });
+    }
+    
+    @Test
+    void timerQueueTest() {
+        Random random = new Random(17);
+        TimerQueue timers = new TimerQueue();
+        long[] dueTimes = new long[1000];
+        for (int i = 0; i < dueTimes.length; i++) {
+            dueTimes[i] = random.nextInt(100);
+            timers.add(dueTimes[i], i);
+        }
+        Arrays.sort(dueTimes);
+        long lastMessage = -1;
+        for (int i = 0; i < dueTimes.length; i++) {
+            assertEquals(dueTimes[i], timers.peekDueTime());
+            boolean sameDueTime = i > 0 && dueTimes[i] == dueTimes[i - 1];
+            long message = timers.poll();
+            assertTrue(!sameDueTime || message > lastMessage);
+            lastMessage = message;
+        }
+        assertTrue(timers.isEmpty());
+    }
+}
@@ -0,0 +1,622 @@
+package challenge.engineering.kitchen.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntUnaryOperator;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.config.EventLoopConfig;
+import challenge.engineering.kitchen.config.PrecisionTimerConfig;
+import challenge.engineering.kitchen.config.SteadyStateConfig;
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.exception.KitchenSimulationRuntimeException;
+import challenge.engineering.kitchen.handling.OrderOutcome;
+import challenge.engineering.kitchen.handling.TrialResult;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.OrderStream;
+import challenge.engineering.kitchen.model.Strategy;
+
+class KitchenSimulationImplTest {
+    
+    private static final String KITCHEN_LOGGERS = "challenge.engineering.kitchen";
+    
+    // helper method: a subscriber that requests one order at a time
+    private Flow.Subscriber<OrderOutcome> getSubscriber(List<OrderOutcome> received, CountDownLatch completed) {
+        return new Flow.Subscriber<OrderOutcome>() {
+            private Flow.Subscription subscription;
+            
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+            
+            @Override
+            public void onNext(OrderOutcome outcome) {
+                received.add(outcome);
+                subscription.request(1);
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+            }
+            
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        };
+    }
+
+    @Test
+    void orderOutcomesTest() throws KitchenSimulationException, InterruptedException {
+        List<KitchenOrder> orders = KitchenOrder.load("src/test/resources/test_fast_orders.json");
+        Strategy strategy = new Strategy();
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(100);
+        KitchenSimulation kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), orders, strategy, 7);
+        
+        List<OrderOutcome> received = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        kitchen.getOrderOutcomes().subscribe(getSubscriber(received, completed));
+        kitchen.runSimulation();
+        kitchen.waitUntilComplete();
+        
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(orders.size(), received.size());
+        for (OrderOutcome outcome : received) {
+            assertEquals("matched", outcome.getStrategyName());
+            assertEquals(7, outcome.getTrialNumber());
+            assertTrue(outcome.getCourierWaitTime() >= 0);
+            assertTrue(outcome.getPickupTimeInMillis() >= outcome.getFoodReadyTimeInMillis());
+        }
+        
+        // subscribing after the trial completes only signals completion
+        CountDownLatch lateCompleted = new CountDownLatch(1);
+        kitchen.getOrderOutcomes().subscribe(getSubscriber(new CopyOnWriteArrayList<>(), lateCompleted));
+        assertTrue(lateCompleted.await(5, TimeUnit.SECONDS));
+    }
+    
+    @Test
+    void slowSubscriberDoesNotStallKitchenTest() throws Exception {
+        int numOrders = 1000;
+        Strategy strategy = getFastStrategy("matched", true);
+        strategy.setOrdersPerPeriod(200);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), getFastOrders(numOrders), strategy, 1);
+        
+        // the subscriber is stuck in its first onNext until the trial is over
+        CountDownLatch release = new CountDownLatch(1);
+        kitchen.getOrderOutcomes().subscribe(new Flow.Subscriber<OrderOutcome>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+            
+            @Override
+            public void onNext(OrderOutcome outcome) {
+                try {
+                    release.await();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            
+            @Override
+            public void onError(Throwable throwable) {
+            }
+            
+            @Override
+            public void onComplete() {
+            }
+        });
+        try {
+            // the trial completes although the subscriber stopped taking orders a buffer ago
+            TrialResult result = kitchen.runSimulation().get(10, TimeUnit.SECONDS);
+            assertEquals(numOrders, result.getOrdersCompleted());
+            assertTrue(kitchen.getOrderOutcomesDropped() > 0);
+        } finally {
+            release.countDown();
+        }
+    }
+    
+    @Test
+    void allocationFreeTest() throws KitchenSimulationException {
+        int numOrders = 20000;
+        List<KitchenOrder> orders = getOrders(numOrders, i -> 1);
+        Strategy strategy = new Strategy();
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        StatManagerImpl statManager = new StatManagerImpl(false);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, orders, strategy, 1);
+        kitchen.setAllocationFree(true);
+        kitchen.startTrial();
+        
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int warmUpOrders = numOrders / 2;
+        long allocatedBefore = 0;
+        for (int i = 0; i < numOrders - 1; i++) {
+            if (i == warmUpOrders) {
+                allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            }
+            kitchen.handleEvent(KitchenOrder.Event.NEW_ORDER_ARRIVES, i);
+            kitchen.handleEvent(KitchenOrder.Event.COURIER_ARRIVES, i);
+            kitchen.handleEvent(KitchenOrder.Event.FOOD_IS_READY, i);
+        }
+        long bytesPerOrder = (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / (numOrders - 1 - warmUpOrders);
+        assertTrue(bytesPerOrder < 8, "allocated " + bytesPerOrder + " bytes per order after warm-up");
+        
+        kitchen.handleEvent(KitchenOrder.Event.NEW_ORDER_ARRIVES, numOrders - 1);
+        kitchen.handleEvent(KitchenOrder.Event.FOOD_IS_READY, numOrders - 1);
+        kitchen.handleEvent(KitchenOrder.Event.COURIER_ARRIVES, numOrders - 1);
+        kitchen.waitUntilComplete();
+        assertEquals(numOrders, kitchen.getTrialResult().getOrdersCompleted());
+        assertEquals(numOrders, statManager.getNumOrdersCompleted("matched"));
+    }
+    
+    @Test
+    void placeOrdersTest() throws KitchenSimulationException {
+        int numOrders = 5000;
+        List<KitchenOrder> orders = getOrders(numOrders, i -> i % 2);
+        Strategy strategy = new Strategy();
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(100);
+        StatManagerImpl statManager = new StatManagerImpl(false);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, orders, strategy, 1);
+        kitchen.startTrial();
+        
+        // the whole tick is placed at once, with one timer per batch for the couriers and one for the food
+        kitchen.placeOrders(orders);
+        kitchen.waitUntilComplete();
+        assertEquals(numOrders, kitchen.getTrialResult().getOrdersCompleted());
+        assertEquals(numOrders, statManager.getNumOrdersCompleted("matched"));
+    }
+    
+    @Test
+    void eventLoopTest() throws KitchenSimulationException, InterruptedException {
+        int numOrders = 2000;
+        List<KitchenOrder> orders = getFastOrders(numOrders);
+        Strategy strategy = new Strategy();
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        StatManagerImpl statManager = new StatManagerImpl(false);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, orders, strategy, 1);
+        
+        // a small ring so that the producers regularly wait on the consumer
+        EventLoopConfig eventLoop = new EventLoopConfig();
+        eventLoop.setBufferSize(8);
+        kitchen.setEventLoop(eventLoop);
+        kitchen.startTrial();
+        
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            int first = p * numOrders / 4;
+            int last = (p + 1) * numOrders / 4;
+            Thread producer = new Thread(() -> {
+                try {
+                    for (int i = first; i < last; i++) {
+                        kitchen.receiveOrder(orders.get(i));
+                        kitchen.foodIsReady(orders.get(i));
+                        kitchen.courierArrives(orders.get(i));
+                    }
+                } catch(KitchenSimulationException e) {
+                    throw new KitchenSimulationRuntimeException(e.getMessage(), e);
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        kitchen.waitUntilComplete();
+        assertEquals(numOrders, kitchen.getTrialResult().getOrdersCompleted());
+        assertEquals(numOrders, statManager.getNumOrdersCompleted("matched"));
+    }
+    
+    @Test
+    void courierFleetTest() {
+        CourierFleet fleet = new CourierFleet(2, 4, 100);
+        assertEquals(0, fleet.dispatch(0, 0));
+        assertEquals(0, fleet.dispatch(1, 0));
+        
+        // every courier is out, so the next orders wait
+        assertEquals(CourierFleet.WAITING, fleet.dispatch(2, 0));
+        assertEquals(CourierFleet.WAITING, fleet.dispatch(3, 0));
+        assertEquals(2, fleet.getMaxOrdersWaiting());
+        
+        // a returning courier goes on to the longest waiting order
+        assertEquals(2, fleet.courierReturns(1, 50));
+        assertEquals(3, fleet.courierReturns(0, 60));
+        
+        // with no order waiting, the courier is back in the fleet once it has delivered
+        assertEquals(CourierFleet.NO_ORDER, fleet.courierReturns(3, 500));
+        assertEquals(CourierFleet.NO_ORDER, fleet.courierReturns(2, 300));
+        assertEquals(400, new CourierFleet(1, 1, 0).dispatch(0, 400));
+        assertEquals(2, fleet.getOrdersWaited());
+    }
+    
+    @Test
+    void finiteCourierFleetTest() throws KitchenSimulationException {
+        int numOrders = 60;
+        List<KitchenOrder> orders = getFastOrders(numOrders);
+        Strategy strategy = new Strategy();
+        strategy.setName("fifo");
+        strategy.setCourierMatchedToOrder(false);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(20);
+        strategy.setCourierFleetSize(3);
+        strategy.setCourierDeliveryTimeInMilliseconds(5);
+        StatManagerImpl statManager = new StatManagerImpl(false);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, orders, strategy, 1);
+        kitchen.startTrial();
+        
+        // three couriers deliver all of the orders, one after another
+        kitchen.placeOrders(orders);
+        kitchen.waitUntilComplete();
+        assertEquals(numOrders, kitchen.getTrialResult().getOrdersCompleted());
+        assertEquals(numOrders - 3, kitchen.getCourierFleet().getOrdersWaited());
+        assertTrue(statManager.getAverageFoodWaitTime("fifo") > 0);
+    }
+    
+    @Test
+    void cookStationsTest() {
+        CookStations stations = new CookStations(2, 6);
+        assertEquals(0, stations.orderPlaced(0, 0, 100));
+        assertEquals(1, stations.orderPlaced(1, 0, 200));
+        assertEquals(100, stations.getExpectedReadyTime(0));
+        
+        // every station is cooking, so the next orders wait on the queues of their home stations in turn, and are 
+        // expected to be ready once the orders ahead of them have been cooked
+        assertEquals(CookStations.NO_ORDER, stations.orderPlaced(2, 10, 100));
+        assertEquals(CookStations.NO_ORDER, stations.orderPlaced(3, 10, 100));
+        assertEquals(CookStations.NO_ORDER, stations.orderPlaced(4, 10, 100));
+        assertEquals(200, stations.getExpectedReadyTime(2));
+        assertEquals(300, stations.getExpectedReadyTime(3));
+        assertEquals(300, stations.getExpectedReadyTime(4));
+        assertEquals(3, stations.getMaxOrdersQueued());
+        assertTrue(stations.remove(4));
+        assertFalse(stations.remove(4));
+        
+        // a station cooks the next order of its own queue, and then steals from the back of a busy station
+        assertEquals(3, stations.orderReady(1, 200));
+        assertEquals(2, stations.orderReady(3, 300));
+        assertEquals(400, stations.getExpectedReadyTime(2));
+        assertEquals(CookStations.NO_ORDER, stations.orderReady(0, 300));
+        
+        // an order whose home station is busy goes to the idle station
+        assertEquals(5, stations.orderPlaced(5, 310, 100));
+        assertEquals(410, stations.getExpectedReadyTime(5));
+        assertEquals(CookStations.NO_ORDER, stations.orderReady(2, 400));
+        assertEquals(CookStations.NO_ORDER, stations.orderReady(5, 410));
+        assertEquals(3, stations.getOrdersQueued());
+        assertEquals(2, stations.getOrdersStolen());
+        
+        stations.reset();
+        assertEquals(0, stations.orderPlaced(0, 0, 100));
+        assertEquals(0, stations.getOrdersQueued());
+    }
+    
+    @Test
+    void finiteCookStationsTest() throws KitchenSimulationException {
+        int numOrders = 30;
+        List<KitchenOrder> orders = getFastOrders(numOrders);
+        Strategy strategy = getFastStrategy("fifo", false);
+        strategy.setCookStations(2);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), orders, strategy, 1);
+        kitchen.startTrial();
+        
+        // two stations cook all of the orders, one after another
+        kitchen.placeOrders(orders);
+        kitchen.waitUntilComplete();
+        assertEquals(numOrders, kitchen.getTrialResult().getOrdersCompleted());
+        assertEquals(numOrders - 2, kitchen.getCookStations().getOrdersQueued());
+    }
+    
+    @Test
+    void cookStationsWithCourierReservationsTest() throws Exception {
+        int numOrders = 30;
+        List<KitchenOrder> orders = getOrders(numOrders, i -> (i % 3 == 0) ? 0 : 1);
+        Strategy strategy = getFastStrategy("longestWaitingCourier", false);
+        strategy.setMatchingPolicy("longestWaitingCourier");
+        strategy.setOrdersPerPeriod(10);
+        strategy.setCookStations(5);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), orders, strategy, 1);
+        
+        // the couriers reserve the queued orders by their ready time after the wait for a station, and every order is
+        // cooked by a station that frees up on the follow-up timer of the kitchen
+        TrialResult result = kitchen.runSimulation().get(30, TimeUnit.SECONDS);
+        assertEquals(numOrders, result.getOrdersCompleted());
+        assertTrue(kitchen.getCookStations().getOrdersQueued() > 0);
+    }
+    
+    // helper method: a steady state kitchen placing two fast orders every 100 ms for a second
+    private KitchenSimulationImpl getSteadyStateKitchen(String matchingPolicy, int maxOrdersInFlight) throws KitchenSimulationException {
+        List<KitchenOrder> menu = getFastOrders(3);
+        Strategy strategy = new Strategy();
+        strategy.setName(matchingPolicy);
+        strategy.setMatchingPolicy(matchingPolicy);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setOrdersPerPeriod(2);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(20);
+        SteadyStateConfig steadyState = new SteadyStateConfig();
+        steadyState.setDurationInMilliseconds(1000);
+        steadyState.setMaxOrdersInFlight(maxOrdersInFlight);
+        return new KitchenSimulationImpl(new StatManagerImpl(false), new OrderStream(menu, 42), strategy, steadyState);
+    }
+    
+    @Test
+    void steadyStateTest() throws KitchenSimulationException {
+        KitchenSimulationImpl kitchen = getSteadyStateKitchen("fifo", 4);
+        kitchen.runSimulation();
+        kitchen.waitUntilComplete();
+        
+        // many more orders than positions went through the kitchen, and none are left behind
+        assertTrue(kitchen.getTrialResult().getOrdersCompleted() >= 10);
+        assertEquals(0, kitchen.getOrdersRejected());
+        assertEquals(0, kitchen.getOrdersInFlight());
+    }
+    
+    @Test
+    void steadyStateRejectsOrdersBeyondMaxInFlightTest() throws KitchenSimulationException {
+        KitchenSimulationImpl kitchen = getSteadyStateKitchen("matched", 1);
+        kitchen.runSimulation();
+        kitchen.waitUntilComplete();
+        
+        // only one of the two orders of each tick finds a free position
+        long completed = kitchen.getTrialResult().getOrdersCompleted();
+        assertTrue(completed >= 5);
+        assertEquals(completed, kitchen.getOrdersRejected());
+    }
+    
+    // helper method: orders with ids 0 to numOrders - 1 and the prep time given for each index
+    private List<KitchenOrder> getOrders(int numOrders, IntUnaryOperator prepTimes) {
+        List<KitchenOrder> orders = new ArrayList<>();
+        for (int i = 0; i < numOrders; i++) {
+            KitchenOrder ko = new KitchenOrder();
+            ko.setId(Integer.toString(i));
+            ko.setName("order");
+            ko.setPrepTime(prepTimes.applyAsInt(i));
+            orders.add(ko);
+        }
+        return orders;
+    }
+    
+    // helper method: orders whose food is ready as soon as they are placed
+    private List<KitchenOrder> getFastOrders(int numOrders) {
+        return getOrders(numOrders, i -> 0);
+    }
+    
+    private Strategy getFastStrategy(String name, boolean courierMatchedToOrder) throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        strategy.setName(name);
+        strategy.setCourierMatchedToOrder(courierMatchedToOrder);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setOrdersPerPeriod(5);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(20);
+        return strategy;
+    }
+    
+    private KitchenSimulationImpl getFastKitchen(int numOrders, int trialNumber) throws KitchenSimulationException {
+        return new KitchenSimulationImpl(new StatManagerImpl(false), getFastOrders(numOrders), getFastStrategy("fifo", false), trialNumber);
+    }
+    
+    @Test
+    void resetTest() throws KitchenSimulationException {
+        KitchenSimulationImpl kitchen = getFastKitchen(10, 1);
+        assertFalse(kitchen.isReusable());
+        Assertions.assertThrows(KitchenSimulationException.class, () -> {
+            kitchen.reset(new StatManagerImpl(false), getFastOrders(10), getFastStrategy("matched", true), 2, null);
+          });
+        CompletableFuture<TrialResult> first = kitchen.runSimulation();
+        assertEquals(10, first.join().getOrdersCompleted());
+        assertTrue(kitchen.isReusable());
+        
+        // the same kitchen runs a trial of another strategy with a new future, and then one with fewer orders
+        kitchen.reset(new StatManagerImpl(false), getFastOrders(10), getFastStrategy("matched", true), 2, null);
+        TrialResult second = kitchen.runSimulation().join();
+        assertNotSame(first, kitchen.getCompletion());
+        assertEquals(10, second.getOrdersCompleted());
+        assertEquals(2, second.getTrialNumber());
+        assertEquals("matched", second.getStrategyName());
+        kitchen.reset(new StatManagerImpl(false), getFastOrders(5), getFastStrategy("fifo", false), 3, new double[] {0, 0.2, 0.4, 0.6, 0.8});
+        assertEquals(5, kitchen.runSimulation().join().getOrdersCompleted());
+    }
+    
+    @Test
+    void kitchenSimulationPoolTest() throws KitchenSimulationException {
+        KitchenSimulationPool pool = new KitchenSimulationPool(1);
+        Strategy strategy = getFastStrategy("fifo", false);
+        KitchenSimulationImpl kitchen = pool.acquire(new StatManagerImpl(false), getFastOrders(10), strategy, 1, null);
+        kitchen.runSimulation().join();
+        pool.release(kitchen);
+        assertSame(kitchen, pool.acquire(new StatManagerImpl(false), getFastOrders(10), strategy, 2, null));
+        
+        // a cancelled kitchen is not pooled
+        kitchen.runSimulation();
+        kitchen.cancel();
+        kitchen.getCompletion().join();
+        pool.release(kitchen);
+        assertNotSame(kitchen, pool.acquire(new StatManagerImpl(false), getFastOrders(10), strategy, 3, null));
+        assertEquals(2, pool.getKitchensCreated());
+        assertEquals(1, pool.getKitchensReused());
+    }
+    
+    @Test
+    void orderCancellationsAndCourierNoShowsTest() throws KitchenSimulationException {
+        for (String policy : new String[] {"matched", "fifo", "longestWaitingCourier"}) {
+            Strategy strategy = getFastStrategy(policy, false);
+            strategy.setMatchingPolicy(policy);
+            strategy.setOrderCancellationRate(0.5);
+            strategy.setCourierNoShowRate(0.5);
+            KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), getFastOrders(20), strategy, 1);
+            TrialResult result = kitchen.runSimulation().join();
+            
+            // the trial completes once every order has been picked up or cancelled, and a churning kitchen is not pooled
+            assertEquals(20, result.getOrdersCompleted() + kitchen.getOrdersCancelled());
+            assertTrue(kitchen.getOrdersCancelled() > 0);
+            assertTrue(kitchen.getCourierNoShows() > 0);
+            assertFalse(kitchen.isReusable());
+        }
+    }
+    
+    @Test
+    void everyOrderCancelledTest() throws KitchenSimulationException {
+        Strategy strategy = getFastStrategy("matched", true);
+        strategy.setOrderCancellationRate(1.0);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), getFastOrders(20), strategy, 1);
+        TrialResult result = kitchen.runSimulation().join();
+        
+        // each order is cancelled before its own courier arrives, and no other courier can pick it up
+        assertEquals(20, kitchen.getOrdersCancelled());
+        assertEquals(0, result.getOrdersCompleted());
+    }
+    
+    @Test
+    void churnDrawsArePairedTest() throws KitchenSimulationException {
+        double[] courierDelayDraws = new double[20];
+        double[] cancellationDraws = new double[20];
+        double[] noShowDraws = new double[20];
+        for (int i = 0; i < 20; i++) {
+            courierDelayDraws[i] = 0.5;
+            cancellationDraws[i] = (i % 4 == 0) ? 0.1 : 0.9;
+            noShowDraws[i] = (i % 4 == 1) ? 0.3 : 0.9;
+        }
+        for (String policy : new String[] {"matched", "fifo"}) {
+            Strategy strategy = getFastStrategy(policy, false);
+            strategy.setMatchingPolicy(policy);
+            strategy.setOrderCancellationRate(0.5);
+            strategy.setCourierNoShowRate(0.5);
+            // the cancellations are due well before the couriers, at 30 against 150 milliseconds
+            strategy.setCourierMaxDelayInMilliseconds(200);
+            strategy.setCourierMinDelayInMilliseconds(100);
+            KitchenSimulationImpl kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), getFastOrders(20), strategy, 1, courierDelayDraws);
+            kitchen.setChurnDraws(cancellationDraws, noShowDraws);
+            kitchen.runSimulation().join();
+            
+            // every policy cancels the same 5 orders, and the first courier of 5 others does not show up while its 
+            // replacement does, since 0.3 / 0.5 is above the rate
+            assertEquals(5, kitchen.getOrdersCancelled());
+            if (policy.equals("matched")) {
+                assertEquals(5, kitchen.getCourierNoShows());
+            } else {
+                // another courier may pick up an order before its own courier was due
+                assertTrue(kitchen.getCourierNoShows() <= 5);
+            }
+        }
+    }
+    
+    @Test
+    void runSimulationCompletesFutureTest() throws KitchenSimulationException {
+        KitchenSimulationImpl kitchen = getFastKitchen(10, 3);
+        CompletableFuture<TrialResult> completion = kitchen.runSimulation();
+        
+        // the future completes with the trial result, and waiting on the kitchen joins the same future
+        TrialResult result = completion.join();
+        assertSame(completion, kitchen.getCompletion());
+        assertEquals(10, result.getOrdersCompleted());
+        assertEquals(3, result.getTrialNumber());
+        assertEquals("fifo", result.getStrategyName());
+        kitchen.waitUntilComplete();
+    }
+    
+    @Test
+    void cancelCompletesFutureTest() throws KitchenSimulationException {
+        KitchenSimulationImpl kitchen = getFastKitchen(1000, 1);
+        CompletableFuture<TrialResult> completion = kitchen.runSimulation();
+        kitchen.cancel();
+        kitchen.cancel();
+        
+        // the future completes once with the orders completed before the cancellation
+        TrialResult result = completion.join();
+        assertTrue(kitchen.isCancelled());
+        assertTrue(result.getOrdersCompleted() < 1000);
+    }
+    
+    @Test
+    void timeScaleTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = getOrders(5, i -> 3);
+        Strategy strategy = new Strategy();
+        strategy.setName("matched");
+        strategy.setCourierMatchedToOrder(true);
+        strategy.setOrdersPerPeriod(5);
+        strategy.setCourierMinDelayInMilliseconds(1000);
+        strategy.setCourierMaxDelayInMilliseconds(1100);
+        StatManagerImpl statManager = new StatManagerImpl(false);
+        KitchenSimulationImpl kitchen = new KitchenSimulationImpl(statManager, orders, strategy, 1);
+        kitchen.setTimeScale(100);
+        long startTime = System.currentTimeMillis();
+        kitchen.runSimulation().join();
+        
+        // three seconds of prep time pass in a few tens of milliseconds, but each courier still waits about two simulated seconds
+        assertTrue(System.currentTimeMillis() - startTime < 2000);
+        assertEquals(5, kitchen.getTrialResult().getOrdersCompleted());
+        double courierWaitTime = statManager.getAverageCourierWaitTime("matched");
+        assertTrue(courierWaitTime > 1000 && courierWaitTime < 3000, "average courier wait time: " + courierWaitTime);
+        assertTrue(Math.abs(statManager.getAverageFoodWaitTime("matched")) < 10);
+        assertEquals(11, kitchen.getClock().getTimersFired());
+    }
+    
+    @Test
+    void precisionTimerTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = getFastOrders(10);
+        Strategy strategy = new Strategy();
+        strategy.setName("fifo");
+        strategy.setCourierMatchedToOrder(false);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setOrdersPerPeriod(5);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(20);
+        // the per order logs are written on the timer thread and would delay the timers queued behind them, and the first 
+        // trials load and compile the code of the timer tasks
+        Level level = LogManager.getLogger(KITCHEN_LOGGERS).getLevel();
+        Configurator.setLevel(KITCHEN_LOGGERS, Level.WARN);
+        KitchenSimulationImpl kitchen;
+        try {
+            for (int i = 1; i <= 2; i++) {
+                KitchenSimulationImpl warmUp = new KitchenSimulationImpl(new StatManagerImpl(false), orders, strategy, i);
+                warmUp.setPrecisionTimer(new PrecisionTimerConfig());
+                warmUp.runSimulation().join();
+            }
+            kitchen = new KitchenSimulationImpl(new StatManagerImpl(false), orders, strategy, 3);
+            kitchen.setPrecisionTimer(new PrecisionTimerConfig());
+            kitchen.runSimulation().join();
+        } finally {
+            Configurator.setLevel(KITCHEN_LOGGERS, level);
+        }
+        
+        // 2 ticks, 10 courier arrivals and 10 food ready timers, all fired by the precision timer thread
+        assertEquals(10, kitchen.getTrialResult().getOrdersCompleted());
+        SimulationClock clock = kitchen.getClock();
+        assertTrue(clock.isPrecise());
+        assertEquals(22, clock.getTimersFired());
+        assertTrue(clock.getAverageTimerErrorInMillis() < 1, "average timer error: " + clock.getAverageTimerErrorInMillis() + " ms");
+        // the time stamps keep their fraction of a millisecond
+        TrialResult result = kitchen.getTrialResult();
+        assertTrue((result.getTotalCourierWaitTime() + result.getTotalFoodWaitTime()) % 1 != 0, "wait times: " + result);
+    }
+}
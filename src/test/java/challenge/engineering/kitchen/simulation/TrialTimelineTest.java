@@ -0,0 +1,88 @@
+package challenge.engineering.kitchen.simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import challenge.engineering.kitchen.exception.KitchenSimulationException;
+import challenge.engineering.kitchen.handling.StatManager;
+import challenge.engineering.kitchen.handling.StatManagerImpl;
+import challenge.engineering.kitchen.model.KitchenOrder;
+import challenge.engineering.kitchen.model.Strategy;
+
+class TrialTimelineTest {
+    
+    // helper method
+    private Strategy getStrategy(String name, boolean courierMatchedToOrder) throws KitchenSimulationException {
+        Strategy strategy = new Strategy();
+        strategy.setName(name);
+        strategy.setCourierMatchedToOrder(courierMatchedToOrder);
+        strategy.setOrderPeriodInMilliseconds(100);
+        strategy.setOrdersPerPeriod(2);
+        strategy.setCourierMinDelayInMilliseconds(10);
+        strategy.setCourierMaxDelayInMilliseconds(100);
+        return strategy;
+    }
+
+    @Test
+    void buildTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = KitchenOrder.load("src/test/resources/test_fast_orders.json");
+        TrialTimeline timeline = TrialTimeline.build(orders, getStrategy("matched", true), new double[] { 0.0, 0.5, 1.0 });
+        assertEquals(orders.size() * 3, timeline.size());
+        
+        long previous = 0;
+        for (int i = 0; i < timeline.size(); i++) {
+            assertTrue(timeline.getOffsetInMillis(i) >= previous);
+            previous = timeline.getOffsetInMillis(i);
+            KitchenOrder ko = timeline.getOrder(i);
+            long placedAt = (orders.indexOf(ko) / 2) * 100L;
+            switch(timeline.getEvent(i)) {
+                case NEW_ORDER_ARRIVES:
+                    assertEquals(placedAt, timeline.getOffsetInMillis(i));
+                    break;
+                case COURIER_ARRIVES:
+                    assertEquals(placedAt + timeline.getCourierDelayInMillis(i), timeline.getOffsetInMillis(i));
+                    assertEquals(new int[] { 10, 55, 99 }[orders.indexOf(ko)], timeline.getCourierDelayInMillis(i));
+                    break;
+                case FOOD_IS_READY:
+                    assertEquals(placedAt + ko.getPrepTime() * 1000L, timeline.getOffsetInMillis(i));
+                    break;
+                default:
+                    throw new AssertionError("Unexpected event: " + timeline.getEvent(i));
+            }
+        }
+        assertEquals(KitchenOrder.Event.NEW_ORDER_ARRIVES, timeline.getEvent(0));
+    }
+    
+    @Test
+    void keyTest() throws KitchenSimulationException {
+        Strategy matched = getStrategy("matched", true);
+        Strategy fifo = getStrategy("first-in-first-out", false);
+        assertEquals(TrialTimeline.getKey(matched), TrialTimeline.getKey(fifo));
+        fifo.setCourierMaxDelayInMilliseconds(200);
+        assertNotEquals(TrialTimeline.getKey(matched), TrialTimeline.getKey(fifo));
+    }
+    
+    @Test
+    void sharedTimelineTest() throws KitchenSimulationException {
+        List<KitchenOrder> orders = KitchenOrder.load("src/test/resources/test_fast_orders.json");
+        StatManager statManager = new StatManagerImpl(false);
+        Strategy matched = getStrategy("matched", true);
+        Strategy fifo = getStrategy("first-in-first-out", false);
+        TrialTimeline timeline = TrialTimeline.build(orders, matched, null);
+        KitchenSimulationImpl first = new KitchenSimulationImpl(statManager, orders, matched, 1);
+        KitchenSimulationImpl second = new KitchenSimulationImpl(statManager, orders, fifo, 1);
+        new SharedTimelineSimulation(timeline, Arrays.asList(first, second)).run();
+        first.waitUntilComplete();
+        second.waitUntilComplete();
+        assertEquals(orders.size(), first.getTrialResult().getOrdersCompleted());
+        assertEquals(orders.size(), second.getTrialResult().getOrdersCompleted());
+        assertEquals(orders.size(), statManager.getNumOrdersCompleted("matched"));
+        assertEquals(orders.size(), statManager.getNumOrdersCompleted("first-in-first-out"));
+    }
+}